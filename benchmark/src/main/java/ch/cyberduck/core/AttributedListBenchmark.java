@@ -0,0 +1,100 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.ui.comparator.FilenameComparator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookup, filtering and sorting of directory listings and the path cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AttributedListBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private Path directory;
+    private AttributedList<Path> list;
+    private Path last;
+    private PathCache cache;
+
+    @Setup
+    public void setup() {
+        directory = new Path("/directory", EnumSet.of(Path.Type.directory));
+        list = new AttributedList<Path>();
+        for(int i = 0; i < size; i++) {
+            final Path file = new Path(directory, String.format("f-%d", size - i), EnumSet.of(Path.Type.file));
+            file.attributes().setSize(i);
+            file.attributes().setModificationDate(i);
+            list.add(file);
+        }
+        last = new Path(directory, "f-1", EnumSet.of(Path.Type.file));
+        cache = new PathCache(1000);
+        cache.put(directory, list);
+    }
+
+    @Benchmark
+    public Path find() {
+        return list.find(new DefaultPathPredicate(last));
+    }
+
+    @Benchmark
+    public Path get() {
+        return list.get(last);
+    }
+
+    @Benchmark
+    public AttributedList<Path> sort() {
+        return list.filter(new FilenameComparator(true), new NullFilter<Path>());
+    }
+
+    @Benchmark
+    public DefaultPathPredicate predicate() {
+        return new DefaultPathPredicate(last);
+    }
+
+    @Benchmark
+    public Path lookup() {
+        return cache.get(directory).find(new DefaultPathPredicate(last));
+    }
+
+    @Benchmark
+    public AttributedList<Path> put() {
+        final PathCache cache = new PathCache(1000);
+        cache.put(directory, list);
+        return cache.get(directory);
+    }
+}
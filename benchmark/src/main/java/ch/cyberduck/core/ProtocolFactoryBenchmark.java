@@ -0,0 +1,127 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.serializer.impl.dd.ProfilePlistReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registration of bundled profiles on startup with and without profile index
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProtocolFactoryBenchmark {
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private Local bundle;
+    private Local file;
+    private final Set<Protocol> parents = new LinkedHashSet<Protocol>();
+
+    @Setup
+    public void setup() throws IOException {
+        bundle = new Local(System.getProperty("profiles.folder", "../profiles"));
+        for(String identifier : new String[]{"s3", "swift", "dav", "davs", "dracoon", "onedrive", "irods", "spectra",
+            "manta", "hubic", "azure"}) {
+            parents.add(new ParentProtocol(identifier));
+        }
+        ProtocolFactory.get().register(parents.toArray(new Protocol[parents.size()]));
+        file = new Local(Files.createTempDirectory(UUID.randomUUID().toString()).toString(), "Profiles.index");
+        // Index written on first launch
+        this.load();
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        if(file.exists()) {
+            file.delete();
+        }
+        file.getParent().delete();
+    }
+
+    @Benchmark
+    public Protocol load() {
+        final ProtocolFactory protocols = new ProtocolFactory(bundle, new LinkedHashSet<Protocol>(parents));
+        protocols.loadDefaultProfiles(indexed ? new ProfileIndex(file, protocols, new ProfilePlistReader(protocols), "1") : null);
+        return protocols.forName("s3", "Wasabi");
+    }
+
+    private static final class ParentProtocol extends AbstractProtocol {
+        private final String identifier;
+
+        public ParentProtocol(final String identifier) {
+            this.identifier = identifier;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return identifier;
+        }
+
+        @Override
+        public String getDescription() {
+            return identifier;
+        }
+
+        @Override
+        public Scheme getScheme() {
+            return Scheme.https;
+        }
+
+        @Override
+        public Type getType() {
+            switch(identifier) {
+                case "spectra":
+                    return Type.s3;
+                case "hubic":
+                    return Type.swift;
+                case "davs":
+                    return Type.dav;
+                default:
+                    return Type.valueOf(identifier);
+            }
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    }
+}
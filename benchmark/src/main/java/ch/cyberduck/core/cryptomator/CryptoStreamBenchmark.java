@@ -0,0 +1,99 @@
+package ch.cyberduck.core.cryptomator;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.cryptomator.random.FastSecureRandomProvider;
+import ch.cyberduck.core.cryptomator.random.RandomNonceGenerator;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.cryptomator.cryptolib.api.Cryptor;
+import org.cryptomator.cryptolib.api.FileHeader;
+import org.cryptomator.cryptolib.v1.Version1CryptorModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption and decryption of file content in vaults
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CryptoStreamBenchmark {
+
+    @Param({"1048576", "16777216"})
+    public int size;
+
+    private Cryptor cryptor;
+    private FileHeader header;
+    private byte[] cleartext;
+    private byte[] ciphertext;
+
+    @Setup
+    public void setup() throws Exception {
+        cryptor = new Version1CryptorModule().provideCryptorProvider(FastSecureRandomProvider.get().provide()).createNew();
+        header = cryptor.fileHeaderCryptor().create();
+        cleartext = RandomUtils.nextBytes(size);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        final TransferStatus status = new TransferStatus().length(size);
+        new StreamCopier(status, status).transfer(new ByteArrayInputStream(cleartext), this.encrypt(out));
+        ciphertext = out.toByteArray();
+    }
+
+    private CryptoOutputStream<Void> encrypt(final OutputStream proxy) {
+        return new CryptoOutputStream<Void>(new StatusOutputStream<Void>(proxy) {
+            @Override
+            public Void getStatus() {
+                return null;
+            }
+        }, cryptor, header, new RandomNonceGenerator(), 0);
+    }
+
+    @Benchmark
+    public TransferStatus encrypt() throws Exception {
+        final TransferStatus status = new TransferStatus().length(size);
+        new StreamCopier(status, status).transfer(new ByteArrayInputStream(cleartext), this.encrypt(new NullOutputStream()));
+        return status;
+    }
+
+    @Benchmark
+    public TransferStatus decrypt() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).transfer(new CryptoInputStream(new ByteArrayInputStream(ciphertext), cryptor, header, 0),
+            new NullOutputStream());
+        return status;
+    }
+}
@@ -0,0 +1,96 @@
+package ch.cyberduck.core.date;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse one million timestamps per invocation split across 8 threads sharing the same parser instances
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Threads(DateParserBenchmark.THREADS)
+@OperationsPerInvocation(DateParserBenchmark.COUNT)
+@Fork(1)
+public class DateParserBenchmark {
+
+    static final int THREADS = 8;
+    /**
+     * Timestamps parsed by each thread
+     */
+    static final int COUNT = 1000000 / THREADS;
+
+    private final RFC1123DateFormatter rfc1123 = new RFC1123DateFormatter();
+    private final MDTMSecondsDateFormatter mdtm = new MDTMSecondsDateFormatter();
+    private final ISO8601DateParser iso8601 = new ISO8601DateParser();
+
+    private String[] rfc1123Input;
+    private String[] mdtmInput;
+    private String[] iso8601Input;
+
+    @Setup
+    public void setup() {
+        rfc1123Input = new String[COUNT];
+        mdtmInput = new String[COUNT];
+        iso8601Input = new String[COUNT];
+        final TimeZone utc = TimeZone.getTimeZone("UTC");
+        for(int i = 0; i < COUNT; i++) {
+            final long timestamp = 1552730400000L + i * 1000L;
+            rfc1123Input[i] = rfc1123.format(timestamp, TimeZone.getTimeZone("GMT"));
+            mdtmInput[i] = mdtm.format(timestamp, utc);
+            iso8601Input[i] = java.time.Instant.ofEpochMilli(timestamp).toString();
+        }
+    }
+
+    @Benchmark
+    public void rfc1123(final Blackhole blackhole) throws Exception {
+        for(String input : rfc1123Input) {
+            blackhole.consume(rfc1123.parse(input));
+        }
+    }
+
+    @Benchmark
+    public void mdtm(final Blackhole blackhole) throws Exception {
+        for(String input : mdtmInput) {
+            blackhole.consume(mdtm.parse(input));
+        }
+    }
+
+    @Benchmark
+    public void iso8601(final Blackhole blackhole) throws Exception {
+        for(String input : iso8601Input) {
+            blackhole.consume(iso8601.parse(input));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ch.cyberduck.core.dav;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.github.sardine.impl.handler.MultiStatusResponseHandler;
+import com.github.sardine.model.Multistatus;
+
+/**
+ * Parsing of PROPFIND multistatus responses with the SAX handler compared to the default JAXB unmarshaller
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SaxPropFindResponseHandlerBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private byte[] response;
+
+    @Setup
+    public void setup() {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"utf-8\"?><d:multistatus xmlns:d=\"DAV:\">");
+        for(int i = 0; i < size; i++) {
+            xml.append("<d:response>");
+            xml.append(String.format("<d:href>/directory/f-%d.txt</d:href>", i));
+            xml.append("<d:propstat><d:prop>");
+            xml.append(String.format("<d:displayname>f-%d.txt</d:displayname>", i));
+            xml.append(String.format("<d:getcontentlength>%d</d:getcontentlength>", i * 1024));
+            xml.append("<d:getcontenttype>text/plain</d:getcontenttype>");
+            xml.append("<d:getlastmodified>Sat, 16 Mar 2019 10:00:00 GMT</d:getlastmodified>");
+            xml.append("<d:creationdate>2019-03-16T10:00:00Z</d:creationdate>");
+            xml.append(String.format("<d:getetag>\"%08x\"</d:getetag>", i));
+            xml.append("<d:resourcetype/>");
+            xml.append("</d:prop><d:status>HTTP/1.1 200 OK</d:status></d:propstat>");
+            xml.append("</d:response>");
+        }
+        xml.append("</d:multistatus>");
+        response = xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Multistatus sax() throws Exception {
+        return new SaxPropFindResponseHandler().getMultistatus(new ByteArrayInputStream(response));
+    }
+
+    @Benchmark
+    public Multistatus jaxb() throws Exception {
+        return new MultiStatusResponseHandler() {
+            @Override
+            protected Multistatus getMultistatus(final InputStream stream) throws IOException {
+                return super.getMultistatus(stream);
+            }
+        }.getMultistatus(new ByteArrayInputStream(response));
+    }
+}
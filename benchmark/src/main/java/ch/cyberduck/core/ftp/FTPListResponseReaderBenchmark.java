@@ -0,0 +1,118 @@
+package ch.cyberduck.core.ftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ftp.list.FTPListResponseReader;
+import ch.cyberduck.core.ftp.list.FTPMlsdListResponseReader;
+import ch.cyberduck.core.ftp.parser.CompositeFileEntryParser;
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of directory listing replies with the entry parsers selected for common server types
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FTPListResponseReaderBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    private final Path directory = new Path("/directory", EnumSet.of(Path.Type.directory));
+
+    private List<String> unix;
+    private List<String> windows;
+    private List<String> mlsd;
+
+    private CompositeFileEntryParser unixParser;
+    private CompositeFileEntryParser windowsParser;
+
+    @Setup
+    public void setup() {
+        unix = new ArrayList<String>(size);
+        windows = new ArrayList<String>(size);
+        mlsd = new ArrayList<String>(size);
+        for(int i = 0; i < size; i++) {
+            if(i % 10 == 0) {
+                unix.add(String.format("drwxr-xr-x    3 ftp      ftp           512 Mar 15  2004 d-%d", i));
+                windows.add(String.format("12-05-96  05:03PM       <DIR>          d-%d", i));
+                mlsd.add(String.format("type=dir;modify=20140315210350;UNIX.mode=0755; d-%d", i));
+            }
+            else {
+                unix.add(String.format("-rw-r--r--    1 user     group     %8d Dec 11 20:56 f-%d.txt", i * 1024, i));
+                windows.add(String.format("05-20-97  03:31PM             %8d f-%d.txt", i * 1024, i));
+                mlsd.add(String.format("type=file;size=%d;modify=20140506165021;UNIX.mode=0644;UNIX.uid=1144;UNIX.gid=1144; f-%d.txt", i * 1024, i));
+            }
+        }
+        unixParser = new FTPParserSelector().getParser("UNIX Type: L8");
+        windowsParser = new FTPParserSelector().getParser("Windows_NT version 5.0");
+    }
+
+    @Benchmark
+    public AttributedList<Path> readUnix() throws Exception {
+        return new FTPListResponseReader(new FTPParserSelector().getParser("UNIX Type: L8")).read(directory, unix, new DisabledListProgressListener());
+    }
+
+    @Benchmark
+    public AttributedList<Path> readWindows() throws Exception {
+        return new FTPListResponseReader(new FTPParserSelector().getParser("Windows_NT version 5.0")).read(directory, windows, new DisabledListProgressListener());
+    }
+
+    @Benchmark
+    public AttributedList<Path> readMlsd() throws Exception {
+        return new FTPMlsdListResponseReader().read(directory, mlsd, new DisabledListProgressListener());
+    }
+
+    @Benchmark
+    public void parseUnix(final Blackhole blackhole) {
+        for(String line : unix) {
+            final FTPFile parsed = unixParser.parseFTPEntry(line);
+            blackhole.consume(parsed);
+        }
+    }
+
+    @Benchmark
+    public void parseWindows(final Blackhole blackhole) {
+        for(String line : windows) {
+            final FTPFile parsed = windowsParser.parseFTPEntry(line);
+            blackhole.consume(parsed);
+        }
+    }
+}
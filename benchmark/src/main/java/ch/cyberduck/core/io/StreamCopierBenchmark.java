@@ -0,0 +1,66 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of copying between streams with progress accounting for different chunk sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamCopierBenchmark {
+
+    private static final long LENGTH = 64L * 1024L * 1024L;
+
+    @Param({"8192", "32768", "131072"})
+    public int chunksize;
+
+    @Benchmark
+    public TransferStatus copier() throws Exception {
+        final TransferStatus status = new TransferStatus().length(LENGTH);
+        new StreamCopier(status, status).withChunksize(chunksize).withLimit(LENGTH)
+            .transfer(new NullInputStream(LENGTH), new NullOutputStream());
+        return status;
+    }
+
+    @Benchmark
+    public TransferStatus relay() throws Exception {
+        final TransferStatus status = new TransferStatus().length(LENGTH);
+        new StreamRelay(status, status).withChunksize(chunksize).withLimit(LENGTH)
+            .transfer(new NullInputStream(LENGTH), new NullOutputStream());
+        return status;
+    }
+}
@@ -0,0 +1,125 @@
+package ch.cyberduck.core.sds.triplecrypt;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.VersionId;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.sds.SDSProtocol;
+import ch.cyberduck.core.sds.SDSSession;
+import ch.cyberduck.core.sds.io.swagger.client.model.FileKey;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DisabledX509TrustManager;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.lang3.RandomUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import com.dracoon.sdk.crypto.Crypto;
+import com.dracoon.sdk.crypto.CryptoUtils;
+import com.dracoon.sdk.crypto.model.PlainFileKey;
+
+/**
+ * Encryption and decryption of file content in encrypted data rooms
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TripleCryptStreamBenchmark {
+
+    @Param({"1048576", "16777216"})
+    public int size;
+
+    private SDSSession session;
+    private byte[] cleartext;
+    private byte[] ciphertext;
+    private PlainFileKey key;
+
+    @Setup
+    public void setup() throws Exception {
+        session = new SDSSession(new Host(new SDSProtocol(), "dracoon.example.net"),
+            new DisabledX509TrustManager(), new DefaultX509KeyManager());
+        // Only creates client to serialize file keys without connecting
+        session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        cleartext = RandomUtils.nextBytes(size);
+        final TransferStatus status = this.status();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        new StreamCopier(status, status).transfer(new ByteArrayInputStream(cleartext), this.encrypt(out, status));
+        ciphertext = out.toByteArray();
+        // File key with tag set after encryption
+        key = TripleCryptConverter.toCryptoPlainFileKey(session.getClient().getJSON().getContext(null)
+            .readerFor(FileKey.class).<FileKey>readValue(status.getFilekey().array()));
+    }
+
+    private TransferStatus status() throws Exception {
+        final TransferStatus status = new TransferStatus().length(size);
+        final ByteArrayOutputStream json = new ByteArrayOutputStream();
+        session.getClient().getJSON().getContext(null).writerFor(FileKey.class).writeValue(json,
+            TripleCryptConverter.toSwaggerFileKey(Crypto.generateFileKey()));
+        status.setFilekey(ByteBuffer.wrap(json.toByteArray()));
+        return status;
+    }
+
+    private CryptoOutputStream<VersionId> encrypt(final OutputStream proxy, final TransferStatus status) throws Exception {
+        final PlainFileKey key = TripleCryptConverter.toCryptoPlainFileKey(session.getClient().getJSON().getContext(null)
+            .readerFor(FileKey.class).<FileKey>readValue(status.getFilekey().array()));
+        return new CryptoOutputStream<VersionId>(session, new StatusOutputStream<VersionId>(proxy) {
+            @Override
+            public VersionId getStatus() {
+                return null;
+            }
+        }, Crypto.createFileEncryptionCipher(key), status);
+    }
+
+    @Benchmark
+    public TransferStatus encrypt() throws Exception {
+        final TransferStatus status = this.status();
+        new StreamCopier(status, status).transfer(new ByteArrayInputStream(cleartext), this.encrypt(new NullOutputStream(), status));
+        return status;
+    }
+
+    @Benchmark
+    public TransferStatus decrypt() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        new StreamCopier(status, status).transfer(new CryptoInputStream(new ByteArrayInputStream(ciphertext),
+            Crypto.createFileDecryptionCipher(key), CryptoUtils.stringToByteArray(key.getTag())), new NullOutputStream());
+        return status;
+    }
+}
@@ -0,0 +1,105 @@
+package ch.cyberduck.core.serializer.impl.dd;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.ProtocolFactory;
+import ch.cyberduck.core.ftp.FTPProtocol;
+import ch.cyberduck.core.transfer.DownloadTransfer;
+import ch.cyberduck.core.transfer.Transfer;
+import ch.cyberduck.core.transfer.TransferItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.dd.plist.NSDictionary;
+
+/**
+ * Serialization of bookmarks and transfers to XML property lists and back
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PlistBenchmark {
+
+    /**
+     * Number of roots in transfer
+     */
+    @Param({"1", "1000"})
+    public int size;
+
+    private Host host;
+    private Transfer transfer;
+
+    private byte[] bookmark;
+    private byte[] queue;
+
+    @Setup
+    public void setup() {
+        ProtocolFactory.get().register(new FTPProtocol());
+        host = new Host(new FTPProtocol(), "ftp.example.net");
+        host.setDefaultPath("/pub");
+        final List<TransferItem> roots = new ArrayList<TransferItem>(size);
+        for(int i = 0; i < size; i++) {
+            roots.add(new TransferItem(new Path(String.format("/pub/f-%d", i), EnumSet.of(Path.Type.file)),
+                LocalFactory.get(String.format("/tmp/f-%d", i))));
+        }
+        transfer = new DownloadTransfer(host, roots);
+        bookmark = host.<NSDictionary>serialize(new PlistSerializer()).toXMLPropertyList().getBytes(StandardCharsets.UTF_8);
+        queue = transfer.<NSDictionary>serialize(new PlistSerializer()).toXMLPropertyList().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String serializeHost() {
+        return host.<NSDictionary>serialize(new PlistSerializer()).toXMLPropertyList();
+    }
+
+    @Benchmark
+    public String serializeTransfer() {
+        return transfer.<NSDictionary>serialize(new PlistSerializer()).toXMLPropertyList();
+    }
+
+    @Benchmark
+    public Host deserializeHost() throws Exception {
+        return new HostPlistReader().read(new ByteArrayInputStream(bookmark));
+    }
+
+    @Benchmark
+    public Transfer deserializeTransfer() throws Exception {
+        return new TransferPlistReader().read(new ByteArrayInputStream(queue));
+    }
+}
@@ -0,0 +1,125 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledCancelCallback;
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.sshd.common.file.virtualfs.VirtualFileSystemFactory;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.subsystem.sftp.SftpSubsystemFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Download from SFTP server on loopback interface in a single stream compared to ranges on multiple channels
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SFTPStripedDownloadBenchmark {
+
+    private static final long LENGTH = 256L * 1024L * 1024L;
+    private static final long STRIPE = 32L * 1024L * 1024L;
+
+    /**
+     * Single stream when less than two channels
+     */
+    @Param({"1", "2", "4"})
+    public int channels;
+
+    private java.nio.file.Path directory;
+    private SshServer server;
+    private SFTPSession session;
+    private Path file;
+    private Local local;
+
+    @Setup
+    public void setup() throws Exception {
+        directory = Files.createTempDirectory(String.format("%s-", this.getClass().getName()));
+        final byte[] buffer = new byte[1024 * 1024];
+        ThreadLocalRandom.current().nextBytes(buffer);
+        try (OutputStream out = Files.newOutputStream(directory.resolve("f"))) {
+            for(long written = 0; written < LENGTH; written += buffer.length) {
+                out.write(buffer);
+            }
+        }
+        final int port = ThreadLocalRandom.current().nextInt(2000, 3000);
+        server = SshServer.setUpDefaultServer();
+        server.setHost("127.0.0.1");
+        server.setPort(port);
+        server.setPasswordAuthenticator((username, password, session) -> true);
+        server.setKeyPairProvider(new SimpleGeneratorHostKeyProvider());
+        server.setSubsystemFactories(Collections.singletonList(new SftpSubsystemFactory()));
+        server.setFileSystemFactory(new VirtualFileSystemFactory(directory));
+        server.start();
+        session = new SFTPSession(new Host(new SFTPProtocol(), "127.0.0.1", port, new Credentials("empty", "empty")));
+        session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback());
+        session.login(Proxy.DIRECT, new DisabledLoginCallback(), new DisabledCancelCallback());
+        file = new Path(new SFTPHomeDirectoryService(session).find(), "f", EnumSet.of(Path.Type.file));
+        local = LocalFactory.get(directory.resolve("download").toString());
+    }
+
+    @TearDown
+    public void teardown() throws Exception {
+        session.close();
+        server.stop();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Benchmark
+    public TransferStatus download() throws Exception {
+        final TransferStatus status = new TransferStatus().length(LENGTH);
+        new SFTPStripedDownloadFeature(session, new SFTPReadFeature(session), true, 0L, STRIPE, channels)
+            .download(file, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(),
+                status, new DisabledConnectionCallback(), new DisabledPasswordCallback());
+        return status;
+    }
+}
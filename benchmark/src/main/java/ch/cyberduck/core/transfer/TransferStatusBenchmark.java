@@ -0,0 +1,102 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap used by status table of transfer with 100000 items and allocation when reading rename targets. Run with
+ * -prof gc and divide gc.alloc.rate.norm by the number of items for the footprint per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransferStatusBenchmark {
+
+    private static final int ITEMS = 100000;
+
+    private final List<TransferItem> items = new ArrayList<>(ITEMS);
+    private final List<TransferStatus> table = new ArrayList<>(ITEMS);
+
+    @Setup
+    public void setup() {
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        final Local folder = new Local(System.getProperty("java.io.tmpdir"), "d");
+        for(int i = 0; i < ITEMS; i++) {
+            final String name = String.format("f-%d", i);
+            final TransferItem item = new TransferItem(new Path(directory, name, EnumSet.of(Path.Type.file)), new Local(folder, name));
+            items.add(item);
+            table.add(this.status(item));
+        }
+    }
+
+    private TransferStatus status(final TransferItem item) {
+        return new TransferStatus().exists(true).length(1024L)
+            .rename(item.remote).rename(item.local)
+            .withDisplayname(item.remote).withDisplayname(item.local);
+    }
+
+    @Benchmark
+    public Map<TransferItem, TransferStatus> table() {
+        final Map<TransferItem, TransferStatus> status = new HashMap<>(ITEMS);
+        for(TransferItem item : items) {
+            status.put(item, this.status(item));
+        }
+        return status;
+    }
+
+    /**
+     * Allocation of single status with gc.alloc.rate.norm as footprint per item
+     */
+    @Benchmark
+    public TransferStatus status() {
+        return new TransferStatus();
+    }
+
+    @Benchmark
+    public int renameTargets() {
+        int found = 0;
+        for(TransferStatus status : table) {
+            if(status.getRenameRemote() != null && status.getRenameLocal() != null
+                && status.getDisplaynameRemote() != null && status.getDisplaynameLocal() != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -41,6 +41,7 @@ import ch.cyberduck.core.local.ApplicationFinderFactory;
 import ch.cyberduck.core.local.ApplicationQuitCallback;
 import ch.cyberduck.core.local.TemporaryFileServiceFactory;
 import ch.cyberduck.core.manta.MantaProtocol;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.nio.LocalProtocol;
 import ch.cyberduck.core.onedrive.OneDriveProtocol;
 import ch.cyberduck.core.onedrive.SharepointProtocol;
@@ -84,6 +85,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -169,7 +174,11 @@ public class Terminal {
             final CommandLineParser parser = new PosixParser();
             final CommandLine input = parser.parse(options, args);
             final Terminal terminal = new Terminal(defaults, options, input);
-            switch(terminal.execute()) {
+            final Exit exit = terminal.execute();
+            if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+                terminal.metrics();
+            }
+            switch(exit) {
                 case success:
                     console.printf("%s%n", StringUtils.EMPTY);
                     System.exit(0);
@@ -341,10 +350,28 @@ public class Terminal {
             preferences.setProperty("s3.upload.udt.threshold", 0L);
         }
         if(input.hasOption(TerminalOptionsBuilder.Params.parallel.name())) {
-            preferences.setProperty("queue.connections.limit",
-                NumberUtils.toInt(input.getOptionValue(TerminalOptionsBuilder.Params.parallel.name()), 2));
+            final int parallel = NumberUtils.toInt(input.getOptionValue(TerminalOptionsBuilder.Params.parallel.name()), 2);
+            preferences.setProperty("queue.connections.limit", parallel);
         }
         preferences.setProperty("connection.login.keychain", !input.hasOption(TerminalOptionsBuilder.Params.nokeychain.name()));
+        if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+            MetricsRegistry.global().withEnabled(true);
+        }
+    }
+
+    /**
+     * Print collected metrics as JSON to standard error
+     */
+    protected void metrics() {
+        final Writer writer = new OutputStreamWriter(System.err, StandardCharsets.UTF_8);
+        try {
+            MetricsRegistry.global().write(writer);
+            writer.write(StringUtils.LF);
+            writer.flush();
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure writing metrics. %s", e.getMessage()));
+        }
     }
 
     protected Exit transfer(final Transfer transfer, final SessionPool source, final SessionPool destination) {
@@ -165,6 +165,12 @@ public final class TerminalOptionsBuilder {
             .withLongOpt(Params.nokeychain.name())
             .isRequired(false)
             .create());
+        options.addOption(OptionBuilder
+            .withDescription("Print summary of transfer and protocol metrics to standard error on exit")
+            .withLongOpt(Params.metrics.name())
+            .hasArg(true).withArgName("json")
+            .isRequired(false)
+            .create());
         final StringBuilder b = new StringBuilder().append(StringUtils.LF);
         b.append("Options for downloads and uploads:").append(StringUtils.LF);
         for(TransferAction a : TransferAction.forTransfer(Transfer.Type.download)) {
@@ -237,6 +243,7 @@ public final class TerminalOptionsBuilder {
         identity,
         application,
         chmod,
-        profile
+        profile,
+        metrics
     }
 }
@@ -66,6 +66,14 @@ public class TerminalOptionsInputValidator {
             console.printf("%s%n", "Missing argument");
             return false;
         }
+        if(input.hasOption(TerminalOptionsBuilder.Params.metrics.name())) {
+            final String format = input.getOptionValue(TerminalOptionsBuilder.Params.metrics.name());
+            if(!StringUtils.equals("json", format)) {
+                console.printf("Invalid argument '%s' for option %s. Must be one of %s%n",
+                    format, TerminalOptionsBuilder.Params.metrics.name(), "[json]");
+                return false;
+            }
+        }
         if(input.hasOption(TerminalOptionsBuilder.Params.existing.name())) {
             final String arg = input.getOptionValue(TerminalOptionsBuilder.Params.existing.name());
             if(null == TransferAction.forName(arg)) {
@@ -0,0 +1,202 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captures transcript lines into a bounded lock-free queue without blocking the caller. Lines are passed to the proxy
+ * listener on a shared background thread in the order recorded. Lines are dropped when the queue is full.
+ */
+public class BufferedTranscriptListener implements TranscriptListener {
+    private static final Logger log = Logger.getLogger(BufferedTranscriptListener.class);
+
+    /**
+     * Single consumer shared by all buffers
+     */
+    private static final class Consumer {
+        private static final ThreadPool pool = ThreadPoolFactory.get("transcript", 1);
+    }
+
+    private final TranscriptListener proxy;
+    private final int capacity;
+
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<Event>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    /**
+     * Drain task submitted and not yet finished
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    /**
+     * Number of dropped events already logged. Only accessed from consumer thread
+     */
+    private long reported;
+
+    public BufferedTranscriptListener(final TranscriptListener proxy) {
+        this(proxy, PreferencesFactory.get().getInteger("transcript.buffer.capacity"));
+    }
+
+    public BufferedTranscriptListener(final TranscriptListener proxy, final int capacity) {
+        this.proxy = proxy;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void log(final Type type, final String message) {
+        this.record(new MessageEvent(type, message));
+    }
+
+    /**
+     * Add formatted lines passed to the proxy listener without interleaving with lines recorded by other threads
+     *
+     * @param type  Request or response
+     * @param lines Formatted transcript lines
+     */
+    public void log(final Type type, final List<String> lines) {
+        this.record(new LinesEvent(type, lines));
+    }
+
+    /**
+     * @return True if the proxy listener has any sink attached
+     */
+    @Override
+    public boolean isEnabled() {
+        return proxy.isEnabled();
+    }
+
+    /**
+     * Add event to buffer
+     *
+     * @param event Record passed to proxy listener on consumer thread
+     */
+    public void record(final Event event) {
+        if(size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+            return;
+        }
+        queue.offer(event);
+        if(scheduled.compareAndSet(false, true)) {
+            Consumer.pool.execute(() -> {
+                this.drain();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * @return Number of events discarded because the buffer was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        do {
+            Event event;
+            while((event = queue.poll()) != null) {
+                size.decrementAndGet();
+                try {
+                    event.format(proxy);
+                }
+                catch(RuntimeException e) {
+                    log.warn(String.format("Failure writing transcript event %s. %s", event, e.getMessage()));
+                }
+            }
+            final long count = dropped.get();
+            if(count > reported) {
+                log.warn(String.format("Dropped %d transcript events", count - reported));
+                reported = count;
+            }
+            scheduled.set(false);
+        }
+        // Events added after queue was found empty but before flag was cleared
+        while(!queue.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Record written to transcript on consumer thread
+     */
+    public interface Event {
+        /**
+         * @param listener Transcript sink
+         */
+        void format(TranscriptListener listener);
+    }
+
+    private static final class MessageEvent implements Event {
+        private final Type type;
+        private final String message;
+
+        private MessageEvent(final Type type, final String message) {
+            this.type = type;
+            this.message = message;
+        }
+
+        @Override
+        public void format(final TranscriptListener listener) {
+            listener.log(type, message);
+        }
+
+        @Override
+        public String toString() {
+            return message;
+        }
+    }
+
+    private static final class LinesEvent implements Event {
+        private final Type type;
+        private final List<String> lines;
+
+        private LinesEvent(final Type type, final List<String> lines) {
+            this.type = type;
+            this.lines = lines;
+        }
+
+        @Override
+        public void format(final TranscriptListener listener) {
+            for(String line : lines) {
+                listener.log(type, line);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return lines.isEmpty() ? type.name() : lines.get(0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BufferedTranscriptListener{");
+        sb.append("proxy=").append(proxy);
+        sb.append(", capacity=").append(capacity);
+        sb.append('}');
+        return sb.toString();
+    }
+}
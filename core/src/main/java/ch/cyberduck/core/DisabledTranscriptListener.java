@@ -28,4 +28,9 @@ public class DisabledTranscriptListener implements TranscriptListener {
             log.trace(message);
         }
     }
+
+    @Override
+    public boolean isEnabled() {
+        return log.isTraceEnabled();
+    }
 }
@@ -0,0 +1,159 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.function.LongSupplier;
+
+/**
+ * Values persisted in a properties file with the time they were recorded. Values expire after a time to live.
+ */
+public class ExpiringPropertiesStore {
+    private static final Logger log = Logger.getLogger(ExpiringPropertiesStore.class);
+
+    private final Local file;
+    /**
+     * Time to live in milliseconds
+     */
+    private final long ttl;
+    private final LongSupplier clock;
+    /**
+     * Header written to file
+     */
+    private final String comment;
+
+    private Properties properties;
+    private boolean modified;
+
+    /**
+     * @param folder Name of folder in application support directory
+     * @param host   Bookmark with file named after account
+     * @param suffix Appended to filename or empty
+     * @return File per account
+     */
+    public static Local toFile(final String folder, final Host host, final String suffix) {
+        final String name = DigestUtils.md5Hex(new HostUrlProvider().withUsername(true).withPath(false).get(host));
+        return LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), folder),
+            String.format("%s.properties", StringUtils.isBlank(suffix) ? name : String.format("%s-%s", name, suffix)));
+    }
+
+    /**
+     * @param file    Properties file
+     * @param ttl     Time to live in milliseconds
+     * @param clock   Current time in milliseconds
+     * @param comment Header written to file
+     */
+    public ExpiringPropertiesStore(final Local file, final long ttl, final LongSupplier clock, final String comment) {
+        this.file = file;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.comment = comment;
+    }
+
+    /**
+     * @param key Identifier
+     * @return Null if not recorded or expired
+     */
+    public synchronized String get(final String key) {
+        final String value = this.load().getProperty(key);
+        if(null == value) {
+            return null;
+        }
+        final String timestamp = StringUtils.substringBefore(value, " ");
+        if(!StringUtils.isNumeric(timestamp)) {
+            return null;
+        }
+        if(clock.getAsLong() - Long.parseLong(timestamp) > ttl) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Expired value for %s in %s", key, file));
+            }
+            return null;
+        }
+        return StringUtils.substringAfter(value, " ");
+    }
+
+    /**
+     * @param key   Identifier
+     * @param value Value recorded with current time
+     */
+    public synchronized void put(final String key, final String value) {
+        this.load().setProperty(key, String.format("%d %s", clock.getAsLong(), value));
+        modified = true;
+    }
+
+    /**
+     * @param key Identifier
+     */
+    public synchronized void remove(final String key) {
+        if(null != this.load().remove(key)) {
+            modified = true;
+        }
+    }
+
+    private Properties load() {
+        if(null == properties) {
+            properties = new Properties();
+            if(file.exists()) {
+                try (InputStream in = file.getInputStream()) {
+                    properties.load(in);
+                }
+                catch(AccessDeniedException e) {
+                    log.warn(String.format("Failure reading %s. %s", file.getAbsolute(), e.getDetail()));
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading %s. %s", file.getAbsolute(), e.getMessage()));
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Write to disk if modified
+     */
+    public synchronized void save() {
+        if(!modified) {
+            return;
+        }
+        try {
+            new DefaultLocalDirectoryFeature().mkdir(file.getParent());
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving %s. %s", file.getAbsolute(), e.getDetail()));
+        }
+        try (OutputStream out = file.getOutputStream(false)) {
+            properties.store(out, comment);
+            modified = false;
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving %s. %s", file.getAbsolute(), e.getDetail()));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving %s. %s", file.getAbsolute(), e.getMessage()));
+        }
+    }
+}
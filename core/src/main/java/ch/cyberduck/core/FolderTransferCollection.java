@@ -28,6 +28,8 @@ import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
 import ch.cyberduck.core.serializer.Reader;
 import ch.cyberduck.core.serializer.Writer;
 import ch.cyberduck.core.transfer.Transfer;
+import ch.cyberduck.core.transfer.TransferCheckpoint;
+import ch.cyberduck.core.transfer.TransferJournal;
 import ch.cyberduck.core.transfer.TransferProgress;
 
 import org.apache.log4j.Logger;
@@ -37,6 +39,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 public class FolderTransferCollection extends Collection<Transfer> {
@@ -72,6 +76,12 @@ public class FolderTransferCollection extends Collection<Transfer> {
 
     private final Local folder;
 
+    /**
+     * Append-only journal per transfer with progress updates
+     */
+    private final Map<String, TransferJournal> journals
+        = new ConcurrentHashMap<String, TransferJournal>();
+
     public FolderTransferCollection(final Local folder) {
         this(folder, DEFAULT_PREFIX);
     }
@@ -89,6 +99,15 @@ public class FolderTransferCollection extends Collection<Transfer> {
         return LocalFactory.get(folder, String.format("%s.cyberducktransfer", transfer.getUuid()));
     }
 
+    /**
+     * @param transfer Transfer
+     * @return Journal with state changes since transfer was last saved
+     */
+    public TransferJournal getJournal(final Transfer transfer) {
+        return journals.computeIfAbsent(transfer.getUuid(), uuid -> new TransferJournal(
+            LocalFactory.get(folder, String.format("%s.cyberducktransferjournal", uuid))));
+    }
+
     public Local getFolder() {
         return folder;
     }
@@ -97,6 +116,9 @@ public class FolderTransferCollection extends Collection<Transfer> {
     public void collectionItemRemoved(final Transfer transfer) {
         try {
             this.getFile(transfer).delete();
+            this.getJournal(transfer).delete();
+            journals.remove(transfer.getUuid());
+            new TransferCheckpoint(transfer).delete();
             preferences.deleteProperty(String.format("%s%s", prefix, transfer.getUuid()));
         }
         catch(AccessDeniedException | NotfoundException e) {
@@ -110,7 +132,12 @@ public class FolderTransferCollection extends Collection<Transfer> {
     @Override
     public void collectionItemChanged(final Transfer transfer) {
         try {
-            this.save(transfer);
+            if(preferences.getBoolean("queue.journal.enable")) {
+                this.journal(transfer);
+            }
+            else {
+                this.save(transfer);
+            }
         }
         finally {
             super.collectionItemChanged(transfer);
@@ -140,17 +167,64 @@ public class FolderTransferCollection extends Collection<Transfer> {
         else {
             this.lock();
             try {
-                if(!folder.exists()) {
-                    new DefaultLocalDirectoryFeature().mkdir(folder);
+                this.write(transfer);
+            }
+            catch(AccessDeniedException e) {
+                log.warn(String.format("Failure saving item in collection %s", e.getMessage()));
+            }
+            finally {
+                this.unlock();
+            }
+        }
+    }
+
+    private void write(final Transfer transfer) throws AccessDeniedException {
+        if(!folder.exists()) {
+            new DefaultLocalDirectoryFeature().mkdir(folder);
+        }
+        final Local f = this.getFile(transfer);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Save transfer %s", f));
+        }
+        writer.write(transfer, f);
+        transfer.setModified(false);
+    }
+
+    /**
+     * Append progress to journal instead of rewriting the complete transfer. Rewrite property list
+     * when roots or options have changed or to compact journal when threshold of records is reached.
+     *
+     * @see Transfer#isModified()
+     */
+    protected void journal(final Transfer transfer) {
+        if(this.isLocked()) {
+            log.debug(String.format("Skip journal for transfer %s while loading", transfer));
+        }
+        else {
+            this.lock();
+            final TransferJournal journal = this.getJournal(transfer);
+            try {
+                if(!this.getFile(transfer).exists() || transfer.isModified()) {
+                    // Write through changes other than progress
+                    this.write(transfer);
+                    journal.delete();
                 }
-                final Local f = this.getFile(transfer);
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Save transfer %s", f));
+                else {
+                    journal.progress(transfer);
+                    if(journal.isCompactionRequired()) {
+                        this.write(transfer);
+                        journal.delete();
+                    }
                 }
-                writer.write(transfer, f);
             }
             catch(AccessDeniedException e) {
-                log.warn(String.format("Failure saving item in collection %s", e.getMessage()));
+                log.warn(String.format("Failure writing journal for %s. %s", transfer, e.getMessage()));
+                try {
+                    this.write(transfer);
+                }
+                catch(AccessDeniedException f) {
+                    log.warn(String.format("Failure saving item in collection %s", f.getMessage()));
+                }
             }
             finally {
                 this.unlock();
@@ -186,6 +260,8 @@ public class FolderTransferCollection extends Collection<Transfer> {
                 if(null == transfer) {
                     continue;
                 }
+                // Apply progress recorded since last save
+                this.getJournal(transfer).replay(transfer);
                 // Legacy support.
                 if(!this.getFile(transfer).equals(next)) {
                     this.rename(next, transfer);
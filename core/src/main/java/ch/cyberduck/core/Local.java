@@ -67,6 +67,11 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      */
     private String path;
 
+    /**
+     * Attributes read when listing the parent directory. Null if not available or invalidated
+     */
+    private transient volatile LocalSnapshot snapshot;
+
     public Local(final String parent, final String name) {
         this(parent, name, PreferencesFactory.get().getProperty("local.delimiter"));
     }
@@ -144,6 +149,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isDirectory() {
+        final LocalSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            return snapshot.isDirectory();
+        }
         return Paths.get(path).toFile().isDirectory();
     }
 
@@ -153,6 +162,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @see Local#exists()
      */
     public boolean isFile() {
+        final LocalSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            return snapshot.isFile();
+        }
         return Paths.get(path).toFile().isFile();
     }
 
@@ -162,6 +175,10 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return true if the file is a symbolic link.
      */
     public boolean isSymbolicLink() {
+        final LocalSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            return snapshot.isSymbolicLink();
+        }
         return Files.isSymbolicLink(Paths.get(path));
     }
 
@@ -195,7 +212,38 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public LocalAttributes attributes() {
-        return new LocalAttributes(path);
+        return new LocalAttributes(path, snapshot);
+    }
+
+    /**
+     * Attributes are read once and reused by subsequent calls to type and attribute getters until refreshed.
+     * Children returned by {@link #list()} already carry a snapshot.
+     *
+     * @return Attributes of file at the time of first call or listing of parent directory
+     */
+    public LocalSnapshot snapshot() throws AccessDeniedException, NotfoundException {
+        LocalSnapshot snapshot = this.snapshot;
+        if(null == snapshot) {
+            try {
+                snapshot = LocalSnapshot.read(Paths.get(path));
+            }
+            catch(NoSuchFileException e) {
+                throw new LocalNotfoundException(MessageFormat.format("Failure to read attributes of {0}", this.getName()), e);
+            }
+            catch(InvalidPathException | IOException e) {
+                throw new LocalAccessDeniedException(MessageFormat.format("Failure to read attributes of {0}", this.getName()), e);
+            }
+            this.snapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discard attributes read previously. Must be called after the file is modified by other means than this instance.
+     */
+    public Local refresh() {
+        snapshot = null;
+        return this;
     }
 
     @Override
@@ -204,6 +252,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void mkdir() throws AccessDeniedException {
+        this.refresh();
         new DefaultLocalDirectoryFeature().mkdir(this);
     }
 
@@ -211,6 +260,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * Delete the file
      */
     public void delete() throws AccessDeniedException, NotfoundException {
+        this.refresh();
         try {
             Files.delete(Paths.get(path));
         }
@@ -235,7 +285,15 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
             }
         })) {
             for(Path entry : stream) {
-                children.add(LocalFactory.get(entry.toString()));
+                final Local child = LocalFactory.get(entry.toString());
+                try {
+                    // Single system call for type and attributes used when preparing transfers
+                    child.snapshot = LocalSnapshot.read(entry);
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading attributes of %s. %s", entry, e.getMessage()));
+                }
+                children.add(child);
             }
         }
         catch(IOException e) {
@@ -320,6 +378,13 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
      * @return True if the path exists on the file system.
      */
     public boolean exists(LinkOption... options) {
+        final LocalSnapshot snapshot = this.snapshot;
+        if(snapshot != null) {
+            if(options.length == 0) {
+                return snapshot.isExists();
+            }
+            return true;
+        }
         if(options.length == 0) {
             return Paths.get(path).toFile().exists();
         }
@@ -327,6 +392,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     public void rename(final Local renamed) throws AccessDeniedException {
+        this.refresh();
         try {
             try {
                 Files.move(Paths.get(path), Paths.get(renamed.getAbsolute()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
@@ -344,6 +410,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
                 LocaleFactory.localizedString("Cannot rename {0}", "Error"), this.getName()), e);
         }
         path = renamed.getAbsolute();
+        renamed.refresh();
     }
 
     public void copy(final Local copy) throws AccessDeniedException {
@@ -440,6 +507,7 @@ public class Local extends AbstractPath implements Referenceable, Serializable {
     }
 
     protected OutputStream getOutputStream(final String path, final boolean append) throws LocalAccessDeniedException {
+        this.refresh();
         try {
             final Set<OpenOption> options = new HashSet<>();
             options.add(StandardOpenOption.WRITE);
@@ -38,14 +38,26 @@ public class LocalAttributes extends Attributes {
     private static final Logger log = Logger.getLogger(LocalAttributes.class);
 
     private final String path;
+    /**
+     * Attributes read previously or null
+     */
+    private final LocalSnapshot snapshot;
     private Checksum checksum = Checksum.NONE;
 
     public LocalAttributes(final String path) {
+        this(path, null);
+    }
+
+    public LocalAttributes(final String path, final LocalSnapshot snapshot) {
         this.path = path;
+        this.snapshot = snapshot;
     }
 
     @Override
     public long getModificationDate() {
+        if(snapshot != null) {
+            return snapshot.getModificationDate();
+        }
         try {
             return Files.getLastModifiedTime(Paths.get(path)).toMillis();
         }
@@ -85,6 +97,9 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public long getSize() {
+        if(snapshot != null) {
+            return snapshot.getSize();
+        }
         try {
             return Files.size(Paths.get(path));
         }
@@ -96,6 +111,9 @@ public class LocalAttributes extends Attributes {
 
     @Override
     public Permission getPermission() {
+        if(snapshot != null && snapshot.getPermission() != null) {
+            return new LocalPermission(snapshot.getPermission());
+        }
         if(FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
             final BasicFileAttributes attributes;
             try {
@@ -0,0 +1,148 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/**
+ * Immutable attributes of a local file read with a single call to the file system. Type, size and timestamp
+ * of symbolic links are from the target and the permissions from the link itself.
+ */
+public final class LocalSnapshot {
+
+    private static final boolean POSIX
+        = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private final boolean exists;
+    private final boolean directory;
+    private final boolean file;
+    private final boolean symlink;
+    private final long size;
+    private final long modified;
+    /**
+     * Null if not supported by file system
+     */
+    private final String permission;
+    /**
+     * Null if not supported by file system
+     */
+    private final Object key;
+
+    /**
+     * @param path File
+     * @throws IOException File not found or not readable
+     */
+    public static LocalSnapshot read(final Path path) throws IOException {
+        final BasicFileAttributes attributes = POSIX ?
+            Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS) :
+            Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        final String permission = attributes instanceof PosixFileAttributes ?
+            PosixFilePermissions.toString(((PosixFileAttributes) attributes).permissions()) : null;
+        if(attributes.isSymbolicLink()) {
+            final BasicFileAttributes target;
+            try {
+                target = Files.readAttributes(path, BasicFileAttributes.class);
+            }
+            catch(IOException e) {
+                // Target not found
+                return new LocalSnapshot(false, false, false, true, -1L, -1L, permission, null);
+            }
+            return new LocalSnapshot(true, target.isDirectory(), target.isRegularFile(), true,
+                target.size(), target.lastModifiedTime().toMillis(), permission, target.fileKey());
+        }
+        return new LocalSnapshot(true, attributes.isDirectory(), attributes.isRegularFile(), false,
+            attributes.size(), attributes.lastModifiedTime().toMillis(), permission, attributes.fileKey());
+    }
+
+    private LocalSnapshot(final boolean exists, final boolean directory, final boolean file, final boolean symlink,
+                          final long size, final long modified, final String permission, final Object key) {
+        this.exists = exists;
+        this.directory = directory;
+        this.file = file;
+        this.symlink = symlink;
+        this.size = size;
+        this.modified = modified;
+        this.permission = permission;
+        this.key = key;
+    }
+
+    /**
+     * @return False for symbolic link with missing target
+     */
+    public boolean isExists() {
+        return exists;
+    }
+
+    public boolean isDirectory() {
+        return directory;
+    }
+
+    public boolean isFile() {
+        return file;
+    }
+
+    public boolean isSymbolicLink() {
+        return symlink;
+    }
+
+    /**
+     * @return -1 if unknown
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return Milliseconds since epoch or -1 if unknown
+     */
+    public long getModificationDate() {
+        return modified;
+    }
+
+    /**
+     * @return Symbolic POSIX permissions or null if not supported
+     */
+    public String getPermission() {
+        return permission;
+    }
+
+    /**
+     * @return Identifier such as device and inode to detect hard links and renamed files. Null if not supported
+     */
+    public Object getFileKey() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("LocalSnapshot{");
+        sb.append("directory=").append(directory);
+        sb.append(", file=").append(file);
+        sb.append(", symlink=").append(symlink);
+        sb.append(", size=").append(size);
+        sb.append(", modified=").append(modified);
+        sb.append(", permission='").append(permission).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -46,4 +46,9 @@ public class LoggingTranscriptListener implements TranscriptListener {
                 break;
         }
     }
+
+    @Override
+    public boolean isEnabled() {
+        return request.isInfoEnabled() || response.isInfoEnabled();
+    }
 }
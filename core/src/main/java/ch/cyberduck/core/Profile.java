@@ -46,14 +46,15 @@ public class Profile implements Protocol, Serializable {
      * The actual protocol implementation registered
      */
     private final Protocol parent;
-    private final Local disk;
-    private final Local icon;
+    /**
+     * Temporary files for images only written on first use
+     */
+    private Local disk;
+    private Local icon;
 
     public Profile(final Protocol parent, final Deserializer<String> dict) {
         this.parent = parent;
         this.dict = dict;
-        this.disk = this.write(this.value("Disk"));
-        this.icon = this.write(this.value("Icon"));
     }
 
     @Override
@@ -61,6 +62,13 @@ public class Profile implements Protocol, Serializable {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * @return Values read from profile
+     */
+    public Deserializer<String> getDictionary() {
+        return dict;
+    }
+
     public Protocol getProtocol() {
         return parent;
     }
@@ -213,7 +221,10 @@ public class Profile implements Protocol, Serializable {
     }
 
     @Override
-    public String disk() {
+    public synchronized String disk() {
+        if(null == disk) {
+            disk = this.write(this.value("Disk"));
+        }
         if(null == disk) {
             return parent.disk();
         }
@@ -222,7 +233,10 @@ public class Profile implements Protocol, Serializable {
     }
 
     @Override
-    public String icon() {
+    public synchronized String icon() {
+        if(null == icon) {
+            icon = this.write(this.value("Icon"));
+        }
         if(null == icon) {
             return parent.icon();
         }
@@ -0,0 +1,301 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.serializer.Deserializer;
+import ch.cyberduck.core.serializer.ProfileDictionary;
+import ch.cyberduck.core.serializer.Reader;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Persistent index of profiles with the values required to register, sort and look up protocols. Profiles unchanged
+ * since indexed are registered without being parsed and only read on first use of any other value.
+ */
+public class ProfileIndex {
+    private static final Logger log = Logger.getLogger(ProfileIndex.class);
+
+    /**
+     * Values of profile kept in index
+     */
+    private static final List<String> KEYS = Arrays.asList("Protocol", "Vendor", "Description", "Scheme",
+        "Context", "Authorization", "Default Hostname", "Bundled");
+
+    private static final String SCHEMES = "Schemes";
+
+    private static final String VERSION = "Version";
+
+    private final Local file;
+    private final ProtocolFactory protocols;
+    private final Reader<Profile> reader;
+    /**
+     * Application version index was written with
+     */
+    private final String version;
+
+    /**
+     * Entries read from disk
+     */
+    private Properties properties;
+    /**
+     * Entries for profiles read since loaded
+     */
+    private final Properties updated = new Properties();
+    private boolean modified;
+
+    public ProfileIndex(final Local file, final ProtocolFactory protocols) {
+        this(file, protocols, ProfileReaderFactory.get(), PreferencesFactory.get().getProperty("application.version"));
+    }
+
+    /**
+     * @param file      Index file
+     * @param protocols Registered protocols to find parent of profile
+     * @param reader    Reader for profiles not found in index and when other values are requested
+     * @param version   Index is discarded when written with another version
+     */
+    public ProfileIndex(final Local file, final ProtocolFactory protocols, final Reader<Profile> reader, final String version) {
+        this.file = file;
+        this.protocols = protocols;
+        this.reader = reader;
+        this.version = version;
+    }
+
+    /**
+     * @param profile Profile file
+     * @return Profile with values from index if unchanged or null if profile cannot be read
+     */
+    public synchronized Profile read(final Local profile) throws AccessDeniedException {
+        final String key = profile.getAbsolute();
+        final String fingerprint = fingerprint(profile);
+        final Properties index = this.load();
+        if(StringUtils.equals(fingerprint, index.getProperty(key))) {
+            final Map<String, String> values = new HashMap<String, String>();
+            updated.setProperty(key, fingerprint);
+            for(String name : KEYS) {
+                final String value = index.getProperty(String.format("%s#%s", key, name));
+                if(value != null) {
+                    values.put(name, value);
+                    updated.setProperty(String.format("%s#%s", key, name), value);
+                }
+            }
+            final String schemes = index.getProperty(String.format("%s#%s", key, SCHEMES));
+            if(schemes != null) {
+                updated.setProperty(String.format("%s#%s", key, SCHEMES), schemes);
+            }
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Found %s in index", profile));
+            }
+            return new ProfileDictionary(protocols).create(new IndexedDeserializer(profile, reader, values,
+                null == schemes ? null : Arrays.asList(StringUtils.split(schemes, ' '))));
+        }
+        final Profile parsed = reader.read(profile);
+        if(null == parsed) {
+            return null;
+        }
+        final Deserializer<String> dict = parsed.getDictionary();
+        updated.setProperty(key, fingerprint);
+        for(String name : KEYS) {
+            final String value = dict.stringForKey(name);
+            if(value != null) {
+                updated.setProperty(String.format("%s#%s", key, name), value);
+            }
+        }
+        final List<String> schemes = dict.listForKey(SCHEMES);
+        if(schemes != null) {
+            updated.setProperty(String.format("%s#%s", key, SCHEMES), StringUtils.join(schemes, ' '));
+        }
+        modified = true;
+        return parsed;
+    }
+
+    /**
+     * @return Size and modification date of file
+     */
+    private static String fingerprint(final Local profile) {
+        return String.format("%d %d", profile.attributes().getSize(), profile.attributes().getModificationDate());
+    }
+
+    private Properties load() {
+        if(null == properties) {
+            properties = new Properties();
+            if(file.exists()) {
+                try (InputStream in = file.getInputStream()) {
+                    properties.load(in);
+                }
+                catch(AccessDeniedException e) {
+                    log.warn(String.format("Failure reading %s. %s", file.getAbsolute(), e.getDetail()));
+                }
+                catch(IOException e) {
+                    log.warn(String.format("Failure reading %s. %s", file.getAbsolute(), e.getMessage()));
+                }
+                if(!StringUtils.equals(version, properties.getProperty(VERSION))) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Discard index %s written with version %s", file, properties.getProperty(VERSION)));
+                    }
+                    properties.clear();
+                }
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Write to disk if profiles were added, changed or removed
+     */
+    public synchronized void save() {
+        if(!modified && updated.size() + 1 == this.load().size()) {
+            return;
+        }
+        try {
+            new DefaultLocalDirectoryFeature().mkdir(file.getParent());
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving %s. %s", file.getAbsolute(), e.getDetail()));
+        }
+        updated.setProperty(VERSION, version);
+        try (OutputStream out = file.getOutputStream(false)) {
+            updated.store(out, "Index of profiles");
+            properties = null;
+            modified = false;
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving %s. %s", file.getAbsolute(), e.getDetail()));
+        }
+        catch(IOException e) {
+            log.warn(String.format("Failure saving %s. %s", file.getAbsolute(), e.getMessage()));
+        }
+        finally {
+            updated.remove(VERSION);
+        }
+    }
+
+    /**
+     * Values from index with all other values read from profile on first use
+     */
+    private static final class IndexedDeserializer implements Deserializer<String> {
+        private final Local file;
+        private final Reader<Profile> reader;
+        private final Map<String, String> values;
+        private final List<String> schemes;
+
+        private Deserializer<String> dict;
+        private boolean failure;
+
+        public IndexedDeserializer(final Local file, final Reader<Profile> reader, final Map<String, String> values, final List<String> schemes) {
+            this.file = file;
+            this.reader = reader;
+            this.values = values;
+            this.schemes = schemes;
+        }
+
+        private synchronized Deserializer<String> dict() {
+            if(null == dict && !failure) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Read profile %s on first use", file));
+                }
+                try {
+                    final Profile profile = reader.read(file);
+                    if(null == profile) {
+                        failure = true;
+                    }
+                    else {
+                        dict = profile.getDictionary();
+                    }
+                }
+                catch(AccessDeniedException e) {
+                    log.warn(String.format("Failure reading profile %s. %s", file, e.getDetail()));
+                    failure = true;
+                }
+            }
+            return dict;
+        }
+
+        @Override
+        public String stringForKey(final String key) {
+            if(KEYS.contains(key)) {
+                return values.get(key);
+            }
+            final Deserializer<String> dict = this.dict();
+            if(null == dict) {
+                return null;
+            }
+            return dict.stringForKey(key);
+        }
+
+        @Override
+        public String objectForKey(final String key) {
+            final Deserializer<String> dict = this.dict();
+            if(null == dict) {
+                return null;
+            }
+            return dict.objectForKey(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <L> List<L> listForKey(final String key) {
+            if(SCHEMES.equals(key)) {
+                return (List<L>) schemes;
+            }
+            final Deserializer<String> dict = this.dict();
+            if(null == dict) {
+                return null;
+            }
+            return dict.listForKey(key);
+        }
+
+        @Override
+        public Map<String, String> mapForKey(final String key) {
+            final Deserializer<String> dict = this.dict();
+            if(null == dict) {
+                return null;
+            }
+            return dict.mapForKey(key);
+        }
+
+        @Override
+        public boolean booleanForKey(final String key) {
+            final Deserializer<String> dict = this.dict();
+            if(null == dict) {
+                return false;
+            }
+            return dict.booleanForKey(key);
+        }
+
+        @Override
+        public List<String> keys() {
+            final Deserializer<String> dict = this.dict();
+            if(null == dict) {
+                return new ArrayList<String>(values.keySet());
+            }
+            return dict.keys();
+        }
+    }
+}
@@ -24,9 +24,13 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -44,6 +48,11 @@ public final class ProtocolFactory {
     private final Set<Protocol> registered;
     private final Local bundle;
 
+    /**
+     * Lookup tables for enabled protocols. Reset when protocols are registered
+     */
+    private volatile Index index;
+
     public ProtocolFactory() {
         this(new LinkedHashSet<Protocol>());
     }
@@ -69,13 +78,21 @@ public final class ProtocolFactory {
      * Load profiles embedded in bundles and installed in the application support directory.
      */
     public void loadDefaultProfiles() {
+        this.loadDefaultProfiles(PreferencesFactory.get().getBoolean("profiles.index.enable") ?
+            new ProfileIndex(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Profiles.index"), this) : null);
+    }
+
+    /**
+     * @param index Index to register unchanged profiles without parsing or null to read all profiles
+     */
+    public void loadDefaultProfiles(final ProfileIndex index) {
         if(bundle.exists()) {
             try {
                 if(log.isDebugEnabled()) {
                     log.debug(String.format("Load profiles from %s", bundle));
                 }
                 for(Local f : bundle.list().filter(new ProfileFilter())) {
-                    final Profile profile = ProfileReaderFactory.get().read(f);
+                    final Profile profile = null == index ? ProfileReaderFactory.get().read(f) : index.read(f);
                     if(null == profile) {
                         continue;
                     }
@@ -84,6 +101,7 @@ public final class ProtocolFactory {
                     }
                     // Replace previous possibly disable protocol in Preferences
                     registered.add(profile);
+                    index = null;
                 }
             }
             catch(AccessDeniedException e) {
@@ -99,7 +117,7 @@ public final class ProtocolFactory {
                     log.debug(String.format("Load profiles from %s", library));
                 }
                 for(Local profile : library.list().filter(new ProfileFilter())) {
-                    final Profile protocol = ProfileReaderFactory.get().read(profile);
+                    final Profile protocol = null == index ? ProfileReaderFactory.get().read(profile) : index.read(profile);
                     if(null == protocol) {
                         continue;
                     }
@@ -108,12 +126,16 @@ public final class ProtocolFactory {
                     }
                     // Replace previous possibly disable protocol in Preferences
                     registered.add(protocol);
+                    index = null;
                 }
             }
             catch(AccessDeniedException e) {
                 log.warn(String.format("Failure reading collection %s %s", library, e.getMessage()));
             }
         }
+        if(index != null) {
+            index.save();
+        }
     }
 
     public void register(final Protocol protocol) {
@@ -122,13 +144,28 @@ public final class ProtocolFactory {
             return;
         }
         registered.add(protocol);
+        index = null;
     }
 
     /**
      * @return List of enabled protocols
      */
     public List<Protocol> find() {
-        return this.find(Protocol::isEnabled);
+        return new ArrayList<Protocol>(this.index().enabled);
+    }
+
+    private Index index() {
+        Index current = index;
+        if(null == current) {
+            synchronized(this) {
+                current = index;
+                if(null == current) {
+                    current = new Index(this.find(Protocol::isEnabled));
+                    index = current;
+                }
+            }
+        }
+        return current;
     }
 
     /**
@@ -153,7 +190,15 @@ public final class ProtocolFactory {
      * @return Matching protocol or null if no match
      */
     public Protocol forName(final String identifier, final String provider) {
-        return this.forName(this.find(), identifier, provider);
+        final Index index = this.index();
+        final Protocol match = index.forName(identifier, provider);
+        if(null == match) {
+            if(index.enabled.isEmpty()) {
+                log.error(String.format("List of registered protocols in %s is empty", this));
+            }
+            log.error(String.format("Missing registered protocol for identifier %s", identifier));
+        }
+        return match;
     }
 
     /**
@@ -188,12 +233,7 @@ public final class ProtocolFactory {
     }
 
     public Protocol forType(final Protocol.Type type) {
-        final List<Protocol> enabled = this.find();
-        return this.forType(enabled, type);
-    }
-
-    private Protocol forType(final List<Protocol> enabled, final Protocol.Type type) {
-        return enabled.stream().filter(protocol -> protocol.getType().equals(type)).findFirst().orElse(null);
+        return this.index().types.get(type.name());
     }
 
     public Protocol forScheme(final Scheme scheme) {
@@ -201,27 +241,97 @@ public final class ProtocolFactory {
     }
 
     public Protocol forScheme(final String scheme, final Protocol fallback) {
-        return this.forScheme(this.find(), scheme, fallback);
+        return this.index().forScheme(scheme, fallback);
     }
 
-    private Protocol forScheme(final List<Protocol> enabled, final String scheme, final Protocol fallback) {
-        final String filter;
+    private static String filter(final String scheme) {
         switch(scheme) {
             case "http":
-                filter = Scheme.dav.name();
-                break;
+                return Scheme.dav.name();
             case "https":
-                filter = Scheme.davs.name();
-                break;
+                return Scheme.davs.name();
             default:
-                filter = scheme;
-                break;
+                return scheme;
         }
+    }
+
+    private Protocol forScheme(final List<Protocol> enabled, final String scheme, final Protocol fallback) {
+        final String filter = filter(scheme);
         return enabled.stream().filter(protocol -> Arrays.asList(protocol.getSchemes()).contains(filter)).findFirst().orElse(
             enabled.stream().filter(protocol -> Arrays.asList(protocol.getSchemes()).contains(scheme)).findFirst().orElse(fallback)
         );
     }
 
+    /**
+     * Hash tables with first match in sorted list of enabled protocols for every criteria used for lookup
+     */
+    private static final class Index {
+        private final List<Protocol> enabled;
+
+        private final Map<String, Protocol> hashcodes = new HashMap<String, Protocol>();
+        private final Map<String, Protocol> profiles = new HashMap<String, Protocol>();
+        private final Map<String, Protocol> providers = new HashMap<String, Protocol>();
+        private final Map<String, Protocol> identifiers = new HashMap<String, Protocol>();
+        private final Map<String, Protocol> types = new HashMap<String, Protocol>();
+        private final Map<String, Protocol> schemes = new HashMap<String, Protocol>();
+
+        private Index(final List<Protocol> enabled) {
+            this.enabled = Collections.unmodifiableList(enabled);
+            final ProfileProtocolPredicate predicate = new ProfileProtocolPredicate();
+            for(Protocol protocol : enabled) {
+                hashcodes.putIfAbsent(String.valueOf(protocol.hashCode()), protocol);
+                if(protocol.getProvider() != null) {
+                    if(predicate.test(protocol)) {
+                        profiles.putIfAbsent(protocol.getProvider(), protocol);
+                    }
+                    providers.putIfAbsent(protocol.getProvider(), protocol);
+                }
+                identifiers.putIfAbsent(String.format("%s-%s", protocol.getIdentifier(), protocol.getProvider()), protocol);
+                types.putIfAbsent(protocol.getType().name(), protocol);
+                for(String scheme : protocol.getSchemes()) {
+                    schemes.putIfAbsent(scheme, protocol);
+                }
+            }
+        }
+
+        /**
+         * Same order of precedence as lookup in list of protocols
+         *
+         * @see ProtocolFactory#forName(List, String, String)
+         */
+        private Protocol forName(final String identifier, final String provider) {
+            if(null != identifier && hashcodes.containsKey(identifier)) {
+                // Matching hash code backward compatibility
+                return hashcodes.get(identifier);
+            }
+            if(null != provider && profiles.containsKey(provider)) {
+                // Matching vendor string for third party profiles
+                return profiles.get(provider);
+            }
+            if(null == identifier) {
+                return null;
+            }
+            if(providers.containsKey(identifier)) {
+                // Matching vendor string usage in CLI
+                return providers.get(identifier);
+            }
+            if(identifiers.containsKey(identifier)) {
+                // Fallback for bug in 6.1
+                return identifiers.get(identifier);
+            }
+            // Matching scheme with fallback to generic protocol type
+            return this.forScheme(identifier, types.get(identifier));
+        }
+
+        private Protocol forScheme(final String scheme, final Protocol fallback) {
+            final Protocol match = schemes.get(filter(scheme));
+            if(null != match) {
+                return match;
+            }
+            return schemes.getOrDefault(scheme, fallback);
+        }
+    }
+
     private static final class ProfileFilter implements Filter<Local> {
         @Override
         public boolean accept(final Local file) {
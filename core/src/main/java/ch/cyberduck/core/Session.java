@@ -249,6 +249,15 @@ public abstract class Session<C> implements TranscriptListener {
         return state == State.open;
     }
 
+    /**
+     * Probe connection with cheap protocol specific request such as a keepalive without reconnecting
+     *
+     * @return False if the connection is no longer usable
+     */
+    public boolean alive() throws BackgroundException {
+        return this.isConnected();
+    }
+
     /**
      * @return True if a connection attempt is currently being made. False if the connection
      * has already been established or is closed.
@@ -271,6 +280,22 @@ public abstract class Session<C> implements TranscriptListener {
         }
     }
 
+    /**
+     * @return False if no listener is interested in transcript messages
+     */
+    @Override
+    public boolean isEnabled() {
+        if(transcript.isEnabled()) {
+            return true;
+        }
+        for(TranscriptListener listener : listeners) {
+            if(listener.isEnabled()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Get feature implementation
      *
@@ -30,4 +30,11 @@ public interface TranscriptListener {
      * @param message Data
      */
     void log(Type request, String message);
+
+    /**
+     * @return False if messages are discarded and callers can skip formatting
+     */
+    default boolean isEnabled() {
+        return true;
+    }
 }
@@ -19,33 +19,42 @@ package ch.cyberduck.core.date;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.text.DateFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
 import java.util.Date;
 import java.util.TimeZone;
 
+/**
+ * Formatter backed by an immutable formatter that can be shared between threads without locking
+ */
 public abstract class AbstractDateFormatter implements DateFormatter {
 
-    private final DateFormat format;
+    private final DateTimeFormatter format;
+    private final DateTimeFormatter parser;
+
+    protected AbstractDateFormatter(final DateTimeFormatter format) {
+        this(format, format);
+    }
 
-    protected AbstractDateFormatter(final DateFormat format) {
+    /**
+     * @param format Formatter for output
+     * @param parser Formatter for input accepting variants of the output format
+     */
+    protected AbstractDateFormatter(final DateTimeFormatter format, final DateTimeFormatter parser) {
         this.format = format;
+        this.parser = parser;
     }
 
     @Override
     public String format(final Date input, final TimeZone zone) {
-        synchronized(format) {
-            format.setTimeZone(zone);
-            return format.format(input);
-        }
+        return this.format(input.getTime(), zone);
     }
 
     @Override
     public String format(final long milliseconds, final TimeZone zone) {
-        synchronized(format) {
-            format.setTimeZone(zone);
-            return format.format(milliseconds);
-        }
+        return format.withZone(zone.toZoneId()).format(java.time.Instant.ofEpochMilli(milliseconds));
     }
 
     @Override
@@ -53,13 +62,14 @@ public abstract class AbstractDateFormatter implements DateFormatter {
         if(StringUtils.isBlank(input)) {
             throw new InvalidDateException();
         }
-        synchronized(format) {
-            try {
-                return format.parse(input);
-            }
-            catch(ParseException e) {
-                throw new InvalidDateException(e.getMessage(), e);
-            }
+        // Trailing text is ignored
+        final ParsePosition position = new ParsePosition(0);
+        try {
+            final TemporalAccessor parsed = parser.parse(input, position);
+            return new Date(java.time.Instant.from(parsed).toEpochMilli());
+        }
+        catch(DateTimeException e) {
+            throw new InvalidDateException(e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,128 @@
+package ch.cyberduck.core.date;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+/**
+ * Field parsing for timestamps with fixed width fields in UTC without allocating intermediate objects
+ */
+final class FixedWidthDateParser {
+
+    private static final String[] MONTHS = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    /**
+     * Days from 0000-01-01 to 1970-01-01 in the proleptic Gregorian calendar
+     */
+    private static final long DAYS_0000_TO_1970 = 719528L;
+
+    private FixedWidthDateParser() {
+        //
+    }
+
+    /**
+     * @return Decimal value or -1 if any character is not a digit
+     */
+    static int digits(final String input, final int offset, final int length) {
+        int value = 0;
+        for(int i = offset; i < offset + length; i++) {
+            final char c = input.charAt(i);
+            if(c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * @return Month from 1 to 12 for English three letter abbreviation or -1 if unknown
+     */
+    static int month(final String input, final int offset) {
+        for(int i = 0; i < MONTHS.length; i++) {
+            if(input.regionMatches(true, offset, MONTHS[i], 0, 3)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returned for fields out of range
+     */
+    static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * @return Milliseconds since epoch or #INVALID if any field is out of range
+     */
+    static long toMillis(final int year, final int month, final int day,
+                         final int hour, final int minute, final int second, final int millis) {
+        if(year < 0) {
+            return INVALID;
+        }
+        if(month < 1 || month > 12) {
+            return INVALID;
+        }
+        if(day < 1 || day > days(year, month)) {
+            return INVALID;
+        }
+        if(hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || millis < 0 || millis > 999) {
+            return INVALID;
+        }
+        final long seconds = epochDay(year, month, day) * 86400L + hour * 3600L + minute * 60L + second;
+        return seconds * 1000L + millis;
+    }
+
+    private static boolean isLeap(final long year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int days(final int year, final int month) {
+        switch(month) {
+            case 2:
+                return isLeap(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @see java.time.LocalDate#toEpochDay()
+     */
+    private static long epochDay(final long year, final long month, final long day) {
+        long total = 365 * year;
+        if(year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        }
+        else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if(month > 2) {
+            total--;
+            if(!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
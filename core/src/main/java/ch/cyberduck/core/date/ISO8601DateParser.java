@@ -199,6 +199,72 @@ public final class ISO8601DateParser {
         if(StringUtils.isBlank(input)) {
             throw new InvalidDateException();
         }
+        final long millis = this.parseFixedWidth(input);
+        if(millis != FixedWidthDateParser.INVALID) {
+            return new Date(millis);
+        }
         return this.getCalendar(input).getTime();
     }
+
+    /**
+     * Fast path for complete timestamps YYYY-MM-DDThh:mm:ss with optional fraction and UTC designator or offset
+     *
+     * @return Milliseconds since epoch or invalid if input does not match
+     */
+    private long parseFixedWidth(final String input) {
+        final int length = input.length();
+        if(length < 19 || input.charAt(4) != '-' || input.charAt(7) != '-' || input.charAt(10) != 'T'
+                || input.charAt(13) != ':' || input.charAt(16) != ':') {
+            return FixedWidthDateParser.INVALID;
+        }
+        int position = 19;
+        int millis = 0;
+        if(position < length && input.charAt(position) == '.') {
+            final int start = ++position;
+            while(position < length && input.charAt(position) >= '0' && input.charAt(position) <= '9') {
+                position++;
+            }
+            final int digits = position - start;
+            if(digits == 0) {
+                return FixedWidthDateParser.INVALID;
+            }
+            // Cut trailing digits
+            millis = FixedWidthDateParser.digits(input, start, Math.min(digits, 3));
+            for(int i = digits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+        long offset = 0L;
+        if(position < length) {
+            final char designator = input.charAt(position);
+            if(designator == 'Z' && position + 1 == length) {
+                // UTC
+            }
+            else if((designator == '+' || designator == '-') && position + 6 == length && input.charAt(position + 3) == ':') {
+                final int hours = FixedWidthDateParser.digits(input, position + 1, 2);
+                final int minutes = FixedWidthDateParser.digits(input, position + 4, 2);
+                if(hours < 0 || minutes < 0) {
+                    return FixedWidthDateParser.INVALID;
+                }
+                offset = (hours * 60L + minutes) * 60000L;
+                if(designator == '-') {
+                    offset = -offset;
+                }
+            }
+            else {
+                return FixedWidthDateParser.INVALID;
+            }
+        }
+        final long utc = FixedWidthDateParser.toMillis(
+                FixedWidthDateParser.digits(input, 0, 4),
+                FixedWidthDateParser.digits(input, 5, 2),
+                FixedWidthDateParser.digits(input, 8, 2),
+                FixedWidthDateParser.digits(input, 11, 2),
+                FixedWidthDateParser.digits(input, 14, 2),
+                FixedWidthDateParser.digits(input, 17, 2), millis);
+        if(utc == FixedWidthDateParser.INVALID) {
+            return FixedWidthDateParser.INVALID;
+        }
+        return utc - offset;
+    }
 }
@@ -17,22 +17,37 @@ package ch.cyberduck.core.date;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
-import java.text.SimpleDateFormat;
-import java.util.TimeZone;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
 
 public class MDTMMillisecondsDateFormatter extends AbstractDateFormatter {
 
     /**
      * Format to interpret MTDM timestamp
      */
-    private static final SimpleDateFormat format =
-            new SimpleDateFormat("yyyyMMddHHmmss.SSS");
-
-    static {
-        format.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
+    private static final DateTimeFormatter format =
+            DateTimeFormatter.ofPattern("uuuuMMddHHmmss.SSS").withZone(ZoneOffset.UTC);
 
     public MDTMMillisecondsDateFormatter() {
         super(format);
     }
+
+    @Override
+    public Date parse(final String input) throws InvalidDateException {
+        if(input != null && input.length() >= 18 && input.charAt(14) == '.') {
+            final long millis = FixedWidthDateParser.toMillis(
+                    FixedWidthDateParser.digits(input, 0, 4),
+                    FixedWidthDateParser.digits(input, 4, 2),
+                    FixedWidthDateParser.digits(input, 6, 2),
+                    FixedWidthDateParser.digits(input, 8, 2),
+                    FixedWidthDateParser.digits(input, 10, 2),
+                    FixedWidthDateParser.digits(input, 12, 2),
+                    FixedWidthDateParser.digits(input, 15, 3));
+            if(millis != FixedWidthDateParser.INVALID) {
+                return new Date(millis);
+            }
+        }
+        return super.parse(input);
+    }
 }
@@ -17,7 +17,10 @@ package ch.cyberduck.core.date;
  * Bug fixes, suggestions and comments should be sent to feedback@cyberduck.ch
  */
 
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.Date;
 import java.util.Locale;
 
 public class RFC1123DateFormatter extends AbstractDateFormatter {
@@ -26,10 +29,46 @@ public class RFC1123DateFormatter extends AbstractDateFormatter {
      * Format to RFC 1123 timestamp
      * Expires: Thu, 01 Dec 1994 16:00:00 GMT
      */
-    private static final SimpleDateFormat rfc1123 =
-            new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.ROOT);
+    private static final DateTimeFormatter rfc1123 =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss z", Locale.ROOT);
+
+    /**
+     * Parse with optional day of week not validated against date, single digit day and zone name or numeric offset
+     * Expires: Tue, 3 Jun 2008 11:05:30 +0000
+     */
+    private static final DateTimeFormatter lenient = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .optionalStart().appendPattern("EEE, ").optionalEnd()
+            .appendPattern("d MMM yyyy HH:mm:ss ")
+            .optionalStart().appendPattern("z").optionalEnd()
+            .optionalStart().appendPattern("Z").optionalEnd()
+            .toFormatter(Locale.ROOT)
+            // Drop parsed day of week
+            .withResolverFields(ChronoField.YEAR_OF_ERA, ChronoField.MONTH_OF_YEAR, ChronoField.DAY_OF_MONTH,
+                    ChronoField.HOUR_OF_DAY, ChronoField.MINUTE_OF_HOUR, ChronoField.SECOND_OF_MINUTE,
+                    ChronoField.OFFSET_SECONDS);
 
     public RFC1123DateFormatter() {
-        super(rfc1123);
+        super(rfc1123, lenient);
+    }
+
+    @Override
+    public Date parse(final String input) throws InvalidDateException {
+        // Fixed width format in UTC as sent in HTTP headers
+        if(input != null && input.length() == 29 && input.charAt(3) == ','
+                && input.charAt(19) == ':' && input.charAt(22) == ':'
+                && (input.endsWith(" GMT") || input.endsWith(" UTC"))) {
+            final long millis = FixedWidthDateParser.toMillis(
+                    FixedWidthDateParser.digits(input, 12, 4),
+                    FixedWidthDateParser.month(input, 8),
+                    FixedWidthDateParser.digits(input, 5, 2),
+                    FixedWidthDateParser.digits(input, 17, 2),
+                    FixedWidthDateParser.digits(input, 20, 2),
+                    FixedWidthDateParser.digits(input, 23, 2), 0);
+            if(millis != FixedWidthDateParser.INVALID) {
+                return new Date(millis);
+            }
+        }
+        return super.parse(input);
     }
-}
\ No newline at end of file
+}
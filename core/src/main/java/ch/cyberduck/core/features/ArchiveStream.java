@@ -0,0 +1,46 @@
+package ch.cyberduck.core.features;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import java.util.Map;
+
+/**
+ * Transfer many files in a single archive stream instead of one request per file. Files transferred are
+ * marked complete in their status and skipped when transferring individually. Remaining files are
+ * transferred individually as a fallback.
+ */
+public interface ArchiveStream {
+
+    /**
+     * @param files    Prepared files with status
+     * @param throttle Bandwidth
+     * @param listener Progress of bytes received
+     */
+    void download(Map<TransferItem, TransferStatus> files, BandwidthThrottle throttle, StreamListener listener) throws BackgroundException;
+
+    /**
+     * @param files    Prepared files with status
+     * @param throttle Bandwidth
+     * @param listener Progress of bytes sent
+     */
+    void upload(Map<TransferItem, TransferStatus> files, BandwidthThrottle throttle, StreamListener listener) throws BackgroundException;
+}
@@ -18,6 +18,7 @@ package ch.cyberduck.core.http;
  */
 
 import ch.cyberduck.core.Host;
+import ch.cyberduck.core.HostUrlProvider;
 import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.ProxyCredentialsStoreFactory;
@@ -34,6 +35,7 @@ import ch.cyberduck.core.ssl.TrustManagerHostnameCallback;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthSchemeProvider;
 import org.apache.http.client.config.AuthSchemes;
@@ -75,12 +77,17 @@ public class HttpConnectionPoolBuilder {
     private final ConnectionSocketFactory socketFactory;
     private final ConnectionSocketFactory sslSocketFactory;
     private final Host host;
+    /**
+     * Trust and key manager referenced by socket factory or null if unknown
+     */
+    private final X509TrustManager trust;
+    private final X509KeyManager key;
 
     public HttpConnectionPoolBuilder(final Host host,
                                      final ThreadLocalHostnameDelegatingTrustManager trust,
                                      final X509KeyManager key,
                                      final ProxyFinder proxy) {
-        this(host, new PlainConnectionSocketFactory() {
+        this(host, trust, key, new PlainConnectionSocketFactory() {
             @Override
             public Socket createSocket(final HttpContext context) throws IOException {
                 // Return socket factory with disabled support for HTTP tunneling as provided internally
@@ -120,7 +127,7 @@ public class HttpConnectionPoolBuilder {
 
     protected HttpConnectionPoolBuilder(final Host host, final X509TrustManager trust, final X509KeyManager key,
                                         final SocketFactory socketFactory) {
-        this(host, new PlainConnectionSocketFactory() {
+        this(host, trust, key, new PlainConnectionSocketFactory() {
             @Override
             public Socket createSocket(final HttpContext context) throws IOException {
                 return socketFactory.createSocket();
@@ -152,7 +159,17 @@ public class HttpConnectionPoolBuilder {
     public HttpConnectionPoolBuilder(final Host host,
                                      final ConnectionSocketFactory socketFactory,
                                      final ConnectionSocketFactory sslSocketFactory) {
+        this(host, null, null, socketFactory, sslSocketFactory);
+    }
+
+    private HttpConnectionPoolBuilder(final Host host,
+                                      final X509TrustManager trust,
+                                      final X509KeyManager key,
+                                      final ConnectionSocketFactory socketFactory,
+                                      final ConnectionSocketFactory sslSocketFactory) {
         this.host = host;
+        this.trust = trust;
+        this.key = key;
         this.socketFactory = socketFactory;
         this.sslSocketFactory = sslSocketFactory;
     }
@@ -203,7 +220,16 @@ public class HttpConnectionPoolBuilder {
         configuration.setRequestExecutor(new LoggingHttpRequestExecutor(listener));
         // Always register HTTP for possible use with proxy. Contains a number of protocol properties such as the
         // default port and the socket factory to be used to create the java.net.Socket instances for the given protocol
-        configuration.setConnectionManager(this.createConnectionManager(this.createRegistry()));
+        if(preferences.getBoolean("http.connections.shared.enable") && null != trust) {
+            // Share keep-alive connections and TLS sessions with other sessions to the same endpoint using the same
+            // trust and key manager as captured by the socket factories of the pool
+            final Registry<ConnectionSocketFactory> registry = this.createRegistry();
+            configuration.setConnectionManager(HttpConnectionPoolRegistry.global().acquire(this.toSharedKey(proxy),
+                () -> this.createSharedConnectionManager(registry), preferences.getInteger("http.connections.route")));
+        }
+        else {
+            configuration.setConnectionManager(this.createConnectionManager(this.createRegistry()));
+        }
         configuration.setDefaultAuthSchemeRegistry(RegistryBuilder.<AuthSchemeProvider>create()
             .register(AuthSchemes.BASIC, new BasicSchemeFactory(
                 Charset.forName(preferences.getProperty("http.credentials.charset"))))
@@ -248,4 +274,23 @@ public class HttpConnectionPoolBuilder {
         manager.setValidateAfterInactivity(5000);
         return manager;
     }
+
+    /**
+     * @param registry Socket factories
+     * @return Pool shared by sessions with larger limit per route than the quota per session
+     */
+    public PoolingHttpClientConnectionManager createSharedConnectionManager(final Registry<ConnectionSocketFactory> registry) {
+        final PoolingHttpClientConnectionManager manager = this.createConnectionManager(registry);
+        manager.setDefaultMaxPerRoute(preferences.getInteger("http.connections.shared.route"));
+        return manager;
+    }
+
+    /**
+     * @param proxy Proxy configuration
+     * @return Identifier of endpoint, credentials, proxy and trust context for connections that can be shared
+     */
+    protected HttpConnectionPoolRegistry.Key toSharedKey(final Proxy proxy) {
+        return new HttpConnectionPoolRegistry.Key(String.format("%s %s %s", new HostUrlProvider().withUsername(true).withPath(false).get(host),
+            StringUtils.defaultString(host.getCredentials().getCertificate()), proxy), trust, key);
+    }
 }
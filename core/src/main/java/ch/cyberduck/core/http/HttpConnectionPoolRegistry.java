@@ -0,0 +1,186 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Connection pools shared by all sessions to the same endpoint with the same credentials, proxy and trust context.
+ * Keep-alive connections and the TLS session cache of the socket factory are reused by concurrent sessions. Idle
+ * connections are closed after the idle timeout and a pool is shut down when the last session using it is closed.
+ */
+public class HttpConnectionPoolRegistry {
+    private static final Logger log = Logger.getLogger(HttpConnectionPoolRegistry.class);
+
+    private static final class Global {
+        private static final HttpConnectionPoolRegistry registry = new HttpConnectionPoolRegistry(
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("http.connections.shared.idle.seconds")));
+    }
+
+    /**
+     * @return Registry for process
+     */
+    public static HttpConnectionPoolRegistry global() {
+        return Global.registry;
+    }
+
+    /**
+     * Identifies pools that can be shared. The trust and key manager of the session creating the pool are referenced
+     * by its socket factory and therefore compared by identity.
+     */
+    public static final class Key {
+        private final String endpoint;
+        private final Object trust;
+        private final Object key;
+
+        /**
+         * @param endpoint Endpoint, credentials and proxy
+         * @param trust    Trust manager
+         * @param key      Key manager
+         */
+        public Key(final String endpoint, final Object trust, final Object key) {
+            this.endpoint = endpoint;
+            this.trust = trust;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return trust == other.trust && key == other.key && Objects.equals(endpoint, other.endpoint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, System.identityHashCode(trust), System.identityHashCode(key));
+        }
+
+        @Override
+        public String toString() {
+            return endpoint;
+        }
+    }
+
+    private static final class Pool {
+        private final PoolingHttpClientConnectionManager manager;
+        /**
+         * Number of sessions using pool
+         */
+        private int owners;
+
+        private Pool(final PoolingHttpClientConnectionManager manager) {
+            this.manager = manager;
+        }
+    }
+
+    private final Map<Key, Pool> pools = new HashMap<>();
+    /**
+     * Idle timeout in milliseconds
+     */
+    private final long idle;
+
+    private ScheduledThreadPool evictor;
+
+    public HttpConnectionPoolRegistry(final long idle) {
+        this.idle = idle;
+    }
+
+    /**
+     * @param key     Endpoint, credentials, proxy and trust context
+     * @param factory Create pool if none is registered for key
+     * @param quota   Maximum number of connections leased concurrently by owner
+     * @return Connection manager for single owner. Shutdown releases pool
+     */
+    public synchronized HttpClientConnectionManager acquire(final Key key, final Supplier<PoolingHttpClientConnectionManager> factory, final int quota) {
+        Pool pool = pools.get(key);
+        if(null == pool) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Create shared connection pool for %s", key));
+            }
+            pool = new Pool(factory.get());
+            pools.put(key, pool);
+        }
+        else {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Reuse shared connection pool for %s with %s", key, pool.manager.getTotalStats()));
+            }
+        }
+        pool.owners++;
+        if(null == evictor && idle > 0) {
+            evictor = new ScheduledThreadPool();
+            evictor.repeat(this::evict, idle, TimeUnit.MILLISECONDS);
+        }
+        return new SharedHttpClientConnectionManager(this, key, pool.manager, quota);
+    }
+
+    /**
+     * Shutdown pool when released by last owner to not retain its trust and key manager
+     *
+     * @param key Endpoint, credentials, proxy and trust context
+     */
+    protected synchronized void release(final Key key) {
+        final Pool pool = pools.get(key);
+        if(null == pool) {
+            return;
+        }
+        pool.owners--;
+        if(0 == pool.owners) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Shutdown unused shared connection pool for %s", key));
+            }
+            pool.manager.shutdown();
+            pools.remove(key);
+        }
+        if(pools.isEmpty() && null != evictor) {
+            evictor.shutdown();
+            evictor = null;
+        }
+    }
+
+    /**
+     * Close expired connections and connections idle for longer than the idle timeout
+     */
+    protected synchronized void evict() {
+        for(Pool pool : pools.values()) {
+            pool.manager.closeExpiredConnections();
+            pool.manager.closeIdleConnections(idle, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return Number of registered pools
+     */
+    public synchronized int size() {
+        return pools.size();
+    }
+}
@@ -18,6 +18,7 @@ package ch.cyberduck.core.http;
  * feedback@cyberduck.io
  */
 
+import ch.cyberduck.core.BufferedTranscriptListener;
 import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.UseragentProvider;
@@ -34,6 +35,8 @@ import org.apache.http.protocol.HttpContext;
 import org.apache.http.protocol.HttpRequestExecutor;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
 
@@ -41,9 +44,11 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
             = new PreferencesUseragentProvider();
 
     private final TranscriptListener listener;
+    private final BufferedTranscriptListener transcript;
 
     public LoggingHttpRequestExecutor(final TranscriptListener listener) {
         this.listener = listener;
+        this.transcript = new BufferedTranscriptListener(listener);
     }
 
     @Override
@@ -57,21 +62,24 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
 
     @Override
     protected HttpResponse doSendRequest(final HttpRequest request, final HttpClientConnection conn, final HttpContext context) throws IOException, HttpException {
-        synchronized(listener) {
-            listener.log(TranscriptListener.Type.request, request.getRequestLine().toString());
-            for(Header header : request.getAllHeaders()) {
+        if(listener.isEnabled()) {
+            final Header[] headers = request.getAllHeaders();
+            final List<String> lines = new ArrayList<String>(headers.length + 1);
+            lines.add(request.getRequestLine().toString());
+            for(Header header : headers) {
                 switch(header.getName()) {
                     case HttpHeaders.AUTHORIZATION:
                     case "X-Auth-Key":
                     case "X-Auth-Token":
-                        listener.log(TranscriptListener.Type.request, String.format("%s: %s", header.getName(),
+                        lines.add(String.format("%s: %s", header.getName(),
                                 StringUtils.repeat("*", Integer.min(8, StringUtils.length(header.getValue())))));
                         break;
                     default:
-                        listener.log(TranscriptListener.Type.request, header.toString());
+                        lines.add(header.toString());
                         break;
                 }
             }
+            transcript.log(TranscriptListener.Type.request, lines);
         }
         return super.doSendRequest(request, conn, context);
     }
@@ -79,11 +87,14 @@ public class LoggingHttpRequestExecutor extends HttpRequestExecutor {
     @Override
     protected HttpResponse doReceiveResponse(final HttpRequest request, final HttpClientConnection conn, final HttpContext context) throws HttpException, IOException {
         final HttpResponse response = super.doReceiveResponse(request, conn, context);
-        synchronized(listener) {
-            listener.log(TranscriptListener.Type.response, response.getStatusLine().toString());
-            for(Header header : response.getAllHeaders()) {
-                listener.log(TranscriptListener.Type.response, header.toString());
+        if(listener.isEnabled()) {
+            final Header[] headers = response.getAllHeaders();
+            final List<String> lines = new ArrayList<String>(headers.length + 1);
+            lines.add(response.getStatusLine().toString());
+            for(Header header : headers) {
+                lines.add(header.toString());
             }
+            transcript.log(TranscriptListener.Type.response, lines);
         }
         return response;
     }
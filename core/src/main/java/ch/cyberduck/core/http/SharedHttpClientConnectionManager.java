@@ -0,0 +1,130 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * View of a shared connection pool for a single session limiting the number of connections leased concurrently.
+ * Shutdown releases the pool in the registry instead of closing its connections.
+ */
+public class SharedHttpClientConnectionManager implements HttpClientConnectionManager {
+
+    private final HttpConnectionPoolRegistry registry;
+    private final HttpConnectionPoolRegistry.Key key;
+    private final HttpClientConnectionManager proxy;
+    private final Semaphore quota;
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+
+    public SharedHttpClientConnectionManager(final HttpConnectionPoolRegistry registry, final HttpConnectionPoolRegistry.Key key,
+                                             final HttpClientConnectionManager proxy, final int quota) {
+        this.registry = registry;
+        this.key = key;
+        this.proxy = proxy;
+        this.quota = new Semaphore(quota, true);
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+        return new ConnectionRequest() {
+            private volatile ConnectionRequest request;
+            private volatile boolean cancelled;
+
+            @Override
+            public HttpClientConnection get(final long timeout, final TimeUnit unit) throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                if(timeout > 0) {
+                    if(!quota.tryAcquire(timeout, unit)) {
+                        throw new ConnectionPoolTimeoutException("Timeout waiting for connection from shared pool");
+                    }
+                }
+                else {
+                    quota.acquire();
+                }
+                try {
+                    if(cancelled) {
+                        throw new InterruptedException("Connection request cancelled");
+                    }
+                    request = proxy.requestConnection(route, state);
+                    return request.get(timeout, unit);
+                }
+                catch(InterruptedException | ExecutionException | ConnectionPoolTimeoutException | RuntimeException e) {
+                    quota.release();
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                cancelled = true;
+                final ConnectionRequest r = request;
+                return null == r || r.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(final HttpClientConnection conn, final Object newState, final long validDuration, final TimeUnit timeUnit) {
+        try {
+            proxy.releaseConnection(conn, newState, validDuration, timeUnit);
+        }
+        finally {
+            quota.release();
+        }
+    }
+
+    @Override
+    public void connect(final HttpClientConnection conn, final HttpRoute route, final int connectTimeout, final HttpContext context) throws IOException {
+        proxy.connect(conn, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(final HttpClientConnection conn, final HttpRoute route, final HttpContext context) throws IOException {
+        proxy.upgrade(conn, route, context);
+    }
+
+    @Override
+    public void routeComplete(final HttpClientConnection conn, final HttpRoute route, final HttpContext context) throws IOException {
+        proxy.routeComplete(conn, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(final long idletime, final TimeUnit tunit) {
+        proxy.closeIdleConnections(idletime, tunit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        proxy.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        if(shutdown.compareAndSet(false, true)) {
+            registry.release(key);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bandwidth limits by time of day in the format <code>08:00-18:00=102400,18:00-08:00=-1</code> with the rate
+ * in bytes per second. Ranges may wrap around midnight. Outside of any range the configured rate applies.
+ */
+public final class BandwidthSchedule {
+    private static final Logger log = Logger.getLogger(BandwidthSchedule.class);
+
+    private final List<Range> ranges;
+    private final ZoneId zone;
+
+    public BandwidthSchedule(final String schedule) {
+        this(schedule, ZoneId.systemDefault());
+    }
+
+    public BandwidthSchedule(final String schedule, final ZoneId zone) {
+        this.ranges = parse(schedule);
+        this.zone = zone;
+    }
+
+    private static List<Range> parse(final String schedule) {
+        if(StringUtils.isBlank(schedule)) {
+            return Collections.emptyList();
+        }
+        final List<Range> ranges = new ArrayList<>();
+        for(String entry : StringUtils.split(schedule, ',')) {
+            final String range = StringUtils.substringBefore(entry, "=").trim();
+            final String rate = StringUtils.substringAfter(entry, "=").trim();
+            try {
+                ranges.add(new Range(
+                    LocalTime.parse(StringUtils.substringBefore(range, "-").trim()).toSecondOfDay(),
+                    LocalTime.parse(StringUtils.substringAfter(range, "-").trim()).toSecondOfDay(),
+                    Float.parseFloat(rate)));
+            }
+            catch(DateTimeParseException | NumberFormatException e) {
+                log.warn(String.format("Ignore invalid bandwidth schedule entry %s", entry));
+            }
+        }
+        return ranges;
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    /**
+     * @param millis   Wall clock time
+     * @param fallback Rate to return if no range matches
+     * @return Rate in bytes per second for time of day
+     */
+    public float getRate(final long millis, final float fallback) {
+        if(ranges.isEmpty()) {
+            return fallback;
+        }
+        final int second = Instant.ofEpochMilli(millis).atZone(zone).toLocalTime().toSecondOfDay();
+        for(Range range : ranges) {
+            if(range.contains(second)) {
+                return range.rate < 0 ? TokenBucket.UNLIMITED : range.rate;
+            }
+        }
+        return fallback;
+    }
+
+    private static final class Range {
+        private final int start;
+        private final int end;
+        private final float rate;
+
+        private Range(final int start, final int end, final float rate) {
+            this.start = start;
+            this.end = end;
+            this.rate = rate;
+        }
+
+        private boolean contains(final int second) {
+            if(start <= end) {
+                return second >= start && second < end;
+            }
+            // Wraps around midnight
+            return second >= start || second < end;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import ch.cyberduck.core.BytecountStreamListener;
 import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
 import org.apache.log4j.Logger;
@@ -28,6 +29,7 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
 
 public final class StreamCopier {
     private static final Logger log = Logger.getLogger(StreamCopier.class);
@@ -90,7 +92,10 @@ public final class StreamCopier {
                 if(offset > 0) {
                     skip(in, offset);
                 }
+                final MetricsRegistry metrics = MetricsRegistry.global();
+                final long start = System.nanoTime();
                 final byte[] buffer = new byte[chunksize];
+                metrics.histogram("stream.buffer", MetricsRegistry.BYTES).record(chunksize);
                 long total = 0;
                 int len = chunksize;
                 if(limit > 0 && limit < chunksize) {
@@ -107,6 +112,9 @@ public final class StreamCopier {
                         break;
                     }
                     else {
+                        if(0 == total) {
+                            metrics.histogram("stream.ttfb", MetricsRegistry.NANOSECONDS).record(System.nanoTime() - start);
+                        }
                         listener.recv(read);
                         out.write(buffer, 0, read);
                         progress.progress(read);
@@ -126,6 +134,11 @@ public final class StreamCopier {
                 }
                 final StreamCloser c = new DefaultStreamCloser();
                 c.close(out);
+                final long elapsed = System.nanoTime() - start;
+                metrics.counter("stream.bytes").add(total);
+                if(elapsed > 0) {
+                    metrics.histogram("stream.throughput", MetricsRegistry.BYTES_PER_SECOND).record((long) (total * (double) TimeUnit.SECONDS.toNanos(1L) / elapsed));
+                }
             }
             catch(IOException e) {
                 throw new DefaultIOExceptionMappingService().map(e);
@@ -0,0 +1,261 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.BytecountStreamListener;
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy from input to output stream with reading and writing decoupled on separate threads. Data is handed over
+ * in a bounded ring of reusable buffers. The reader blocks when all buffers are filled and not yet written.
+ */
+public final class StreamRelay {
+    private static final Logger log = Logger.getLogger(StreamRelay.class);
+
+    /**
+     * Interval to check for cancelation or failure of the other side while waiting for a buffer
+     */
+    private static final long POLL_INTERVAL = 100L;
+
+    private final StreamCancelation cancel;
+
+    private final StreamProgress progress;
+
+    private BytecountStreamListener listener
+        = new BytecountStreamListener(new DisabledStreamListener());
+
+    /**
+     * Buffer size
+     */
+    private Integer chunksize
+        = PreferencesFactory.get().getInteger("connection.chunksize");
+
+    /**
+     * Number of buffers in ring
+     */
+    private Integer buffers
+        = PreferencesFactory.get().getInteger("queue.copy.relay.buffers");
+
+    private Long limit = -1L;
+
+    public StreamRelay(final StreamCancelation cancel, final StreamProgress progress) {
+        this.cancel = cancel;
+        this.progress = progress;
+    }
+
+    public StreamRelay withChunksize(final Integer chunksize) {
+        this.chunksize = chunksize;
+        return this;
+    }
+
+    public StreamRelay withBuffers(final Integer buffers) {
+        if(buffers > 0) {
+            this.buffers = buffers;
+        }
+        return this;
+    }
+
+    public StreamRelay withListener(final StreamListener listener) {
+        this.listener = new BytecountStreamListener(listener);
+        return this;
+    }
+
+    public StreamRelay withLimit(final Long limit) {
+        if(limit > 0) {
+            this.limit = limit;
+        }
+        return this;
+    }
+
+    /**
+     * Read from input stream in background thread while writing to output stream in calling thread. Updates
+     * the current number of bytes transferred in the status reference for written bytes only.
+     *
+     * @param in  The stream to read from
+     * @param out The stream to write to
+     */
+    public void transfer(final InputStream in, final OutputStream out) throws BackgroundException {
+        final BlockingQueue<Chunk> free = new ArrayBlockingQueue<Chunk>(buffers);
+        for(int i = 0; i < buffers; i++) {
+            free.add(new Chunk(new byte[chunksize]));
+        }
+        // Additional slot for end of stream marker. Never blocks as the number of chunks in circulation is fixed
+        final BlockingQueue<Chunk> filled = new ArrayBlockingQueue<Chunk>(buffers + 1);
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        final AtomicBoolean eof = new AtomicBoolean();
+        final ThreadPool pool = ThreadPoolFactory.get("relay", 1);
+        try {
+            final Future<Long> reader = pool.execute(new Callable<Long>() {
+                @Override
+                public Long call() throws BackgroundException {
+                    return read(in, free, filled, failure, eof);
+                }
+            });
+            try {
+                this.write(out, free, filled, failure, eof);
+            }
+            catch(IOException e) {
+                failure.compareAndSet(null, e);
+            }
+            catch(InterruptedException e) {
+                failure.compareAndSet(null, new ConnectionCanceledException(e));
+            }
+            try {
+                final Long total = reader.get();
+                if(log.isDebugEnabled()) {
+                    log.debug(String.format("Reader terminated with %d bytes read from stream", total));
+                }
+            }
+            catch(InterruptedException e) {
+                failure.compareAndSet(null, new ConnectionCanceledException(e));
+            }
+            catch(ExecutionException e) {
+                failure.compareAndSet(null, e.getCause() instanceof Exception ? (Exception) e.getCause() : new BackgroundException(e.getCause()));
+            }
+            if(null == failure.get()) {
+                final StreamCloser c = new DefaultStreamCloser();
+                c.close(out);
+            }
+            else {
+                // Discard sent bytes if there is an error reply.
+                final long sent = listener.getSent();
+                progress.progress(-sent);
+                listener.sent(-sent);
+                final long recv = listener.getRecv();
+                listener.recv(-recv);
+                final Exception e = failure.get();
+                if(e instanceof BackgroundException) {
+                    throw (BackgroundException) e;
+                }
+                if(e instanceof IOException) {
+                    throw new DefaultIOExceptionMappingService().map((IOException) e);
+                }
+                throw new BackgroundException(e);
+            }
+        }
+        finally {
+            pool.shutdown(false);
+        }
+        if(cancel.isCanceled()) {
+            throw new ConnectionCanceledException();
+        }
+    }
+
+    private Long read(final InputStream in, final BlockingQueue<Chunk> free, final BlockingQueue<Chunk> filled,
+                      final AtomicReference<Exception> failure, final AtomicBoolean eof) throws BackgroundException {
+        long total = 0;
+        try {
+            while(!cancel.isCanceled() && null == failure.get()) {
+                int len = chunksize;
+                if(limit > 0) {
+                    // Cast will work because chunk size is int
+                    len = (int) Math.min(limit - total, chunksize);
+                }
+                if(0 == len) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Limit %d reached reading from stream", limit));
+                    }
+                    eof.set(true);
+                    break;
+                }
+                final Chunk chunk = free.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                if(null == chunk) {
+                    // Writer has not yet released any buffer
+                    continue;
+                }
+                final int read = in.read(chunk.buffer, 0, len);
+                if(-1 == read) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("End of file reached with %d bytes read from stream", total));
+                    }
+                    eof.set(true);
+                    break;
+                }
+                listener.recv(read);
+                chunk.length = read;
+                filled.put(chunk);
+                total += read;
+            }
+        }
+        catch(IOException e) {
+            failure.compareAndSet(null, e);
+        }
+        catch(InterruptedException e) {
+            failure.compareAndSet(null, new ConnectionCanceledException(e));
+        }
+        finally {
+            filled.offer(Chunk.EOF);
+            final StreamCloser c = new DefaultStreamCloser();
+            c.close(in);
+        }
+        return total;
+    }
+
+    private void write(final OutputStream out, final BlockingQueue<Chunk> free, final BlockingQueue<Chunk> filled,
+                       final AtomicReference<Exception> failure, final AtomicBoolean eof) throws IOException, InterruptedException {
+        while(!cancel.isCanceled() && null == failure.get()) {
+            final Chunk chunk = filled.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+            if(null == chunk) {
+                // Reader has not yet filled any buffer
+                continue;
+            }
+            if(Chunk.EOF == chunk) {
+                if(eof.get()) {
+                    progress.setComplete();
+                }
+                break;
+            }
+            out.write(chunk.buffer, 0, chunk.length);
+            progress.progress(chunk.length);
+            listener.sent(chunk.length);
+            free.put(chunk);
+        }
+    }
+
+    private static final class Chunk {
+        /**
+         * Marker for end of stream
+         */
+        private static final Chunk EOF = new Chunk(new byte[0]);
+
+        private final byte[] buffer;
+
+        private int length;
+
+        private Chunk(final byte[] buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting throughput to a rate in bytes per second with a configurable burst. Buckets form a
+ * hierarchy where every request must be admitted by the bucket and all its parents such as global, host
+ * and transfer.
+ * <p>
+ * Implemented as a virtual scheduling algorithm keeping a single theoretical arrival time per bucket updated
+ * with compare and set. A request reserves its slot at every level and the caller sleeps until the latest
+ * reserved start time. Capacity not used by idle siblings is available to active ones. Grants are limited to
+ * a quantum so concurrent consumers of a shared parent are served interleaved in arrival order.
+ */
+public class TokenBucket {
+    private static final Logger log = Logger.getLogger(TokenBucket.class);
+
+    /**
+     * No throttling
+     */
+    public static final float UNLIMITED = -1f;
+
+    /**
+     * Minimum duration worth of bytes granted per request
+     */
+    private static final long MINIMUM_QUANTUM = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    private final Clock clock;
+    /**
+     * Maximum duration of unused capacity that can be consumed at once in addition to a single quantum
+     */
+    private final long burst;
+    /**
+     * Theoretical arrival time in nanoseconds when all reserved bytes are sent
+     */
+    private final AtomicLong tat;
+
+    /**
+     * Bytes per second allowed
+     */
+    private volatile float rate;
+    private volatile TokenBucket parent;
+    private volatile BandwidthSchedule schedule;
+
+    public TokenBucket(final float rate) {
+        this(rate, null);
+    }
+
+    public TokenBucket(final float rate, final TokenBucket parent) {
+        this(rate, parent, TimeUnit.MILLISECONDS.toNanos(PreferencesFactory.get().getLong("queue.bandwidth.burst.milliseconds")),
+            Clock.SYSTEM);
+    }
+
+    /**
+     * @param rate   Bytes per second or negative for no limit
+     * @param parent Enclosing bucket or null
+     * @param burst  Maximum burst in nanoseconds worth of bytes at the configured rate
+     * @param clock  Time source
+     */
+    public TokenBucket(final float rate, final TokenBucket parent, final long burst, final Clock clock) {
+        this.parent = parent;
+        this.burst = burst;
+        this.clock = clock;
+        this.tat = new AtomicLong(clock.nanoTime() - burst);
+        this.setRate(rate);
+    }
+
+    /**
+     * @param bytesPerSecond Bytes per second or negative for no limit
+     */
+    public void setRate(final float bytesPerSecond) {
+        if(bytesPerSecond < 0) {
+            rate = UNLIMITED;
+        }
+        else {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Set rate to %s bytes per second", bytesPerSecond));
+            }
+            rate = bytesPerSecond;
+        }
+    }
+
+    /**
+     * @return Configured rate in bytes per second
+     */
+    public float getRate() {
+        return rate;
+    }
+
+    /**
+     * @return Rate in effect now taking the time of day schedule into account
+     */
+    public float getEffectiveRate() {
+        final BandwidthSchedule s = schedule;
+        if(null == s) {
+            return rate;
+        }
+        return s.getRate(clock.currentTimeMillis(), rate);
+    }
+
+    public TokenBucket getParent() {
+        return parent;
+    }
+
+    public void setParent(final TokenBucket parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * @param schedule Rates overriding the configured rate by time of day
+     */
+    public void setSchedule(final BandwidthSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    /**
+     * Blocks until the caller can send at least one byte without violating the limit of this bucket or any of its
+     * parents.
+     *
+     * @param desired Number of bytes the caller would like to send
+     * @return Number of bytes the caller is allowed to send which is at least one and at most desired
+     */
+    public int request(final int desired) {
+        int grant = desired;
+        boolean limited = false;
+        for(TokenBucket b = this; b != null; b = b.parent) {
+            final float r = b.getEffectiveRate();
+            if(r == UNLIMITED) {
+                continue;
+            }
+            limited = true;
+            grant = (int) Math.min(grant, b.quantum(r));
+        }
+        if(!limited) {
+            return desired;
+        }
+        final long now = clock.nanoTime();
+        long start = now;
+        for(TokenBucket b = this; b != null; b = b.parent) {
+            final float r = b.getEffectiveRate();
+            if(r == UNLIMITED) {
+                continue;
+            }
+            start = b.reserve(grant, r, start);
+        }
+        if(start > now) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Throttling bandwidth for %d milliseconds", TimeUnit.NANOSECONDS.toMillis(start - now)));
+            }
+            try {
+                clock.sleep(start - now);
+            }
+            catch(InterruptedException e) {
+                log.warn(String.format("Interrupted while throttling bandwidth. %s", e.getMessage()));
+                Thread.currentThread().interrupt();
+            }
+        }
+        return grant;
+    }
+
+    /**
+     * @param r Rate in bytes per second
+     * @return Maximum number of bytes granted per request
+     */
+    private long quantum(final float r) {
+        return Math.max(1L, (long) (r * Math.max(burst, MINIMUM_QUANTUM) / TimeUnit.SECONDS.toNanos(1L)));
+    }
+
+    /**
+     * Reserve slot for bytes not earlier than given time
+     *
+     * @param bytes     Number of bytes
+     * @param r         Rate in bytes per second
+     * @param notBefore Earliest start time in nanoseconds
+     * @return Start time in nanoseconds when bytes can be sent according to this bucket
+     */
+    protected long reserve(final int bytes, final float r, final long notBefore) {
+        final long cost = (long) (bytes * (TimeUnit.SECONDS.toNanos(1L) / (double) Math.max(r, 1f)));
+        while(true) {
+            final long current = tat.get();
+            // Unused capacity up to burst
+            final long base = Math.max(current, notBefore - burst);
+            if(tat.compareAndSet(current, base + cost)) {
+                return Math.max(base, notBefore);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TokenBucket{");
+        sb.append("rate=").append(rate);
+        sb.append(", burst=").append(burst);
+        sb.append(", parent=").append(parent);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Time source to allow deterministic tests
+     */
+    public interface Clock {
+        Clock SYSTEM = new Clock() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public long currentTimeMillis() {
+                return System.currentTimeMillis();
+            }
+
+            @Override
+            public void sleep(final long nanos) throws InterruptedException {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            }
+        };
+
+        /**
+         * @return Monotonic time in nanoseconds
+         */
+        long nanoTime();
+
+        /**
+         * @return Wall clock time in milliseconds
+         */
+        long currentTimeMillis();
+
+        void sleep(long nanos) throws InterruptedException;
+    }
+}
@@ -0,0 +1,63 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared buckets limiting aggregate bandwidth of all transfers in the process and of all transfers to a single host
+ */
+public final class TokenBucketRegistry {
+
+    private static final class Global {
+        private static final TokenBucket bucket;
+
+        static {
+            final Preferences preferences = PreferencesFactory.get();
+            bucket = new TokenBucket(preferences.getFloat("queue.bandwidth.global.bytes"));
+            final BandwidthSchedule schedule = new BandwidthSchedule(preferences.getProperty("queue.bandwidth.schedule"));
+            if(!schedule.isEmpty()) {
+                bucket.setSchedule(schedule);
+            }
+        }
+    }
+
+    private static final Map<String, TokenBucket> hosts = new ConcurrentHashMap<>();
+
+    private TokenBucketRegistry() {
+        //
+    }
+
+    /**
+     * @return Bucket for all transfers in process
+     */
+    public static TokenBucket global() {
+        return Global.bucket;
+    }
+
+    /**
+     * @param hostname Server
+     * @return Bucket for all transfers to host with global bucket as parent
+     */
+    public static TokenBucket host(final String hostname) {
+        return hosts.computeIfAbsent(hostname, key -> new TokenBucket(
+            PreferencesFactory.get().getFloat("queue.bandwidth.host.bytes"), global()));
+    }
+}
@@ -0,0 +1,39 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counter
+ */
+public class Counter implements CounterMBean {
+
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(final long value) {
+        count.add(value);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
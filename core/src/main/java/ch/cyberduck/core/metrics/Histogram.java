@@ -0,0 +1,138 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values with logarithmic buckets. Each power of two is divided into
+ * eight linear sub-buckets bounding the relative error of percentiles to 12.5%.
+ */
+public class Histogram implements HistogramMBean {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String unit;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * @param unit Unit of recorded values
+     */
+    public Histogram(final String unit) {
+        this.unit = unit;
+    }
+
+    public void record(final long value) {
+        final long v = Math.max(0L, value);
+        buckets.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+        min.accumulate(v);
+        max.accumulate(v);
+    }
+
+    static int index(final long value) {
+        if(value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return Highest value in bucket
+     */
+    static long upper(final int index) {
+        if(index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        final long lower = (SUB_BUCKETS + index % SUB_BUCKETS) * width;
+        return lower + width - 1;
+    }
+
+    /**
+     * @param quantile Between 0 and 1
+     * @return Upper bound of bucket containing quantile
+     */
+    public long getPercentile(final double quantile) {
+        final long total = count.sum();
+        if(0L == total) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0L;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if(seen >= rank) {
+                return Math.min(upper(i), this.getMax());
+            }
+        }
+        return this.getMax();
+    }
+
+    @Override
+    public String getUnit() {
+        return unit;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getMin() {
+        return 0L == count.sum() ? 0L : min.get();
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public double getMean() {
+        final long total = count.sum();
+        return 0L == total ? 0d : (double) sum.sum() / total;
+    }
+
+    @Override
+    public long get50thPercentile() {
+        return this.getPercentile(0.5d);
+    }
+
+    @Override
+    public long get95thPercentile() {
+        return this.getPercentile(0.95d);
+    }
+
+    @Override
+    public long get99thPercentile() {
+        return this.getPercentile(0.99d);
+    }
+}
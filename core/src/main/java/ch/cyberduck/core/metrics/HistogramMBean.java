@@ -0,0 +1,34 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+public interface HistogramMBean {
+    String getUnit();
+
+    long getCount();
+
+    long getMin();
+
+    long getMax();
+
+    double getMean();
+
+    long get50thPercentile();
+
+    long get95thPercentile();
+
+    long get99thPercentile();
+}
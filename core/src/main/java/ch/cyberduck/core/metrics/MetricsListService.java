@@ -0,0 +1,82 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+
+/**
+ * Record latency of listing pages and number of items listed
+ */
+public class MetricsListService implements ListService {
+
+    private final ListService proxy;
+    private final Histogram page;
+    private final Histogram duration;
+    private final Counter items;
+
+    public MetricsListService(final ListService proxy, final String hostname) {
+        this(proxy, hostname, MetricsRegistry.global());
+    }
+
+    public MetricsListService(final ListService proxy, final String hostname, final MetricsRegistry registry) {
+        this.proxy = proxy;
+        this.page = registry.histogram("list.page.latency", hostname, MetricsRegistry.NANOSECONDS);
+        this.duration = registry.histogram("list.duration", hostname, MetricsRegistry.NANOSECONDS);
+        this.items = registry.counter("list.items", hostname);
+    }
+
+    @Override
+    public AttributedList<Path> list(final Path directory, final ListProgressListener listener) throws BackgroundException {
+        final long start = System.nanoTime();
+        final AttributedList<Path> list = proxy.list(directory, new ListProgressListener() {
+            private long last = start;
+
+            @Override
+            public void chunk(final Path folder, final AttributedList<Path> list) throws ConnectionCanceledException {
+                final long now = System.nanoTime();
+                page.record(now - last);
+                last = now;
+                listener.chunk(folder, list);
+            }
+
+            @Override
+            public ListProgressListener reset() {
+                listener.reset();
+                return this;
+            }
+
+            @Override
+            public void message(final String message) {
+                listener.message(message);
+            }
+        });
+        duration.record(System.nanoTime() - start);
+        items.add(list.size());
+        return list;
+    }
+
+    @Override
+    public ListService withCache(final Cache<Path> cache) {
+        proxy.withCache(cache);
+        return this;
+    }
+}
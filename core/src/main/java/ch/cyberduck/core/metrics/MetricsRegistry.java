@@ -0,0 +1,194 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Named counters and histograms with optional scope such as hostname. Returns shared no-op instances when disabled.
+ */
+public final class MetricsRegistry {
+    private static final Logger log = Logger.getLogger(MetricsRegistry.class);
+
+    public static final String NANOSECONDS = "ns";
+    public static final String BYTES = "bytes";
+    public static final String BYTES_PER_SECOND = "bytes/s";
+
+    private static final Counter DISABLED_COUNTER = new Counter() {
+        @Override
+        public void increment() {
+            //
+        }
+
+        @Override
+        public void add(final long value) {
+            //
+        }
+    };
+
+    private static final Histogram DISABLED_HISTOGRAM = new Histogram(StringUtils.EMPTY) {
+        @Override
+        public void record(final long value) {
+            //
+        }
+    };
+
+    private static final class Global {
+        private static final MetricsRegistry registry;
+
+        static {
+            final Preferences preferences = PreferencesFactory.get();
+            registry = new MetricsRegistry(preferences.getBoolean("metrics.enable"), preferences.getBoolean("metrics.jmx.enable"));
+        }
+    }
+
+    /**
+     * @return Registry for process
+     */
+    public static MetricsRegistry global() {
+        return Global.registry;
+    }
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile boolean jmx;
+
+    public MetricsRegistry(final boolean enabled, final boolean jmx) {
+        this.enabled = enabled;
+        this.jmx = jmx;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public MetricsRegistry withEnabled(final boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    /**
+     * @param name Metric
+     * @return Counter without scope
+     */
+    public Counter counter(final String name) {
+        return this.counter(name, null);
+    }
+
+    /**
+     * @param name  Metric
+     * @param scope Hostname or other qualifier. Null for none
+     */
+    public Counter counter(final String name, final String scope) {
+        if(!enabled) {
+            return DISABLED_COUNTER;
+        }
+        return this.register(counters, name, scope, key -> new Counter());
+    }
+
+    public Histogram histogram(final String name, final String unit) {
+        return this.histogram(name, null, unit);
+    }
+
+    /**
+     * @param name  Metric
+     * @param scope Hostname or other qualifier. Null for none
+     * @param unit  Unit of recorded values
+     */
+    public Histogram histogram(final String name, final String scope, final String unit) {
+        if(!enabled) {
+            return DISABLED_HISTOGRAM;
+        }
+        return this.register(histograms, name, scope, key -> new Histogram(unit));
+    }
+
+    private <T> T register(final Map<String, T> metrics, final String name, final String scope, final Function<String, T> factory) {
+        final String key = null == scope ? name : String.format("%s{%s}", name, scope);
+        final T metric = metrics.get(key);
+        if(metric != null) {
+            return metric;
+        }
+        return metrics.computeIfAbsent(key, k -> {
+            final T created = factory.apply(k);
+            if(jmx) {
+                this.expose(name, scope, created);
+            }
+            return created;
+        });
+    }
+
+    private void expose(final String name, final String scope, final Object metric) {
+        try {
+            final StringBuilder object = new StringBuilder("ch.cyberduck:type=Metrics,name=").append(ObjectName.quote(name));
+            if(scope != null) {
+                object.append(",scope=").append(ObjectName.quote(scope));
+            }
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metric, new ObjectName(object.toString()));
+        }
+        catch(JMException e) {
+            log.warn(String.format("Failure registering metric %s with JMX. %s", name, e.getMessage()));
+        }
+    }
+
+    /**
+     * Write all metrics sorted by name as JSON object
+     */
+    public void write(final Writer out) throws IOException {
+        final JsonWriter writer = new JsonWriter(out);
+        writer.setIndent("  ");
+        writer.beginObject();
+        writer.name("counters").beginObject();
+        for(Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            writer.name(entry.getKey()).value(entry.getValue().getCount());
+        }
+        writer.endObject();
+        writer.name("histograms").beginObject();
+        for(Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            final Histogram histogram = entry.getValue();
+            writer.name(entry.getKey()).beginObject();
+            writer.name("unit").value(histogram.getUnit());
+            writer.name("count").value(histogram.getCount());
+            writer.name("min").value(histogram.getMin());
+            writer.name("mean").value(histogram.getMean());
+            writer.name("p50").value(histogram.get50thPercentile());
+            writer.name("p95").value(histogram.get95thPercentile());
+            writer.name("p99").value(histogram.get99thPercentile());
+            writer.name("max").value(histogram.getMax());
+            writer.endObject();
+        }
+        writer.endObject();
+        writer.endObject();
+        writer.flush();
+    }
+}
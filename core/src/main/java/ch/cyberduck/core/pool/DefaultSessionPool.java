@@ -17,6 +17,7 @@ package ch.cyberduck.core.pool;
 
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionService;
+import ch.cyberduck.core.DisabledCancelCallback;
 import ch.cyberduck.core.Host;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
@@ -24,6 +25,7 @@ import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.TranscriptListener;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
@@ -31,6 +33,8 @@ import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
 import ch.cyberduck.core.threading.FailureDiagnostics;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.vault.VaultRegistry;
 import ch.cyberduck.core.worker.DefaultExceptionMappingService;
 
@@ -43,6 +47,8 @@ import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.log4j.Logger;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DefaultSessionPool implements SessionPool {
     private static final Logger log = Logger.getLogger(DefaultSessionPool.class);
@@ -61,6 +67,11 @@ public class DefaultSessionPool implements SessionPool {
     private final VaultRegistry registry;
 
     private final GenericObjectPool<Session> pool;
+    private final PooledSessionFactory factory;
+    /**
+     * Opening sessions ahead of borrowing in progress
+     */
+    private final AtomicBoolean warmup = new AtomicBoolean();
 
     private SessionPool features = SessionPool.DISCONNECTED;
 
@@ -76,8 +87,12 @@ public class DefaultSessionPool implements SessionPool {
         configuration.setJmxEnabled(false);
         configuration.setEvictionPolicyClassName(CustomPoolEvictionPolicy.class.getName());
         configuration.setBlockWhenExhausted(true);
+        // Waiters are signalled when a session is returned. Interval only limits delay to notice cancellation
         configuration.setMaxWaitMillis(BORROW_MAX_WAIT_INTERVAL);
-        this.pool = new GenericObjectPool<Session>(new PooledSessionFactory(connect, trust, key, cache, bookmark, registry), configuration);
+        // Probe sessions idle for some time with protocol keepalive
+        configuration.setTestOnBorrow(true);
+        this.factory = new PooledSessionFactory(connect, trust, key, cache, bookmark, registry);
+        this.pool = new GenericObjectPool<Session>(factory, configuration);
         final AbandonedConfig abandon = new AbandonedConfig();
         abandon.setUseUsageTracking(true);
         this.pool.setAbandonedConfig(abandon);
@@ -91,6 +106,7 @@ public class DefaultSessionPool implements SessionPool {
         this.bookmark = bookmark;
         this.registry = registry;
         this.pool = pool;
+        this.factory = pool.getFactory() instanceof PooledSessionFactory ? (PooledSessionFactory) pool.getFactory() : null;
     }
 
     public static final class CustomPoolEvictionPolicy implements EvictionPolicy<Session<?>> {
@@ -129,12 +145,80 @@ public class DefaultSessionPool implements SessionPool {
         return this;
     }
 
+    /**
+     * Open sessions in parallel in the background until the number of idle sessions in the pool matches the count
+     * given. Sessions are added to the pool as soon as connected and are available to waiting borrowers.
+     *
+     * @param count Number of connections expected to be used concurrently
+     */
+    public void warmup(final int count) {
+        if(null == factory) {
+            return;
+        }
+        // Include sessions already borrowed
+        final int missing = Math.min(count, pool.getMaxIdle()) - pool.getNumIdle() - pool.getNumActive();
+        if(missing <= 0) {
+            return;
+        }
+        if(!warmup.compareAndSet(false, true)) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Open %d sessions in pool %s", missing, this));
+        }
+        final AtomicInteger remaining = new AtomicInteger(missing);
+        final ThreadPool executor = ThreadPoolFactory.get("warmup", missing);
+        for(int i = 0; i < missing; i++) {
+            executor.execute(() -> {
+                final Session<?> session = factory.create();
+                try {
+                    connect.check(session, cache, new DisabledCancelCallback());
+                    if(pool.isClosed()) {
+                        connect.close(session);
+                        return null;
+                    }
+                    factory.prepare(session);
+                    try {
+                        // Borrowers waiting are signalled
+                        pool.addObject();
+                    }
+                    finally {
+                        if(factory.reclaim() != null) {
+                            // Not added when pool is exhausted or closed
+                            if(log.isInfoEnabled()) {
+                                log.info(String.format("Close session %s not added to pool %s", session, this));
+                            }
+                            connect.close(session);
+                        }
+                    }
+                }
+                catch(BackgroundException e) {
+                    log.warn(String.format("Failure opening session %s in advance. %s", session, e.getDetail()));
+                    connect.close(session);
+                }
+                catch(Exception e) {
+                    log.warn(String.format("Failure adding session %s to pool. %s", session, e.getMessage()));
+                }
+                finally {
+                    if(0 == remaining.decrementAndGet()) {
+                        warmup.set(false);
+                    }
+                }
+                return null;
+            });
+        }
+        // Dispose threads when done without waiting
+        executor.executor().shutdown();
+    }
+
     @Override
     public Session<?> borrow(final BackgroundActionState callback) throws BackgroundException {
         final Integer numActive = pool.getNumActive();
         if(numActive > POOL_WARNING_THRESHOLD) {
             log.warn(String.format("Possibly large number of open connections (%d) in pool %s", numActive, this));
         }
+        final MetricsRegistry metrics = MetricsRegistry.global();
+        final long start = System.nanoTime();
         try {
             while(!callback.isCanceled()) {
                 try {
@@ -142,6 +226,7 @@ public class DefaultSessionPool implements SessionPool {
                         log.info(String.format("Borrow session from pool %s", this));
                     }
                     final Session<?> session = pool.borrowObject();
+                    metrics.histogram("pool.borrow.wait", bookmark.getHostname(), MetricsRegistry.NANOSECONDS).record(System.nanoTime() - start);
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Borrowed session %s from pool %s", session, this));
                     }
@@ -160,6 +245,7 @@ public class DefaultSessionPool implements SessionPool {
                     final Throwable cause = e.getCause();
                     if(null == cause) {
                         log.warn(String.format("Timeout borrowing session from pool %s. Wait for another %dms", this, BORROW_MAX_WAIT_INTERVAL));
+                        metrics.counter("pool.borrow.timeout", bookmark.getHostname()).increment();
                         // Timeout
                         continue;
                     }
@@ -25,6 +25,7 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.SessionFactory;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 import ch.cyberduck.core.vault.VaultRegistry;
@@ -34,6 +35,8 @@ import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.apache.log4j.Logger;
 
+import java.util.concurrent.TimeUnit;
+
 public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
     private static final Logger log = Logger.getLogger(PooledSessionFactory.class);
 
@@ -43,6 +46,14 @@ public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
     private final Cache<Path> cache;
     private final Host bookmark;
     private final VaultRegistry registry;
+    /**
+     * Session opened ahead of borrowing by the thread adding it to the pool
+     */
+    private final ThreadLocal<Session> prepared = new ThreadLocal<>();
+    /**
+     * Minimum idle time in milliseconds before probing connection on borrow
+     */
+    private final long validate;
 
     public PooledSessionFactory(final ConnectionService connect, final X509TrustManager trust, final X509KeyManager key,
                                 final Cache<Path> cache, final Host bookmark, final VaultRegistry registry) {
@@ -52,6 +63,35 @@ public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
         this.cache = cache;
         this.bookmark = bookmark;
         this.registry = registry;
+        this.validate = TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("connection.pool.validate.idle.seconds"));
+    }
+
+    /**
+     * Hand over connected session to be added to the pool with next object created by the calling thread
+     */
+    void prepare(final Session session) {
+        prepared.set(session);
+    }
+
+    /**
+     * @return Session handed over by the calling thread but not added to the pool or null
+     */
+    Session reclaim() {
+        final Session session = prepared.get();
+        prepared.remove();
+        return session;
+    }
+
+    @Override
+    public PooledObject<Session> makeObject() throws Exception {
+        final Session session = this.reclaim();
+        if(session != null) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Add prepared session %s to pool", session));
+            }
+            return this.wrap(session);
+        }
+        return super.makeObject();
     }
 
     @Override
@@ -77,6 +117,24 @@ public class PooledSessionFactory extends BasePooledObjectFactory<Session> {
         connect.check(session, cache, new DisabledCancelCallback());
     }
 
+    @Override
+    public boolean validateObject(final PooledObject<Session> p) {
+        final Session session = p.getObject();
+        if(System.currentTimeMillis() - p.getLastReturnTime() < validate) {
+            return true;
+        }
+        if(log.isDebugEnabled()) {
+            log.debug(String.format("Validate idle session %s", session));
+        }
+        try {
+            return session.alive();
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure validating session %s. %s", session, e.getDetail()));
+            return false;
+        }
+    }
+
     @Override
     public void passivateObject(final PooledObject<Session> p) throws Exception {
         final Session session = p.getObject();
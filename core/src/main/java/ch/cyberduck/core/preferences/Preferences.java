@@ -306,12 +306,20 @@ public abstract class Preferences implements Locales {
           Lowercase folder name to use when looking for profiles in user support directory
          */
         this.setDefault("profiles.folder.name", "Profiles");
+        /*
+          Register unchanged profiles from index and parse on first use
+         */
+        this.setDefault("profiles.index.enable", String.valueOf(true));
 
         /*
           Maximum number of directory listings to cache using a most recently used implementation
          */
         this.setDefault("browser.cache.size", String.valueOf(1000));
         this.setDefault("transfer.cache.size", String.valueOf(100));
+        // Lookups of files in the same directory before listing it once to resolve remaining files
+        this.setDefault("transfer.resolve.list.threshold", String.valueOf(10));
+        // Maximum number of files in directory to list for resolving files
+        this.setDefault("transfer.resolve.list.limit", String.valueOf(5000));
         this.setDefault("icon.cache.size", String.valueOf(200));
         this.setDefault("preferences.cache.size", String.valueOf(1000));
 
@@ -325,6 +333,12 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("browser.list.limit.directory", String.valueOf(5000));
         this.setDefault("browser.list.limit.container", String.valueOf(100));
+        /*
+          Number of folders searched in parallel for stateless protocols and maximum number of
+          files found before recursive search stops. 0 for no limit.
+         */
+        this.setDefault("browser.search.concurrency", String.valueOf(5));
+        this.setDefault("browser.search.limit", String.valueOf(0));
 
         this.setDefault("info.toolbar.selected", String.valueOf(0));
         this.setDefault("preferences.toolbar.selected", String.valueOf(0));
@@ -416,6 +430,10 @@ public abstract class Preferences implements Locales {
         this.setDefault("bookmark.toggle.options", String.valueOf(0));
 
         this.setDefault("alert.toggle.transcript", String.valueOf(0));
+        /*
+          Maximum number of pending transcript events before further events are dropped
+         */
+        this.setDefault("transcript.buffer.capacity", String.valueOf(10000));
 
         this.setDefault("transfer.toggle.details", String.valueOf(1));
 
@@ -447,6 +465,15 @@ public abstract class Preferences implements Locales {
           Warning when number of transfers in queue exceeds limit
          */
         this.setDefault("queue.size.warn", String.valueOf(20));
+        /*
+          Append transfer state changes to journal instead of rewriting transfer file
+         */
+        this.setDefault("queue.journal.enable", String.valueOf(true));
+        this.setDefault("queue.journal.compaction.threshold", String.valueOf(1000));
+        /*
+          Persist completed items to skip when resuming interrupted transfer
+         */
+        this.setDefault("queue.checkpoint.enable", String.valueOf(true));
         /*
           Bring transfer window to front
          */
@@ -530,6 +557,15 @@ public abstract class Preferences implements Locales {
         this.setDefault("queue.download.segments.threshold", String.valueOf(100L * 1024L * 1024L));
         this.setDefault("queue.download.segments.size", String.valueOf(50L * 1024L * 1024L));
 
+        // Relay between source and target session with decoupled reader and writer
+        this.setDefault("queue.copy.relay.enable", String.valueOf(true));
+        this.setDefault("queue.copy.relay.buffers", String.valueOf(8));
+        // Segmented concurrent copy for protocols supporting read with offset and random writes
+        this.setDefault("queue.copy.segments", String.valueOf(false));
+        this.setDefault("queue.copy.segments.threshold", String.valueOf(100L * 1024L * 1024L));
+        this.setDefault("queue.copy.segments.size", String.valueOf(50L * 1024L * 1024L));
+        this.setDefault("queue.copy.segments.concurrency", String.valueOf(4));
+
         /*
           Open completed downloads
          */
@@ -570,11 +606,43 @@ public abstract class Preferences implements Locales {
           Bandwidth throttle download stream
          */
         this.setDefault("queue.download.bandwidth.bytes", String.valueOf(-1));
+        /*
+          Aggregate bandwidth limit for all transfers to a single host
+         */
+        this.setDefault("queue.bandwidth.host.bytes", String.valueOf(-1));
+        /*
+          Aggregate bandwidth limit for all transfers
+         */
+        this.setDefault("queue.bandwidth.global.bytes", String.valueOf(-1));
+        /*
+          Aggregate bandwidth limit by time of day such as 08:00-18:00=102400
+         */
+        this.setDefault("queue.bandwidth.schedule", StringUtils.EMPTY);
+        /*
+          Unused bandwidth in milliseconds that can be consumed at once
+         */
+        this.setDefault("queue.bandwidth.burst.milliseconds", String.valueOf(250));
 
         /*
          * Concurrent connections for single transfer and maximum number of concurrent transfers in transfer list
          */
         this.setDefault("queue.connections.limit", String.valueOf(2));
+        /*
+          Adjust number of concurrent connections for single transfer from throughput, latency and throttling responses
+          starting with queue.connections.limit
+         */
+        this.setDefault("queue.connections.adaptive.enable", String.valueOf(false));
+        this.setDefault("queue.connections.adaptive.min", String.valueOf(1));
+        this.setDefault("queue.connections.adaptive.max", String.valueOf(8));
+        this.setDefault("queue.connections.adaptive.interval.milliseconds", String.valueOf(2000));
+        /*
+          Relative drop in throughput tolerated after adding connection
+         */
+        this.setDefault("queue.connections.adaptive.tolerance", String.valueOf(0.1d));
+        /*
+          Multiple of lowest observed task latency per byte considered queuing
+         */
+        this.setDefault("queue.connections.adaptive.latency.factor", String.valueOf(2d));
         {
             final StringBuilder options = new StringBuilder();
             options.append(1).append(",");
@@ -618,6 +686,14 @@ public abstract class Preferences implements Locales {
          */
         this.setDefault("http.connections.total", String.valueOf(Integer.MAX_VALUE));
         this.setDefault("http.connections.retry", String.valueOf(1));
+        /*
+          Share connection pool and TLS sessions with all sessions to the same endpoint with the same credentials and proxy
+         */
+        this.setDefault("http.connections.shared.enable", String.valueOf(false));
+        // Maximum connections per route in shared pool. Each session is limited to http.connections.route
+        this.setDefault("http.connections.shared.route", String.valueOf(50));
+        // Close idle connections in shared pools after timeout
+        this.setDefault("http.connections.shared.idle.seconds", String.valueOf(60));
 
         this.setDefault("http.manager.timeout", String.valueOf(0)); // Infinite
         this.setDefault("http.socket.buffer", String.valueOf(8192));
@@ -671,6 +747,10 @@ public abstract class Preferences implements Locales {
           Default bucket location
          */
         this.setDefault("s3.location", "us-east-1");
+        // Number of concurrent requests to determine bucket location
+        this.setDefault("s3.location.concurrency", String.valueOf(10));
+        // Keep bucket locations cached on disk for a week
+        this.setDefault("s3.location.cache.ttl.seconds", String.valueOf(604800));
         this.setDefault("s3.bucket.virtualhost.disable", String.valueOf(false));
         this.setDefault("s3.bucket.requesterpays", String.valueOf(true));
         this.setDefault("s3.domain", "amazonaws.com");
@@ -692,6 +772,8 @@ public abstract class Preferences implements Locales {
         this.setDefault("s3.url.expire.seconds", String.valueOf(24 * 60 * 60));
 
         this.setDefault("s3.listing.chunksize", String.valueOf(1000));
+        // Concurrent requests to determine state of folders in versioned bucket
+        this.setDefault("s3.listing.versioning.concurrency", String.valueOf(10));
 
         this.setDefault("s3.upload.md5", String.valueOf(true));
 
@@ -796,11 +878,14 @@ public abstract class Preferences implements Locales {
         // Run missing file keys in bulk feature after upload
         this.setDefault("sds.encryption.missingkeys.upload", String.valueOf(true));
         this.setDefault("sds.encryption.missingkeys.scheduler.period", String.valueOf(120000)); // 2 minutes
+        this.setDefault("sds.encryption.missingkeys.concurrency", String.valueOf(Runtime.getRuntime().availableProcessors()));
         this.setDefault("sds.encryption.keys.ttl", String.valueOf(3600000)); // 1 hour
+        this.setDefault("sds.encryption.keys.unlocked.ttl", String.valueOf(600000)); // 10 minutes
         this.setDefault("sds.useracount.ttl", String.valueOf(3600000)); // 1 hour
         this.setDefault("sds.delete.dataroom.enable", String.valueOf(true));
 
-        this.setDefault("spectra.retry.delay", String.valueOf(60)); // 1 minute
+        // Minimum interval to query chunks ready for client processing shared by all files in job
+        this.setDefault("spectra.chunks.query.interval", String.valueOf(5));
 
         /*
           NTLM Windows Domain
@@ -883,6 +968,15 @@ public abstract class Preferences implements Locales {
         this.setDefault("connection.pool.minidle", String.valueOf(1));
         this.setDefault("connection.pool.maxidle", String.valueOf(5));
         this.setDefault("connection.pool.maxtotal", String.valueOf(Integer.MAX_VALUE));
+        // Open connections for transfer in parallel ahead of use
+        this.setDefault("connection.pool.warmup.enable", String.valueOf(false));
+        // Probe connections idle for longer with protocol keepalive when borrowed
+        this.setDefault("connection.pool.validate.idle.seconds", String.valueOf(10));
+        // Parallel requests to preload data after login
+        this.setDefault("preloader.concurrency", String.valueOf(5));
+        // Skip keys with nothing to preload found in previous session for a short time only to notice configuration
+        // changed with another client
+        this.setDefault("preloader.cache.ttl.seconds", String.valueOf(600));
 
         /*
           Default login name
@@ -924,6 +1018,15 @@ public abstract class Preferences implements Locales {
         this.setDefault("connection.retry.delay", String.valueOf(0));
         this.setDefault("connection.retry.backoff.enable", String.valueOf(false));
 
+        /*
+          Record counters and histograms for transfers, connection pool and listings
+         */
+        this.setDefault("metrics.enable", String.valueOf(false));
+        /*
+          Register metrics with platform MBean server
+         */
+        this.setDefault("metrics.jmx.enable", String.valueOf(false));
+
         /**
          * Enable login prompt in connect retry
          */
@@ -1027,6 +1130,25 @@ public abstract class Preferences implements Locales {
 
         this.setDefault("sftp.read.maxunconfirmed", String.valueOf(64));
         this.setDefault("sftp.write.maxunconfirmed", String.valueOf(64));
+        /*
+          Transfer directories of many small files in a single tar stream over an exec channel
+         */
+        this.setDefault("sftp.archive.enable", String.valueOf(false));
+        /*
+          Minimum number of files to use archive stream
+         */
+        this.setDefault("sftp.archive.threshold", String.valueOf(100));
+        /*
+          Maximum size of a single file to include in archive stream
+         */
+        this.setDefault("sftp.archive.size.max", String.valueOf(1048576));
+        /*
+          Transfer large files in ranges concurrently on multiple SFTP channels of the connection
+         */
+        this.setDefault("sftp.stripe.enable", String.valueOf(false));
+        this.setDefault("sftp.stripe.threshold", String.valueOf(100L * 1024L * 1024L));
+        this.setDefault("sftp.stripe.size", String.valueOf(32L * 1024L * 1024L));
+        this.setDefault("sftp.stripe.channels", String.valueOf(4));
 
         this.setDefault("archive.default", "tar.gz");
 
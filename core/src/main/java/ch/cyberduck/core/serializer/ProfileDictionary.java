@@ -52,7 +52,14 @@ public class ProfileDictionary {
     }
 
     public Profile deserialize(Object serialized) {
-        final Deserializer<String> dict = deserializer.create(serialized);
+        return this.create(deserializer.create(serialized));
+    }
+
+    /**
+     * @param dict Values of profile
+     * @return Null if parent protocol is not registered
+     */
+    public Profile create(final Deserializer<String> dict) {
         final String protocol = dict.stringForKey("Protocol");
         if(StringUtils.isNotBlank(protocol)) {
             final Protocol parent = protocols.forName(protocols.find(new Predicate<Protocol>() {
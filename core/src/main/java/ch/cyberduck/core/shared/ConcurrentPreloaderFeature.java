@@ -0,0 +1,155 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Preload data for a set of keys with bounded parallelism after login. Results are published as they arrive and keys
+ * with nothing to preload are remembered to skip them on subsequent logins.
+ *
+ * @param <K> Key such as a container
+ * @param <V> Preloaded data
+ */
+public abstract class ConcurrentPreloaderFeature<K, V> extends OneTimeSchedulerFeature<Map<K, V>> {
+    private static final Logger log = Logger.getLogger(ConcurrentPreloaderFeature.class);
+
+    private final int concurrency;
+    /**
+     * Null if keys with nothing to preload are not remembered
+     */
+    private final PreloaderCache cache;
+
+    public ConcurrentPreloaderFeature(final Path file) {
+        this(file, null);
+    }
+
+    public ConcurrentPreloaderFeature(final Path file, final PreloaderCache cache) {
+        this(file, cache, PreferencesFactory.get().getInteger("preloader.concurrency"));
+    }
+
+    public ConcurrentPreloaderFeature(final Path file, final PreloaderCache cache, final int concurrency) {
+        super(file);
+        this.cache = cache;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param callback Prompt
+     * @param file     Root
+     * @return Keys to preload data for
+     */
+    protected abstract Collection<K> keys(PasswordCallback callback, Path file) throws BackgroundException;
+
+    /**
+     * Invoked concurrently for different keys
+     *
+     * @param key Key
+     * @return Null if there is nothing to preload for key
+     */
+    protected abstract V load(K key) throws BackgroundException;
+
+    /**
+     * Invoked from the preloader thread for each result as soon as it is available. No operation by default.
+     *
+     * @param key   Key
+     * @param value Preloaded data
+     */
+    protected void publish(final K key, final V value) {
+        //
+    }
+
+    /**
+     * @param key Key
+     * @return Stable identifier of key to remember keys with nothing to preload
+     */
+    protected String identifier(final K key) {
+        return key.toString();
+    }
+
+    @Override
+    protected Map<K, V> operate(final PasswordCallback callback, final Path file) throws BackgroundException {
+        final Collection<K> keys = this.keys(callback, file);
+        final Map<K, V> results = new ConcurrentHashMap<>();
+        final ThreadPool pool = ThreadPoolFactory.get("preload", Math.max(1, Math.min(concurrency, keys.size())));
+        try {
+            final CompletionService<V> completion = new ExecutorCompletionService<>(pool.executor());
+            final Map<Future<V>, K> pending = new HashMap<>();
+            for(K key : keys) {
+                if(null != cache && cache.isEmpty(this.identifier(key))) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Skip preloading %s with nothing found previously", key));
+                    }
+                    continue;
+                }
+                pending.put(completion.submit(() -> this.load(key)), key);
+            }
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Preload %d of %d keys with concurrency %d", pending.size(), keys.size(), concurrency));
+            }
+            for(int i = pending.size(); i > 0; i--) {
+                final Future<V> future = completion.take();
+                final K key = pending.remove(future);
+                try {
+                    final V value = future.get();
+                    if(null == value) {
+                        if(null != cache) {
+                            cache.empty(this.identifier(key));
+                        }
+                        continue;
+                    }
+                    if(null != cache) {
+                        cache.remove(this.identifier(key));
+                    }
+                    results.put(key, value);
+                    this.publish(key, value);
+                }
+                catch(ExecutionException e) {
+                    // Continue with remaining keys
+                    log.warn(String.format("Failure preloading %s. %s", key, e.getCause().getMessage()));
+                }
+            }
+            return results;
+        }
+        catch(InterruptedException e) {
+            log.warn(String.format("Interrupted preloading %s", file));
+            throw new ConnectionCanceledException(e);
+        }
+        finally {
+            pool.shutdown(false);
+            if(null != cache) {
+                cache.save();
+            }
+        }
+    }
+}
@@ -21,18 +21,37 @@ import ch.cyberduck.core.PathAttributes;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.VersionId;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Copy;
 import ch.cyberduck.core.features.MultipartWrite;
 import ch.cyberduck.core.features.Read;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.io.StatusOutputStream;
 import ch.cyberduck.core.io.StreamCopier;
+import ch.cyberduck.core.io.StreamProgress;
+import ch.cyberduck.core.io.StreamRelay;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 import ch.cyberduck.core.transfer.TransferStatus;
 
+import org.apache.log4j.Logger;
+
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class DefaultCopyFeature implements Copy {
+    private static final Logger log = Logger.getLogger(DefaultCopyFeature.class);
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
 
     private Session<?> from;
     private Session<?> to;
@@ -44,16 +63,27 @@ public class DefaultCopyFeature implements Copy {
 
     @Override
     public Path copy(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
-        InputStream in;
-        StatusOutputStream out;
-        in = from.getFeature(Read.class).read(source, new TransferStatus(status), callback);
+        final Read read = from.getFeature(Read.class);
         Write write = to.getFeature(MultipartWrite.class);
         if(null == write) {
             // Fallback if multipart write is not available
             write = to.getFeature(Write.class);
         }
+        if(this.isSegmented(source, status, read, write)) {
+            this.copySegmented(source, target, status, callback, read, write);
+            return target;
+        }
+        InputStream in;
+        StatusOutputStream out;
+        in = read.read(source, new TransferStatus(status), callback);
         out = write.write(target, status, callback);
-        new StreamCopier(status, status).transfer(in, out);
+        if(preferences.getBoolean("queue.copy.relay.enable")) {
+            // Overlap download from source with upload to target
+            new StreamRelay(status, status).transfer(in, out);
+        }
+        else {
+            new StreamCopier(status, status).transfer(in, out);
+        }
         final Object reply = out.getStatus();
         if(reply instanceof VersionId) {
             return new Path(target.getParent(), target.getName(), target.getType(),
@@ -62,6 +92,96 @@ public class DefaultCopyFeature implements Copy {
         return target;
     }
 
+    /**
+     * @return True if file is large enough and both sides support transfer with offset
+     */
+    protected boolean isSegmented(final Path source, final TransferStatus status, final Read read, final Write write) throws BackgroundException {
+        if(!preferences.getBoolean("queue.copy.segments")) {
+            return false;
+        }
+        if(status.isAppend()) {
+            // Resume with single stream
+            return false;
+        }
+        if(status.getLength() < preferences.getLong("queue.copy.segments.threshold")) {
+            return false;
+        }
+        return read.offset(source) && write.random();
+    }
+
+    /**
+     * Copy file in ranges with a relay each running concurrently
+     */
+    private void copySegmented(final Path source, final Path target, final TransferStatus status, final ConnectionCallback callback,
+                      final Read read, final Write write) throws BackgroundException {
+        final long size = status.getLength();
+        final long partsize = preferences.getLong("queue.copy.segments.size");
+        final ThreadPool pool = ThreadPoolFactory.get("copy", preferences.getInteger("queue.copy.segments.concurrency"));
+        try {
+            final List<Future<Void>> segments = new ArrayList<Future<Void>>();
+            for(long offset = 0; offset < size; offset += partsize) {
+                final long length = Math.min(partsize, size - offset);
+                final OutputStream out;
+                if(0L == offset) {
+                    // Open first segment synchronously to create or truncate target before writing at offsets
+                    out = write.write(target, new TransferStatus(status).length(length), callback);
+                }
+                else {
+                    out = null;
+                }
+                segments.add(this.submit(pool, source, target, status, callback, read, write, out, offset, length));
+            }
+            for(Future<Void> future : segments) {
+                try {
+                    future.get();
+                }
+                catch(InterruptedException e) {
+                    log.error("Segment copy failed with interrupt failure");
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    log.warn(String.format("Segment copy failed with execution failure %s", e.getMessage()));
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+            }
+            status.setComplete();
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    private Future<Void> submit(final ThreadPool pool, final Path source, final Path target, final TransferStatus status,
+                                final ConnectionCallback callback, final Read read, final Write write,
+                                final OutputStream opened, final long offset, final long length) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Submit segment of %s to queue with offset %d and length %d", source, offset, length));
+        }
+        return pool.execute(new Callable<Void>() {
+            @Override
+            public Void call() throws BackgroundException {
+                final InputStream in = read.read(source, new TransferStatus(status).append(true).skip(offset).length(length), callback);
+                final OutputStream out = null == opened ? write.write(target,
+                    new TransferStatus(status).exists(true).append(true).skip(offset).length(length), callback) : opened;
+                new StreamRelay(status, new StreamProgress() {
+                    @Override
+                    public void progress(final long bytes) {
+                        status.progress(bytes);
+                    }
+
+                    @Override
+                    public void setComplete() {
+                        // Parent status is marked complete when all segments are done
+                    }
+                }).withLimit(length).transfer(in, out);
+                return null;
+            }
+        });
+    }
+
     @Override
     public boolean isRecursive(final Path source, final Path target) {
         return false;
@@ -41,8 +41,11 @@ public class DefaultSearchFeature implements Search {
     @Override
     public AttributedList<Path> search(final Path workdir, final Filter<Path> filter, final ListProgressListener listener) throws BackgroundException {
         final AttributedList<Path> list;
-        if(!cache.isCached(workdir)) {
-            list = session.getFeature(ListService.class).list(workdir, new SearchListProgressListener(filter, listener)).filter(filter);
+        if(!cache.isValid(workdir)) {
+            final AttributedList<Path> children = session.getFeature(ListService.class).list(workdir, new SearchListProgressListener(filter, listener));
+            // Reuse complete listing for subsequent searches until invalidated after modification
+            cache.put(workdir, children);
+            list = children.filter(filter);
         }
         else {
             list = cache.get(workdir).filter(filter);
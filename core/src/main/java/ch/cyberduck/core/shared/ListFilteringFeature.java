@@ -34,6 +34,11 @@ public abstract class ListFilteringFeature {
     private Cache<Path> cache
         = PathCache.empty();
 
+    /**
+     * Index of last cached directory listing searched
+     */
+    private volatile ListingIndex index;
+
     public ListFilteringFeature(final Session<?> session) {
         this.session = session;
     }
@@ -46,6 +51,12 @@ public abstract class ListFilteringFeature {
         }
         else {
             list = cache.get(file.getParent());
+            // Reuse index for repeated lookups in same cached directory
+            ListingIndex index = this.index;
+            if(null == index || !index.isIndexOf(list)) {
+                this.index = index = new ListingIndex(list, session.getCase());
+            }
+            return index.find(file);
         }
         // Search with specific version and region
         final Path path = list.find(new DefaultPathPredicate(file));
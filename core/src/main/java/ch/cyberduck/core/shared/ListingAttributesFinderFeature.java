@@ -0,0 +1,59 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.AttributesFinder;
+
+/**
+ * Read attributes of files from listing of parent directory shared with other lookups
+ */
+public class ListingAttributesFinderFeature implements AttributesFinder {
+
+    private final ListingResolver resolver;
+    private final AttributesFinder proxy;
+
+    private Cache<Path> cache
+        = PathCache.empty();
+
+    public ListingAttributesFinderFeature(final ListingResolver resolver, final AttributesFinder proxy) {
+        this.resolver = resolver;
+        this.proxy = proxy;
+    }
+
+    @Override
+    public PathAttributes find(final Path file) throws BackgroundException {
+        final ListingIndex index = resolver.resolve(file);
+        if(null != index) {
+            final Path found = index.find(file);
+            if(found != null) {
+                return found.attributes();
+            }
+        }
+        return proxy.withCache(cache).find(file);
+    }
+
+    @Override
+    public ListingAttributesFinderFeature withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        resolver.withCache(cache);
+        return this;
+    }
+}
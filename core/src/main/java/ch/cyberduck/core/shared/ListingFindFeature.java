@@ -0,0 +1,55 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Find;
+
+/**
+ * Find files from listing of parent directory shared with other lookups
+ */
+public class ListingFindFeature implements Find {
+
+    private final ListingResolver resolver;
+    private final Find proxy;
+
+    private Cache<Path> cache
+        = PathCache.empty();
+
+    public ListingFindFeature(final ListingResolver resolver, final Find proxy) {
+        this.resolver = resolver;
+        this.proxy = proxy;
+    }
+
+    @Override
+    public boolean find(final Path file) throws BackgroundException {
+        final ListingIndex index = resolver.resolve(file);
+        if(null == index) {
+            return proxy.withCache(cache).find(file);
+        }
+        return index.find(file) != null;
+    }
+
+    @Override
+    public ListingFindFeature withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        resolver.withCache(cache);
+        return this;
+    }
+}
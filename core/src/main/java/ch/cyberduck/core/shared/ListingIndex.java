@@ -0,0 +1,81 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.CacheReference;
+import ch.cyberduck.core.CaseInsensitivePathPredicate;
+import ch.cyberduck.core.DefaultPathPredicate;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.SimplePathPredicate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lookup of files in a directory listing by path and version without scanning the list
+ */
+public final class ListingIndex {
+
+    private final AttributedList<Path> list;
+    private final int size;
+    private final Session.Case sensitivity;
+
+    /**
+     * Files by type, path, version and region
+     */
+    private final Map<CacheReference<Path>, Path> versions = new HashMap<>();
+    /**
+     * Files by type and path only
+     */
+    private final Map<CacheReference<Path>, Path> paths = new HashMap<>();
+
+    public ListingIndex(final AttributedList<Path> list, final Session.Case sensitivity) {
+        this.list = list;
+        this.size = list.size();
+        this.sensitivity = sensitivity;
+        for(Path file : list) {
+            versions.putIfAbsent(new DefaultPathPredicate(file), file);
+            paths.putIfAbsent(this.reference(file), file);
+        }
+    }
+
+    private CacheReference<Path> reference(final Path file) {
+        return sensitivity == Session.Case.insensitive ? new CaseInsensitivePathPredicate(file) : new SimplePathPredicate(file);
+    }
+
+    /**
+     * @param file File in directory
+     * @return File with same version and region or else with same path only. Null if not found
+     */
+    public Path find(final Path file) {
+        final Path found = versions.get(new DefaultPathPredicate(file));
+        if(found != null) {
+            return found;
+        }
+        // Try to match path only as the version might have changed in the meantime
+        return paths.get(this.reference(file));
+    }
+
+    /**
+     * @param list Directory listing
+     * @return False if index was built from another or modified list
+     */
+    public boolean isIndexOf(final AttributedList<Path> list) {
+        return this.list == list && size == list.size();
+    }
+}
@@ -0,0 +1,169 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledListProgressListener;
+import ch.cyberduck.core.ListService;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.Session;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ListCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolve existence and attributes of files from a single listing of their parent directory. Lookups are left to
+ * the protocol implementation until a number of files in the same directory have been queried unless the directory
+ * listing is already cached. Directories with more children than the limit are not listed. Indexes are only used
+ * while the listing of the directory remains in the cache.
+ */
+public class ListingResolver {
+    private static final Logger log = Logger.getLogger(ListingResolver.class);
+
+    private final Session<?> session;
+    /**
+     * Number of lookups in a directory before listing it
+     */
+    private final int threshold;
+    /**
+     * Maximum number of children to list in a directory
+     */
+    private final int limit;
+
+    private Cache<Path> cache
+        = PathCache.empty();
+
+    /**
+     * Lookups in directories not listed yet
+     */
+    private final Map<Path, Integer> lookups = new HashMap<>();
+    /**
+     * Indexes of cached directory listings
+     */
+    private final Map<Path, ListingIndex> indexes;
+    /**
+     * Directories failed to list
+     */
+    private final Set<Path> failures = new HashSet<>();
+
+    public ListingResolver(final Session<?> session) {
+        this(session, PreferencesFactory.get().getInteger("transfer.resolve.list.threshold"),
+            PreferencesFactory.get().getInteger("transfer.resolve.list.limit"),
+            PreferencesFactory.get().getInteger("transfer.cache.size"));
+    }
+
+    /**
+     * @param threshold Number of lookups in a directory before listing it
+     * @param limit     Maximum number of children to list in a directory
+     * @param size      Maximum number of indexes to keep matching size of cache
+     */
+    public ListingResolver(final Session<?> session, final int threshold, final int limit, final int size) {
+        this.session = session;
+        this.threshold = threshold;
+        this.limit = limit;
+        this.indexes = new LinkedHashMap<Path, ListingIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Path, ListingIndex> eldest) {
+                return this.size() > size;
+            }
+        };
+    }
+
+    public ListingResolver withCache(final Cache<Path> cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * @param file File
+     * @return Index of parent directory or null if lookup is to be delegated to the protocol implementation
+     */
+    public synchronized ListingIndex resolve(final Path file) throws ConnectionCanceledException {
+        if(file.isRoot()) {
+            return null;
+        }
+        final Path directory = file.getParent();
+        if(failures.contains(directory)) {
+            return null;
+        }
+        if(cache.isValid(directory)) {
+            final AttributedList<Path> list = cache.get(directory);
+            final ListingIndex index = indexes.get(directory);
+            if(null == index || !index.isIndexOf(list)) {
+                return this.index(directory, list);
+            }
+            return index;
+        }
+        // Discard index of listing no longer cached or invalidated
+        indexes.remove(directory);
+        if(lookups.merge(directory, 1, Integer::sum) < threshold) {
+            return null;
+        }
+        lookups.remove(directory);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("List directory %s to resolve remaining files", directory));
+        }
+        try {
+            final AttributedList<Path> list = session.getFeature(ListService.class).list(directory, new DisabledListProgressListener() {
+                @Override
+                public void chunk(final Path folder, final AttributedList<Path> list) throws ListCanceledException {
+                    if(list.size() > limit) {
+                        throw new ListCanceledException(list);
+                    }
+                }
+            });
+            cache.put(directory, list);
+            return this.index(directory, list);
+        }
+        catch(NotfoundException e) {
+            // No files to find in missing directory. Not saved as the directory may be created later
+            return new ListingIndex(AttributedList.emptyList(), session.getCase());
+        }
+        catch(ListCanceledException e) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Skip listing directory %s with more than %d files", directory, limit));
+            }
+            failures.add(directory);
+            return null;
+        }
+        catch(ConnectionCanceledException e) {
+            throw e;
+        }
+        catch(BackgroundException e) {
+            log.warn(String.format("Failure listing directory %s. %s", directory, e.getMessage()));
+            failures.add(directory);
+            return null;
+        }
+    }
+
+    private ListingIndex index(final Path directory, final AttributedList<Path> list) {
+        final ListingIndex index = new ListingIndex(list, session.getCase());
+        indexes.put(directory, index);
+        return index;
+    }
+}
@@ -0,0 +1,77 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ExpiringPropertiesStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Persistent record of keys found to have nothing to preload. Entries expire after a configurable time to
+ * notice configuration changed with another client.
+ */
+public class PreloaderCache {
+
+    private final ExpiringPropertiesStore store;
+
+    /**
+     * @param host Bookmark
+     * @param name Identifier of preloader
+     */
+    public PreloaderCache(final Host host, final String name) {
+        this(ExpiringPropertiesStore.toFile("Preload", host, name),
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("preloader.cache.ttl.seconds")), System::currentTimeMillis);
+    }
+
+    public PreloaderCache(final Local file, final long ttl, final LongSupplier clock) {
+        this.store = new ExpiringPropertiesStore(file, ttl, clock, "Empty preload keys");
+    }
+
+    /**
+     * @param key Identifier
+     * @return True if recorded as empty and not expired
+     */
+    public boolean isEmpty(final String key) {
+        return null != store.get(key);
+    }
+
+    /**
+     * @param key Identifier found to have nothing to preload
+     */
+    public void empty(final String key) {
+        store.put(key, StringUtils.EMPTY);
+    }
+
+    /**
+     * @param key Identifier found to have data to preload
+     */
+    public void remove(final String key) {
+        store.remove(key);
+    }
+
+    /**
+     * Write to disk if modified
+     */
+    public void save() {
+        store.save();
+    }
+}
@@ -20,6 +20,7 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.date.RemainingPeriodFormatter;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 
@@ -100,6 +101,7 @@ public abstract class AbstractRetryCallable<T> implements Callable<T> {
                 return false;
         }
         log.warn(String.format("Retry for failure %s with delay of %ds", failure, delay));
+        MetricsRegistry.global().counter("retry", failure.getClass().getSimpleName()).increment();
         if(delay > 0) {
             final BackgroundActionPauser pause = new BackgroundActionPauser(new BackgroundActionPauser.Callback() {
                 @Override
@@ -19,11 +19,14 @@ package ch.cyberduck.core.transfer;
 
 import ch.cyberduck.core.*;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.ArchiveStream;
 import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Download;
 import ch.cyberduck.core.filter.DownloadDuplicateFilter;
 import ch.cyberduck.core.filter.DownloadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
 import ch.cyberduck.core.local.LocalSymlinkFactory;
@@ -224,6 +227,23 @@ public class DownloadTransfer extends Transfer {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Obtained bulk id %s for transfer %s", id, this));
         }
+        final ArchiveStream archive = source.getFeature(ArchiveStream.class);
+        if(archive != null) {
+            try {
+                archive.download(files, bandwidth, new DisabledStreamListener() {
+                    @Override
+                    public void recv(final long bytes) {
+                        addTransferred(bytes);
+                    }
+                });
+            }
+            catch(ConnectionCanceledException e) {
+                throw e;
+            }
+            catch(BackgroundException e) {
+                log.warn(String.format("Failure downloading archive stream. Fallback to single files. %s", e.getDetail()));
+            }
+        }
     }
 
     @Override
@@ -253,6 +273,12 @@ public class DownloadTransfer extends Transfer {
             }
         }
         if(file.isFile()) {
+            if(status.isComplete()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Skip %s already transferred in archive stream", file));
+                }
+                return file;
+            }
             listener.message(MessageFormat.format(LocaleFactory.localizedString("Downloading {0}", "Status"),
                     file.getName()));
             final Local folder = local.getParent();
@@ -283,7 +309,10 @@ public class DownloadTransfer extends Transfer {
     @Override
     public void normalize() {
         List<TransferItem> normalized = new DownloadRootPathsNormalizer().normalize(roots);
-        roots.clear();
-        roots.addAll(normalized);
+        if(!normalized.equals(roots)) {
+            roots.clear();
+            roots.addAll(normalized);
+            this.setModified(true);
+        }
     }
 }
@@ -210,12 +210,21 @@ public class SyncTransfer extends Transfer {
         }
         if(resumeRequested) {
             if(action.equals(TransferAction.callback)) {
-                return action = prompt.prompt(item);
+                return this.prompt(prompt);
             }
             return action;
         }
         // Prompt for synchronization.
-        return action = prompt.prompt(item);
+        return this.prompt(prompt);
+    }
+
+    private TransferAction prompt(final TransferPrompt prompt) {
+        final TransferAction selected = prompt.prompt(item);
+        if(!selected.equals(action)) {
+            // Save selected action with transfer
+            this.setModified(true);
+        }
+        return action = selected;
     }
 
     @Override
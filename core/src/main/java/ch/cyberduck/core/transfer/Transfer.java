@@ -34,6 +34,7 @@ import ch.cyberduck.core.UUIDRandomStringService;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.io.BandwidthThrottle;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.TokenBucketRegistry;
 import ch.cyberduck.core.serializer.Serializer;
 import ch.cyberduck.core.shared.DefaultUrlProvider;
 
@@ -133,6 +134,11 @@ public abstract class Transfer implements Serializable {
      */
     private State state = State.stopped;
 
+    /**
+     * Roots or options changed since last saved
+     */
+    private volatile boolean modified;
+
     private enum State {
         running,
         stopped
@@ -163,7 +169,7 @@ public abstract class Transfer implements Serializable {
     public Transfer(final Host host, final List<TransferItem> roots, final BandwidthThrottle bandwidth) {
         this.host = host;
         this.roots.addAll(roots);
-        this.bandwidth = bandwidth;
+        this.setBandwidth(bandwidth);
     }
 
     public abstract Transfer withCache(final Cache<Path> cache);
@@ -199,7 +205,13 @@ public abstract class Transfer implements Serializable {
     }
 
     public void setBandwidth(final BandwidthThrottle bandwidth) {
-        this.bandwidth = bandwidth;
+        if(null == bandwidth || null == host) {
+            this.bandwidth = bandwidth;
+        }
+        else {
+            // Share limit with all transfers to host
+            this.bandwidth = bandwidth.withParent(TokenBucketRegistry.host(host.getHostname()));
+        }
     }
 
     /**
@@ -352,6 +364,20 @@ public abstract class Transfer implements Serializable {
      */
     public abstract void normalize();
 
+    /**
+     * @return True if roots or options changed since the transfer was last saved
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * @param modified Set when roots or options are changed and cleared when saved
+     */
+    public void setModified(final boolean modified) {
+        this.modified = modified;
+    }
+
     public void stop() {
         state = State.stopped;
         timestamp = new Date();
@@ -0,0 +1,201 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Attributes;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.preferences.SupportDirectoryFinderFactory;
+
+import org.apache.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Persistent record of completed files and directories of a transfer with size and modification date of the source
+ * and length written to the destination. Allows to skip completed items when resuming an interrupted transfer if the
+ * source is unchanged and the destination is found with the recorded length. A directory is recorded complete when
+ * all its children are complete.
+ */
+public class TransferCheckpoint {
+    private static final Logger log = Logger.getLogger(TransferCheckpoint.class);
+
+    private final Transfer transfer;
+    private final TransferJournal journal;
+
+    /**
+     * Number of children not yet complete including the directory itself
+     */
+    private final Map<TransferItem, AtomicInteger> pending
+        = new ConcurrentHashMap<TransferItem, AtomicInteger>();
+    /**
+     * Parent directory of prepared items
+     */
+    private final Map<TransferItem, TransferItem> parents
+        = new ConcurrentHashMap<TransferItem, TransferItem>();
+
+    public TransferCheckpoint(final Transfer transfer) {
+        this(transfer, new TransferJournal(getFile(transfer)));
+    }
+
+    public TransferCheckpoint(final Transfer transfer, final TransferJournal journal) {
+        this.transfer = transfer;
+        this.journal = journal;
+    }
+
+    /**
+     * @param transfer Transfer
+     * @return File with checkpoint of transfer in support directory
+     */
+    public static Local getFile(final Transfer transfer) {
+        return LocalFactory.get(LocalFactory.get(SupportDirectoryFinderFactory.get().find(), "Transfers"),
+            String.format("%s.cyberducktransfercheckpoint", transfer.getUuid()));
+    }
+
+    /**
+     * @param item File or directory
+     * @return Size and modification date of the side transferred from
+     */
+    private Attributes source(final TransferItem item) {
+        switch(transfer.getType()) {
+            case upload:
+                return item.local.attributes();
+        }
+        return item.remote.attributes();
+    }
+
+    /**
+     * @param item        File or directory in transfer
+     * @param source      Current attributes of the side transferred from
+     * @param destination Current attributes of the side transferred to or null if not found
+     * @return True if item has been recorded complete with the same size and modification date of the source and
+     * the destination is found with the length recorded
+     */
+    public boolean isComplete(final TransferItem item, final Attributes source, final Attributes destination) {
+        final TransferJournal.Entry entry = journal.get(item.remote.getAbsolute());
+        if(entry.state != TransferJournal.State.complete) {
+            return false;
+        }
+        if(null == destination) {
+            // Deleted after transfer
+            return false;
+        }
+        if(-1L == source.getModificationDate()) {
+            // Cannot determine if file has changed
+            return false;
+        }
+        if(entry.size != source.getSize() || entry.modified != source.getModificationDate()) {
+            return false;
+        }
+        if(item.remote.isFile()) {
+            return entry.offset == destination.getSize();
+        }
+        return true;
+    }
+
+    /**
+     * Track completion of children to record directory complete
+     *
+     * @param directory Directory in transfer
+     * @param children  Children of directory to transfer
+     */
+    public void prepared(final TransferItem directory, final List<TransferItem> children) {
+        pending.put(directory, new AtomicInteger(children.size() + 1));
+        for(TransferItem child : children) {
+            parents.put(child, directory);
+        }
+    }
+
+    /**
+     * Item skipped as found complete in checkpoint
+     */
+    public void skipped(final TransferItem item) {
+        this.done(item);
+    }
+
+    /**
+     * Record file transferred completely or directory created. A directory is only recorded once all children
+     * are complete.
+     *
+     * @param item   File or directory
+     * @param length Length of file in destination
+     */
+    public void complete(final TransferItem item, final long length) {
+        if(item.remote.isDirectory()) {
+            this.release(item);
+        }
+        else {
+            this.record(item, length);
+            this.done(item);
+        }
+    }
+
+    private void release(final TransferItem directory) {
+        final AtomicInteger count = pending.get(directory);
+        if(null == count) {
+            return;
+        }
+        if(count.decrementAndGet() == 0) {
+            pending.remove(directory);
+            this.record(directory, 0L);
+            this.done(directory);
+        }
+    }
+
+    /**
+     * Count item complete in parent directory
+     */
+    private void done(final TransferItem item) {
+        final TransferItem parent = parents.remove(item);
+        if(parent != null) {
+            this.release(parent);
+        }
+    }
+
+    private void record(final TransferItem item, final long length) {
+        final Attributes attributes = this.source(item);
+        try {
+            journal.item(item.remote.getAbsolute(), TransferJournal.State.complete, length, attributes.getSize(),
+                attributes.getModificationDate());
+            if(journal.isCompactionRequired()) {
+                journal.compact(null);
+            }
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure saving checkpoint for %s. %s", item, e.getMessage()));
+        }
+    }
+
+    /**
+     * Discard checkpoint when transfer is started over or completed
+     */
+    public void delete() {
+        try {
+            journal.delete();
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure deleting checkpoint %s. %s", journal.getFile(), e.getMessage()));
+        }
+    }
+
+    public void close() {
+        journal.close();
+    }
+}
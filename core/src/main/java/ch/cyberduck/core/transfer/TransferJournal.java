@@ -0,0 +1,362 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.LocalFactory;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.exception.NotfoundException;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary append-only log of transfer state changes. Progress records are replayed on top of the transfer
+ * definition saved as a property list. Item records hold the state per file of a checkpoint and are compacted to
+ * the last known state per item when the number of records exceeds a threshold.
+ *
+ * @see ch.cyberduck.core.FolderTransferCollection
+ * @see TransferCheckpoint
+ */
+public class TransferJournal {
+    private static final Logger log = Logger.getLogger(TransferJournal.class);
+
+    private static final int VERSION = 1;
+
+    private static final byte RECORD_PROGRESS = 1;
+    private static final byte RECORD_ITEM = 2;
+    private static final byte RECORD_CLEAR = 4;
+
+    private final Local file;
+
+    /**
+     * Number of records after which the journal is rewritten
+     */
+    private final int threshold;
+
+    /**
+     * Number of records appended since last compaction
+     */
+    private int records;
+
+    private DataOutputStream out;
+
+    /**
+     * Item states. Only read from disk on first access from checkpoint
+     */
+    private Map<String, Entry> items;
+
+    public TransferJournal(final Local file) {
+        this(file, PreferencesFactory.get().getInteger("queue.journal.compaction.threshold"));
+    }
+
+    public TransferJournal(final Local file, final int threshold) {
+        this.file = file;
+        this.threshold = threshold;
+    }
+
+    public Local getFile() {
+        return file;
+    }
+
+    /**
+     * Record current size, transferred bytes, timestamp and bandwidth setting of transfer
+     */
+    public synchronized void progress(final Transfer transfer) throws AccessDeniedException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            final DataOutputStream record = new DataOutputStream(buffer);
+            record.writeByte(RECORD_PROGRESS);
+            record.writeLong(transfer.getSize());
+            record.writeLong(transfer.getTransferred());
+            record.writeLong(null == transfer.getTimestamp() ? -1L : transfer.getTimestamp().getTime());
+            record.writeFloat(null == transfer.getBandwidth() ? -1f : transfer.getBandwidth().getRate());
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        this.append(buffer.toByteArray());
+    }
+
+    /**
+     * Record state of a single file in transfer
+     *
+     * @param key      Absolute path of file
+     * @param state    Item state
+     * @param offset   Number of bytes transferred
+     * @param size     Size of file
+     * @param modified Modification date of file
+     */
+    public synchronized void item(final String key, final State state, final long offset, final long size, final long modified) throws AccessDeniedException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            final DataOutputStream record = new DataOutputStream(buffer);
+            record.writeByte(RECORD_ITEM);
+            record.writeUTF(key);
+            record.writeByte(state.ordinal());
+            record.writeLong(offset);
+            record.writeLong(size);
+            record.writeLong(modified);
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        this.append(buffer.toByteArray());
+        if(items != null) {
+            items.put(key, new Entry(state, offset, size, modified));
+        }
+    }
+
+    /**
+     * Discard all item states such as after a transfer is reset
+     */
+    public synchronized void clear() throws AccessDeniedException {
+        this.append(new byte[]{RECORD_CLEAR});
+        if(items != null) {
+            items.clear();
+        }
+    }
+
+    /**
+     * @param key Absolute path of file
+     * @return Last recorded state or unknown
+     */
+    public synchronized Entry get(final String key) {
+        final Entry entry = this.items().get(key);
+        if(null == entry) {
+            return new Entry(State.unknown, 0L, -1L, -1L);
+        }
+        return entry;
+    }
+
+    /**
+     * @return Last recorded state of all items read lazily from journal
+     */
+    public synchronized Map<String, Entry> items() {
+        if(null == items) {
+            items = new LinkedHashMap<String, Entry>();
+            this.replay(null);
+        }
+        return Collections.unmodifiableMap(items);
+    }
+
+    /**
+     * Apply recorded progress to transfer
+     *
+     * @param transfer Transfer to update or null to only read item states
+     */
+    public synchronized void replay(final Transfer transfer) {
+        if(!file.exists()) {
+            return;
+        }
+        final Map<String, Entry> states = new LinkedHashMap<String, Entry>();
+        int count = 0;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(file.getInputStream()));
+            if(in.readInt() != VERSION) {
+                log.warn(String.format("Ignore journal %s with unknown version", file));
+                return;
+            }
+            while(true) {
+                final int type;
+                try {
+                    type = in.readByte();
+                }
+                catch(EOFException e) {
+                    break;
+                }
+                switch(type) {
+                    case RECORD_PROGRESS:
+                        final long size = in.readLong();
+                        final long transferred = in.readLong();
+                        final long timestamp = in.readLong();
+                        final float bandwidth = in.readFloat();
+                        if(transfer != null) {
+                            transfer.setSize(size);
+                            transfer.setTransferred(transferred);
+                            if(timestamp != -1L) {
+                                transfer.setTimestamp(new Date(timestamp));
+                            }
+                            if(bandwidth != -1f) {
+                                transfer.getBandwidth().setRate(bandwidth);
+                            }
+                        }
+                        break;
+                    case RECORD_ITEM:
+                        final String key = in.readUTF();
+                        final int ordinal = in.readByte();
+                        if(ordinal < 0 || ordinal >= State.values().length) {
+                            throw new IOException(String.format("Unknown item state %d", ordinal));
+                        }
+                        final State state = State.values()[ordinal];
+                        final long offset = in.readLong();
+                        final long length = in.readLong();
+                        final long modified = in.readLong();
+                        states.put(key, new Entry(state, offset, length, modified));
+                        break;
+                    case RECORD_CLEAR:
+                        states.clear();
+                        break;
+                    default:
+                        throw new IOException(String.format("Unknown record type %d", type));
+                }
+                count++;
+            }
+        }
+        catch(EOFException e) {
+            // Truncated last record after crash
+            log.warn(String.format("Ignore incomplete record in journal %s", file));
+        }
+        catch(IOException | AccessDeniedException e) {
+            log.warn(String.format("Failure reading journal %s. %s", file, e.getMessage()));
+        }
+        finally {
+            IOUtils.closeQuietly(in);
+        }
+        records = count;
+        if(null == transfer) {
+            items = states;
+        }
+    }
+
+    /**
+     * @return True if number of records exceeds threshold
+     */
+    public synchronized boolean isCompactionRequired() {
+        return records >= threshold;
+    }
+
+    /**
+     * Rewrite journal with a single record per item and the current transfer progress
+     */
+    public synchronized void compact(final Transfer transfer) throws AccessDeniedException {
+        final Map<String, Entry> states = this.items();
+        this.close();
+        final Local temporary = LocalFactory.get(file.getParent(), String.format("%s.tmp", file.getName()));
+        final OutputStream proxy = temporary.getOutputStream(false);
+        try {
+            final DataOutputStream compacted = new DataOutputStream(proxy);
+            compacted.writeInt(VERSION);
+            for(Map.Entry<String, Entry> entry : states.entrySet()) {
+                final Entry state = entry.getValue();
+                compacted.writeByte(RECORD_ITEM);
+                compacted.writeUTF(entry.getKey());
+                compacted.writeByte(state.state.ordinal());
+                compacted.writeLong(state.offset);
+                compacted.writeLong(state.size);
+                compacted.writeLong(state.modified);
+            }
+            compacted.flush();
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            IOUtils.closeQuietly(proxy);
+        }
+        temporary.rename(file);
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Compacted journal %s from %d records to %d items", file, records, states.size()));
+        }
+        records = 0;
+        if(transfer != null) {
+            this.progress(transfer);
+        }
+    }
+
+    public synchronized void close() {
+        IOUtils.closeQuietly(out);
+        out = null;
+    }
+
+    public synchronized void delete() throws AccessDeniedException {
+        this.close();
+        if(file.exists()) {
+            try {
+                file.delete();
+            }
+            catch(NotfoundException e) {
+                log.warn(String.format("Journal %s already deleted", file));
+            }
+        }
+        items = null;
+        records = 0;
+    }
+
+    private void append(final byte[] record) throws AccessDeniedException {
+        try {
+            if(null == out) {
+                final boolean exists = file.exists();
+                out = new DataOutputStream(file.getOutputStream(exists));
+                if(!exists) {
+                    out.writeInt(VERSION);
+                }
+            }
+            out.write(record);
+            out.flush();
+            records++;
+        }
+        catch(IOException e) {
+            this.close();
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+    }
+
+    public enum State {
+        unknown,
+        complete
+    }
+
+    public static final class Entry {
+        public final State state;
+        public final long offset;
+        public final long size;
+        public final long modified;
+
+        public Entry(final State state, final long offset, final long size, final long modified) {
+            this.state = state;
+            this.offset = offset;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Entry{");
+            sb.append("state=").append(state);
+            sb.append(", offset=").append(offset);
+            sb.append(", size=").append(size);
+            sb.append(", modified=").append(modified);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
@@ -35,28 +35,37 @@ import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+/**
+ * Kept for every item of a transfer. State is held in plain and volatile fields instead of separate atomic, latch
+ * and rename objects to keep the footprint small in transfers with millions of files.
+ */
 public class TransferStatus implements StreamCancelation, StreamProgress {
     private static final Logger log = Logger.getLogger(TransferStatus.class);
 
+    private static final AtomicLongFieldUpdater<TransferStatus> OFFSET
+        = AtomicLongFieldUpdater.newUpdater(TransferStatus.class, "offset");
+
     public static final long KILO = 1024; //2^10
     public static final long MEGA = 1048576; // 2^20
     public static final long GIGA = 1073741824; // 2^30
 
     /**
      * Change target filename
+     *
+     * @see Rename
      */
-    private Rename rename
-        = new Rename();
+    private Path renameRemote;
+    private Local renameLocal;
 
     /**
      * Temporary filename only used for transfer. Rename when file transfer is complete
+     *
+     * @see Displayname
      */
-    private final Displayname displayname
-        = new Displayname();
+    private Path displaynameRemote;
+    private Local displaynameLocal;
 
     /**
      * Target file or directory already exists
@@ -83,8 +92,7 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
     /**
      * The number of transferred bytes. Must be less or equals size.
      */
-    private final AtomicLong offset
-        = new AtomicLong(0);
+    private volatile long offset = 0L;
     /**
      * Transfer size. May be less than the file size in attributes or 0 if creating symbolic links.
      */
@@ -93,14 +101,14 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
     /**
      * The transfer has been canceled by the user.
      */
-    private final AtomicBoolean canceled
-        = new AtomicBoolean();
+    private volatile boolean canceled = false;
 
-    private final AtomicBoolean complete
-        = new AtomicBoolean();
+    private volatile boolean complete = false;
 
-    private final CountDownLatch done
-        = new CountDownLatch(1);
+    /**
+     * Completed, failed or canceled
+     */
+    private volatile boolean done = false;
 
     private Checksum checksum = Checksum.NONE;
 
@@ -172,19 +180,19 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
     }
 
     public TransferStatus(final TransferStatus copy) {
-        this.rename.remote = copy.rename.remote;
-        this.rename.local = copy.rename.local;
-        this.displayname.local = copy.displayname.local;
-        this.displayname.remote = copy.displayname.remote;
+        this.renameRemote = copy.renameRemote;
+        this.renameLocal = copy.renameLocal;
+        this.displaynameLocal = copy.displaynameLocal;
+        this.displaynameRemote = copy.displaynameRemote;
         this.exists = copy.exists;
         this.append = copy.append;
         this.segment = copy.segment;
         this.segments = copy.segments;
         this.rejected = copy.rejected;
-        this.offset.set(copy.offset.get());
+        this.offset = copy.offset;
         this.length = copy.length;
-        this.canceled.set(copy.canceled.get());
-        this.complete.set(copy.complete.get());
+        this.canceled = copy.canceled;
+        this.complete = copy.complete;
         this.checksum = copy.checksum;
         this.mime = copy.mime;
         this.remote = copy.remote;
@@ -210,23 +218,33 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
      */
     public boolean await() {
         // Lock until complete
-        try {
-            done.await();
+        synchronized(this) {
+            while(!done) {
+                try {
+                    this.wait();
+                }
+                catch(InterruptedException e) {
+                    log.error("Failure waiting for status to complete");
+                    break;
+                }
+            }
         }
-        catch(InterruptedException e) {
-            log.error("Failure waiting for status to complete");
-        }
-        return complete.get();
+        return complete;
+    }
+
+    private synchronized void done() {
+        done = true;
+        this.notifyAll();
     }
 
     public boolean isComplete() {
-        return complete.get();
+        return complete;
     }
 
     @Override
     public void setComplete() {
-        complete.set(true);
-        done.countDown();
+        complete = true;
+        this.done();
     }
 
     public TransferStatus complete() {
@@ -235,37 +253,37 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
     }
 
     public void setFailure() {
-        complete.set(false);
-        done.countDown();
+        complete = false;
+        this.done();
     }
 
     /**
      * If this path is currently transferred, interrupt it as soon as possible
      */
     public void setCanceled() {
-        canceled.set(true);
-        done.countDown();
+        canceled = true;
+        this.done();
     }
 
     /**
      * @return True if marked for interrupt
      */
     public boolean isCanceled() {
-        return canceled.get();
+        return canceled;
     }
 
     /**
      * @return Number of bytes transferred
      */
     public long getOffset() {
-        return offset.get();
+        return offset;
     }
 
     /**
      * @param bytes The already transferred bytes
      */
     public void setOffset(final long bytes) {
-        offset.set(bytes);
+        offset = bytes;
         if(log.isTraceEnabled()) {
             log.trace(String.format("Offset set to %d bytes", bytes));
         }
@@ -273,7 +291,7 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
 
     @Override
     public void progress(final long bytes) {
-        this.setOffset(offset.addAndGet(bytes));
+        this.setOffset(OFFSET.addAndGet(this, bytes));
     }
 
     public TransferStatus skip(final long bytes) {
@@ -328,7 +346,7 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
      */
     public void setAppend(final boolean append) {
         if(!append) {
-            offset.set(0);
+            offset = 0L;
         }
         this.append = append;
     }
@@ -364,16 +382,56 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         return rejected;
     }
 
+    /**
+     * @return Copy of rename targets. Use {@link #rename(Path)} or {@link #setRename(Rename)} to change
+     */
     public Rename getRename() {
+        final Rename rename = new Rename();
+        rename.remote = renameRemote;
+        rename.local = renameLocal;
         return rename;
     }
 
+    /**
+     * @return Copy of final filenames. Use {@link #withDisplayname(Path)} to change
+     */
     public Displayname getDisplayname() {
+        final Displayname displayname = new Displayname();
+        displayname.remote = displaynameRemote;
+        displayname.local = displaynameLocal;
         return displayname;
     }
 
+    /**
+     * @return Renamed upload target or null
+     */
+    public Path getRenameRemote() {
+        return renameRemote;
+    }
+
+    /**
+     * @return Renamed local target or null
+     */
+    public Local getRenameLocal() {
+        return renameLocal;
+    }
+
+    /**
+     * @return Final filename of upload or null
+     */
+    public Path getDisplaynameRemote() {
+        return displaynameRemote;
+    }
+
+    /**
+     * @return Final filename to rename temporary file to or null
+     */
+    public Local getDisplaynameLocal() {
+        return displaynameLocal;
+    }
+
     public TransferStatus rename(final Path renamed) {
-        this.rename.remote = renamed;
+        this.renameRemote = renamed;
         return this;
     }
 
@@ -381,17 +439,17 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
      * @param temporary Temporary file to open output stream to
      */
     public TransferStatus temporary(final Path temporary) {
-        this.rename.remote = temporary;
+        this.renameRemote = temporary;
         return this;
     }
 
     public TransferStatus withDisplayname(final Path finalname) {
-        this.displayname.remote = finalname;
+        this.displaynameRemote = finalname;
         return this;
     }
 
     public TransferStatus rename(final Local renamed) {
-        this.rename.local = renamed;
+        this.renameLocal = renamed;
         return this;
     }
 
@@ -399,12 +457,13 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
      * @param finalname Target filename to rename temporary file to
      */
     public TransferStatus withDisplayname(final Local finalname) {
-        this.displayname.local = finalname;
+        this.displaynameLocal = finalname;
         return this;
     }
 
     public void setRename(final Rename rename) {
-        this.rename = rename;
+        this.renameRemote = rename.remote;
+        this.renameLocal = rename.local;
     }
 
     public String getMime() {
@@ -616,7 +675,7 @@ public class TransferStatus implements StreamCancelation, StreamProgress {
         sb.append(", offset=").append(offset);
         sb.append(", length=").append(length);
         sb.append(", canceled=").append(canceled);
-        sb.append(", renamed=").append(rename);
+        sb.append(", renamed=").append(this.getRename());
         sb.append('}');
         return sb.toString();
     }
@@ -31,6 +31,8 @@ import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.features.ArchiveStream;
 import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Directory;
 import ch.cyberduck.core.features.Symlink;
@@ -38,6 +40,7 @@ import ch.cyberduck.core.features.Upload;
 import ch.cyberduck.core.features.Write;
 import ch.cyberduck.core.filter.UploadRegexFilter;
 import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
 import ch.cyberduck.core.io.DelegateStreamListener;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.preferences.PreferencesFactory;
@@ -217,6 +220,23 @@ public class UploadTransfer extends Transfer {
         if(log.isDebugEnabled()) {
             log.debug(String.format("Obtained bulk id %s for transfer %s", id, this));
         }
+        final ArchiveStream archive = source.getFeature(ArchiveStream.class);
+        if(archive != null) {
+            try {
+                archive.upload(files, bandwidth, new DisabledStreamListener() {
+                    @Override
+                    public void sent(final long bytes) {
+                        addTransferred(bytes);
+                    }
+                });
+            }
+            catch(ConnectionCanceledException e) {
+                throw e;
+            }
+            catch(BackgroundException e) {
+                log.warn(String.format("Failure uploading archive stream. Fallback to single files. %s", e.getDetail()));
+            }
+        }
     }
 
     @Override
@@ -248,6 +268,12 @@ public class UploadTransfer extends Transfer {
             }
         }
         if(file.isFile()) {
+            if(status.isComplete()) {
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Skip %s already transferred in archive stream", file));
+                }
+                return file;
+            }
             listener.message(MessageFormat.format(LocaleFactory.localizedString("Uploading {0}", "Status"),
                     file.getName()));
             // Transfer
@@ -276,8 +302,11 @@ public class UploadTransfer extends Transfer {
     @Override
     public void normalize() {
         List<TransferItem> normalized = new UploadRootPathsNormalizer().normalize(roots);
-        roots.clear();
-        roots.addAll(normalized);
+        if(!normalized.equals(roots)) {
+            roots.clear();
+            roots.addAll(normalized);
+            this.setModified(true);
+        }
     }
 
     @Override
@@ -39,6 +39,9 @@ import ch.cyberduck.core.features.UnixPermission;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
+import ch.cyberduck.core.shared.ListingAttributesFinderFeature;
+import ch.cyberduck.core.shared.ListingFindFeature;
+import ch.cyberduck.core.shared.ListingResolver;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPathFilter;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -66,6 +69,9 @@ public abstract class AbstractCopyFilter implements TransferPathFilter {
 
     private final UploadFilterOptions options;
 
+    private final AttributesFinder attribute;
+    private final Find find;
+
     public AbstractCopyFilter(final Session<?> source, final Session<?> destination, final Map<Path, Path> files) {
         this(source, destination, files, new UploadFilterOptions());
     }
@@ -76,6 +82,11 @@ public abstract class AbstractCopyFilter implements TransferPathFilter {
         this.destinationSession = destination;
         this.files = files;
         this.options = options;
+        // Share listing of parent directory for lookups of files in the same directory
+        this.attribute = new ListingAttributesFinderFeature(new ListingResolver(source),
+            source.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(source)));
+        this.find = new ListingFindFeature(new ListingResolver(destination),
+            destination.getFeature(Find.class, new DefaultFindFeature(destination)));
     }
 
     @Override
@@ -89,7 +100,7 @@ public abstract class AbstractCopyFilter implements TransferPathFilter {
     public TransferStatus prepare(final Path source, final Local n, final TransferStatus parent, final ProgressListener progress) throws BackgroundException {
         final TransferStatus status = new TransferStatus();
         // Read remote attributes from source
-        final PathAttributes attributes = sourceSession.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(sourceSession)).withCache(sourceCache).find(source);
+        final PathAttributes attributes = attribute.withCache(sourceCache).find(source);
         if(source.isFile()) {
             // Content length
             status.setLength(attributes.getSize());
@@ -118,7 +129,7 @@ public abstract class AbstractCopyFilter implements TransferPathFilter {
             // Do not attempt to create a directory that already exists
             final Path target = files.get(source);
             // Look for file in target host
-            if(destinationSession.getFeature(Find.class, new DefaultFindFeature(destinationSession)).withCache(destinationCache).find(target)) {
+            if(find.withCache(destinationCache).find(target)) {
                 status.setExists(true);
             }
         }
@@ -48,6 +48,8 @@ import ch.cyberduck.core.local.QuarantineServiceFactory;
 import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
+import ch.cyberduck.core.shared.ListingAttributesFinderFeature;
+import ch.cyberduck.core.shared.ListingResolver;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPathFilter;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -90,7 +92,9 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
         this.symlinkResolver = symlinkResolver;
         this.session = session;
         this.options = options;
-        this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
+        // Share listing of parent directory for lookups of files in the same directory
+        this.attribute = new ListingAttributesFinderFeature(new ListingResolver(session),
+            session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session)));
     }
 
     @Override
@@ -161,7 +165,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                     if(!StringUtils.equals(file.getName(), filename)) {
                         status.withDisplayname(LocalFactory.get(local.getParent(), filename));
                         int no = 0;
-                        while(status.getDisplayname().local.exists()) {
+                        while(status.getDisplaynameLocal().exists()) {
                             String proposal = String.format("%s-%d", FilenameUtils.getBaseName(filename), ++no);
                             if(StringUtils.isNotBlank(FilenameUtils.getExtension(filename))) {
                                 proposal += String.format(".%s", FilenameUtils.getExtension(filename));
@@ -278,7 +282,7 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                 for(Iterator<TransferStatus> iterator = segments.iterator(); iterator.hasNext(); ) {
                     final TransferStatus segmentStatus = iterator.next();
                     // Segment
-                    final Local segmentFile = segmentStatus.getRename().local;
+                    final Local segmentFile = segmentStatus.getRenameLocal();
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Append segment %s to %s", segmentFile, local));
                     }
@@ -378,11 +382,11 @@ public abstract class AbstractDownloadFilter implements TransferPathFilter {
                 }
             }
             if(file.isFile()) {
-                if(status.getDisplayname().local != null) {
+                if(status.getDisplaynameLocal() != null) {
                     if(log.isInfoEnabled()) {
-                        log.info(String.format("Rename file %s to %s", file, status.getDisplayname().local));
+                        log.info(String.format("Rename file %s to %s", file, status.getDisplaynameLocal()));
                     }
-                    local.rename(status.getDisplayname().local);
+                    local.rename(status.getDisplaynameLocal());
                 }
                 if(options.open) {
                     launcher.open(local);
@@ -53,16 +53,16 @@ public class RenameFilter extends AbstractDownloadFilter {
                 if(StringUtils.isNotBlank(FilenameUtils.getExtension(filename))) {
                     proposal += String.format(".%s", FilenameUtils.getExtension(filename));
                 }
-                if(parent.getRename().local != null) {
-                    status.rename(LocalFactory.get(parent.getRename().local, proposal));
+                if(parent.getRenameLocal() != null) {
+                    status.rename(LocalFactory.get(parent.getRenameLocal(), proposal));
                 }
                 else {
                     status.rename(LocalFactory.get(local.getParent(), proposal));
                 }
             }
-            while(status.getRename().local.exists());
+            while(status.getRenameLocal().exists());
             if(log.isInfoEnabled()) {
-                log.info(String.format("Changed download target from %s to %s", local, status.getRename().local));
+                log.info(String.format("Changed download target from %s to %s", local, status.getRenameLocal()));
             }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Clear exist flag for file %s", local));
@@ -70,11 +70,11 @@ public class RenameFilter extends AbstractDownloadFilter {
             status.setExists(false);
         }
         else {
-            if(parent.getRename().local != null) {
-                status.rename(LocalFactory.get(parent.getRename().local, file.getName()));
+            if(parent.getRenameLocal() != null) {
+                status.rename(LocalFactory.get(parent.getRenameLocal(), file.getName()));
             }
             if(log.isInfoEnabled()) {
-                log.info(String.format("Changed download target from %s to %s", local, status.getRename().local));
+                log.info(String.format("Changed download target from %s to %s", local, status.getRenameLocal()));
             }
         }
         return status;
@@ -89,7 +89,7 @@ public class ResumeFilter extends AbstractDownloadFilter {
         final TransferStatus status = super.prepare(file, local, parent, progress);
         if(status.isSegmented()) {
             for(TransferStatus segmentStatus : status.getSegments()) {
-                final Local segmentFile = segmentStatus.getRename().local;
+                final Local segmentFile = segmentStatus.getRenameLocal();
                 if(segmentFile.exists()) {
                     if(log.isInfoEnabled()) {
                         log.info(String.format("Determine if part %s can be skipped", segmentStatus));
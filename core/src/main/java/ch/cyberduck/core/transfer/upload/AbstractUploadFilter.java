@@ -51,6 +51,9 @@ import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.shared.DefaultAttributesFinderFeature;
 import ch.cyberduck.core.shared.DefaultFindFeature;
+import ch.cyberduck.core.shared.ListingAttributesFinderFeature;
+import ch.cyberduck.core.shared.ListingFindFeature;
+import ch.cyberduck.core.shared.ListingResolver;
 import ch.cyberduck.core.transfer.TransferOptions;
 import ch.cyberduck.core.transfer.TransferPathFilter;
 import ch.cyberduck.core.transfer.TransferStatus;
@@ -80,8 +83,10 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
         this.symlinkResolver = symlinkResolver;
         this.session = session;
         this.options = options;
-        this.find = session.getFeature(Find.class, new DefaultFindFeature(session));
-        this.attribute = session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session));
+        // Share listing of parent directory for lookups of files in the same directory
+        final ListingResolver resolver = new ListingResolver(session);
+        this.find = new ListingFindFeature(resolver, session.getFeature(Find.class, new DefaultFindFeature(session)));
+        this.attribute = new ListingAttributesFinderFeature(resolver, session.getFeature(AttributesFinder.class, new DefaultAttributesFinderFeature(session)));
     }
 
     @Override
@@ -345,9 +350,9 @@ public abstract class AbstractUploadFilter implements TransferPathFilter {
                 if(this.options.temporary) {
                     final Move move = session.getFeature(Move.class);
                     if(log.isInfoEnabled()) {
-                        log.info(String.format("Rename file %s to %s", file, status.getDisplayname().remote));
+                        log.info(String.format("Rename file %s to %s", file, status.getDisplaynameRemote()));
                     }
-                    move.move(file, status.getDisplayname().remote, status, new Delete.DisabledCallback(), new DisabledConnectionCallback());
+                    move.move(file, status.getDisplaynameRemote(), status, new Delete.DisabledCallback(), new DisabledConnectionCallback());
                 }
             }
         }
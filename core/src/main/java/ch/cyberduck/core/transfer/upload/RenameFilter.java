@@ -52,16 +52,16 @@ public class RenameFilter extends AbstractUploadFilter {
                 if(StringUtils.isNotBlank(FilenameUtils.getExtension(filename))) {
                     proposal += String.format(".%s", FilenameUtils.getExtension(filename));
                 }
-                if(parent.getRename().remote != null) {
-                    status.rename(new Path(parent.getRename().remote, proposal, file.getType()));
+                if(parent.getRenameRemote() != null) {
+                    status.rename(new Path(parent.getRenameRemote(), proposal, file.getType()));
                 }
                 else {
                     status.rename(new Path(file.getParent(), proposal, file.getType()));
                 }
             }
-            while(find.withCache(cache).find(status.getRename().remote));
+            while(find.withCache(cache).find(status.getRenameRemote()));
             if(log.isInfoEnabled()) {
-                log.info(String.format("Changed upload target from %s to %s", file, status.getRename().remote));
+                log.info(String.format("Changed upload target from %s to %s", file, status.getRenameRemote()));
             }
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Clear exist flag for file %s", file));
@@ -69,11 +69,11 @@ public class RenameFilter extends AbstractUploadFilter {
             status.setExists(false);
         }
         else {
-            if(parent.getRename().remote != null) {
-                status.rename(new Path(parent.getRename().remote, file.getName(), file.getType()));
+            if(parent.getRenameRemote() != null) {
+                status.rename(new Path(parent.getRenameRemote(), file.getName(), file.getType()));
             }
             if(log.isInfoEnabled()) {
-                log.info(String.format("Changed upload target from %s to %s", file, status.getRename().remote));
+                log.info(String.format("Changed upload target from %s to %s", file, status.getRenameRemote()));
             }
         }
         return status;
@@ -218,6 +218,10 @@ public class DefaultVaultRegistry extends CopyOnWriteArraySet<Vault> implements
         if(type == Versioning.class) {
             return (T) new VaultRegistryVersioningFeature(session, (Versioning) proxy, this);
         }
+        if(type == ArchiveStream.class) {
+            // Archive contents are not encrypted
+            return this.isEmpty() ? proxy : null;
+        }
         return proxy;
     }
 }
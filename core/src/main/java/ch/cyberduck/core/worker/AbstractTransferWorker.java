@@ -19,6 +19,7 @@ package ch.cyberduck.core.worker;
  */
 
 import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Attributes;
 import ch.cyberduck.core.BookmarkNameProvider;
 import ch.cyberduck.core.Cache;
 import ch.cyberduck.core.ConnectionCallback;
@@ -34,13 +35,18 @@ import ch.cyberduck.core.SleepPreventerFactory;
 import ch.cyberduck.core.TransferItemCache;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.exception.TransferCanceledException;
+import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.TransferBackgroundActionState;
 import ch.cyberduck.core.transfer.SynchronizingTransferErrorCallback;
 import ch.cyberduck.core.transfer.Transfer;
 import ch.cyberduck.core.transfer.TransferAction;
+import ch.cyberduck.core.transfer.TransferCheckpoint;
 import ch.cyberduck.core.transfer.TransferErrorCallback;
 import ch.cyberduck.core.transfer.TransferItem;
 import ch.cyberduck.core.transfer.TransferOptions;
@@ -58,6 +64,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private static final Logger log = Logger.getLogger(AbstractTransferWorker.class);
@@ -87,6 +94,18 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
     private final Cache<TransferItem> cache;
     private final ProgressListener progress;
     private final StreamListener stream;
+    /**
+     * Completed items persisted to resume after interruption. Only set when enabled
+     */
+    private TransferCheckpoint checkpoint;
+    /**
+     * Record items in checkpoint
+     */
+    private boolean checkpoints;
+    /**
+     * Skip items found complete in checkpoint
+     */
+    private boolean resume;
 
     public AbstractTransferWorker(final Transfer transfer, final TransferOptions options,
                                   final TransferPrompt prompt, final TransferSpeedometer meter,
@@ -209,6 +228,15 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                 }
                 throw new TransferCanceledException();
             }
+            checkpoints = this.isCheckpointSupported();
+            if(checkpoints) {
+                checkpoint = new TransferCheckpoint(transfer);
+                resume = TransferAction.resume.equals(action);
+                if(!resume) {
+                    // Start over
+                    checkpoint.delete();
+                }
+            }
             // Reset the cached size of the transfer and progress value
             transfer.reset();
 
@@ -216,18 +244,29 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             progress.message(MessageFormat.format(LocaleFactory.localizedString("Prepare {0} ({1})", "Status"), transfer.getName(), action.getTitle()));
             transfer.normalize();
 
+            final MetricsRegistry metrics = MetricsRegistry.global();
+            final String hostname = transfer.getSource().getHostname();
+            final long prepare = System.nanoTime();
             // Calculate information about the files in advance to give progress information
             for(TransferItem next : transfer.getRoots()) {
                 this.prepare(next.remote, next.local, new TransferStatus().exists(true), action);
             }
             this.await();
+            metrics.histogram("transfer.prepare.duration", hostname, MetricsRegistry.NANOSECONDS).record(System.nanoTime() - prepare);
             meter.reset();
+            final long start = System.nanoTime();
             transfer.pre(source, destination, table, connectionCallback);
             // Transfer all files sequentially
             for(TransferItem next : transfer.getRoots()) {
                 this.transfer(next, action);
             }
             this.await();
+            final long elapsed = System.nanoTime() - start;
+            metrics.histogram("transfer.duration", hostname, MetricsRegistry.NANOSECONDS).record(elapsed);
+            if(elapsed > 0) {
+                metrics.histogram("transfer.throughput", hostname, MetricsRegistry.BYTES_PER_SECOND).record(
+                    (long) (transfer.getTransferred() * (double) TimeUnit.SECONDS.toNanos(1L) / elapsed));
+            }
         }
         finally {
             transfer.post(source, destination, table, connectionCallback);
@@ -241,10 +280,77 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
             sleep.release(lock);
             table.clear();
             cache.clear();
+            if(checkpoints) {
+                if(transfer.isComplete()) {
+                    checkpoint.delete();
+                }
+                else {
+                    checkpoint.close();
+                }
+            }
         }
         return true;
     }
 
+    /**
+     * @return False for synchronisation where source side cannot be determined per item and for copy where the
+     * destination is not known per item
+     */
+    protected boolean isCheckpointSupported() {
+        if(!PreferencesFactory.get().getBoolean("queue.checkpoint.enable")) {
+            return false;
+        }
+        switch(transfer.getType()) {
+            case download:
+            case upload:
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return True if file or directory is recorded complete in checkpoint with the current size and modification
+     * date of the side transferred from and the side transferred to is found with the length recorded. Attributes
+     * of roots are queried again as they are read from the saved transfer.
+     */
+    private boolean isComplete(final Session<?> source, final Session<?> destination, final Path file, final Local local) throws BackgroundException {
+        final boolean root = transfer.getRoots().stream().anyMatch(item -> item.remote.equals(file));
+        switch(transfer.getType()) {
+            case upload:
+                if(root) {
+                    local.refresh();
+                }
+                if(!local.exists()) {
+                    return false;
+                }
+                Attributes target;
+                try {
+                    target = destination.getFeature(AttributesFinder.class).find(file);
+                }
+                catch(NotfoundException e) {
+                    // Deleted after transfer
+                    target = null;
+                }
+                return checkpoint.isComplete(new TransferItem(file, local), local.attributes(), target);
+            default:
+                final Attributes attributes;
+                if(root) {
+                    try {
+                        attributes = source.getFeature(AttributesFinder.class).find(file);
+                    }
+                    catch(NotfoundException e) {
+                        return false;
+                    }
+                }
+                else {
+                    // Attributes from listing of parent directory
+                    attributes = file.attributes();
+                }
+                return checkpoint.isComplete(new TransferItem(file, local), attributes,
+                    local.refresh().exists() ? local.attributes() : null);
+        }
+    }
+
     /**
      * To be called before any file is actually transferred
      *
@@ -268,6 +374,16 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                     final Session<?> source = borrow(Connection.source);
                     final Session<?> destination = borrow(Connection.destination);
                     try {
+                        if(resume) {
+                            // Skip when found complete in checkpoint and source is unchanged
+                            if(isComplete(source, destination, file, local)) {
+                                if(log.isInfoEnabled()) {
+                                    log.info(String.format("Skip %s found complete in checkpoint for transfer %s", file, this));
+                                }
+                                checkpoint.skipped(new TransferItem(file, local));
+                                return null;
+                            }
+                        }
                         // Determine transfer filter implementation from selected overwrite action
                         final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
                         // Only prepare the path it will be actually transferred
@@ -288,8 +404,8 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             final TransferStatus status = filter.prepare(file, local, parent, progress);
                             table.put(new TransferItem(file, local), status);
                             final TransferItem item = new TransferItem(
-                                status.getRename().remote != null ? status.getRename().remote : file,
-                                status.getRename().local != null ? status.getRename().local : local
+                                status.getRenameRemote() != null ? status.getRenameRemote() : file,
+                                status.getRenameLocal() != null ? status.getRenameLocal() : local
                             );
                             // Apply filter
                             filter.apply(item.remote, item.local, status, progress);
@@ -304,6 +420,9 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 children = transfer.list(source, file, local, new WorkerListProgressListener(AbstractTransferWorker.this, progress));
                                 // Put into cache for later reference when transferring
                                 cache.put(item, new AttributedList<TransferItem>(children));
+                                if(checkpoints) {
+                                    checkpoint.prepared(new TransferItem(file, local), children);
+                                }
                                 // Call recursively
                                 for(TransferItem f : children) {
                                     // Change download path relative to parent local folder
@@ -382,7 +501,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         }
                         // Transfer
                         // Do transfer with retry
-                        this.retry(segment);
+                        final boolean success = this.retry(segment);
                         // Recursive
                         if(item.remote.isDirectory()) {
                             if(!cache.isCached(item)) {
@@ -401,9 +520,26 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
                             // Post process of file.
                             filter.complete(
-                                segment.getRename().remote != null ? segment.getRename().remote : item.remote,
-                                segment.getRename().local != null ? segment.getRename().local : item.local,
+                                segment.getRenameRemote() != null ? segment.getRenameRemote() : item.remote,
+                                segment.getRenameLocal() != null ? segment.getRenameLocal() : item.local,
                                 options, segment, progress);
+                            if(segment.isComplete() && item.remote.isFile()) {
+                                final MetricsRegistry metrics = MetricsRegistry.global();
+                                if(!status.isSegmented()) {
+                                    metrics.counter("transfer.files", transfer.getSource().getHostname()).increment();
+                                }
+                                metrics.counter("transfer.bytes", transfer.getSource().getHostname()).add(segment.getLength());
+                            }
+                            if(checkpoints && !status.isSegmented()) {
+                                if(item.remote.isFile()) {
+                                    if(segment.isComplete()) {
+                                        checkpoint.complete(item, segment.getOffset() + segment.getLength());
+                                    }
+                                }
+                                else if(success) {
+                                    checkpoint.complete(item, 0L);
+                                }
+                            }
                         }
                         finally {
                             release(source, Connection.source, null);
@@ -412,7 +548,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         return segment;
                     }
 
-                    private void retry(final TransferStatus segment) throws BackgroundException {
+                    /**
+                     * @return False if failure is ignored to continue with other files
+                     */
+                    private boolean retry(final TransferStatus segment) throws BackgroundException {
                         if(log.isDebugEnabled()) {
                             log.debug(String.format("Transfer item %s with status %s", item, segment));
                         }
@@ -420,9 +559,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                         final Session<?> d = borrow(Connection.destination);
                         try {
                             transfer.transfer(s, d,
-                                segment.getRename().remote != null ? segment.getRename().remote : item.remote,
-                                segment.getRename().local != null ? segment.getRename().local : item.local,
+                                segment.getRenameRemote() != null ? segment.getRenameRemote() : item.remote,
+                                segment.getRenameLocal() != null ? segment.getRenameLocal() : item.local,
                                 options, segment, connectionCallback, passwordCallback, progress, stream);
+                            return true;
                         }
                         catch(ConnectionCanceledException e) {
                             log.warn(String.format("Canceled transfer of %s", item));
@@ -445,11 +585,10 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                         final TransferStatus retry = filter.prepare(item.remote, item.local, new TransferStatus().exists(true), progress);
                                         // Retry immediately
                                         log.info(String.format("Retry %s with transfer status %s", item, segment));
-                                        this.retry(segment
+                                        return this.retry(segment
                                             .length(retry.getLength())
                                             .skip(retry.getOffset())
                                             .append(retry.isAppend()));
-                                        return;
                                     }
                                 }
                                 finally {
@@ -469,6 +608,7 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                             else if(error.prompt(item, segment, e)) {
                                 // Continue
                                 log.warn(String.format("Ignore transfer failure %s", e));
+                                return false;
                             }
                             else {
                                 throw new ConnectionCanceledException(e);
@@ -513,9 +653,12 @@ public abstract class AbstractTransferWorker extends TransferWorker<Boolean> {
                                 final TransferPathFilter filter = transfer.filter(source, destination, action, progress);
                                 // Concatenate segments with completed status set
                                 filter.complete(
-                                    status.getRename().remote != null ? status.getRename().remote : item.remote,
-                                    status.getRename().local != null ? status.getRename().local : item.local,
+                                    status.getRenameRemote() != null ? status.getRenameRemote() : item.remote,
+                                    status.getRenameLocal() != null ? status.getRenameLocal() : item.local,
                                     options, status.complete(), progress);
+                                if(checkpoints) {
+                                    checkpoint.complete(item, status.getOffset() + status.getLength());
+                                }
                             }
                             finally {
                                 release(source, Connection.source, null);
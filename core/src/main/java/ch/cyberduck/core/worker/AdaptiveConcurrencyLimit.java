@@ -0,0 +1,307 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.DefaultFailureDiagnostics;
+import ch.cyberduck.core.threading.FailureDiagnostics;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Limit number of concurrent transfer tasks with additive increase and multiplicative decrease. Throughput from bytes
+ * reported while transferring and latency of completed tasks normalized by their length are sampled in fixed
+ * intervals. The limit is increased by one when all permits were in use during the interval and throughput did not
+ * degrade. It is decreased by one when throughput drops after an increase or latency grows without gain in throughput
+ * and halved on throttling responses or network failures.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final Logger log = Logger.getLogger(AdaptiveConcurrencyLimit.class);
+
+    private final FailureDiagnostics<BackgroundException> diagnostics
+        = new DefaultFailureDiagnostics();
+
+    private final int min;
+    private final int max;
+    /**
+     * Sampling interval in nanoseconds
+     */
+    private final long interval;
+    /**
+     * Relative throughput drop tolerated after increasing limit
+     */
+    private final double tolerance;
+    /**
+     * Multiple of minimum observed latency considered queuing
+     */
+    private final double latencyFactor;
+    private final LongSupplier clock;
+
+    private final Object lock = new Object();
+
+    private int limit;
+    private int active;
+
+    /**
+     * Start of interval read without lock when bytes are reported
+     */
+    private volatile long windowStart;
+    /**
+     * Bytes reported while transferring added without lock
+     */
+    private final LongAdder windowBytes = new LongAdder();
+    private long windowRequests;
+    private long windowLatency;
+    /**
+     * Length of completed tasks with latency sample
+     */
+    private long windowLength;
+    private boolean saturated;
+    private boolean congested;
+    /**
+     * Timestamp of last multiplicative decrease
+     */
+    private long congestion;
+
+    private boolean increased;
+    private double throughput;
+    private double latency;
+    private double minLatency = Double.MAX_VALUE;
+    private long increases;
+    private long decreases;
+
+    /**
+     * @param initial Configured number of connections to start with
+     */
+    public AdaptiveConcurrencyLimit(final int initial) {
+        this(initial, PreferencesFactory.get());
+    }
+
+    private AdaptiveConcurrencyLimit(final int initial, final Preferences preferences) {
+        this(initial, preferences.getInteger("queue.connections.adaptive.min"),
+            Math.max(initial, preferences.getInteger("queue.connections.adaptive.max")),
+            TimeUnit.MILLISECONDS.toNanos(preferences.getLong("queue.connections.adaptive.interval.milliseconds")),
+            preferences.getDouble("queue.connections.adaptive.tolerance"),
+            preferences.getDouble("queue.connections.adaptive.latency.factor"), System::nanoTime);
+    }
+
+    public AdaptiveConcurrencyLimit(final int initial, final int min, final int max, final long interval,
+                                    final double tolerance, final double latencyFactor, final LongSupplier clock) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.limit = Math.min(this.max, Math.max(this.min, initial));
+        this.interval = interval;
+        this.tolerance = tolerance;
+        this.latencyFactor = latencyFactor;
+        this.clock = clock;
+        this.windowStart = clock.getAsLong();
+        this.congestion = windowStart - interval;
+    }
+
+    /**
+     * Block until number of running tasks is below current limit
+     */
+    public void acquire() throws InterruptedException {
+        synchronized(lock) {
+            while(active >= limit) {
+                lock.wait();
+            }
+            active++;
+            if(active >= limit) {
+                saturated = true;
+            }
+        }
+    }
+
+    /**
+     * Only evaluated when the sampling interval has expired
+     *
+     * @param bytes Number of bytes transferred by any task since last call
+     */
+    public void transferred(final long bytes) {
+        windowBytes.add(bytes);
+        if(clock.getAsLong() - windowStart >= interval) {
+            synchronized(lock) {
+                this.evaluate();
+            }
+        }
+    }
+
+    /**
+     * @param elapsed Duration of task in nanoseconds
+     * @param length  Number of bytes of task. Tasks without content are not sampled for latency
+     */
+    public void release(final long elapsed, final long length) {
+        synchronized(lock) {
+            active--;
+            windowRequests++;
+            if(length > 0) {
+                windowLatency += elapsed;
+                windowLength += length;
+            }
+            this.evaluate();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Record failure of request. Throttling responses and network failures reduce the limit.
+     */
+    public void failure(final BackgroundException failure) {
+        if(ExceptionUtils.indexOfType(failure, RetriableAccessDeniedException.class) != -1
+            || diagnostics.determine(failure) == FailureDiagnostics.Type.network) {
+            synchronized(lock) {
+                congested = true;
+                this.evaluate();
+            }
+        }
+    }
+
+    private void evaluate() {
+        final long now = clock.getAsLong();
+        if(congested) {
+            // Decrease once for concurrent failures
+            if(now - congestion >= interval) {
+                this.update(Math.max(min, limit / 2), "throttling or network failure");
+                congestion = now;
+            }
+            increased = false;
+            windowBytes.reset();
+            this.reset(now);
+            return;
+        }
+        final long elapsed = now - windowStart;
+        if(elapsed < interval || (0 == windowRequests && 0L == windowBytes.sum())) {
+            return;
+        }
+        final double rate = windowBytes.sumThenReset() * (double) TimeUnit.SECONDS.toNanos(1L) / elapsed;
+        final boolean sampled = windowLength > 0;
+        if(sampled) {
+            latency = (double) windowLatency / windowLength;
+            minLatency = Math.min(minLatency, latency);
+        }
+        if(increased && rate < throughput * (1 - tolerance)) {
+            this.update(Math.max(min, limit - 1), String.format("throughput dropped from %.0f to %.0f bytes/s", throughput, rate));
+            increased = false;
+        }
+        else if(sampled && latency > minLatency * latencyFactor && rate <= throughput) {
+            // Queuing without gain in throughput
+            this.update(Math.max(min, limit - 1), String.format("latency increased to %.0fns per byte", latency));
+            increased = false;
+        }
+        else if(saturated && limit < max) {
+            this.update(limit + 1, String.format("saturated with throughput %.0f bytes/s", rate));
+            increased = true;
+        }
+        else {
+            increased = false;
+        }
+        throughput = rate;
+        this.reset(now);
+    }
+
+    private void update(final int updated, final String reason) {
+        if(updated == limit) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Change concurrency limit from %d to %d for %s", limit, updated, reason));
+        }
+        if(updated > limit) {
+            increases++;
+        }
+        else {
+            decreases++;
+        }
+        limit = updated;
+    }
+
+    private void reset(final long now) {
+        windowStart = now;
+        windowRequests = 0L;
+        windowLatency = 0L;
+        windowLength = 0L;
+        saturated = active >= limit;
+        congested = false;
+    }
+
+    public int getLimit() {
+        synchronized(lock) {
+            return limit;
+        }
+    }
+
+    /**
+     * @return Upper bound of limit
+     */
+    public int getMaximum() {
+        return max;
+    }
+
+    public int getActive() {
+        synchronized(lock) {
+            return active;
+        }
+    }
+
+    /**
+     * @return Bytes per second in last interval
+     */
+    public double getThroughput() {
+        synchronized(lock) {
+            return throughput;
+        }
+    }
+
+    /**
+     * @return Duration of completed tasks in nanoseconds per byte in last sampled interval
+     */
+    public double getLatency() {
+        synchronized(lock) {
+            return latency;
+        }
+    }
+
+    public long getIncreases() {
+        synchronized(lock) {
+            return increases;
+        }
+    }
+
+    public long getDecreases() {
+        synchronized(lock) {
+            return decreases;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AdaptiveConcurrencyLimit{");
+        sb.append("min=").append(min);
+        sb.append(", max=").append(max);
+        sb.append(", limit=").append(limit);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -26,9 +26,13 @@ import ch.cyberduck.core.ProgressListener;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.io.DelegateStreamListener;
 import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 import ch.cyberduck.core.notification.NotificationService;
+import ch.cyberduck.core.pool.DefaultSessionPool;
 import ch.cyberduck.core.pool.SessionPool;
+import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.threading.BackgroundActionState;
 import ch.cyberduck.core.threading.ThreadPool;
@@ -42,10 +46,12 @@ import ch.cyberduck.core.transfer.TransferStatus;
 
 import org.apache.log4j.Logger;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ConcurrentTransferWorker extends AbstractTransferWorker {
@@ -58,6 +64,14 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
     // Keep number of submited tasks
     private final AtomicInteger size = new AtomicInteger();
     private final ThreadPool pool;
+    private final AdaptiveConcurrencyLimit limit;
+    // Last limit applied to source pool
+    private int configured;
+    /**
+     * Open connections in advance once first session is connected
+     */
+    private final boolean warmup;
+    private final AtomicBoolean warm = new AtomicBoolean();
 
     public ConcurrentTransferWorker(final SessionPool source,
                                     final SessionPool destination,
@@ -88,20 +102,72 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
                                     final ProgressListener progressListener,
                                     final StreamListener streamListener,
                                     final NotificationService notification) {
-        super(transfer, options, prompt, meter, error, progressListener, streamListener, connectionCallback, passwordCallback, notification);
+        this(source, destination, transfer, priority, options, meter, prompt, error,
+            connectionCallback, passwordCallback, progressListener, streamListener, notification, limit(transfer));
+    }
+
+    private ConcurrentTransferWorker(final SessionPool source,
+                                     final SessionPool destination,
+                                     final Transfer transfer,
+                                     final ThreadPool.Priority priority,
+                                     final TransferOptions options,
+                                     final TransferSpeedometer meter,
+                                     final TransferPrompt prompt,
+                                     final TransferErrorCallback error,
+                                     final ConnectionCallback connectionCallback,
+                                     final PasswordCallback passwordCallback,
+                                     final ProgressListener progressListener,
+                                     final StreamListener streamListener,
+                                     final NotificationService notification,
+                                     final AdaptiveConcurrencyLimit limit) {
+        super(transfer, options, prompt, meter, error, progressListener, new DelegateStreamListener(streamListener) {
+            @Override
+            public void sent(final long bytes) {
+                if(bytes > 0) {
+                    // Sample throughput while transferring
+                    limit.transferred(bytes);
+                }
+                super.sent(bytes);
+            }
+
+            @Override
+            public void recv(final long bytes) {
+                if(bytes > 0) {
+                    limit.transferred(bytes);
+                }
+                super.recv(bytes);
+            }
+        }, connectionCallback, passwordCallback, notification);
         this.source = source;
         this.destination = destination;
+        this.limit = limit;
+        final Preferences preferences = PreferencesFactory.get();
+        this.configured = limit.getLimit();
+        this.warmup = preferences.getBoolean("connection.pool.warmup.enable");
         this.pool = ThreadPoolFactory.get(String.format("%s-transfer", new AlphanumericRandomStringService().random()),
-            transfer.getSource().getTransferType() == Host.TransferType.newconnection ?
-                1 : PreferencesFactory.get().getInteger("queue.connections.limit"), priority);
+            limit.getMaximum(), priority);
         this.completion = new ExecutorCompletionService<TransferStatus>(pool.executor());
     }
 
+    private static AdaptiveConcurrencyLimit limit(final Transfer transfer) {
+        if(transfer.getSource().getTransferType() == Host.TransferType.newconnection) {
+            return new AdaptiveConcurrencyLimit(1, 1, 1, Long.MAX_VALUE, 0d, Double.MAX_VALUE, System::nanoTime);
+        }
+        final Preferences preferences = PreferencesFactory.get();
+        final int connections = preferences.getInteger("queue.connections.limit");
+        if(preferences.getBoolean("queue.connections.adaptive.enable")) {
+            // Start with configured number of connections
+            return new AdaptiveConcurrencyLimit(connections);
+        }
+        // Fixed number of connections
+        return new AdaptiveConcurrencyLimit(connections, connections, connections, Long.MAX_VALUE, 0d, Double.MAX_VALUE, System::nanoTime);
+    }
+
     @Override
     protected Session<?> borrow(final Connection type) throws BackgroundException {
         switch(type) {
             case source:
-                return source.borrow(new BackgroundActionState() {
+                final Session<?> session = source.borrow(new BackgroundActionState() {
                     @Override
                     public boolean isCanceled() {
                         return ConcurrentTransferWorker.this.isCanceled();
@@ -112,6 +178,11 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
                         return true;
                     }
                 });
+                if(warm.compareAndSet(false, true)) {
+                    // Credentials are validated with first connection
+                    this.warmup();
+                }
+                return session;
             case destination:
                 return destination.borrow(new BackgroundActionState() {
                     @Override
@@ -130,6 +201,10 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
 
     @Override
     protected void release(final Session session, final Connection type, final BackgroundException failure) {
+        if(failure != null) {
+            limit.failure(failure);
+            this.configure();
+        }
         switch(type) {
             case source:
                 source.release(session, failure);
@@ -145,7 +220,38 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         if(log.isInfoEnabled()) {
             log.info(String.format("Submit %s to pool", callable));
         }
-        final Future<TransferStatus> f = completion.submit(callable);
+        final Future<TransferStatus> f;
+        if(callable instanceof RetryTransferCallable) {
+            f = completion.submit(new Callable<TransferStatus>() {
+                @Override
+                public TransferStatus call() throws BackgroundException {
+                    try {
+                        limit.acquire();
+                    }
+                    catch(InterruptedException e) {
+                        throw new ConnectionCanceledException(e);
+                    }
+                    final long start = System.nanoTime();
+                    TransferStatus status = null;
+                    try {
+                        return status = callable.call();
+                    }
+                    finally {
+                        limit.release(System.nanoTime() - start, null == status ? 0L : status.getLength());
+                        configure();
+                    }
+                }
+
+                @Override
+                public String toString() {
+                    return callable.toString();
+                }
+            });
+        }
+        else {
+            // Not limited as awaiting completion of segments
+            f = completion.submit(callable);
+        }
         size.incrementAndGet();
         return f;
     }
@@ -181,6 +287,37 @@ public class ConcurrentTransferWorker extends AbstractTransferWorker {
         }
     }
 
+    /**
+     * Keep idle connections in source pool matching concurrency limit
+     */
+    private synchronized void configure() {
+        final int current = limit.getLimit();
+        if(current != configured) {
+            configured = current;
+            MetricsRegistry.global().histogram("transfer.connections", source.getHost().getHostname(), "connections").record(current);
+            if(source instanceof DefaultSessionPool) {
+                ((DefaultSessionPool) source).withMaxIdle(current);
+            }
+            this.warmup();
+        }
+    }
+
+    /**
+     * Connect sessions for concurrent transfers in parallel while the transfer is being prepared
+     */
+    private void warmup() {
+        if(!warmup) {
+            return;
+        }
+        if(source instanceof DefaultSessionPool) {
+            ((DefaultSessionPool) source).warmup(limit.getLimit());
+        }
+    }
+
+    public AdaptiveConcurrencyLimit getLimit() {
+        return limit;
+    }
+
     @Override
     public void cleanup(final Boolean result) {
         pool.shutdown(result);
@@ -24,14 +24,26 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.ListCanceledException;
 import ch.cyberduck.core.features.Search;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.log4j.Logger;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 public class SearchWorker extends Worker<AttributedList<Path>> {
@@ -41,42 +53,154 @@ public class SearchWorker extends Worker<AttributedList<Path>> {
     private final Filter<Path> filter;
     private final Cache<Path> cache;
     private final ListProgressListener listener;
+    /**
+     * Maximum number of folders searched in parallel
+     */
+    private final int concurrency;
+    /**
+     * Stop searching after number of files found. 0 for no limit.
+     */
+    private final int limit;
 
     public SearchWorker(final Path directory, final Filter<Path> filter, final Cache<Path> cache, final ListProgressListener listener) {
+        this(directory, filter, cache, listener,
+            PreferencesFactory.get().getInteger("browser.search.concurrency"), PreferencesFactory.get().getInteger("browser.search.limit"));
+    }
+
+    /**
+     * @param listener    Notified with files found in every folder searched
+     * @param concurrency Maximum number of folders searched in parallel for stateless protocols
+     * @param limit       Stop searching after number of files found. 0 for no limit
+     */
+    public SearchWorker(final Path directory, final Filter<Path> filter, final Cache<Path> cache, final ListProgressListener listener,
+                        final int concurrency, final int limit) {
         this.directory = directory;
         this.filter = filter;
         this.cache = cache;
         this.listener = listener;
+        this.concurrency = concurrency;
+        this.limit = limit;
     }
 
     @Override
     public AttributedList<Path> run(final Session<?> session) throws BackgroundException {
-        // Run recursively
         final Search search = session.getFeature(Search.class).withCache(cache);
-        return this.search(search, directory);
+        if(search.isRecursive()) {
+            return this.search(search, directory, true);
+        }
+        // Connection cannot be shared between threads for stateful protocols. Files found are forwarded to the
+        // listener from this thread only as it is not required to be thread-safe
+        final int concurrency = session.getHost().getProtocol().isStateful() ? 1 : Math.max(1, this.concurrency);
+        final ThreadPool pool = ThreadPoolFactory.get("search", concurrency);
+        try {
+            final CompletionService<AttributedList<Path>> completion = new ExecutorCompletionService<>(pool.executor());
+            final Map<Future<AttributedList<Path>>, Path> pending = new HashMap<>();
+            pending.put(completion.submit(() -> this.search(search, directory, false)), directory);
+            // Folders with files found in itself or any subfolder
+            final Set<Path> found = new HashSet<>();
+            AttributedList<Path> result = null;
+            int count = 0;
+            while(!pending.isEmpty()) {
+                if(this.isCanceled()) {
+                    throw new ConnectionCanceledException();
+                }
+                final Future<AttributedList<Path>> future = completion.take();
+                final Path workdir = pending.remove(future);
+                final AttributedList<Path> list;
+                try {
+                    list = future.get();
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+                if(null == result) {
+                    result = list;
+                }
+                try {
+                    listener.chunk(workdir, list);
+                }
+                catch(ListCanceledException e) {
+                    if(this.isCanceled()) {
+                        throw e;
+                    }
+                    // Canceled by listener
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Stop search in %s with %d files found", directory, count));
+                    }
+                    break;
+                }
+                final List<Path> folders = new ArrayList<>();
+                int files = 0;
+                for(final Path file : list) {
+                    if(file.isDirectory()) {
+                        folders.add(file);
+                    }
+                    else {
+                        files++;
+                    }
+                }
+                if(files > 0) {
+                    count += files;
+                    for(Path parent = workdir; !parent.equals(directory) && found.add(parent); parent = parent.getParent()) {
+                        if(parent.isRoot()) {
+                            break;
+                        }
+                    }
+                }
+                if(limit > 0 && count >= limit) {
+                    if(log.isInfoEnabled()) {
+                        log.info(String.format("Stop search in %s after reaching limit of %d files found", directory, limit));
+                    }
+                    break;
+                }
+                for(final Path folder : folders) {
+                    if(log.isDebugEnabled()) {
+                        log.debug(String.format("Recursively search in %s", folder));
+                    }
+                    pending.put(completion.submit(() -> this.search(search, folder, false)), folder);
+                }
+            }
+            if(null == result) {
+                return AttributedList.emptyList();
+            }
+            // Remove folders without any file found
+            final Set<Path> removal = new HashSet<>();
+            for(final Path file : result) {
+                if(file.isDirectory() && !found.contains(file)) {
+                    removal.add(file);
+                }
+            }
+            result.removeAll(removal);
+            return result;
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        finally {
+            pool.shutdown(false);
+        }
     }
 
-    private AttributedList<Path> search(final Search search, final Path workdir) throws BackgroundException {
+    /**
+     * @param forward Notify listener with results of folder from calling thread
+     */
+    private AttributedList<Path> search(final Search search, final Path workdir, final boolean forward) throws BackgroundException {
         if(this.isCanceled()) {
             throw new ConnectionCanceledException();
         }
-        // Get filtered list from search
-        final AttributedList<Path> list = search.search(workdir, new RecursiveSearchFilter(), new WorkerListProgressListener(this, listener));
-        if(!search.isRecursive()) {
-            final Set<Path> removal = new HashSet<>();
-            for(final Path file : list) {
-                if(file.isDirectory()) {
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Recursively search in %s", file));
-                    }
-                    if(this.search(search, file).isEmpty()) {
-                        removal.add(file);
-                    }
+        // Get filtered list from search notifying listener with results of folder
+        return search.search(workdir, new RecursiveSearchFilter(), new WorkerListProgressListener(this, listener) {
+            @Override
+            public void chunk(final Path parent, final AttributedList<Path> list) throws ConnectionCanceledException {
+                super.chunk(parent, list);
+                if(forward) {
+                    listener.chunk(parent, list);
                 }
             }
-            list.removeAll(removal);
-        }
-        return list;
+        });
     }
 
     @Override
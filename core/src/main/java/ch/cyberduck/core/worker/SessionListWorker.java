@@ -27,6 +27,8 @@ import ch.cyberduck.core.Session;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ListCanceledException;
+import ch.cyberduck.core.metrics.MetricsListService;
+import ch.cyberduck.core.metrics.MetricsRegistry;
 
 import org.apache.log4j.Logger;
 
@@ -54,6 +56,10 @@ public class SessionListWorker extends Worker<AttributedList<Path>> {
                 return list;
             }
             final ListService service = session.getFeature(ListService.class).withCache(cache);
+            final MetricsRegistry metrics = MetricsRegistry.global();
+            if(metrics.isEnabled()) {
+                return new MetricsListService(service, session.getHost().getHostname(), metrics).list(directory, listener);
+            }
             return service.list(directory, listener);
         }
         catch(ListCanceledException e) {
@@ -0,0 +1,129 @@
+package ch.cyberduck.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BufferedTranscriptListenerTest {
+
+    @Test
+    public void testOrder() throws Exception {
+        final List<String> messages = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1000);
+        final BufferedTranscriptListener listener = new BufferedTranscriptListener(new TranscriptListener() {
+            @Override
+            public void log(final Type request, final String message) {
+                messages.add(message);
+                latch.countDown();
+            }
+        }, 1000);
+        for(int i = 0; i < 1000; i++) {
+            listener.log(TranscriptListener.Type.request, String.valueOf(i));
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for(int i = 0; i < 1000; i++) {
+            assertEquals(String.valueOf(i), messages.get(i));
+        }
+        assertEquals(0L, listener.getDropped());
+    }
+
+    @Test
+    public void testDropWhenFull() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(2);
+        final BufferedTranscriptListener listener = new BufferedTranscriptListener(new TranscriptListener() {
+            @Override
+            public void log(final Type request, final String message) {
+                try {
+                    blocked.await();
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                latch.countDown();
+            }
+        }, 2);
+        listener.log(TranscriptListener.Type.request, "a");
+        listener.log(TranscriptListener.Type.request, "b");
+        listener.log(TranscriptListener.Type.request, "c");
+        listener.log(TranscriptListener.Type.request, "d");
+        assertTrue(listener.getDropped() > 0L);
+        blocked.countDown();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testEvent() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final BufferedTranscriptListener listener = new BufferedTranscriptListener(new TranscriptListener() {
+            @Override
+            public void log(final Type request, final String message) {
+                latch.countDown();
+            }
+        }, 10);
+        listener.record(new BufferedTranscriptListener.Event() {
+            @Override
+            public void format(final TranscriptListener listener) {
+                listener.log(TranscriptListener.Type.request, "a");
+                listener.log(TranscriptListener.Type.response, "b");
+            }
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSlowListenerNotBlockingCallers() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch latch = new CountDownLatch(8 * 10 * 2);
+        final BufferedTranscriptListener listener = new BufferedTranscriptListener(new TranscriptListener() {
+            @Override
+            public void log(final Type request, final String message) {
+                try {
+                    blocked.await();
+                }
+                catch(InterruptedException e) {
+                    fail();
+                }
+                latch.countDown();
+            }
+        }, 1000);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<?>> futures = new ArrayList<>();
+        for(int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for(int j = 0; j < 10; j++) {
+                    listener.log(TranscriptListener.Type.request, Arrays.asList("GET / HTTP/1.1", "Host: localhost"));
+                }
+            }));
+        }
+        // Callers return while listener is blocked
+        for(Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(8 * 10 * 2, latch.getCount());
+        blocked.countDown();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(0L, listener.getDropped());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testDisabled() {
+        assertFalse(new BufferedTranscriptListener(new DisabledTranscriptListener(), 1).isEnabled());
+        assertTrue(new BufferedTranscriptListener(new TranscriptListener() {
+            @Override
+            public void log(final Type request, final String message) {
+                //
+            }
+        }, 1).isEnabled());
+    }
+}
@@ -0,0 +1,56 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ExpiringPropertiesStoreTest {
+
+    @Test
+    public void testPersist() {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final AtomicLong clock = new AtomicLong(1000L);
+        final ExpiringPropertiesStore store = new ExpiringPropertiesStore(file, 100L, clock::get, "Test");
+        assertNull(store.get("k"));
+        store.put("k", "v w");
+        store.put("e", "");
+        store.save();
+        final ExpiringPropertiesStore reloaded = new ExpiringPropertiesStore(file, 100L, clock::get, "Test");
+        assertEquals("v w", reloaded.get("k"));
+        assertEquals("", reloaded.get("e"));
+        reloaded.remove("k");
+        assertNull(reloaded.get("k"));
+        file.delete();
+    }
+
+    @Test
+    public void testExpire() {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final AtomicLong clock = new AtomicLong(1000L);
+        final ExpiringPropertiesStore store = new ExpiringPropertiesStore(file, 100L, clock::get, "Test");
+        store.put("k", "v");
+        clock.addAndGet(100L);
+        assertEquals("v", store.get("k"));
+        clock.addAndGet(1L);
+        assertNull(store.get("k"));
+    }
+}
@@ -0,0 +1,60 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.transfer.DownloadTransfer;
+import ch.cyberduck.core.transfer.Transfer;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class FolderTransferCollectionTest {
+
+    @Test
+    public void testRewriteOnlyWhenModified() throws Exception {
+        final Local folder = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final FolderTransferCollection collection = new FolderTransferCollection(folder);
+        final Transfer transfer = new DownloadTransfer(new Host(new TestProtocol()), new Path("/t", EnumSet.of(Path.Type.file)), new NullLocal("l"));
+        collection.add(transfer);
+        assertTrue(collection.getFile(transfer).exists());
+        final String saved = read(collection.getFile(transfer));
+        transfer.setTransferred(5L);
+        collection.collectionItemChanged(transfer);
+        // Progress only appended to journal
+        assertEquals(saved, read(collection.getFile(transfer)));
+        assertTrue(collection.getJournal(transfer).getFile().exists());
+        transfer.setModified(true);
+        collection.collectionItemChanged(transfer);
+        assertNotEquals(saved, read(collection.getFile(transfer)));
+        assertFalse(transfer.isModified());
+        assertFalse(collection.getJournal(transfer).getFile().exists());
+        collection.remove(transfer);
+        assertFalse(collection.getFile(transfer).exists());
+    }
+
+    private static String read(final Local file) throws Exception {
+        try (InputStream in = file.getInputStream()) {
+            return IOUtils.toString(in, "UTF-8");
+        }
+    }
+}
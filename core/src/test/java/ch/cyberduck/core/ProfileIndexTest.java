@@ -0,0 +1,130 @@
+package ch.cyberduck.core;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.serializer.Reader;
+import ch.cyberduck.core.serializer.impl.dd.ProfilePlistReader;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ProfileIndexTest {
+
+    @Test
+    public void testReadFromIndex() throws Exception {
+        final ProtocolFactory protocols = new ProtocolFactory(Collections.singleton(new TestProtocol() {
+            @Override
+            public Type getType() {
+                return Type.dropbox;
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        }));
+        final File directory = Files.createTempDirectory(UUID.randomUUID().toString()).toFile();
+        final File f = new File(directory, "Test.cyberduckprofile");
+        Files.write(f.toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<plist version=\"1.0\">\n" +
+            "    <dict>\n" +
+            "        <key>Protocol</key>\n" +
+            "        <string>dropbox</string>\n" +
+            "        <key>Vendor</key>\n" +
+            "        <string>iterate GmbH</string>\n" +
+            "        <key>Description</key>\n" +
+            "        <string>Test</string>\n" +
+            "        <key>Default Port</key>\n" +
+            "        <string>8443</string>\n" +
+            "    </dict>\n" +
+            "</plist>").getBytes(StandardCharsets.UTF_8));
+        final Local profile = new Local(f.getAbsolutePath());
+        final Local file = new Local(directory.getAbsolutePath(), "Profiles.index");
+        final CountingReader reader = new CountingReader(protocols);
+        {
+            final Profile p = new ProfileIndex(file, protocols, reader, "1").read(profile);
+            assertNotNull(p);
+            assertEquals(1, reader.count.get());
+        }
+        {
+            final ProfileIndex index = new ProfileIndex(file, protocols, reader, "1");
+            // Not in index
+            assertNotNull(index.read(profile));
+            assertEquals(2, reader.count.get());
+            index.save();
+            assertTrue(file.exists());
+        }
+        {
+            final Profile p = new ProfileIndex(file, protocols, reader, "1").read(profile);
+            assertNotNull(p);
+            assertEquals(2, reader.count.get());
+            assertTrue(p.isEnabled());
+            assertEquals("iterate GmbH", p.getProvider());
+            assertEquals("Test", p.getDescription());
+            assertEquals(Protocol.Type.dropbox, p.getType());
+            assertEquals(2, reader.count.get());
+            // Parsed on first use
+            assertEquals(8443, p.getDefaultPort());
+            assertEquals(3, reader.count.get());
+            assertEquals(8443, p.getDefaultPort());
+            assertEquals(3, reader.count.get());
+        }
+        {
+            // Index written with other version
+            assertNotNull(new ProfileIndex(file, protocols, reader, "2").read(profile));
+            assertEquals(4, reader.count.get());
+        }
+        {
+            assertTrue(f.setLastModified(f.lastModified() - 60000L));
+            // Changed since indexed
+            assertNotNull(new ProfileIndex(file, protocols, reader, "1").read(profile));
+            assertEquals(5, reader.count.get());
+        }
+        file.delete();
+        profile.delete();
+        directory.delete();
+    }
+
+    private static final class CountingReader implements Reader<Profile> {
+        private final ProfilePlistReader proxy;
+        private final AtomicInteger count = new AtomicInteger();
+
+        public CountingReader(final ProtocolFactory protocols) {
+            this.proxy = new ProfilePlistReader(protocols);
+        }
+
+        @Override
+        public Collection<Profile> readCollection(final Local file) throws AccessDeniedException {
+            return proxy.readCollection(file);
+        }
+
+        @Override
+        public Profile read(final Local file) throws AccessDeniedException {
+            count.incrementAndGet();
+            return proxy.read(file);
+        }
+    }
+}
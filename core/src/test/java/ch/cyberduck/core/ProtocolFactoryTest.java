@@ -131,6 +131,19 @@ public class ProtocolFactoryTest {
         assertEquals(swift, f.forName("swift"));
     }
 
+    @Test
+    public void testRegisterResetsIndex() throws Exception {
+        final TestProtocol dav = new TestProtocol(Scheme.dav);
+        final ProtocolFactory f = new ProtocolFactory(new LinkedHashSet<>(Collections.singletonList(dav)));
+        assertEquals(dav, f.forScheme(Scheme.http));
+        assertNull(f.forName("ftp"));
+        final TestProtocol ftp = new TestProtocol(Scheme.ftp);
+        f.register(ftp);
+        assertEquals(ftp, f.forName("ftp"));
+        assertEquals(ftp, f.forType(Protocol.Type.ftp));
+        assertEquals(2, f.find().size());
+    }
+
     @Test
     public void testRegisterUnknownProtocol() throws Exception {
         final Profile profile = new ProfilePlistReader(new ProtocolFactory(Collections.singleton(new TestProtocol() {
@@ -0,0 +1,51 @@
+package ch.cyberduck.core.date;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ISO8601DateParserTest {
+
+    @Test
+    public void testParseUTC() throws Exception {
+        assertEquals(1552730400000L, new ISO8601DateParser().parse("2019-03-16T10:00:00Z").getTime());
+        assertEquals(1552730400123L, new ISO8601DateParser().parse("2019-03-16T10:00:00.123Z").getTime());
+        assertEquals(1552730400100L, new ISO8601DateParser().parse("2019-03-16T10:00:00.1Z").getTime());
+        assertEquals(1552730400123L, new ISO8601DateParser().parse("2019-03-16T10:00:00.123456789Z").getTime());
+        assertEquals(1552730400000L, new ISO8601DateParser().parse("2019-03-16T10:00:00").getTime());
+        assertEquals(1456790399000L, new ISO8601DateParser().parse("2016-02-29T23:59:59Z").getTime());
+    }
+
+    @Test
+    public void testParseOffset() throws Exception {
+        assertEquals(1552730400000L, new ISO8601DateParser().parse("2019-03-16T12:00:00+02:00").getTime());
+        assertEquals(1552730400000L, new ISO8601DateParser().parse("2019-03-16T08:30:00-01:30").getTime());
+        assertEquals(1552730400000L, new ISO8601DateParser().parse("2019-03-16T12:00:00.000+02:00").getTime());
+    }
+
+    @Test
+    public void testParseIncomplete() throws Exception {
+        assertEquals(1552694400000L, new ISO8601DateParser().parse("2019-03-16").getTime());
+        assertEquals(1552730400000L, new ISO8601DateParser().parse("2019-03-16T10:00Z").getTime());
+    }
+
+    @Test(expected = InvalidDateException.class)
+    public void testParseInvalid() throws Exception {
+        new ISO8601DateParser().parse("2019-03-16T10:00:00Y");
+    }
+}
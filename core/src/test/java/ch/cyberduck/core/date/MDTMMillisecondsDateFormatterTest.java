@@ -0,0 +1,40 @@
+package ch.cyberduck.core.date;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+public class MDTMMillisecondsDateFormatterTest {
+
+    @Test
+    public void testParse() throws Exception {
+        assertEquals(1399395021123L, new MDTMMillisecondsDateFormatter().parse("20140506165021.123").getTime());
+    }
+
+    @Test
+    public void testPrint() throws Exception {
+        assertEquals("20140506165021.123", new MDTMMillisecondsDateFormatter().format(1399395021123L, TimeZone.getTimeZone("UTC")));
+    }
+
+    @Test(expected = InvalidDateException.class)
+    public void testParseInvalid() throws Exception {
+        new MDTMMillisecondsDateFormatter().parse("20140506165021");
+    }
+}
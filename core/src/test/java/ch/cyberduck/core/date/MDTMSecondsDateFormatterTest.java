@@ -14,6 +14,16 @@ public class MDTMSecondsDateFormatterTest {
         assertEquals(786319200000L, new MDTMSecondsDateFormatter().parse("19941201220000").getTime(), 0L);
     }
 
+    @Test
+    public void testParseIgnoreFraction() throws Exception {
+        assertEquals(1399395021000L, new MDTMSecondsDateFormatter().parse("20140506165021.123").getTime(), 0L);
+    }
+
+    @Test(expected = InvalidDateException.class)
+    public void testParseInvalid() throws Exception {
+        new MDTMSecondsDateFormatter().parse("2014050616502");
+    }
+
     @Test
     public void testPrint() throws Exception {
         assertEquals("19941201170000", new MDTMSecondsDateFormatter().format(786297600000L, TimeZone.getTimeZone("Europe/Zurich")));
@@ -2,7 +2,12 @@ package ch.cyberduck.core.date;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 
@@ -18,6 +23,48 @@ public class RFC1123DateFormatterTest {
         assertEquals(786297600000L, new RFC1123DateFormatter().parse("Thu, 01 Dec 1994 16:00:00 GMT").getTime(), 0L);
     }
 
+    @Test
+    public void testParseZone() throws Exception {
+        assertEquals(786297600000L, new RFC1123DateFormatter().parse("Thu, 01 Dec 1994 16:00:00 UTC").getTime(), 0L);
+        assertEquals(786297600000L, new RFC1123DateFormatter().parse("Thu, 01 Dec 1994 17:00:00 CET").getTime(), 0L);
+    }
+
+    @Test
+    public void testParseOffset() throws Exception {
+        assertEquals(786297600000L, new RFC1123DateFormatter().parse("Thu, 01 Dec 1994 16:00:00 +0000").getTime(), 0L);
+        assertEquals(786297600000L, new RFC1123DateFormatter().parse("Thu, 01 Dec 1994 17:00:00 +0100").getTime(), 0L);
+    }
+
+    @Test
+    public void testParseSingleDigitDay() throws Exception {
+        assertEquals(1212491130000L, new RFC1123DateFormatter().parse("Tue, 3 Jun 2008 11:05:30 GMT").getTime(), 0L);
+    }
+
+    @Test
+    public void testParseDayOfWeekMismatch() throws Exception {
+        assertEquals(786297600000L, new RFC1123DateFormatter().parse("Mon, 01 Dec 1994 16:00:00 GMT").getTime(), 0L);
+        assertEquals(786297600000L, new RFC1123DateFormatter().parse("Mon, 01 Dec 1994 17:00:00 CET").getTime(), 0L);
+    }
+
+    @Test(expected = InvalidDateException.class)
+    public void testParseInvalid() throws Exception {
+        new RFC1123DateFormatter().parse("Thu, 01 Dec 1994 16:00");
+    }
+
+    @Test
+    public void testParseConcurrent() throws Exception {
+        final RFC1123DateFormatter formatter = new RFC1123DateFormatter();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<Long>> results = new ArrayList<>();
+        for(int i = 0; i < 1000; i++) {
+            results.add(executor.submit(() -> formatter.parse("Thu, 01 Dec 1994 17:00:00 CET").getTime()));
+        }
+        for(Future<Long> result : results) {
+            assertEquals(786297600000L, result.get(), 0L);
+        }
+        executor.shutdown();
+    }
+
     @Test
     public void testPrint() throws Exception {
         assertEquals("Thu, 01 Dec 1994 17:00:00 CET", new RFC1123DateFormatter().format((long) 786297600000L, TimeZone.getTimeZone("Europe/Zurich")));
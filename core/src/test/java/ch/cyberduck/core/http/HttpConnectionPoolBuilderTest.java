@@ -0,0 +1,47 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.proxy.Proxy;
+import ch.cyberduck.core.ssl.DefaultX509KeyManager;
+import ch.cyberduck.core.ssl.DisabledX509TrustManager;
+import ch.cyberduck.core.ssl.X509KeyManager;
+
+import org.junit.Test;
+
+import javax.net.SocketFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class HttpConnectionPoolBuilderTest {
+
+    @Test
+    public void testSharedKeyTrustContext() {
+        final Host host = new Host(new TestProtocol(), "localhost");
+        final DisabledX509TrustManager trust = new DisabledX509TrustManager();
+        final X509KeyManager key = new DefaultX509KeyManager();
+        final HttpConnectionPoolBuilder first = new HttpConnectionPoolBuilder(host, trust, key, SocketFactory.getDefault());
+        final HttpConnectionPoolBuilder second = new HttpConnectionPoolBuilder(host, trust, key, SocketFactory.getDefault());
+        assertEquals(first.toSharedKey(Proxy.DIRECT), second.toSharedKey(Proxy.DIRECT));
+        final HttpConnectionPoolBuilder other = new HttpConnectionPoolBuilder(host, new DisabledX509TrustManager(), key, SocketFactory.getDefault());
+        assertNotEquals(first.toSharedKey(Proxy.DIRECT), other.toSharedKey(Proxy.DIRECT));
+        final HttpConnectionPoolBuilder certificate = new HttpConnectionPoolBuilder(host, trust, new DefaultX509KeyManager(), SocketFactory.getDefault());
+        assertNotEquals(first.toSharedKey(Proxy.DIRECT), certificate.toSharedKey(Proxy.DIRECT));
+    }
+}
@@ -0,0 +1,92 @@
+package ch.cyberduck.core.http;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HttpConnectionPoolRegistryTest {
+
+    @Test
+    public void testShare() {
+        final HttpConnectionPoolRegistry registry = new HttpConnectionPoolRegistry(0L);
+        final AtomicInteger created = new AtomicInteger();
+        final Object trust = new Object();
+        final HttpClientConnectionManager first = registry.acquire(new HttpConnectionPoolRegistry.Key("k", trust, null), () -> {
+            created.incrementAndGet();
+            return new PoolingHttpClientConnectionManager();
+        }, 1);
+        final HttpClientConnectionManager second = registry.acquire(new HttpConnectionPoolRegistry.Key("k", trust, null), () -> {
+            created.incrementAndGet();
+            return new PoolingHttpClientConnectionManager();
+        }, 1);
+        assertEquals(1, created.get());
+        assertEquals(1, registry.size());
+        first.shutdown();
+        assertEquals(1, registry.size());
+        second.shutdown();
+        // Repeated shutdown is ignored
+        second.shutdown();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testTrustContext() {
+        final HttpConnectionPoolRegistry registry = new HttpConnectionPoolRegistry(0L);
+        final HttpClientConnectionManager first = registry.acquire(new HttpConnectionPoolRegistry.Key("k", new Object(), null),
+            PoolingHttpClientConnectionManager::new, 1);
+        final HttpClientConnectionManager second = registry.acquire(new HttpConnectionPoolRegistry.Key("k", new Object(), null),
+            PoolingHttpClientConnectionManager::new, 1);
+        assertEquals(2, registry.size());
+        first.shutdown();
+        assertEquals(1, registry.size());
+        second.shutdown();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void testQuota() throws Exception {
+        final HttpConnectionPoolRegistry registry = new HttpConnectionPoolRegistry(0L);
+        final HttpClientConnectionManager manager = registry.acquire(new HttpConnectionPoolRegistry.Key("k", null, null),
+            PoolingHttpClientConnectionManager::new, 1);
+        final HttpRoute route = new HttpRoute(new HttpHost("localhost", 80));
+        final HttpClientConnection connection = manager.requestConnection(route, null).get(1L, TimeUnit.SECONDS);
+        assertNotNull(connection);
+        try {
+            manager.requestConnection(route, null).get(100L, TimeUnit.MILLISECONDS);
+            fail();
+        }
+        catch(ConnectionPoolTimeoutException e) {
+            //
+        }
+        manager.releaseConnection(connection, null, 0L, TimeUnit.MILLISECONDS);
+        final HttpClientConnection next = manager.requestConnection(route, null).get(1L, TimeUnit.SECONDS);
+        assertNotNull(next);
+        manager.releaseConnection(next, null, 0L, TimeUnit.MILLISECONDS);
+        manager.shutdown();
+        assertEquals(0, registry.size());
+    }
+}
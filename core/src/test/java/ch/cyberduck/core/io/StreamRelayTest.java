@@ -0,0 +1,96 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.NullInputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.text.RandomStringGenerator;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+public class StreamRelayTest {
+
+    @Test
+    public void testIntegrity() throws Exception {
+        final String random = new RandomStringGenerator.Builder().build().generate(398650);
+        final byte[] bytes = random.getBytes();
+        final TransferStatus status = new TransferStatus();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+        new StreamRelay(status, status).withBuffers(2).withChunksize(1024).transfer(IOUtils.toInputStream(random, Charset.defaultCharset()), out);
+        assertEquals(bytes.length, status.getOffset(), 0L);
+        assertArrayEquals(bytes, out.toByteArray());
+        assertTrue(status.isComplete());
+    }
+
+    @Test
+    public void testTransferFixedLength() throws Exception {
+        final TransferStatus status = new TransferStatus().length(432768L);
+        new StreamRelay(status, status).withLimit(432768L).transfer(new NullInputStream(432768L), new NullOutputStream());
+        assertTrue(status.isComplete());
+        assertEquals(432768L, status.getOffset(), 0L);
+    }
+
+    @Test
+    public void testReadNoEndofStream() throws Exception {
+        final TransferStatus status = new TransferStatus().length(432768L);
+        new StreamRelay(status, status).withLimit(432768L).transfer(new NullInputStream(432770L), new NullOutputStream());
+        assertEquals(432768L, status.getOffset(), 0L);
+        assertTrue(status.isComplete());
+    }
+
+    @Test
+    public void testReadFailureDiscardsBytes() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        final InputStream in = new InputStream() {
+            private long position;
+
+            @Override
+            public int read() throws IOException {
+                if(++position > 100000L) {
+                    throw new IOException("failure");
+                }
+                return 0;
+            }
+        };
+        try {
+            new StreamRelay(status, status).transfer(in, new NullOutputStream());
+            fail();
+        }
+        catch(BackgroundException e) {
+            //
+        }
+        assertFalse(status.isComplete());
+        assertEquals(0L, status.getOffset(), 0L);
+    }
+
+    @Test(expected = ConnectionCanceledException.class)
+    public void testTransferCanceled() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        status.setCanceled();
+        new StreamRelay(status, status).transfer(new NullInputStream(432768L), new NullOutputStream());
+    }
+}
@@ -0,0 +1,164 @@
+package ch.cyberduck.core.io;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketTest {
+
+    private static final class VirtualClock implements TokenBucket.Clock {
+        private long nanos;
+        private long millis;
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return millis + TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        @Override
+        public void sleep(final long duration) {
+            nanos += duration;
+        }
+    }
+
+    private static long transfer(final TokenBucket bucket, final long bytes) {
+        long remaining = bytes;
+        while(remaining > 0) {
+            remaining -= bucket.request((int) Math.min(Integer.MAX_VALUE, remaining));
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testUnlimited() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket bucket = new TokenBucket(TokenBucket.UNLIMITED, new TokenBucket(TokenBucket.UNLIMITED, null, 0L, clock), 0L, clock);
+        assertEquals(Integer.MAX_VALUE, bucket.request(Integer.MAX_VALUE));
+        assertEquals(0L, clock.nanoTime());
+    }
+
+    @Test
+    public void testRate() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket bucket = new TokenBucket(1000f, null, 0L, clock);
+        transfer(bucket, 10000L);
+        // First quantum is sent without delay
+        assertEquals(9900L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime()));
+    }
+
+    @Test
+    public void testBurst() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket bucket = new TokenBucket(1000f, null, TimeUnit.SECONDS.toNanos(1L), clock);
+        // Burst and first quantum without delay
+        assertEquals(1000, bucket.request(5000));
+        assertEquals(1000, bucket.request(5000));
+        assertEquals(0L, clock.nanoTime());
+        assertEquals(1000, bucket.request(5000));
+        assertEquals(1000L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime()));
+        // Idle for more than burst
+        clock.sleep(TimeUnit.SECONDS.toNanos(5L));
+        assertEquals(1000, bucket.request(5000));
+        assertEquals(1000, bucket.request(5000));
+        assertEquals(6000L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime()));
+        assertEquals(1000, bucket.request(5000));
+        assertEquals(7000L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime()));
+    }
+
+    @Test
+    public void testParentLimit() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket parent = new TokenBucket(1000f, null, 0L, clock);
+        final TokenBucket child = new TokenBucket(TokenBucket.UNLIMITED, parent, 0L, clock);
+        transfer(child, 10000L);
+        assertEquals(9900L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime()));
+    }
+
+    @Test
+    public void testChildLimit() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket parent = new TokenBucket(1000f, null, 0L, clock);
+        final TokenBucket child = new TokenBucket(500f, parent, 0L, clock);
+        transfer(child, 5000L);
+        assertEquals(9900L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime()));
+    }
+
+    @Test
+    public void testFairShare() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket parent = new TokenBucket(1000f, null, 0L, clock);
+        final TokenBucket a = new TokenBucket(TokenBucket.UNLIMITED, parent, 0L, clock);
+        final TokenBucket b = new TokenBucket(TokenBucket.UNLIMITED, parent, 0L, clock);
+        long sa = 0L;
+        long sb = 0L;
+        // Alternating consumers sharing parent
+        while(clock.nanoTime() < TimeUnit.SECONDS.toNanos(10L)) {
+            sa += a.request(Integer.MAX_VALUE);
+            sb += b.request(Integer.MAX_VALUE);
+        }
+        assertEquals(sa, sb);
+        assertEquals(10000L, sa + sb, 200L);
+        // Work conserving with b idle
+        final long start = clock.nanoTime();
+        transfer(a, 10000L);
+        assertEquals(10000L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - start), 100L);
+    }
+
+    @Test
+    public void testSetRate() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket bucket = new TokenBucket(TokenBucket.UNLIMITED, null, 0L, clock);
+        assertEquals(TokenBucket.UNLIMITED, bucket.getRate(), 0f);
+        bucket.setRate(2000f);
+        transfer(bucket, 2000L);
+        assertEquals(900L, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime()));
+        bucket.setRate(-5f);
+        assertEquals(TokenBucket.UNLIMITED, bucket.getRate(), 0f);
+    }
+
+    @Test
+    public void testSchedule() {
+        final VirtualClock clock = new VirtualClock();
+        final TokenBucket bucket = new TokenBucket(TokenBucket.UNLIMITED, null, 0L, clock);
+        bucket.setSchedule(new BandwidthSchedule("08:00-18:00=1000,22:00-06:00=-1", ZoneOffset.UTC));
+        // 00:00 UTC
+        assertEquals(TokenBucket.UNLIMITED, bucket.getEffectiveRate(), 0f);
+        clock.millis = TimeUnit.HOURS.toMillis(9L);
+        assertEquals(1000f, bucket.getEffectiveRate(), 0f);
+        clock.millis = TimeUnit.HOURS.toMillis(20L);
+        assertEquals(TokenBucket.UNLIMITED, bucket.getEffectiveRate(), 0f);
+    }
+
+    @Test
+    public void testScheduleParse() {
+        final BandwidthSchedule schedule = new BandwidthSchedule("invalid, 23:00-01:00 = 500", ZoneOffset.UTC);
+        assertFalse(schedule.isEmpty());
+        assertEquals(500f, schedule.getRate(TimeUnit.MINUTES.toMillis(30L), 1f), 0f);
+        assertEquals(500f, schedule.getRate(TimeUnit.MINUTES.toMillis(23 * 60 + 30L), 1f), 0f);
+        assertEquals(1f, schedule.getRate(TimeUnit.HOURS.toMillis(2L), 1f), 0f);
+        assertTrue(new BandwidthSchedule("", ZoneOffset.UTC).isEmpty());
+    }
+}
@@ -10,6 +10,7 @@ import ch.cyberduck.core.preferences.PreferencesFactory;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
+import java.io.OutputStream;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -74,6 +75,30 @@ public class LocalTest {
         assertFalse(l.isFile());
     }
 
+    @Test
+    public void testListSnapshot() throws Exception {
+        final Local directory = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        new DefaultLocalDirectoryFeature().mkdir(directory);
+        final Local file = new Local(directory, "f");
+        new DefaultLocalTouchFeature().touch(file);
+        final Local child = directory.list().get(0);
+        assertTrue(child.isFile());
+        assertFalse(child.isDirectory());
+        assertFalse(child.isSymbolicLink());
+        assertEquals(0L, child.attributes().getSize());
+        assertSame(child.snapshot(), child.snapshot());
+        final OutputStream out = file.getOutputStream(true);
+        out.write(new byte[]{1});
+        out.close();
+        // Attributes read when listing
+        assertEquals(0L, child.attributes().getSize());
+        assertEquals(1L, child.refresh().attributes().getSize());
+        file.delete();
+        assertTrue(child.exists());
+        assertFalse(child.refresh().exists());
+        directory.delete();
+    }
+
     @Test
     public void testDelimiter() throws Exception {
         Local l = new WindowsLocal("G:\\");
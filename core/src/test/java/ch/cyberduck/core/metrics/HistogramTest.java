@@ -0,0 +1,60 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final Histogram histogram = new Histogram(MetricsRegistry.NANOSECONDS);
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMin());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0L, histogram.get99thPercentile());
+        assertEquals(0d, histogram.getMean(), 0d);
+    }
+
+    @Test
+    public void testBuckets() {
+        for(long value : new long[]{0L, 1L, 7L, 8L, 9L, 15L, 16L, 17L, 1000L, 123456789L, Long.MAX_VALUE}) {
+            final int index = Histogram.index(value);
+            assertTrue(value <= Histogram.upper(index));
+            if(index > 0) {
+                assertTrue(value > Histogram.upper(index - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        final Histogram histogram = new Histogram(MetricsRegistry.BYTES);
+        for(int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-1L);
+        assertEquals(1001L, histogram.getCount());
+        assertEquals(0L, histogram.getMin());
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(500L, histogram.get50thPercentile(), 500 * 0.125);
+        assertEquals(950L, histogram.get95thPercentile(), 950 * 0.125);
+        assertEquals(990L, histogram.get99thPercentile(), 990 * 0.125);
+        assertEquals(1000L, histogram.getPercentile(1d));
+    }
+}
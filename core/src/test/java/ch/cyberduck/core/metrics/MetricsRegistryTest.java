@@ -0,0 +1,73 @@
+package ch.cyberduck.core.metrics;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testDisabled() {
+        final MetricsRegistry registry = new MetricsRegistry(false, false);
+        registry.counter("c").increment();
+        registry.histogram("h", MetricsRegistry.BYTES).record(1L);
+        assertEquals(0L, registry.counter("c").getCount());
+        assertEquals(0L, registry.histogram("h", MetricsRegistry.BYTES).getCount());
+    }
+
+    @Test
+    public void testScope() {
+        final MetricsRegistry registry = new MetricsRegistry(true, false);
+        registry.counter("c", "a.example.net").increment();
+        registry.counter("c", "a.example.net").increment();
+        registry.counter("c", "b.example.net").increment();
+        assertEquals(2L, registry.counter("c", "a.example.net").getCount());
+        assertEquals(1L, registry.counter("c", "b.example.net").getCount());
+        assertEquals(0L, registry.counter("c").getCount());
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        final MetricsRegistry registry = new MetricsRegistry(true, false);
+        registry.counter("transfer.files", "h").add(3L);
+        registry.histogram("stream.ttfb", MetricsRegistry.NANOSECONDS).record(100L);
+        final StringWriter out = new StringWriter();
+        registry.write(out);
+        final JsonObject json = new JsonParser().parse(out.toString()).getAsJsonObject();
+        assertEquals(3L, json.getAsJsonObject("counters").get("transfer.files{h}").getAsLong());
+        final JsonObject histogram = json.getAsJsonObject("histograms").getAsJsonObject("stream.ttfb");
+        assertEquals("ns", histogram.get("unit").getAsString());
+        assertEquals(1L, histogram.get("count").getAsLong());
+        assertEquals(100L, histogram.get("max").getAsLong());
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        final MetricsRegistry registry = new MetricsRegistry(true, true);
+        registry.counter("test.jmx", "localhost").add(2L);
+        assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(
+            new ObjectName("ch.cyberduck:type=Metrics,name=\"test.jmx\",scope=\"localhost\""), "Count"));
+    }
+}
@@ -16,6 +16,8 @@ package ch.cyberduck.core.pool;
  */
 
 import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.DisabledHostKeyCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.DisabledPasswordCallback;
 import ch.cyberduck.core.DisabledTranscriptListener;
 import ch.cyberduck.core.Host;
@@ -28,6 +30,7 @@ import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.threading.BackgroundActionState;
@@ -39,7 +42,9 @@ import org.junit.Test;
 
 import java.net.SocketException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -124,4 +129,131 @@ public class DefaultSessionPoolTest {
         pool.release(session, new BackgroundException("m", "d"));
         assertFalse(interrupt.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWarmup() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger connected = new AtomicInteger();
+        final Host bookmark = new Host(new TestProtocol());
+        final TestLoginConnectionService connect = new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) throws BackgroundException {
+                if(session.isConnected()) {
+                    return false;
+                }
+                connected.incrementAndGet();
+                session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback());
+                return true;
+            }
+        };
+        final DefaultSessionPool pool = new DefaultSessionPool(connect,
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), PathCache.empty(), new DisabledTranscriptListener(), bookmark,
+                new GenericObjectPool<Session>(new PooledSessionFactory(connect, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                        PathCache.empty(), bookmark, new DefaultVaultRegistry(new DisabledPasswordCallback())) {
+                    @Override
+                    public Session create() {
+                        created.incrementAndGet();
+                        return new NullSession(bookmark);
+                    }
+                }));
+        pool.withMaxIdle(5);
+        pool.warmup(3);
+        while(pool.getNumIdle() < 3) {
+            Thread.sleep(10L);
+        }
+        assertEquals(3, connected.get());
+        final Session<?> session = pool.borrow(BackgroundActionState.running);
+        assertTrue(session.isConnected());
+        // No further connection opened on borrow
+        assertEquals(3, connected.get());
+        assertEquals(3, created.get());
+        pool.release(session, null);
+        // Enough idle connections
+        pool.warmup(3);
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    public void testWarmupWithBorrowedSession() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger connected = new AtomicInteger();
+        final Host bookmark = new Host(new TestProtocol());
+        final TestLoginConnectionService connect = new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) throws BackgroundException {
+                if(session.isConnected()) {
+                    return false;
+                }
+                connected.incrementAndGet();
+                session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback());
+                return true;
+            }
+        };
+        final DefaultSessionPool pool = new DefaultSessionPool(connect,
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), PathCache.empty(), new DisabledTranscriptListener(), bookmark,
+                new GenericObjectPool<Session>(new PooledSessionFactory(connect, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                        PathCache.empty(), bookmark, new DefaultVaultRegistry(new DisabledPasswordCallback())) {
+                    @Override
+                    public Session create() {
+                        created.incrementAndGet();
+                        return new NullSession(bookmark);
+                    }
+                }));
+        pool.withMaxIdle(5);
+        final Session<?> session = pool.borrow(BackgroundActionState.running);
+        assertEquals(1, created.get());
+        pool.warmup(3);
+        while(pool.getNumIdle() < 2) {
+            Thread.sleep(10L);
+        }
+        // Session borrowed counts towards the number of connections
+        assertEquals(3, created.get());
+        assertEquals(3, connected.get());
+        pool.release(session, null);
+    }
+
+    @Test
+    public void testWarmupExhausted() throws Exception {
+        final AtomicInteger connected = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final Host bookmark = new Host(new TestProtocol());
+        final TestLoginConnectionService connect = new TestLoginConnectionService() {
+            @Override
+            public boolean check(final Session<?> session, final Cache<Path> cache, final CancelCallback callback) throws BackgroundException {
+                if(session.isConnected()) {
+                    return false;
+                }
+                connected.incrementAndGet();
+                session.open(Proxy.DIRECT, new DisabledHostKeyCallback(), new DisabledLoginCallback());
+                return true;
+            }
+
+            @Override
+            public void close(final Session<?> session) {
+                closed.incrementAndGet();
+                super.close(session);
+            }
+        };
+        final DefaultSessionPool pool = new DefaultSessionPool(connect,
+                new DefaultVaultRegistry(new DisabledPasswordCallback()), PathCache.empty(), new DisabledTranscriptListener(), bookmark,
+                new GenericObjectPool<Session>(new PooledSessionFactory(connect, new DisabledX509TrustManager(), new DefaultX509KeyManager(),
+                        PathCache.empty(), bookmark, new DefaultVaultRegistry(new DisabledPasswordCallback())) {
+                    @Override
+                    public Session create() {
+                        return new NullSession(bookmark);
+                    }
+                }));
+        pool.withMaxIdle(5);
+        pool.withMaxTotal(1);
+        final Session<?> session = pool.borrow(BackgroundActionState.running);
+        pool.warmup(3);
+        final long timeout = System.currentTimeMillis() + 10000L;
+        while(closed.get() < 2 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10L);
+        }
+        // Sessions opened in advance closed when pool is exhausted
+        assertEquals(2, closed.get());
+        assertEquals(0, pool.getNumIdle());
+        pool.release(session, null);
+    }
+}
@@ -0,0 +1,116 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.NotfoundException;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentPreloaderFeatureTest {
+
+    private static final class Preloader extends ConcurrentPreloaderFeature<Integer, String> {
+        private final Set<Integer> loaded = ConcurrentHashMap.newKeySet();
+        private final Map<Integer, String> published = new ConcurrentHashMap<>();
+
+        public Preloader(final PreloaderCache cache) {
+            super(new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory)), cache, 3);
+        }
+
+        @Override
+        protected Collection<Integer> keys(final PasswordCallback callback, final Path file) {
+            return Arrays.asList(1, 2, 3, 4, 5, 6, 7);
+        }
+
+        @Override
+        protected String load(final Integer key) throws BackgroundException {
+            loaded.add(key);
+            if(7 == key) {
+                throw new NotfoundException(String.valueOf(key));
+            }
+            return key % 2 == 0 ? null : String.valueOf(key);
+        }
+
+        @Override
+        protected void publish(final Integer key, final String value) {
+            published.put(key, value);
+        }
+    }
+
+    @Test
+    public void testOperate() throws Exception {
+        final Preloader preloader = new Preloader(null);
+        final Map<Integer, String> result = preloader.operate(new DisabledPasswordCallback(), new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory)));
+        // Failure for single key does not fail preloading
+        assertEquals(3, result.size());
+        assertEquals(result, preloader.published);
+        assertEquals(7, preloader.loaded.size());
+    }
+
+    @Test
+    public void testSkipEmpty() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final AtomicLong clock = new AtomicLong(1000L);
+        final Preloader first = new Preloader(new PreloaderCache(file, 100L, clock::get));
+        first.operate(new DisabledPasswordCallback(), new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory)));
+        assertTrue(file.exists());
+        final Preloader second = new Preloader(new PreloaderCache(file, 100L, clock::get));
+        assertEquals(3, second.operate(new DisabledPasswordCallback(), new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory))).size());
+        assertFalse(second.loaded.contains(2));
+        assertFalse(second.loaded.contains(4));
+        assertTrue(second.loaded.contains(7));
+        assertEquals(4, second.loaded.size());
+        clock.addAndGet(101L);
+        final Preloader expired = new Preloader(new PreloaderCache(file, 100L, clock::get));
+        expired.operate(new DisabledPasswordCallback(), new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory)));
+        assertEquals(7, expired.loaded.size());
+        file.delete();
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final AtomicLong clock = new AtomicLong(1000L);
+        new Preloader(new PreloaderCache(file, 100L, clock::get)).operate(new DisabledPasswordCallback(), new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory)));
+        // Configuration written for key with nothing found previously
+        final PreloaderCache cache = new PreloaderCache(file, 100L, clock::get);
+        assertTrue(cache.isEmpty("2"));
+        cache.remove("2");
+        cache.save();
+        final Preloader second = new Preloader(new PreloaderCache(file, 100L, clock::get));
+        second.operate(new DisabledPasswordCallback(), new Path("/", EnumSet.of(Path.Type.volume, Path.Type.directory)));
+        assertTrue(second.loaded.contains(2));
+        assertFalse(second.loaded.contains(4));
+        file.delete();
+    }
+}
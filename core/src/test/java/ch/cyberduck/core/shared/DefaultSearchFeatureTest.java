@@ -23,6 +23,7 @@ import ch.cyberduck.core.ListProgressListener;
 import ch.cyberduck.core.NullFilter;
 import ch.cyberduck.core.NullSession;
 import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
 import ch.cyberduck.core.TestProtocol;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.exception.ListCanceledException;
@@ -31,6 +32,7 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -69,4 +71,36 @@ public class DefaultSearchFeatureTest {
         assertFalse(search.contains(f2));
         assertEquals(1, search.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSearchCache() throws Exception {
+        final Path workdir = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path f1 = new Path(workdir, "f1", EnumSet.of(Path.Type.file));
+        final Path f2 = new Path(workdir, "f2", EnumSet.of(Path.Type.file));
+        final AtomicInteger count = new AtomicInteger();
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final DefaultSearchFeature feature = new DefaultSearchFeature(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path folder, final ListProgressListener listener) {
+                count.incrementAndGet();
+                return new AttributedList<>(Arrays.asList(f1, f2));
+            }
+        });
+        feature.withCache(cache);
+        final Filter<Path> filter = new NullFilter<Path>() {
+            @Override
+            public boolean accept(final Path file) {
+                return file.equals(f1);
+            }
+        };
+        assertEquals(1, feature.search(workdir, filter, new DisabledListProgressListener()).size());
+        assertEquals(1, count.get());
+        // Complete listing is cached
+        assertEquals(2, cache.get(workdir).size());
+        assertEquals(1, feature.search(workdir, filter, new DisabledListProgressListener()).size());
+        assertEquals(1, count.get());
+        cache.invalidate(workdir);
+        assertEquals(1, feature.search(workdir, filter, new DisabledListProgressListener()).size());
+        assertEquals(2, count.get());
+    }
+}
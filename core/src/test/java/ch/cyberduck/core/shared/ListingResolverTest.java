@@ -0,0 +1,149 @@
+package ch.cyberduck.core.shared;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.ListProgressListener;
+import ch.cyberduck.core.NullSession;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathCache;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.features.Find;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ListingResolverTest {
+
+    @Test
+    public void testListAfterThreshold() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Path directory = new Path("/a", EnumSet.of(Path.Type.directory));
+        final ListingResolver resolver = new ListingResolver(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                count.incrementAndGet();
+                return new AttributedList<>(Arrays.asList(
+                    new Path(directory, "f1", EnumSet.of(Path.Type.file)),
+                    new Path(directory, "d1", EnumSet.of(Path.Type.directory))));
+            }
+        }, 3, Integer.MAX_VALUE, 1).withCache(new PathCache(1));
+        final AtomicInteger lookups = new AtomicInteger();
+        final Find find = new ListingFindFeature(resolver, new Find() {
+            @Override
+            public boolean find(final Path file) {
+                lookups.incrementAndGet();
+                return true;
+            }
+        });
+        assertTrue(find.find(new Path(directory, "f1", EnumSet.of(Path.Type.file))));
+        assertTrue(find.find(new Path(directory, "f2", EnumSet.of(Path.Type.file))));
+        assertEquals(2, lookups.get());
+        assertEquals(0, count.get());
+        assertTrue(find.find(new Path(directory, "f1", EnumSet.of(Path.Type.file))));
+        assertFalse(find.find(new Path(directory, "f2", EnumSet.of(Path.Type.file))));
+        assertTrue(find.find(new Path(directory, "d1", EnumSet.of(Path.Type.directory))));
+        assertFalse(find.find(new Path(directory, "d1", EnumSet.of(Path.Type.file))));
+        assertEquals(2, lookups.get());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        final Path directory = new Path("/a", EnumSet.of(Path.Type.directory));
+        final PathCache cache = new PathCache(1);
+        cache.put(directory, new AttributedList<>(Arrays.asList(new Path(directory, "f1", EnumSet.of(Path.Type.file)))));
+        final ListingResolver resolver = new ListingResolver(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                fail();
+                return null;
+            }
+        }, Integer.MAX_VALUE, Integer.MAX_VALUE, 1).withCache(cache);
+        final ListingIndex index = resolver.resolve(new Path(directory, "f1", EnumSet.of(Path.Type.file)));
+        assertNotNull(index);
+        assertNotNull(index.find(new Path(directory, "f1", EnumSet.of(Path.Type.file))));
+        assertNull(index.find(new Path(directory, "f2", EnumSet.of(Path.Type.file))));
+        assertNull(resolver.resolve(new Path("/b/f1", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testListFailure() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final ListingResolver resolver = new ListingResolver(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) throws AccessDeniedException {
+                count.incrementAndGet();
+                throw new AccessDeniedException();
+            }
+        }, 1, Integer.MAX_VALUE, 1);
+        assertNull(resolver.resolve(new Path("/a/f1", EnumSet.of(Path.Type.file))));
+        assertNull(resolver.resolve(new Path("/a/f2", EnumSet.of(Path.Type.file))));
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Path directory = new Path("/a", EnumSet.of(Path.Type.directory));
+        final ListingResolver resolver = new ListingResolver(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) throws BackgroundException {
+                count.incrementAndGet();
+                final AttributedList<Path> list = new AttributedList<>();
+                for(int i = 0; i < 3; i++) {
+                    list.add(new Path(directory, String.format("f%d", i), EnumSet.of(Path.Type.file)));
+                    listener.chunk(directory, list);
+                }
+                return list;
+            }
+        }, 1, 2, 1).withCache(new PathCache(1));
+        // Too many files to list
+        assertNull(resolver.resolve(new Path(directory, "f1", EnumSet.of(Path.Type.file))));
+        assertNull(resolver.resolve(new Path(directory, "f2", EnumSet.of(Path.Type.file))));
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testInvalidated() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final Path directory = new Path("/a", EnumSet.of(Path.Type.directory));
+        final PathCache cache = new PathCache(1);
+        final ListingResolver resolver = new ListingResolver(new NullSession(new Host(new TestProtocol())) {
+            @Override
+            public AttributedList<Path> list(final Path file, final ListProgressListener listener) {
+                count.incrementAndGet();
+                return new AttributedList<>(Collections.singletonList(new Path(directory, "f1", EnumSet.of(Path.Type.file))));
+            }
+        }, 2, Integer.MAX_VALUE, 1).withCache(cache);
+        assertNull(resolver.resolve(new Path(directory, "f1", EnumSet.of(Path.Type.file))));
+        assertNotNull(resolver.resolve(new Path(directory, "f2", EnumSet.of(Path.Type.file))));
+        assertEquals(1, count.get());
+        cache.invalidate(directory);
+        // No stale answer once listing is no longer cached
+        assertNull(resolver.resolve(new Path(directory, "f2", EnumSet.of(Path.Type.file))));
+        assertEquals(1, count.get());
+    }
+}
@@ -0,0 +1,121 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.NullLocal;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.PathAttributes;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TransferCheckpointTest {
+
+    @Test
+    public void testComplete() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(root, "f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(3L);
+        file.attributes().setModificationDate(2000L);
+        final Transfer transfer = new DownloadTransfer(new Host(new TestProtocol()), root, new NullLocal("l"));
+        final Local f = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferCheckpoint checkpoint = new TransferCheckpoint(transfer, new TransferJournal(f, 1000));
+        final TransferItem item = new TransferItem(file, new NullLocal("l", "f"));
+        assertFalse(checkpoint.isComplete(item, file.attributes(), attributes(3L, 2000L)));
+        checkpoint.complete(item, 3L);
+        checkpoint.close();
+        {
+            final TransferCheckpoint resume = new TransferCheckpoint(transfer, new TransferJournal(f, 1000));
+            assertTrue(resume.isComplete(item, attributes(3L, 2000L), attributes(3L, 2000L)));
+        }
+        {
+            // Modified source
+            final TransferCheckpoint resume = new TransferCheckpoint(transfer, new TransferJournal(f, 1000));
+            assertFalse(resume.isComplete(item, attributes(4L, 2000L), attributes(3L, 2000L)));
+            assertFalse(resume.isComplete(item, attributes(3L, 3000L), attributes(3L, 2000L)));
+        }
+        {
+            // Unknown modification date
+            final TransferCheckpoint resume = new TransferCheckpoint(transfer, new TransferJournal(f, 1000));
+            assertFalse(resume.isComplete(item, attributes(3L, -1L), attributes(3L, 2000L)));
+        }
+        checkpoint.delete();
+        assertFalse(f.exists());
+    }
+
+    @Test
+    public void testDeletedLocalFile() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        final Path file = new Path(root, "f", EnumSet.of(Path.Type.file));
+        file.attributes().setSize(3L);
+        file.attributes().setModificationDate(2000L);
+        final Transfer transfer = new DownloadTransfer(new Host(new TestProtocol()), root, new NullLocal("l"));
+        final Local f = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferCheckpoint checkpoint = new TransferCheckpoint(transfer, new TransferJournal(f, 1000));
+        final TransferItem item = new TransferItem(file, new NullLocal("l", "f"));
+        checkpoint.complete(item, 3L);
+        // Deleted
+        assertFalse(checkpoint.isComplete(item, attributes(3L, 2000L), null));
+        // Truncated
+        assertFalse(checkpoint.isComplete(item, attributes(3L, 2000L), attributes(1L, 2000L)));
+        assertTrue(checkpoint.isComplete(item, attributes(3L, 2000L), attributes(3L, 2000L)));
+        checkpoint.delete();
+    }
+
+    @Test
+    public void testDirectoryCompleteWithAllChildren() throws Exception {
+        final Path root = new Path("/t", EnumSet.of(Path.Type.directory));
+        root.attributes().setModificationDate(1000L);
+        final Path a = new Path(root, "a", EnumSet.of(Path.Type.file));
+        a.attributes().setSize(3L);
+        a.attributes().setModificationDate(2000L);
+        final Path b = new Path(root, "b", EnumSet.of(Path.Type.file));
+        b.attributes().setSize(3L);
+        b.attributes().setModificationDate(2000L);
+        final Transfer transfer = new DownloadTransfer(new Host(new TestProtocol()), root, new NullLocal("l"));
+        final Local f = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferCheckpoint checkpoint = new TransferCheckpoint(transfer, new TransferJournal(f, 1000));
+        final TransferItem directory = new TransferItem(root, new NullLocal("l"));
+        final TransferItem first = new TransferItem(a, new NullLocal("l", "a"));
+        final TransferItem second = new TransferItem(b, new NullLocal("l", "b"));
+        checkpoint.prepared(directory, Arrays.asList(first, second));
+        checkpoint.complete(directory, 0L);
+        checkpoint.complete(first, 3L);
+        // Incomplete while child is rejected or failed
+        assertFalse(checkpoint.isComplete(directory, root.attributes(), root.attributes()));
+        // Child found complete in checkpoint
+        checkpoint.skipped(second);
+        assertTrue(checkpoint.isComplete(directory, root.attributes(), root.attributes()));
+        assertFalse(checkpoint.isComplete(second, b.attributes(), b.attributes()));
+        checkpoint.delete();
+    }
+
+    private static PathAttributes attributes(final long size, final long modified) {
+        final PathAttributes attributes = new PathAttributes();
+        attributes.setSize(size);
+        attributes.setModificationDate(modified);
+        return attributes;
+    }
+}
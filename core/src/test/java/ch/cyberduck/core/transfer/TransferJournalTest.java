@@ -0,0 +1,112 @@
+package ch.cyberduck.core.transfer;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.NullLocal;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.TestProtocol;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class TransferJournalTest {
+
+    @Test
+    public void testReplayProgress() throws Exception {
+        final Local file = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferJournal journal = new TransferJournal(file, 1000);
+        final Transfer t = new DownloadTransfer(new Host(new TestProtocol()), new Path("/t", EnumSet.of(Path.Type.file)), new NullLocal("l"));
+        t.setSize(10L);
+        t.setTransferred(2L);
+        journal.progress(t);
+        t.setTransferred(5L);
+        journal.progress(t);
+        journal.close();
+        final Transfer replay = new DownloadTransfer(new Host(new TestProtocol()), new Path("/t", EnumSet.of(Path.Type.file)), new NullLocal("l"));
+        new TransferJournal(file, 1000).replay(replay);
+        assertEquals(10L, replay.getSize(), 0L);
+        assertEquals(5L, replay.getTransferred(), 0L);
+        journal.delete();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testItems() throws Exception {
+        final Local file = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferJournal journal = new TransferJournal(file, 1000);
+        journal.item("/t/a", TransferJournal.State.complete, 2L, 2L, 1L);
+        journal.item("/t/a", TransferJournal.State.complete, 3L, 3L, 1L);
+        journal.item("/t/b", TransferJournal.State.complete, 10L, 10L, 1L);
+        journal.close();
+        final TransferJournal read = new TransferJournal(file, 1000);
+        assertEquals(2, read.items().size());
+        assertEquals(TransferJournal.State.complete, read.get("/t/a").state);
+        assertEquals(3L, read.get("/t/a").size);
+        assertEquals(10L, read.get("/t/b").size);
+        assertEquals(TransferJournal.State.unknown, read.get("/t/c").state);
+        read.clear();
+        assertTrue(read.items().isEmpty());
+        read.delete();
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        final Local file = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferJournal journal = new TransferJournal(file, 3);
+        journal.item("/t/a", TransferJournal.State.complete, 2L, 2L, 1L);
+        journal.item("/t/a", TransferJournal.State.complete, 3L, 3L, 1L);
+        assertFalse(journal.isCompactionRequired());
+        journal.item("/t/b", TransferJournal.State.complete, 3L, 3L, 2L);
+        assertTrue(journal.isCompactionRequired());
+        journal.compact(null);
+        assertFalse(journal.isCompactionRequired());
+        final TransferJournal read = new TransferJournal(file, 3);
+        assertEquals(2, read.items().size());
+        assertEquals(TransferJournal.State.complete, read.get("/t/a").state);
+        assertEquals(3L, read.get("/t/a").size);
+        assertEquals(TransferJournal.State.complete, read.get("/t/b").state);
+        assertEquals(2L, read.get("/t/b").modified);
+        read.delete();
+    }
+
+    @Test
+    public void testCorruptState() throws Exception {
+        final Local file = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        final TransferJournal journal = new TransferJournal(file, 1000);
+        journal.item("/t/a", TransferJournal.State.complete, 3L, 3L, 1L);
+        journal.close();
+        try (DataOutputStream out = new DataOutputStream(file.getOutputStream(true))) {
+            out.writeByte(2);
+            out.writeUTF("/t/b");
+            out.writeByte(-1);
+            out.writeLong(0L);
+            out.writeLong(0L);
+            out.writeLong(0L);
+        }
+        final TransferJournal read = new TransferJournal(file, 1000);
+        assertEquals(TransferJournal.State.complete, read.get("/t/a").state);
+        assertEquals(TransferJournal.State.unknown, read.get("/t/b").state);
+        read.delete();
+    }
+}
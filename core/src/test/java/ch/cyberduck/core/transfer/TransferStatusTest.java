@@ -18,8 +18,12 @@ package ch.cyberduck.core.transfer;
  *  dkocher@cyberduck.ch
  */
 
+import ch.cyberduck.core.Path;
+
 import org.junit.Test;
 
+import java.util.EnumSet;
+
 import static org.junit.Assert.*;
 
 public class TransferStatusTest {
@@ -51,4 +55,37 @@ public class TransferStatusTest {
         assertEquals(new TransferStatus(), new TransferStatus());
         assertEquals(new TransferStatus().hashCode(), new TransferStatus().hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAwaitCanceled() throws Exception {
+        final TransferStatus status = new TransferStatus();
+        final Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                status.setCanceled();
+            }
+        });
+        t.start();
+        assertFalse(status.await());
+        assertTrue(status.isCanceled());
+        t.join();
+    }
+
+    @Test
+    public void testRename() throws Exception {
+        final Path renamed = new Path("/r", EnumSet.of(Path.Type.file));
+        final TransferStatus status = new TransferStatus().rename(renamed).withDisplayname(new Path("/f", EnumSet.of(Path.Type.file)));
+        assertEquals(renamed, status.getRename().remote);
+        assertNull(status.getRename().local);
+        assertEquals(renamed, status.getRenameRemote());
+        assertNull(status.getRenameLocal());
+        assertEquals(new Path("/f", EnumSet.of(Path.Type.file)), status.getDisplaynameRemote());
+        assertNull(status.getDisplaynameLocal());
+        final TransferStatus copy = new TransferStatus(status);
+        assertEquals(renamed, copy.getRename().remote);
+        assertEquals(new Path("/f", EnumSet.of(Path.Type.file)), copy.getDisplayname().remote);
+        copy.setRename(new TransferStatus.Rename());
+        assertNull(copy.getRename().remote);
+        assertEquals(renamed, status.getRename().remote);
+    }
+}
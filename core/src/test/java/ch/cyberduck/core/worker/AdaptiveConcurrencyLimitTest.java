@@ -0,0 +1,175 @@
+package ch.cyberduck.core.worker;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.ConnectionRefusedException;
+import ch.cyberduck.core.exception.RetriableAccessDeniedException;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1L);
+
+    /**
+     * Run all permits for one interval with each task transferring given bytes
+     */
+    private static void interval(final AdaptiveConcurrencyLimit limit, final AtomicLong clock, final long bytes) throws Exception {
+        interval(limit, clock, bytes, INTERVAL, bytes);
+    }
+
+    /**
+     * Run all permits for one interval
+     *
+     * @param bytes   Bytes transferred by each task within interval
+     * @param elapsed Duration of each task
+     * @param length  Length of each task
+     */
+    private static void interval(final AdaptiveConcurrencyLimit limit, final AtomicLong clock, final long bytes,
+                                 final long elapsed, final long length) throws Exception {
+        final int permits = limit.getLimit();
+        for(int i = 0; i < permits; i++) {
+            limit.acquire();
+        }
+        clock.addAndGet(INTERVAL - 1);
+        for(int i = 1; i < permits; i++) {
+            limit.transferred(bytes);
+            limit.release(elapsed, length);
+        }
+        limit.transferred(bytes);
+        clock.addAndGet(1);
+        limit.release(elapsed, length);
+    }
+
+    @Test
+    public void testIncreaseWhenSaturated() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, INTERVAL, 0.1d, 2d, clock::get);
+        interval(limit, clock, 1000L);
+        assertEquals(3, limit.getLimit());
+        interval(limit, clock, 1000L);
+        assertEquals(4, limit.getLimit());
+        // Upper bound
+        interval(limit, clock, 1000L);
+        assertEquals(4, limit.getLimit());
+        assertEquals(2L, limit.getIncreases());
+    }
+
+    @Test
+    public void testNoIncreaseWhenIdle() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, INTERVAL, 0.1d, 2d, clock::get);
+        limit.acquire();
+        limit.transferred(1000L);
+        clock.addAndGet(INTERVAL);
+        limit.release(INTERVAL, 1000L);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testSampleWhileTransferring() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, INTERVAL, 0.1d, 2d, clock::get);
+        limit.acquire();
+        limit.acquire();
+        // Long running tasks not yet complete
+        clock.addAndGet(INTERVAL);
+        limit.transferred(1000L);
+        assertEquals(1000d, limit.getThroughput(), 0d);
+        assertEquals(3, limit.getLimit());
+    }
+
+    @Test
+    public void testDecreaseOnThroughputDrop() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, INTERVAL, 0.1d, 2d, clock::get);
+        interval(limit, clock, 1000L);
+        assertEquals(3, limit.getLimit());
+        // Aggregate throughput lower with additional connection
+        interval(limit, clock, 500L);
+        assertEquals(2, limit.getLimit());
+        assertEquals(1L, limit.getDecreases());
+    }
+
+    @Test
+    public void testDecreaseOnLatency() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 2, INTERVAL, 0.1d, 2d, clock::get);
+        interval(limit, clock, 1000L);
+        assertEquals(2, limit.getLimit());
+        // Same length taking longer without gain in throughput
+        interval(limit, clock, 1000L, 3 * INTERVAL, 1000L);
+        assertEquals(1, limit.getLimit());
+    }
+
+    @Test
+    public void testLatencyNormalizedByLength() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 2, INTERVAL, 0.1d, 2d, clock::get);
+        interval(limit, clock, 1000L);
+        // Larger files taking proportionally longer
+        interval(limit, clock, 1000L, 3 * INTERVAL, 3000L);
+        assertEquals(2, limit.getLimit());
+        assertEquals((double) INTERVAL / 1000L, limit.getLatency(), 0d);
+    }
+
+    @Test
+    public void testNoEvaluateBeforeInterval() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 4, INTERVAL, 0.1d, 2d, clock::get);
+        limit.acquire();
+        limit.acquire();
+        for(int i = 0; i < 1000; i++) {
+            limit.transferred(1L);
+        }
+        assertEquals(0d, limit.getThroughput(), 0d);
+        clock.addAndGet(INTERVAL);
+        limit.transferred(1000L);
+        assertEquals(2000d, limit.getThroughput(), 0d);
+    }
+
+    @Test
+    public void testDecreaseOnThrottling() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 1, 8, INTERVAL, 0.1d, 2d, clock::get);
+        limit.failure(new RetriableAccessDeniedException("Too Many Requests"));
+        assertEquals(4, limit.getLimit());
+        // Single decrease for concurrent failures
+        limit.failure(new ConnectionRefusedException("d", new Exception()));
+        assertEquals(4, limit.getLimit());
+        clock.addAndGet(INTERVAL);
+        limit.failure(new ConnectionRefusedException("d", new Exception()));
+        assertEquals(2, limit.getLimit());
+        // Ignore application errors
+        clock.addAndGet(INTERVAL);
+        limit.failure(new AccessDeniedException("d"));
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testFixed() throws Exception {
+        final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 2, Long.MAX_VALUE, 0d, Double.MAX_VALUE, System::nanoTime);
+        limit.failure(new RetriableAccessDeniedException("Too Many Requests"));
+        assertEquals(2, limit.getLimit());
+        assertEquals(2, limit.getMaximum());
+    }
+}
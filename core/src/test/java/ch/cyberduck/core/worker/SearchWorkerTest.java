@@ -27,8 +27,17 @@ import ch.cyberduck.ui.browser.SearchFilter;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -94,4 +103,95 @@ public class SearchWorkerTest {
         assertTrue(cache.get(new Path("/folder", EnumSet.of(Path.Type.directory))).contains(
             new Path(new Path("/folder", EnumSet.of(Path.Type.directory)), "/t2.gif", EnumSet.of(Path.Type.file))));
     }
+
+    @Test
+    public void testNestedWithProgress() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final Path a = new Path(home, "a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path(a, "b", EnumSet.of(Path.Type.directory));
+        final Path c = new Path(home, "c", EnumSet.of(Path.Type.directory));
+        cache.put(home, new AttributedList<>(Arrays.asList(a, c)));
+        cache.put(a, new AttributedList<>(Collections.singletonList(b)));
+        cache.put(b, new AttributedList<>(Arrays.asList(
+            new Path(b, "t.png", EnumSet.of(Path.Type.file)), new Path(b, "t.gif", EnumSet.of(Path.Type.file)))));
+        cache.put(c, new AttributedList<>(Collections.singletonList(new Path(c, "t.gif", EnumSet.of(Path.Type.file)))));
+        final Set<Path> progress = ConcurrentHashMap.newKeySet();
+        final AttributedList<Path> found = new SearchWorker(home, new SearchFilter(".png"), cache, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path folder, final AttributedList<Path> list) {
+                progress.addAll(list.toList());
+            }
+        }, 2, 0).run(new NullSession(new Host(new TestProtocol())));
+        assertTrue(found.contains(a));
+        assertFalse(found.contains(c));
+        // Notified once per folder searched with matching files and subfolders
+        assertEquals(4, progress.size());
+        assertTrue(progress.contains(new Path(b, "t.png", EnumSet.of(Path.Type.file))));
+        assertFalse(progress.contains(new Path(b, "t.gif", EnumSet.of(Path.Type.file))));
+        assertFalse(progress.contains(new Path(c, "t.gif", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        Path parent = home;
+        for(int i = 0; i < 10; i++) {
+            final Path folder = new Path(parent, String.valueOf(i), EnumSet.of(Path.Type.directory));
+            cache.put(parent, new AttributedList<>(Arrays.asList(folder, new Path(parent, String.format("%d.png", i), EnumSet.of(Path.Type.file)))));
+            parent = folder;
+        }
+        cache.put(parent, AttributedList.emptyList());
+        final List<Path> folders = Collections.synchronizedList(new ArrayList<>());
+        final AttributedList<Path> found = new SearchWorker(home, new SearchFilter(".png"), cache, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path folder, final AttributedList<Path> list) {
+                folders.add(folder);
+            }
+        }, 1, 3).run(new NullSession(new Host(new TestProtocol())));
+        // Single notification for every folder searched until limit is reached
+        assertEquals(3, folders.size());
+        assertEquals(3, new HashSet<>(folders).size());
+        assertTrue(found.contains(new Path(home, "0", EnumSet.of(Path.Type.directory))));
+        assertTrue(found.contains(new Path(home, "0.png", EnumSet.of(Path.Type.file))));
+    }
+
+    @Test
+    public void testChunkFromCallingThread() throws Exception {
+        final PathCache cache = new PathCache(Integer.MAX_VALUE);
+        final Path home = new Path("/", EnumSet.of(Path.Type.directory));
+        final List<Path> children = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            final Path folder = new Path(home, String.valueOf(i), EnumSet.of(Path.Type.directory));
+            cache.put(folder, new AttributedList<>(Collections.singletonList(new Path(folder, "t.png", EnumSet.of(Path.Type.file)))));
+            children.add(folder);
+        }
+        cache.put(home, new AttributedList<>(children));
+        final AtomicBoolean busy = new AtomicBoolean();
+        final AtomicBoolean overlap = new AtomicBoolean();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        final List<Path> folders = Collections.synchronizedList(new ArrayList<>());
+        new SearchWorker(home, new SearchFilter(".png"), cache, new DisabledListProgressListener() {
+            @Override
+            public void chunk(final Path folder, final AttributedList<Path> list) {
+                if(!busy.compareAndSet(false, true)) {
+                    overlap.set(true);
+                }
+                threads.add(Thread.currentThread());
+                try {
+                    Thread.sleep(10L);
+                }
+                catch(InterruptedException e) {
+                    //
+                }
+                folders.add(folder);
+                busy.set(false);
+            }
+        }, 4, 0).run(new NullSession(new Host(new TestProtocol())));
+        assertEquals(11, folders.size());
+        // Listener is never called concurrently from search threads
+        assertFalse(overlap.get());
+        assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
 }
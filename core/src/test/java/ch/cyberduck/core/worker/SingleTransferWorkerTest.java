@@ -7,12 +7,16 @@ import ch.cyberduck.core.exception.LocalAccessDeniedException;
 import ch.cyberduck.core.exception.NotfoundException;
 import ch.cyberduck.core.features.AttributesFinder;
 import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.local.DefaultLocalTouchFeature;
 import ch.cyberduck.core.io.StreamListener;
 import ch.cyberduck.core.notification.DisabledNotificationService;
+import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.transfer.DisabledTransferErrorCallback;
 import ch.cyberduck.core.transfer.DisabledTransferPrompt;
 import ch.cyberduck.core.transfer.DownloadTransfer;
 import ch.cyberduck.core.transfer.Transfer;
+import ch.cyberduck.core.transfer.TransferCheckpoint;
 import ch.cyberduck.core.transfer.TransferAction;
 import ch.cyberduck.core.transfer.TransferItem;
 import ch.cyberduck.core.transfer.TransferOptions;
@@ -23,8 +27,10 @@ import ch.cyberduck.core.transfer.download.AbstractDownloadFilter;
 
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.UUID;
 import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
@@ -285,4 +291,60 @@ public class SingleTransferWorkerTest {
             throw e;
         }
     }
+
+    @Test
+    public void testRejectedNotInCheckpoint() throws Exception {
+        final Local folder = new Local(PreferencesFactory.get().getProperty("tmp.dir"), UUID.randomUUID().toString());
+        new DefaultLocalDirectoryFeature().mkdir(folder);
+        final Local existing = new Local(folder, "a");
+        new DefaultLocalTouchFeature().touch(existing);
+        final Path a = new Path("/t/a", EnumSet.of(Path.Type.file));
+        a.attributes().setSize(3L);
+        a.attributes().setModificationDate(2000L);
+        final Path b = new Path("/t/b", EnumSet.of(Path.Type.file));
+        b.attributes().setSize(3L);
+        b.attributes().setModificationDate(2000L);
+        final Transfer t = new DownloadTransfer(new Host(new TestProtocol()), Arrays.asList(
+            new TransferItem(a, existing), new TransferItem(b, new Local(folder, "b")))) {
+            @Override
+            public Path transfer(final Session<?> source, final Session<?> destination, final Path file, Local local,
+                                 final TransferOptions options, final TransferStatus status,
+                                 final ConnectionCallback connectionCallback,
+                                 final PasswordCallback passwordCallback, final ProgressListener listener, final StreamListener streamListener) throws BackgroundException {
+                assertEquals(b, file);
+                throw new AccessDeniedException("f");
+            }
+
+            @Override
+            public AbstractDownloadFilter filter(final Session<?> source, final Session<?> destination, final TransferAction action, final ProgressListener listener) {
+                return super.filter(source, destination, action, listener).withAttributes(new AttributesFinder() {
+                    @Override
+                    public PathAttributes find(final Path file) {
+                        return file.attributes();
+                    }
+                });
+            }
+        };
+        final NullSession session = new NullSession(new Host(new TestProtocol()));
+        try {
+            new SingleTransferWorker(session, session, t, new TransferOptions(), new TransferSpeedometer(t), new DisabledTransferPrompt() {
+                @Override
+                public TransferAction prompt(final TransferItem file) {
+                    // Reject existing file
+                    return TransferAction.skip;
+                }
+            }, new DisabledTransferErrorCallback(),
+                new DisabledProgressListener(), new DisabledStreamListener(), new DisabledLoginCallback(), new DisabledPasswordCallback(), new DisabledNotificationService()).run();
+            fail();
+        }
+        catch(BackgroundException e) {
+            // Expected failure of second file
+        }
+        assertFalse(t.isComplete());
+        final TransferCheckpoint checkpoint = new TransferCheckpoint(t);
+        assertFalse(checkpoint.isComplete(new TransferItem(a, existing), a.attributes(), existing.attributes()));
+        checkpoint.delete();
+        existing.delete();
+        folder.delete();
+    }
 }
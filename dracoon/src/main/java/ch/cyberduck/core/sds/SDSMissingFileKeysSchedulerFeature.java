@@ -15,11 +15,11 @@ package ch.cyberduck.core.sds;
  * GNU General Public License for more details.
  */
 
-import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.sds.io.swagger.client.ApiException;
 import ch.cyberduck.core.sds.io.swagger.client.api.NodesApi;
@@ -28,19 +28,26 @@ import ch.cyberduck.core.sds.io.swagger.client.model.MissingKeysResponse;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetBatchRequest;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetRequest;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserIdFileIdItem;
-import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserUserPublicKey;
 import ch.cyberduck.core.sds.triplecrypt.CryptoExceptionMappingService;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
-import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPair;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPairCache;
 import ch.cyberduck.core.shared.AbstractSchedulerFeature;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -48,8 +55,6 @@ import com.dracoon.sdk.crypto.Crypto;
 import com.dracoon.sdk.crypto.CryptoException;
 import com.dracoon.sdk.crypto.model.EncryptedFileKey;
 import com.dracoon.sdk.crypto.model.PlainFileKey;
-import com.dracoon.sdk.crypto.model.UserKeyPair;
-import com.dracoon.sdk.crypto.model.UserPrivateKey;
 
 public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature<List<UserFileKeySetRequest>> {
     private static final Logger log = Logger.getLogger(SDSMissingFileKeysSchedulerFeature.class);
@@ -69,60 +74,159 @@ public class SDSMissingFileKeysSchedulerFeature extends AbstractSchedulerFeature
 
     @Override
     protected List<UserFileKeySetRequest> operate(final PasswordCallback callback, final Path file) throws BackgroundException {
-        final List<UserFileKeySetRequest> processed = new ArrayList<>();
         try {
             // Requests a list of missing FileKeys that may be generated by the current user.
             // Clients should regularly request missing FileKeys to provide access to files for other users. The returned list is ordered by priority (Rescue Keys are returned first)
             if(!session.userAccount().isEncryptionEnabled()) {
-                return processed;
+                return Collections.emptyList();
             }
-            final UserPrivateKey privateKey = new UserPrivateKey();
-            final UserKeyPairContainer keyPairContainer = session.keyPair();
-            privateKey.setPrivateKey(keyPairContainer.getPrivateKeyContainer().getPrivateKey());
-            privateKey.setVersion(keyPairContainer.getPrivateKeyContainer().getVersion());
-            final UserKeyPair userKeyPair = new UserKeyPair();
-            userKeyPair.setUserPrivateKey(privateKey);
-            final Credentials passphrase = new TripleCryptKeyPair().unlock(callback, session.getHost(), userKeyPair);
             final Long fileId = file != null ? Long.parseLong(nodeid.getFileid(file, new DisabledListProgressListener())) : null;
-            UserFileKeySetBatchRequest request;
-            do {
-                final MissingKeysResponse missingKeys = new NodesApi(session.getClient()).missingFileKeys(
-                    null, null, null, fileId, null, StringUtils.EMPTY);
+            try (TripleCryptKeyPairCache.UnlockedPrivateKey unlocked = session.unlockedPrivateKey(callback)) {
+                return this.process(new MissingFileKeys() {
+                    @Override
+                    public MissingKeysResponse list(final Integer offset) throws ApiException {
+                        return new NodesApi(session.getClient()).missingFileKeys(offset, null, null, fileId, null, StringUtils.EMPTY);
+                    }
+
+                    @Override
+                    public void set(final UserFileKeySetBatchRequest request) throws ApiException {
+                        new NodesApi(session.getClient()).setUserFileKeys(request, StringUtils.EMPTY);
+                    }
+                }, unlocked, PreferencesFactory.get().getInteger("sds.encryption.missingkeys.concurrency"));
+            }
+        }
+        catch(ApiException e) {
+            throw new SDSExceptionMappingService().map(e);
+        }
+        catch(CryptoException e) {
+            throw new CryptoExceptionMappingService().map(e);
+        }
+    }
+
+    /**
+     * Remote operations on missing file keys
+     */
+    interface MissingFileKeys {
+        /**
+         * @param offset Number of items to skip or null
+         * @return Next page of missing file keys
+         */
+        MissingKeysResponse list(Integer offset) throws ApiException;
+
+        void set(UserFileKeySetBatchRequest request) throws ApiException;
+    }
+
+    /**
+     * Decrypt file key once per file and encrypt for each user concurrently. Submit file keys of a page while
+     * processing the next page.
+     *
+     * @param api         Remote operations
+     * @param unlocked    Private key of current user
+     * @param concurrency Number of threads
+     * @return Processed file keys
+     */
+    List<UserFileKeySetRequest> process(final MissingFileKeys api, final TripleCryptKeyPairCache.UnlockedPrivateKey unlocked,
+                                        final int concurrency) throws BackgroundException, ApiException, CryptoException {
+        final List<UserFileKeySetRequest> processed = new ArrayList<>();
+        final ThreadPool pool = ThreadPoolFactory.get("missingkeys", concurrency);
+        try {
+            // Decrypted file key per file id within this run
+            final Map<Long, Future<PlainFileKey>> plainFileKeys = new HashMap<>();
+            // Items already submitted to skip when returned again while submission is pending
+            final Set<UserIdFileIdItem> submitted = new HashSet<>();
+            Future<Void> pending = null;
+            int inflight = 0;
+            while(true) {
+                // Skip items of pending submission to compute next page concurrently
+                final MissingKeysResponse missingKeys = api.list(inflight > 0 ? inflight : null);
+                final List<UserIdFileIdItem> items = new ArrayList<>();
+                for(UserIdFileIdItem item : missingKeys.getItems()) {
+                    if(submitted.add(item)) {
+                        items.add(item);
+                    }
+                }
+                if(items.isEmpty()) {
+                    if(null == pending) {
+                        break;
+                    }
+                    this.await(pending);
+                    pending = null;
+                    inflight = 0;
+                    continue;
+                }
                 final Map<Long, UserUserPublicKey> publicKeys =
                     missingKeys.getUsers().stream().collect(Collectors.toMap(UserUserPublicKey::getId, Function.identity()));
                 final Map<Long, FileFileKeys> files =
                     missingKeys.getFiles().stream().collect(Collectors.toMap(FileFileKeys::getId, Function.identity()));
-                request = new UserFileKeySetBatchRequest();
-                for(UserIdFileIdItem item : missingKeys.getItems()) {
+                for(UserIdFileIdItem item : items) {
+                    // Decrypt with private key once per file
+                    plainFileKeys.computeIfAbsent(item.getFileId(), id -> pool.execute(() -> unlocked.decrypt(
+                        TripleCryptConverter.toCryptoEncryptedFileKey(files.get(id).getFileKeyContainer()))));
+                }
+                final List<Future<UserFileKeySetRequest>> encrypted = new ArrayList<>();
+                for(UserIdFileIdItem item : items) {
+                    final Future<PlainFileKey> plainFileKey = plainFileKeys.get(item.getFileId());
                     final UserUserPublicKey publicKey = publicKeys.get(item.getUserId());
-                    final FileFileKeys fileKeys = files.get(item.getFileId());
-                    final UserFileKeySetRequest keySetRequest = new UserFileKeySetRequest()
-                        .fileId(item.getFileId())
-                        .userId(item.getUserId());
+                    // Decryption is queued before and never waits so blocking here cannot exhaust the pool
+                    encrypted.add(pool.execute(() -> {
+                        final EncryptedFileKey encryptFileKey = Crypto.encryptFileKey(
+                            plainFileKey.get(), TripleCryptConverter.toCryptoUserPublicKey(publicKey.getPublicKeyContainer())
+                        );
+                        if(log.isDebugEnabled()) {
+                            log.debug(String.format("Missing file key for file with id %d processed", item.getFileId()));
+                        }
+                        return new UserFileKeySetRequest()
+                            .fileId(item.getFileId())
+                            .userId(item.getUserId())
+                            .fileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey));
+                    }));
+                }
+                final UserFileKeySetBatchRequest request = new UserFileKeySetBatchRequest();
+                for(Future<UserFileKeySetRequest> future : encrypted) {
+                    final UserFileKeySetRequest keySetRequest = this.await(future);
                     processed.add(keySetRequest);
-                    final PlainFileKey plainFileKey = Crypto.decryptFileKey(
-                        TripleCryptConverter.toCryptoEncryptedFileKey(fileKeys.getFileKeyContainer()), privateKey, passphrase.getPassword());
-                    final EncryptedFileKey encryptFileKey = Crypto.encryptFileKey(
-                        plainFileKey, TripleCryptConverter.toCryptoUserPublicKey(publicKey.getPublicKeyContainer())
-                    );
-                    keySetRequest.setFileKey(TripleCryptConverter.toSwaggerFileKey(encryptFileKey));
-                    if(log.isDebugEnabled()) {
-                        log.debug(String.format("Missing file key for file with id %d processed", item.getFileId()));
-                    }
                     request.addItemsItem(keySetRequest);
                 }
-                if(!request.getItems().isEmpty()) {
-                    new NodesApi(session.getClient()).setUserFileKeys(request, StringUtils.EMPTY);
+                if(pending != null) {
+                    this.await(pending);
                 }
+                pending = pool.execute(() -> {
+                    api.set(request);
+                    return null;
+                });
+                inflight = request.getItems().size();
             }
-            while(!request.getItems().isEmpty());
         }
-        catch(ApiException e) {
-            throw new SDSExceptionMappingService().map(e);
-        }
-        catch(CryptoException e) {
-            throw new CryptoExceptionMappingService().map(e);
+        finally {
+            pool.shutdown(false);
         }
         return processed;
     }
+
+    private <T> T await(final Future<T> future) throws BackgroundException, ApiException, CryptoException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            log.error("Processing missing file keys failed with interrupt failure");
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+            // Failure decrypting file key awaited from encryption task
+            while(cause instanceof ExecutionException) {
+                cause = cause.getCause();
+            }
+            if(cause instanceof ApiException) {
+                throw (ApiException) cause;
+            }
+            if(cause instanceof CryptoException) {
+                throw (CryptoException) cause;
+            }
+            if(cause instanceof BackgroundException) {
+                throw (BackgroundException) cause;
+            }
+            throw new BackgroundException(cause);
+        }
+    }
 }
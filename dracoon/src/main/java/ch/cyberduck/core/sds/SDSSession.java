@@ -24,6 +24,7 @@ import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LocaleFactory;
 import ch.cyberduck.core.LoginCallback;
 import ch.cyberduck.core.LoginOptions;
+import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.PreferencesUseragentProvider;
 import ch.cyberduck.core.Scheme;
 import ch.cyberduck.core.UrlProvider;
@@ -44,6 +45,8 @@ import ch.cyberduck.core.sds.io.swagger.client.model.KeyValueEntry;
 import ch.cyberduck.core.sds.io.swagger.client.model.LoginRequest;
 import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
 import ch.cyberduck.core.sds.provider.HttpComponentsProvider;
+import ch.cyberduck.core.sds.triplecrypt.CryptoExceptionMappingService;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPairCache;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
@@ -67,6 +70,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.dracoon.sdk.crypto.CryptoException;
 import com.migcomponents.migbase64.Base64;
 
 public class SDSSession extends HttpSession<SDSApiClient> {
@@ -84,6 +88,9 @@ public class SDSSession extends HttpSession<SDSApiClient> {
     private final ExpiringObjectHolder<UserKeyPairContainer> keyPair
         = new ExpiringObjectHolder<>(PreferencesFactory.get().getLong("sds.encryption.keys.ttl"));
 
+    private final TripleCryptKeyPairCache unlocked
+        = new TripleCryptKeyPairCache(PreferencesFactory.get().getLong("sds.encryption.keys.unlocked.ttl"));
+
     private final List<KeyValueEntry> configuration = new ArrayList<>();
     private final SDSNodeIdProvider nodeid = new SDSNodeIdProvider(this);
 
@@ -232,12 +239,26 @@ public class SDSSession extends HttpSession<SDSApiClient> {
         return this.keyPair.get();
     }
 
+    /**
+     * @param callback Prompt for passphrase if not saved in keychain
+     * @return Private key of user with verified passphrase shared by all encrypted reads and key operations
+     */
+    public TripleCryptKeyPairCache.UnlockedPrivateKey unlockedPrivateKey(final PasswordCallback callback) throws BackgroundException {
+        try {
+            return unlocked.unlock(callback, host, this.keyPair());
+        }
+        catch(CryptoException e) {
+            throw new CryptoExceptionMappingService().map(e);
+        }
+    }
+
     public List<KeyValueEntry> configuration() {
         return configuration;
     }
 
     @Override
     protected void logout() throws BackgroundException {
+        unlocked.clear();
         client.getHttpClient().close();
     }
 
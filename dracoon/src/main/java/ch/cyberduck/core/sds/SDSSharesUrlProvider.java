@@ -15,7 +15,6 @@ package ch.cyberduck.core.sds;
  * GNU General Public License for more details.
  */
 
-import ch.cyberduck.core.Credentials;
 import ch.cyberduck.core.DescriptiveUrl;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.LocaleFactory;
@@ -34,10 +33,9 @@ import ch.cyberduck.core.sds.io.swagger.client.model.DownloadShare;
 import ch.cyberduck.core.sds.io.swagger.client.model.FileKey;
 import ch.cyberduck.core.sds.io.swagger.client.model.KeyValueEntry;
 import ch.cyberduck.core.sds.io.swagger.client.model.UploadShare;
-import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
 import ch.cyberduck.core.sds.triplecrypt.CryptoExceptionMappingService;
 import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
-import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPair;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPairCache;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -51,7 +49,6 @@ import com.dracoon.sdk.crypto.CryptoException;
 import com.dracoon.sdk.crypto.model.EncryptedFileKey;
 import com.dracoon.sdk.crypto.model.PlainFileKey;
 import com.dracoon.sdk.crypto.model.UserKeyPair;
-import com.dracoon.sdk.crypto.model.UserPrivateKey;
 
 public class SDSSharesUrlProvider implements PromptUrlProvider<CreateDownloadShareRequest, CreateUploadShareRequest> {
     private static final Logger log = Logger.getLogger(SDSSharesUrlProvider.class);
@@ -116,14 +113,10 @@ public class SDSSharesUrlProvider implements PromptUrlProvider<CreateDownloadSha
             if(nodeid.isEncrypted(file)) {
                 // get existing file key associated with the sharing user
                 final FileKey key = new NodesApi(session.getClient()).getUserFileKey(fileid, StringUtils.EMPTY);
-                final UserPrivateKey privateKey = new UserPrivateKey();
-                final UserKeyPairContainer keyPairContainer = session.keyPair();
-                privateKey.setPrivateKey(keyPairContainer.getPrivateKeyContainer().getPrivateKey());
-                privateKey.setVersion(keyPairContainer.getPrivateKeyContainer().getVersion());
-                final UserKeyPair userKeyPair = new UserKeyPair();
-                userKeyPair.setUserPrivateKey(privateKey);
-                final Credentials passphrase = new TripleCryptKeyPair().unlock(callback, session.getHost(), userKeyPair);
-                final PlainFileKey plainFileKey = Crypto.decryptFileKey(TripleCryptConverter.toCryptoEncryptedFileKey(key), privateKey, passphrase.getPassword());
+                final PlainFileKey plainFileKey;
+                try (TripleCryptKeyPairCache.UnlockedPrivateKey unlocked = session.unlockedPrivateKey(callback)) {
+                    plainFileKey = unlocked.decrypt(TripleCryptConverter.toCryptoEncryptedFileKey(key));
+                }
                 // encrypt file key with a new key pair
                 final UserKeyPair pair = Crypto.generateUserKeyPair(options.getPassword());
                 final EncryptedFileKey encryptedFileKey = Crypto.encryptFileKey(plainFileKey, pair.getUserPublicKey());
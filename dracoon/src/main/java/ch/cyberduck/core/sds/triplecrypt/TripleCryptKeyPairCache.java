@@ -0,0 +1,159 @@
+package ch.cyberduck.core.sds.triplecrypt;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.exception.LoginCanceledException;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
+import ch.cyberduck.core.threading.ScheduledThreadPool;
+
+import org.apache.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.dracoon.sdk.crypto.Crypto;
+import com.dracoon.sdk.crypto.CryptoException;
+import com.dracoon.sdk.crypto.model.EncryptedFileKey;
+import com.dracoon.sdk.crypto.model.PlainFileKey;
+import com.dracoon.sdk.crypto.model.UserKeyPair;
+import com.dracoon.sdk.crypto.model.UserPrivateKey;
+
+/**
+ * Holds the private key of a session together with its verified passphrase for a limited time to skip the
+ * keychain lookup and key pair validation for every file. The passphrase is overwritten when expired or cleared.
+ */
+public class TripleCryptKeyPairCache {
+    private static final Logger log = Logger.getLogger(TripleCryptKeyPairCache.class);
+
+    /**
+     * Overwrite passphrase when expired
+     */
+    private static final class Evictor {
+        private static final ScheduledThreadPool timer = new ScheduledThreadPool();
+    }
+
+    private final long ttl;
+
+    private String privateKey;
+    private String version;
+    private char[] passphrase;
+    private long expires;
+    private ScheduledFuture<?> eviction;
+
+    /**
+     * @param ttl Milliseconds to keep unlocked private key
+     */
+    public TripleCryptKeyPairCache(final long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * @param callback  Prompt for passphrase
+     * @param bookmark  Host
+     * @param container Current key pair of user
+     * @return Private key with verified passphrase
+     */
+    public synchronized UnlockedPrivateKey unlock(final PasswordCallback callback, final Host bookmark, final UserKeyPairContainer container)
+        throws CryptoException, LoginCanceledException {
+        final String key = container.getPrivateKeyContainer().getPrivateKey();
+        if(passphrase != null) {
+            if(System.currentTimeMillis() > expires || !Objects.equals(privateKey, key)) {
+                this.clear();
+            }
+        }
+        if(null == passphrase) {
+            final UserPrivateKey userPrivateKey = new UserPrivateKey();
+            userPrivateKey.setPrivateKey(key);
+            userPrivateKey.setVersion(container.getPrivateKeyContainer().getVersion());
+            final UserKeyPair userKeyPair = new UserKeyPair();
+            userKeyPair.setUserPrivateKey(userPrivateKey);
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Attempt to unlock private key %s", userPrivateKey));
+            }
+            final Credentials credentials = new TripleCryptKeyPair().unlock(callback, bookmark, userKeyPair);
+            privateKey = key;
+            version = container.getPrivateKeyContainer().getVersion();
+            passphrase = credentials.getPassword().toCharArray();
+            expires = System.currentTimeMillis() + ttl;
+            if(ttl > 0) {
+                eviction = Evictor.timer.schedule(this::clear, ttl, TimeUnit.MILLISECONDS);
+            }
+        }
+        final UserPrivateKey userPrivateKey = new UserPrivateKey();
+        userPrivateKey.setPrivateKey(privateKey);
+        userPrivateKey.setVersion(version);
+        return new UnlockedPrivateKey(userPrivateKey, passphrase.clone());
+    }
+
+    /**
+     * Overwrite passphrase in memory
+     */
+    public synchronized void clear() {
+        if(passphrase != null) {
+            if(log.isDebugEnabled()) {
+                log.debug("Clear unlocked private key");
+            }
+            Arrays.fill(passphrase, '\0');
+        }
+        if(eviction != null) {
+            eviction.cancel(false);
+        }
+        eviction = null;
+        passphrase = null;
+        privateKey = null;
+        version = null;
+    }
+
+    /**
+     * Copy of passphrase overwritten when closed
+     */
+    public static final class UnlockedPrivateKey implements AutoCloseable {
+        private final UserPrivateKey privateKey;
+        private final char[] passphrase;
+
+        private UnlockedPrivateKey(final UserPrivateKey privateKey, final char[] passphrase) {
+            this.privateKey = privateKey;
+            this.passphrase = passphrase;
+        }
+
+        public UserPrivateKey getPrivateKey() {
+            return privateKey;
+        }
+
+        public char[] getPassphrase() {
+            return passphrase;
+        }
+
+        /**
+         * @param key File key encrypted with public key of user
+         * @return Decrypted file key
+         */
+        public PlainFileKey decrypt(final EncryptedFileKey key) throws CryptoException {
+            // Crypto SDK only accepts passphrase as string
+            return Crypto.decryptFileKey(key, privateKey, String.valueOf(passphrase));
+        }
+
+        @Override
+        public void close() {
+            Arrays.fill(passphrase, '\0');
+        }
+    }
+}
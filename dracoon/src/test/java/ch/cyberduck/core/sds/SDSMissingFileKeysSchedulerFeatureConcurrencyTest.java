@@ -0,0 +1,161 @@
+package ch.cyberduck.core.sds;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.LoginOptions;
+import ch.cyberduck.core.sds.io.swagger.client.model.FileFileKeys;
+import ch.cyberduck.core.sds.io.swagger.client.model.FileKeyContainer;
+import ch.cyberduck.core.sds.io.swagger.client.model.MissingKeysResponse;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetBatchRequest;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserFileKeySetRequest;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserIdFileIdItem;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserUserPublicKey;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptConverter;
+import ch.cyberduck.core.sds.triplecrypt.TripleCryptKeyPairCache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dracoon.sdk.crypto.Crypto;
+import com.dracoon.sdk.crypto.CryptoException;
+import com.dracoon.sdk.crypto.model.EncryptedFileKey;
+import com.dracoon.sdk.crypto.model.PlainFileKey;
+import com.dracoon.sdk.crypto.model.UserKeyPair;
+
+import static org.junit.Assert.*;
+
+public class SDSMissingFileKeysSchedulerFeatureConcurrencyTest {
+
+    @Test
+    public void testProcessPages() throws Exception {
+        final UserKeyPair owner = Crypto.generateUserKeyPair("s3cr3t");
+        final UserKeyPair other = Crypto.generateUserKeyPair("0th3r");
+        final Map<Long, PlainFileKey> plain = new HashMap<>();
+        final MissingKeys server = new MissingKeys(2);
+        server.user(1L, owner);
+        server.user(2L, other);
+        for(long fileId = 1L; fileId <= 3L; fileId++) {
+            final PlainFileKey key = Crypto.generateFileKey();
+            plain.put(fileId, key);
+            server.file(fileId, Crypto.encryptFileKey(key, owner.getUserPublicKey()));
+            server.missing(fileId, 2L);
+        }
+        final List<UserFileKeySetRequest> processed = new SDSMissingFileKeysSchedulerFeature(null, null, 0L)
+            .process(server, this.unlock(owner, "s3cr3t"), 4);
+        assertEquals(3, processed.size());
+        assertEquals(3, server.set.size());
+        assertTrue(server.missing.isEmpty());
+        for(UserFileKeySetRequest request : processed) {
+            assertEquals(2L, request.getUserId(), 0L);
+            final PlainFileKey decrypted = Crypto.decryptFileKey(TripleCryptConverter.toCryptoEncryptedFileKey(request.getFileKey()),
+                other.getUserPrivateKey(), "0th3r");
+            assertEquals(plain.get(request.getFileId()).getKey(), decrypted.getKey());
+        }
+    }
+
+    @Test(expected = CryptoException.class)
+    public void testFailureDecryptingFileKey() throws Exception {
+        final UserKeyPair owner = Crypto.generateUserKeyPair("s3cr3t");
+        final UserKeyPair other = Crypto.generateUserKeyPair("0th3r");
+        final MissingKeys server = new MissingKeys(10);
+        server.user(1L, owner);
+        server.user(2L, other);
+        server.file(1L, Crypto.encryptFileKey(Crypto.generateFileKey(), owner.getUserPublicKey()));
+        server.missing(1L, 2L);
+        // File key not encrypted for current user
+        server.file(2L, Crypto.encryptFileKey(Crypto.generateFileKey(), other.getUserPublicKey()));
+        server.missing(2L, 1L);
+        try {
+            new SDSMissingFileKeysSchedulerFeature(null, null, 0L).process(server, this.unlock(owner, "s3cr3t"), 4);
+        }
+        finally {
+            // Nothing is submitted for a page with a failure
+            assertTrue(server.set.isEmpty());
+        }
+    }
+
+    private TripleCryptKeyPairCache.UnlockedPrivateKey unlock(final UserKeyPair pair, final String passphrase) throws Exception {
+        final UserKeyPairContainer container = TripleCryptConverter.toSwaggerUserKeyPairContainer(pair);
+        return new TripleCryptKeyPairCache(60000L).unlock(new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) {
+                return new Credentials().withPassword(passphrase);
+            }
+        }, new Host(new SDSProtocol(), "localhost", new Credentials("u")), container);
+    }
+
+    /**
+     * Missing file keys returned in pages with submitted keys removed
+     */
+    private static final class MissingKeys implements SDSMissingFileKeysSchedulerFeature.MissingFileKeys {
+        private final int limit;
+        private final Map<Long, UserUserPublicKey> users = new HashMap<>();
+        private final Map<Long, FileFileKeys> files = new HashMap<>();
+        private final List<UserIdFileIdItem> missing = new ArrayList<>();
+        private final List<UserFileKeySetRequest> set = new ArrayList<>();
+
+        private MissingKeys(final int limit) {
+            this.limit = limit;
+        }
+
+        void user(final Long id, final UserKeyPair pair) {
+            users.put(id, new UserUserPublicKey().id(id).publicKeyContainer(
+                TripleCryptConverter.toSwaggerUserKeyPairContainer(pair).getPublicKeyContainer()));
+        }
+
+        void file(final Long id, final EncryptedFileKey key) {
+            files.put(id, new FileFileKeys().id(id).fileKeyContainer(new FileKeyContainer()
+                .key(key.getKey()).iv(key.getIv()).tag(key.getTag()).version(key.getVersion())));
+        }
+
+        void missing(final Long fileId, final Long userId) {
+            missing.add(new UserIdFileIdItem().fileId(fileId).userId(userId));
+        }
+
+        @Override
+        public synchronized MissingKeysResponse list(final Integer offset) {
+            final MissingKeysResponse response = new MissingKeysResponse()
+                .items(new ArrayList<>()).users(new ArrayList<>()).files(new ArrayList<>());
+            final int start = null == offset ? 0 : Math.min(offset, missing.size());
+            for(UserIdFileIdItem item : missing.subList(start, Math.min(missing.size(), start + limit))) {
+                response.addItemsItem(item);
+                if(!response.getUsers().contains(users.get(item.getUserId()))) {
+                    response.addUsersItem(users.get(item.getUserId()));
+                }
+                if(!response.getFiles().contains(files.get(item.getFileId()))) {
+                    response.addFilesItem(files.get(item.getFileId()));
+                }
+            }
+            return response;
+        }
+
+        @Override
+        public synchronized void set(final UserFileKeySetBatchRequest request) {
+            for(UserFileKeySetRequest item : request.getItems()) {
+                missing.remove(new UserIdFileIdItem().fileId(item.getFileId()).userId(item.getUserId()));
+                set.add(item);
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ch.cyberduck.core.sds.triplecrypt;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Credentials;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.LoginOptions;
+import ch.cyberduck.core.sds.SDSProtocol;
+import ch.cyberduck.core.sds.io.swagger.client.model.UserKeyPairContainer;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dracoon.sdk.crypto.Crypto;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TripleCryptKeyPairCacheTest {
+
+    @Test
+    public void testUnlockCached() throws Exception {
+        final UserKeyPairContainer container = TripleCryptConverter.toSwaggerUserKeyPairContainer(Crypto.generateUserKeyPair("s3cr3t"));
+        final Host host = new Host(new SDSProtocol(), "localhost", new Credentials("u"));
+        final AtomicInteger prompts = new AtomicInteger();
+        final DisabledPasswordCallback callback = new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) {
+                prompts.incrementAndGet();
+                return new Credentials().withPassword("s3cr3t");
+            }
+        };
+        final TripleCryptKeyPairCache cache = new TripleCryptKeyPairCache(60000L);
+        assertEquals("s3cr3t", String.valueOf(cache.unlock(callback, host, container).getPassphrase()));
+        assertEquals(container.getPrivateKeyContainer().getPrivateKey(), cache.unlock(callback, host, container).getPrivateKey().getPrivateKey());
+        assertEquals(1, prompts.get());
+        cache.clear();
+        cache.unlock(callback, host, container);
+        assertEquals(2, prompts.get());
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        final UserKeyPairContainer container = TripleCryptConverter.toSwaggerUserKeyPairContainer(Crypto.generateUserKeyPair("s3cr3t"));
+        final Host host = new Host(new SDSProtocol(), "localhost", new Credentials("u"));
+        final AtomicInteger prompts = new AtomicInteger();
+        final DisabledPasswordCallback callback = new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) {
+                prompts.incrementAndGet();
+                return new Credentials().withPassword("s3cr3t");
+            }
+        };
+        final TripleCryptKeyPairCache cache = new TripleCryptKeyPairCache(-1L);
+        cache.unlock(callback, host, container);
+        cache.unlock(callback, host, container);
+        assertEquals(2, prompts.get());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final UserKeyPairContainer container = TripleCryptConverter.toSwaggerUserKeyPairContainer(Crypto.generateUserKeyPair("s3cr3t"));
+        final Host host = new Host(new SDSProtocol(), "localhost", new Credentials("u"));
+        final DisabledPasswordCallback callback = new DisabledPasswordCallback() {
+            @Override
+            public Credentials prompt(final Host bookmark, final String title, final String reason, final LoginOptions options) {
+                return new Credentials().withPassword("s3cr3t");
+            }
+        };
+        final TripleCryptKeyPairCache cache = new TripleCryptKeyPairCache(60000L);
+        final TripleCryptKeyPairCache.UnlockedPrivateKey unlocked = cache.unlock(callback, host, container);
+        final char[] passphrase = unlocked.getPassphrase();
+        unlocked.close();
+        assertArrayEquals(new char[6], passphrase);
+        // Cached passphrase not affected
+        assertEquals("s3cr3t", String.valueOf(cache.unlock(callback, host, container).getPassphrase()));
+    }
+}
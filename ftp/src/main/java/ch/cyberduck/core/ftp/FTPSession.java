@@ -95,6 +95,19 @@ public class FTPSession extends SSLSession<FTPClient> {
         return false;
     }
 
+    @Override
+    public boolean alive() throws BackgroundException {
+        if(!this.isConnected()) {
+            return false;
+        }
+        try {
+            return client.sendNoOp();
+        }
+        catch(IOException e) {
+            throw new FTPExceptionMappingService().map(e);
+        }
+    }
+
     @Override
     protected void logout() throws BackgroundException {
         try {
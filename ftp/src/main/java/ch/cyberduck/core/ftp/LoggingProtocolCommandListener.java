@@ -35,6 +35,9 @@ public class LoggingProtocolCommandListener implements ProtocolCommandListener,
 
     @Override
     public void protocolCommandSent(final ProtocolCommandEvent event) {
+        if(!this.isEnabled()) {
+            return;
+        }
         final String message = StringUtils.chomp(event.getMessage());
         if(message.startsWith(FTPCmd.PASS.name())) {
             this.log(Type.request, String.format("%s %s", FTPCmd.PASS.name(),
@@ -47,6 +50,9 @@ public class LoggingProtocolCommandListener implements ProtocolCommandListener,
 
     @Override
     public void protocolReplyReceived(final ProtocolCommandEvent event) {
+        if(!this.isEnabled()) {
+            return;
+        }
         this.log(Type.response, StringUtils.chomp(event.getMessage()));
     }
 
@@ -54,4 +60,9 @@ public class LoggingProtocolCommandListener implements ProtocolCommandListener,
     public void log(final Type request, final String event) {
         transcript.log(request, event);
     }
+
+    @Override
+    public boolean isEnabled() {
+        return transcript.isEnabled();
+    }
 }
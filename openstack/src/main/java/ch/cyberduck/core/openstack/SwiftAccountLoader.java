@@ -19,20 +19,22 @@ import ch.cyberduck.core.DefaultIOExceptionMappingService;
 import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.shared.OneTimeSchedulerFeature;
+import ch.cyberduck.core.shared.ConcurrentPreloaderFeature;
 
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.EnumSet;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import ch.iterate.openstack.swift.exception.GenericException;
 import ch.iterate.openstack.swift.model.AccountInfo;
 import ch.iterate.openstack.swift.model.Region;
 
-public class SwiftAccountLoader extends OneTimeSchedulerFeature<Map<Region, AccountInfo>> {
+/**
+ * Preload account information of all regions concurrently
+ */
+public class SwiftAccountLoader extends ConcurrentPreloaderFeature<Region, AccountInfo> {
     private static final Logger log = Logger.getLogger(SwiftAccountLoader.class);
 
     private final SwiftSession session;
@@ -43,17 +45,18 @@ public class SwiftAccountLoader extends OneTimeSchedulerFeature<Map<Region, Acco
     }
 
     @Override
-    protected Map<Region, AccountInfo> operate(final PasswordCallback callback, final Path file) throws BackgroundException {
+    protected Collection<Region> keys(final PasswordCallback callback, final Path file) {
+        return session.getClient().getRegions();
+    }
+
+    @Override
+    protected AccountInfo load(final Region region) throws BackgroundException {
         try {
-            final Map<Region, AccountInfo> accounts = new ConcurrentHashMap<>();
-            for(Region region : session.getClient().getRegions()) {
-                final AccountInfo info = session.getClient().getAccountInfo(region);
-                if(log.isInfoEnabled()) {
-                    log.info(String.format("Signing key is %s", info.getTempUrlKey()));
-                }
-                accounts.put(region, info);
+            final AccountInfo info = session.getClient().getAccountInfo(region);
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Signing key is %s", info.getTempUrlKey()));
             }
-            return accounts;
+            return info;
         }
         catch(GenericException e) {
             throw new SwiftExceptionMappingService().map(e);
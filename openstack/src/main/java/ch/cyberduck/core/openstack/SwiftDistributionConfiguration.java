@@ -35,6 +35,7 @@ import ch.cyberduck.core.cdn.features.Purge;
 import ch.cyberduck.core.exception.BackgroundException;
 import ch.cyberduck.core.identity.DefaultCredentialsIdentityConfiguration;
 import ch.cyberduck.core.identity.IdentityConfiguration;
+import ch.cyberduck.core.shared.PreloaderCache;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -60,15 +61,25 @@ public class SwiftDistributionConfiguration implements DistributionConfiguration
     private final SwiftSession session;
     private final Map<Path, Distribution> distributions;
     private final SwiftRegionService regionService;
+    /**
+     * Containers remembered without distribution by preloader or null
+     */
+    private final PreloaderCache cache;
 
     public SwiftDistributionConfiguration(final SwiftSession session, final Map<Path, Distribution> distributions) {
         this(session, distributions, new SwiftRegionService(session));
     }
 
     public SwiftDistributionConfiguration(final SwiftSession session, final Map<Path, Distribution> distributions, final SwiftRegionService regionService) {
+        this(session, distributions, regionService, null);
+    }
+
+    public SwiftDistributionConfiguration(final SwiftSession session, final Map<Path, Distribution> distributions, final SwiftRegionService regionService,
+                                          final PreloaderCache cache) {
         this.session = session;
         this.distributions = distributions;
         this.regionService = regionService;
+        this.cache = cache;
     }
 
     @Override
@@ -99,6 +110,11 @@ public class SwiftDistributionConfiguration implements DistributionConfiguration
             }
             session.getClient().cdnUpdateContainer(regionService.lookup(container),
                     container.getName(), -1, configuration.isEnabled(), configuration.isLogging());
+            if(null != cache) {
+                // Preload configuration on next login
+                cache.remove(container.getAbsolute());
+                cache.save();
+            }
         }
         catch(GenericException e) {
             throw new SwiftExceptionMappingService().map("Cannot write CDN configuration", e);
@@ -15,7 +15,6 @@ package ch.cyberduck.core.openstack;
  * GNU General Public License for more details.
  */
 
-import ch.cyberduck.core.AttributedList;
 import ch.cyberduck.core.DisabledListProgressListener;
 import ch.cyberduck.core.DisabledLoginCallback;
 import ch.cyberduck.core.PasswordCallback;
@@ -23,45 +22,65 @@ import ch.cyberduck.core.Path;
 import ch.cyberduck.core.cdn.Distribution;
 import ch.cyberduck.core.cdn.DistributionConfiguration;
 import ch.cyberduck.core.exception.BackgroundException;
-import ch.cyberduck.core.shared.OneTimeSchedulerFeature;
+import ch.cyberduck.core.shared.ConcurrentPreloaderFeature;
+import ch.cyberduck.core.shared.PreloaderCache;
 
 import org.apache.log4j.Logger;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Preload CDN configuration
+ * Preload enabled CDN configuration of all containers concurrently
  */
-public class SwiftDistributionConfigurationLoader extends OneTimeSchedulerFeature<Map<Path, Distribution>> {
+public class SwiftDistributionConfigurationLoader extends ConcurrentPreloaderFeature<Path, Distribution> {
     private static final Logger log = Logger.getLogger(SwiftDistributionConfigurationLoader.class);
 
+    /**
+     * Name of cache for containers without distribution invalidated when configuration is written
+     */
+    public static final String CACHE = "distributions-swift";
+
     private final SwiftSession session;
 
+    private DistributionConfiguration feature;
+
     public SwiftDistributionConfigurationLoader(final SwiftSession session) {
-        super(new Path(String.valueOf(Path.DELIMITER), EnumSet.of(Path.Type.volume, Path.Type.directory)));
+        this(session, null);
+    }
+
+    public SwiftDistributionConfigurationLoader(final SwiftSession session, final PreloaderCache cache) {
+        super(new Path(String.valueOf(Path.DELIMITER), EnumSet.of(Path.Type.volume, Path.Type.directory)), cache);
         this.session = session;
     }
 
     @Override
-    protected Map<Path, Distribution> operate(final PasswordCallback callback, final Path file) throws BackgroundException {
-        final DistributionConfiguration feature = session.getFeature(DistributionConfiguration.class);
+    protected Collection<Path> keys(final PasswordCallback callback, final Path file) throws BackgroundException {
+        feature = session.getFeature(DistributionConfiguration.class);
         if(null == feature) {
-            return Collections.emptyMap();
+            return Collections.emptyList();
         }
-        final AttributedList<Path> containers = new SwiftContainerListService(session, new SwiftLocationFeature.SwiftRegion(session.getHost().getRegion())).list(file, new DisabledListProgressListener());
-        final Map<Path, Distribution> distributions = new ConcurrentHashMap<>();
-        for(Path container : containers) {
-            for(Distribution.Method method : feature.getMethods(container)) {
-                final Distribution distribution = feature.read(container, method, new DisabledLoginCallback());
+        return new SwiftContainerListService(session, new SwiftLocationFeature.SwiftRegion(session.getHost().getRegion())).list(file, new DisabledListProgressListener()).toList();
+    }
+
+    @Override
+    protected Distribution load(final Path container) throws BackgroundException {
+        Distribution enabled = null;
+        for(Distribution.Method method : feature.getMethods(container)) {
+            final Distribution distribution = feature.read(container, method, new DisabledLoginCallback());
+            if(distribution.isEnabled()) {
                 if(log.isInfoEnabled()) {
                     log.info(String.format("Cache distribution %s", distribution));
                 }
-                distributions.put(container, distribution);
+                enabled = distribution;
             }
         }
-        return distributions;
+        return enabled;
+    }
+
+    @Override
+    protected String identifier(final Path container) {
+        return container.getAbsolute();
     }
 }
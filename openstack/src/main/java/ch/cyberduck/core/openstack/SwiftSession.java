@@ -23,7 +23,6 @@ import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LoginCallback;
-import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.UrlProvider;
 import ch.cyberduck.core.analytics.AnalyticsProvider;
@@ -38,6 +37,7 @@ import ch.cyberduck.core.features.*;
 import ch.cyberduck.core.http.HttpSession;
 import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.shared.DelegatingSchedulerFeature;
+import ch.cyberduck.core.shared.PreloaderCache;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
 import ch.cyberduck.core.ssl.ThreadLocalHostnameDelegatingTrustManager;
@@ -49,10 +49,10 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.log4j.Logger;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import ch.iterate.openstack.swift.Client;
 import ch.iterate.openstack.swift.exception.GenericException;
@@ -66,8 +66,8 @@ public class SwiftSession extends HttpSession<Client> {
     private final SwiftRegionService regionService
         = new SwiftRegionService(this);
 
-    private Map<Region, AccountInfo> accounts = Collections.emptyMap();
-    private Map<Path, Distribution> distributions = Collections.emptyMap();
+    private final Map<Region, AccountInfo> accounts = new ConcurrentHashMap<>();
+    private final Map<Path, Distribution> distributions = new ConcurrentHashMap<>();
 
 
     public SwiftSession(final Host host) {
@@ -185,7 +185,8 @@ public class SwiftSession extends HttpSession<Client> {
                     return null;
                 }
             }
-            return (T) new SwiftDistributionConfiguration(this, distributions, regionService);
+            return (T) new SwiftDistributionConfiguration(this, distributions, regionService,
+                new PreloaderCache(host, SwiftDistributionConfigurationLoader.CACHE));
         }
         if(type == UrlProvider.class) {
             return (T) new SwiftUrlProvider(this, accounts, regionService);
@@ -203,14 +204,14 @@ public class SwiftSession extends HttpSession<Client> {
             return (T) new DelegatingSchedulerFeature(
                 new SwiftAccountLoader(this) {
                     @Override
-                    public Map<Region, AccountInfo> operate(final PasswordCallback callback, final Path container) throws BackgroundException {
-                        return accounts = super.operate(callback, container);
+                    protected void publish(final Region region, final AccountInfo info) {
+                        accounts.put(region, info);
                     }
                 },
-                new SwiftDistributionConfigurationLoader(this) {
+                new SwiftDistributionConfigurationLoader(this, new PreloaderCache(host, SwiftDistributionConfigurationLoader.CACHE)) {
                     @Override
-                    public Map<Path, Distribution> operate(final PasswordCallback callback, final Path container) throws BackgroundException {
-                        return distributions = super.operate(callback, container);
+                    protected void publish(final Path container, final Distribution distribution) {
+                        distributions.put(container, distribution);
                     }
                 });
         }
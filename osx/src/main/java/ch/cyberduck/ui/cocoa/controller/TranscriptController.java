@@ -80,6 +80,11 @@ public abstract class TranscriptController extends BundleController implements T
 
     public abstract boolean isOpen();
 
+    @Override
+    public boolean isEnabled() {
+        return this.isOpen();
+    }
+
     @Override
     public void log(final Type request, final String transcript) {
         if(this.isOpen()) {
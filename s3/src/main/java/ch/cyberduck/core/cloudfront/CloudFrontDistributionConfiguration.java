@@ -45,6 +45,7 @@ import ch.cyberduck.core.s3.S3BucketListService;
 import ch.cyberduck.core.s3.S3LocationFeature;
 import ch.cyberduck.core.s3.S3Protocol;
 import ch.cyberduck.core.s3.S3Session;
+import ch.cyberduck.core.shared.PreloaderCache;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -84,11 +85,21 @@ public class CloudFrontDistributionConfiguration implements DistributionConfigur
     private final Location locationFeature;
 
     private final Map<Path, Distribution> distributions;
+    /**
+     * Containers remembered without distribution by preloader or null
+     */
+    private final PreloaderCache cache;
 
     public CloudFrontDistributionConfiguration(final S3Session session, final Map<Path, Distribution> distributions) {
+        this(session, distributions, null);
+    }
+
+    public CloudFrontDistributionConfiguration(final S3Session session, final Map<Path, Distribution> distributions,
+                                               final PreloaderCache cache) {
         this.session = session;
         this.bookmark = session.getHost();
         this.distributions = distributions;
+        this.cache = cache;
         final int timeout = preferences.getInteger("connection.timeout.seconds") * 1000;
         configuration = new ClientConfiguration();
         configuration.setConnectionTimeout(timeout);
@@ -278,6 +289,11 @@ public class CloudFrontDistributionConfiguration implements DistributionConfigur
                 return null;
             }
         }, prompt);
+        if(null != cache) {
+            // Preload configuration on next login
+            cache.remove(container.getAbsolute());
+            cache.save();
+        }
     }
 
     @Override
@@ -33,6 +33,7 @@ import ch.cyberduck.core.s3.S3BucketListService;
 import ch.cyberduck.core.s3.S3ExceptionMappingService;
 import ch.cyberduck.core.s3.S3LocationFeature;
 import ch.cyberduck.core.s3.S3Session;
+import ch.cyberduck.core.shared.PreloaderCache;
 import ch.cyberduck.core.ssl.X509KeyManager;
 import ch.cyberduck.core.ssl.X509TrustManager;
 
@@ -61,6 +62,11 @@ public class WebsiteCloudFrontDistributionConfiguration extends CloudFrontDistri
         super(session, distributions);
     }
 
+    public WebsiteCloudFrontDistributionConfiguration(final S3Session session, final Map<Path, Distribution> distributions, final X509TrustManager trust, final X509KeyManager key,
+                                                      final PreloaderCache cache) {
+        super(session, distributions, cache);
+    }
+
     /**
      * Distribution methods supported by this S3 provider.
      *
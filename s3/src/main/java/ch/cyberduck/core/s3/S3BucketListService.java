@@ -28,7 +28,11 @@ import ch.cyberduck.core.PathContainerService;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.RootListService;
 import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
 import ch.cyberduck.core.features.Location;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
@@ -36,8 +40,13 @@ import org.jets3t.service.ServiceException;
 import org.jets3t.service.model.StorageBucket;
 import org.jets3t.service.utils.ServiceUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 
 public class S3BucketListService implements RootListService {
     private static final Logger log = Logger.getLogger(S3BucketListService.class);
@@ -48,14 +57,23 @@ public class S3BucketListService implements RootListService {
             = new S3PathContainerService();
 
     private final S3LocationFeature.S3Region region;
+    /**
+     * Regions of buckets determined previously
+     */
+    private final S3BucketRegionCache regions;
 
     public S3BucketListService(final S3Session session) {
         this(session, new S3LocationFeature.S3Region(null));
     }
 
     public S3BucketListService(final S3Session session, final S3LocationFeature.S3Region region) {
+        this(session, region, new S3BucketRegionCache(session.getHost()));
+    }
+
+    public S3BucketListService(final S3Session session, final S3LocationFeature.S3Region region, final S3BucketRegionCache regions) {
         this.session = session;
         this.region = region;
+        this.regions = regions;
     }
 
     @Override
@@ -103,6 +121,8 @@ public class S3BucketListService implements RootListService {
                 }
                 else {
                     final AttributedList<Path> buckets = new AttributedList<Path>();
+                    // Buckets with location to be determined
+                    final List<Path> unknown = new ArrayList<>();
                     // List all buckets owned
                     for(StorageBucket b : session.getClient().listAllBuckets()) {
                         final Path bucket = new Path(PathNormalizer.normalize(b.getName()), EnumSet.of(Path.Type.volume, Path.Type.directory));
@@ -111,25 +131,25 @@ public class S3BucketListService implements RootListService {
                             bucket.attributes().setOwner(b.getOwner().getId());
                         }
                         bucket.attributes().setCreationDate(b.getCreationDate().getTime());
-                        if(b.isLocationKnown()) {
-                            bucket.attributes().setRegion(b.getLocation());
+                        final String location = b.isLocationKnown() ? b.getLocation() : regions.get(bucket.getName());
+                        if(location != null) {
+                            bucket.attributes().setRegion(location);
                         }
                         if(region.getIdentifier() != null) {
-                            final String location;
-                            if(!b.isLocationKnown()) {
-                                location = session.getFeature(Location.class).getLocation(bucket).getIdentifier();
-                            }
-                            else {
-                                location = b.getLocation();
+                            if(null == location) {
+                                unknown.add(bucket);
+                                continue;
                             }
                             if(!StringUtils.equals(location, region.getIdentifier())) {
                                 log.warn(String.format("Skip bucket %s in region %s", bucket, location));
                                 continue;
                             }
-                            bucket.attributes().setRegion(location);
                         }
                         buckets.add(bucket);
-                        listener.chunk(directory, buckets);
+                    }
+                    listener.chunk(directory, buckets);
+                    if(!unknown.isEmpty()) {
+                        this.locate(directory, unknown, buckets, listener);
                     }
                     return buckets;
                 }
@@ -140,6 +160,53 @@ public class S3BucketListService implements RootListService {
         }
     }
 
+    /**
+     * Determine location of buckets concurrently and add buckets in region to list as results are available
+     */
+    private void locate(final Path directory, final List<Path> unknown, final AttributedList<Path> buckets,
+                        final ListProgressListener listener) throws BackgroundException {
+        final Location feature = session.getFeature(Location.class);
+        final ThreadPool pool = ThreadPoolFactory.get("location",
+            Math.min(unknown.size(), PreferencesFactory.get().getInteger("s3.location.concurrency")));
+        try {
+            final CompletionService<Path> completion = new ExecutorCompletionService<>(pool.executor());
+            for(Path bucket : unknown) {
+                completion.submit(() -> {
+                    bucket.attributes().setRegion(feature.getLocation(bucket).getIdentifier());
+                    return bucket;
+                });
+            }
+            for(int i = 0; i < unknown.size(); i++) {
+                final Path bucket;
+                try {
+                    bucket = completion.take().get();
+                }
+                catch(InterruptedException e) {
+                    throw new ConnectionCanceledException(e);
+                }
+                catch(ExecutionException e) {
+                    if(e.getCause() instanceof BackgroundException) {
+                        throw (BackgroundException) e.getCause();
+                    }
+                    throw new BackgroundException(e.getCause());
+                }
+                final String location = bucket.attributes().getRegion();
+                regions.put(bucket.getName(), location);
+                if(!StringUtils.equals(location, region.getIdentifier())) {
+                    log.warn(String.format("Skip bucket %s in region %s", bucket, location));
+                    continue;
+                }
+                buckets.add(bucket);
+                listener.chunk(directory, buckets);
+            }
+        }
+        finally {
+            // Cancel pending lookups on failure
+            pool.shutdown(false);
+            regions.save();
+        }
+    }
+
     @Override
     public ListService withCache(final Cache<Path> cache) {
         return this;
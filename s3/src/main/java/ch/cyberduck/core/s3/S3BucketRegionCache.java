@@ -0,0 +1,74 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ExpiringPropertiesStore;
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Persistent cache of bucket regions per account. Entries expire after a configurable time to notice buckets
+ * recreated in another region.
+ */
+public class S3BucketRegionCache {
+
+    private final ExpiringPropertiesStore store;
+
+    public S3BucketRegionCache(final Host host) {
+        this(ExpiringPropertiesStore.toFile("Regions", host, StringUtils.EMPTY),
+            TimeUnit.SECONDS.toMillis(PreferencesFactory.get().getLong("s3.location.cache.ttl.seconds")), System::currentTimeMillis);
+    }
+
+    public S3BucketRegionCache(final Local file, final long ttl, final LongSupplier clock) {
+        this.store = new ExpiringPropertiesStore(file, ttl, clock, "Bucket regions");
+    }
+
+    /**
+     * @param bucket Bucket name
+     * @return Null if not cached or expired
+     */
+    public String get(final String bucket) {
+        final String region = store.get(bucket);
+        if(StringUtils.isBlank(region)) {
+            return null;
+        }
+        return region;
+    }
+
+    /**
+     * @param bucket Bucket name
+     * @param region Region identifier
+     */
+    public void put(final String bucket, final String region) {
+        if(StringUtils.isBlank(region)) {
+            return;
+        }
+        store.put(bucket, region);
+    }
+
+    /**
+     * Write to disk if modified
+     */
+    public void save() {
+        store.save();
+    }
+}
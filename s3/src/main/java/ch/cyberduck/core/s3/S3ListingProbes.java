@@ -0,0 +1,161 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+
+import org.jets3t.service.ServiceException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Listing with entries resolved concurrently such as folders requiring additional requests. Resolved entries are
+ * inserted at their position in listing order regardless of completion order.
+ */
+public class S3ListingProbes {
+
+    private final AttributedList<Path> children;
+    private final int concurrency;
+
+    /**
+     * Listing order of entries in children
+     */
+    private final List<Long> positions = new ArrayList<>();
+    /**
+     * Listing order of entries not yet resolved
+     */
+    private final Map<Future<Path>, Long> pending = new HashMap<>();
+
+    private long sequence;
+
+    private ThreadPool pool;
+    private CompletionService<Path> completion;
+
+    /**
+     * @param children    Listing to add entries to
+     * @param concurrency Number of entries resolved concurrently
+     */
+    public S3ListingProbes(final AttributedList<Path> children, final int concurrency) {
+        this.children = children;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param file Entry with all attributes known
+     */
+    public void add(final Path file) {
+        this.insert(sequence++, file);
+    }
+
+    /**
+     * @param probe Request to determine attributes of entry
+     */
+    public void probe(final Callable<Path> probe) {
+        if(null == pool) {
+            pool = ThreadPoolFactory.get("versioning", concurrency);
+            completion = new ExecutorCompletionService<>(pool.executor());
+        }
+        pending.put(completion.submit(probe), sequence++);
+    }
+
+    /**
+     * Add entries resolved so far without waiting
+     *
+     * @return True if any entry was added
+     */
+    public boolean poll() throws BackgroundException {
+        if(pending.isEmpty()) {
+            return false;
+        }
+        boolean added = false;
+        for(Future<Path> future = completion.poll(); future != null; future = completion.poll()) {
+            this.insert(pending.remove(future), this.get(future));
+            added = true;
+        }
+        return added;
+    }
+
+    /**
+     * Wait for at least one entry to be resolved and add all entries resolved
+     *
+     * @return False if no entries are pending
+     */
+    public boolean take() throws BackgroundException {
+        if(pending.isEmpty()) {
+            return false;
+        }
+        try {
+            final Future<Path> future = completion.take();
+            this.insert(pending.remove(future), this.get(future));
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        this.poll();
+        return true;
+    }
+
+    /**
+     * @return Number of entries not yet resolved
+     */
+    public int getPending() {
+        return pending.size();
+    }
+
+    public void shutdown() {
+        if(pool != null) {
+            pool.shutdown(false);
+        }
+    }
+
+    private void insert(final long position, final Path file) {
+        final int index = -Collections.binarySearch(positions, position) - 1;
+        positions.add(index, position);
+        children.add(index, file);
+    }
+
+    private Path get(final Future<Path> future) throws BackgroundException {
+        try {
+            return future.get();
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof ServiceException) {
+                throw new S3ExceptionMappingService().map((ServiceException) e.getCause());
+            }
+            if(e.getCause() instanceof BackgroundException) {
+                throw (BackgroundException) e.getCause();
+            }
+            throw new BackgroundException(e.getCause());
+        }
+    }
+}
@@ -26,7 +26,6 @@ import ch.cyberduck.core.Host;
 import ch.cyberduck.core.HostKeyCallback;
 import ch.cyberduck.core.ListService;
 import ch.cyberduck.core.LoginCallback;
-import ch.cyberduck.core.PasswordCallback;
 import ch.cyberduck.core.Path;
 import ch.cyberduck.core.PathNormalizer;
 import ch.cyberduck.core.Scheme;
@@ -55,6 +54,7 @@ import ch.cyberduck.core.preferences.Preferences;
 import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.proxy.Proxy;
 import ch.cyberduck.core.shared.DelegatingSchedulerFeature;
+import ch.cyberduck.core.shared.PreloaderCache;
 import ch.cyberduck.core.shared.DisabledBulkFeature;
 import ch.cyberduck.core.ssl.DefaultX509KeyManager;
 import ch.cyberduck.core.ssl.DisabledX509TrustManager;
@@ -75,8 +75,8 @@ import org.jets3t.service.security.AWSCredentials;
 import org.jets3t.service.security.AWSSessionCredentials;
 import org.jets3t.service.security.ProviderCredentials;
 
-import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class S3Session extends HttpSession<RequestEntityRestStorageService> {
     private static final Logger log = Logger.getLogger(S3Session.class);
@@ -87,7 +87,7 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
     private Versioning versioning
         = new S3VersioningFeature(this, new S3AccessControlListFeature(this));
 
-    private Map<Path, Distribution> distributions = Collections.emptyMap();
+    private final Map<Path, Distribution> distributions = new ConcurrentHashMap<>();
 
     private S3Protocol.AuthenticationHeaderSignatureVersion authenticationHeaderSignatureVersion
         = S3Protocol.AuthenticationHeaderSignatureVersion.getDefault(host.getProtocol());
@@ -347,7 +347,8 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
             return null;
         }
         if(type == DistributionConfiguration.class) {
-            return (T) new WebsiteCloudFrontDistributionConfiguration(this, distributions, trust, key);
+            return (T) new WebsiteCloudFrontDistributionConfiguration(this, distributions, trust, key,
+                new PreloaderCache(host, CloudFrontDistributionConfigurationPreloader.CACHE));
         }
         if(type == UrlProvider.class) {
             return (T) new S3UrlProvider(this);
@@ -383,10 +384,10 @@ public class S3Session extends HttpSession<RequestEntityRestStorageService> {
         }
         if(type == Scheduler.class) {
             return (T) new DelegatingSchedulerFeature(
-                new CloudFrontDistributionConfigurationPreloader(this) {
+                new CloudFrontDistributionConfigurationPreloader(this, new PreloaderCache(host, CloudFrontDistributionConfigurationPreloader.CACHE)) {
                     @Override
-                    public Map<Path, Distribution> operate(final PasswordCallback callback, final Path container) throws BackgroundException {
-                        return distributions = super.operate(callback, container);
+                    protected void publish(final Path container, final Distribution distribution) {
+                        distributions.put(container, distribution);
                     }
                 }
             );
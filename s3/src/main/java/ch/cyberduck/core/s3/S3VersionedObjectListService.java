@@ -66,6 +66,8 @@ public class S3VersionedObjectListService implements ListService {
         final VersioningConfiguration versioning = null != session.getFeature(Versioning.class) ? session.getFeature(Versioning.class).getConfiguration(bucket) :
             VersioningConfiguration.empty();
         final AttributedList<Path> children = new AttributedList<Path>();
+        // Folders with state not yet determined are added in listing order once resolved
+        final S3ListingProbes probes = new S3ListingProbes(children, preferences.getInteger("s3.listing.versioning.concurrency"));
         try {
             String priorLastKey = null;
             String priorLastVersionId = null;
@@ -113,7 +115,7 @@ public class S3VersionedObjectListService implements ListService {
                         }
                     }
                     final Path f = new Path(directory, PathNormalizer.name(key), EnumSet.of(Path.Type.file), attributes);
-                    children.add(f);
+                    probes.add(f);
                     lastKey = key;
                 }
                 final String[] prefixes = chunk.getCommonPrefixes();
@@ -128,42 +130,66 @@ public class S3VersionedObjectListService implements ListService {
                     }
                     final PathAttributes attributes = new PathAttributes();
                     attributes.setRegion(bucket.attributes().getRegion());
+                    final Path folder = new Path(String.format("%s%s", bucket.getAbsolute(), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
                     if(versioning.isEnabled()) {
-                        final VersionOrDeleteMarkersChunk versions = session.getClient().listVersionedObjectsChunked(
-                            bucket.getName(), common, String.valueOf(Path.DELIMITER), 1,
-                            null, null, false);
-                        if(versions.getItems().length == 1) {
-                            final BaseVersionOrDeleteMarker version = versions.getItems()[0];
-                            if(version.getKey().equals(common)) {
-                                attributes.setVersionId(version.getVersionId());
-                                if(version.isDeleteMarker()) {
-                                    attributes.setCustom(ImmutableMap.of(KEY_DELETE_MARKER, Boolean.TRUE.toString()));
-                                    attributes.setDuplicate(true);
-                                }
-                            }
-                            else {
-                                // no placeholder but objects inside - need to check if all of them are deleted
-                                final StorageObjectsChunk unversioned = session.getClient().listObjectsChunked(bucket.getName(), common,
-                                    StringUtils.EMPTY, 1, null, false);
-                                if(unversioned.getObjects().length == 0) {
-                                    attributes.setDuplicate(true);
-                                }
-                            }
-                        }
+                        // Determine placeholder and delete marker state concurrently with listing further pages
+                        probes.probe(() -> this.probe(bucket, common, folder));
+                    }
+                    else {
+                        probes.add(folder);
                     }
-                    final Path file = new Path(String.format("%s%s", bucket.getAbsolute(), key), EnumSet.of(Path.Type.directory, Path.Type.placeholder), attributes);
-                    children.add(file);
                 }
+                // Add folders resolved so far
+                probes.poll();
                 priorLastKey = chunk.getNextKeyMarker();
                 priorLastVersionId = chunk.getNextVersionIdMarker();
                 listener.chunk(directory, children);
             }
             while(priorLastKey != null);
+            // Notify for folders as resolved
+            while(probes.take()) {
+                listener.chunk(directory, children);
+            }
             return children;
         }
         catch(ServiceException e) {
             throw new S3ExceptionMappingService().map("Listing directory {0} failed", e, directory);
         }
+        finally {
+            probes.shutdown();
+        }
+    }
+
+    /**
+     * Set version and delete marker of placeholder or determine if all objects in prefix are deleted
+     *
+     * @param common Common prefix
+     * @param folder Directory with attributes to update
+     */
+    private Path probe(final Path bucket, final String common, final Path folder) throws ServiceException {
+        final PathAttributes attributes = folder.attributes();
+        final VersionOrDeleteMarkersChunk versions = session.getClient().listVersionedObjectsChunked(
+            bucket.getName(), common, String.valueOf(Path.DELIMITER), 1,
+            null, null, false);
+        if(versions.getItems().length == 1) {
+            final BaseVersionOrDeleteMarker version = versions.getItems()[0];
+            if(version.getKey().equals(common)) {
+                attributes.setVersionId(version.getVersionId());
+                if(version.isDeleteMarker()) {
+                    attributes.setCustom(ImmutableMap.of(KEY_DELETE_MARKER, Boolean.TRUE.toString()));
+                    attributes.setDuplicate(true);
+                }
+            }
+            else {
+                // no placeholder but objects inside - need to check if all of them are deleted
+                final StorageObjectsChunk unversioned = session.getClient().listObjectsChunked(bucket.getName(), common,
+                    StringUtils.EMPTY, 1, null, false);
+                if(unversioned.getObjects().length == 0) {
+                    attributes.setDuplicate(true);
+                }
+            }
+        }
+        return folder;
     }
 
     @Override
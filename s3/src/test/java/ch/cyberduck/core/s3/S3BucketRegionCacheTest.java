@@ -0,0 +1,57 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Local;
+
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class S3BucketRegionCacheTest {
+
+    @Test
+    public void testPersist() throws Exception {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final AtomicLong clock = new AtomicLong(1000L);
+        final S3BucketRegionCache cache = new S3BucketRegionCache(file, 100L, clock::get);
+        assertNull(cache.get("b"));
+        cache.put("b", "eu-central-1");
+        // Unknown location not cached
+        cache.put("u", null);
+        cache.save();
+        final S3BucketRegionCache reloaded = new S3BucketRegionCache(file, 100L, clock::get);
+        assertEquals("eu-central-1", reloaded.get("b"));
+        assertNull(reloaded.get("u"));
+        file.delete();
+    }
+
+    @Test
+    public void testExpire() {
+        final Local file = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final AtomicLong clock = new AtomicLong(1000L);
+        final S3BucketRegionCache cache = new S3BucketRegionCache(file, 100L, clock::get);
+        cache.put("b", "us-west-2");
+        clock.addAndGet(100L);
+        assertEquals("us-west-2", cache.get("b"));
+        clock.addAndGet(1L);
+        assertNull(cache.get("b"));
+    }
+}
@@ -0,0 +1,86 @@
+package ch.cyberduck.core.s3;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.AttributedList;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+
+import org.jets3t.service.ServiceException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class S3ListingProbesTest {
+
+    @Test
+    public void testListingOrder() throws Exception {
+        final Path directory = new Path("/b", EnumSet.of(Path.Type.directory, Path.Type.volume));
+        final Path a = new Path(directory, "a", EnumSet.of(Path.Type.directory));
+        final Path b = new Path(directory, "b", EnumSet.of(Path.Type.file));
+        final Path c = new Path(directory, "c", EnumSet.of(Path.Type.directory));
+        final Path d = new Path(directory, "d", EnumSet.of(Path.Type.file));
+        final AttributedList<Path> children = new AttributedList<>();
+        final S3ListingProbes probes = new S3ListingProbes(children, 2);
+        final CountDownLatch first = new CountDownLatch(1);
+        final CountDownLatch second = new CountDownLatch(1);
+        try {
+            probes.probe(() -> {
+                first.await();
+                return a;
+            });
+            probes.add(b);
+            probes.probe(() -> {
+                second.await();
+                return c;
+            });
+            probes.add(d);
+            assertFalse(probes.poll());
+            assertEquals(Arrays.asList(b, d), children.toList());
+            assertEquals(2, probes.getPending());
+            // Complete in reverse order
+            second.countDown();
+            assertTrue(probes.take());
+            assertEquals(Arrays.asList(b, c, d), children.toList());
+            first.countDown();
+            assertTrue(probes.take());
+            assertEquals(Arrays.asList(a, b, c, d), children.toList());
+            assertFalse(probes.take());
+            assertEquals(0, probes.getPending());
+        }
+        finally {
+            probes.shutdown();
+        }
+    }
+
+    @Test(expected = BackgroundException.class)
+    public void testFailure() throws Exception {
+        final S3ListingProbes probes = new S3ListingProbes(new AttributedList<>(), 1);
+        try {
+            probes.probe(() -> {
+                throw new ServiceException("f");
+            });
+            probes.take();
+        }
+        finally {
+            probes.shutdown();
+        }
+    }
+}
@@ -28,7 +28,6 @@ import ch.cyberduck.core.exception.RetriableAccessDeniedException;
 import ch.cyberduck.core.features.Bulk;
 import ch.cyberduck.core.features.Delete;
 import ch.cyberduck.core.http.HttpResponseExceptionMappingService;
-import ch.cyberduck.core.preferences.PreferencesFactory;
 import ch.cyberduck.core.s3.RequestEntityRestStorageService;
 import ch.cyberduck.core.s3.S3ExceptionMappingService;
 import ch.cyberduck.core.s3.S3PathContainerService;
@@ -102,7 +101,20 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
 
     @Override
     public void post(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
-        //
+        for(TransferStatus status : files.values()) {
+            final String job = status.getParameters().get(REQUEST_PARAMETER_JOBID_IDENTIFIER);
+            if(job != null) {
+                SpectraChunkTrackerRegistry.global().remove(UUID.fromString(job));
+            }
+        }
+    }
+
+    /**
+     * @param job Bulk job identifier returned from {@link #pre(Transfer.Type, Map, ConnectionCallback)}
+     * @return Progress of chunks in job or null if job is not active
+     */
+    public SpectraChunkTracker getProgress(final UUID job) {
+        return SpectraChunkTrackerRegistry.global().find(job);
     }
 
     /**
@@ -118,6 +130,8 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
     public Set<UUID> pre(final Transfer.Type type, final Map<TransferItem, TransferStatus> files, final ConnectionCallback callback) throws BackgroundException {
         final Ds3Client client = new SpectraClientBuilder().wrap(session.getClient(), session.getHost());
         final Map<Path, List<Ds3Object>> objects = new HashMap<Path, List<Ds3Object>>();
+        // Existing files to delete before upload
+        final List<Path> existing = new ArrayList<>();
         for(Map.Entry<TransferItem, TransferStatus> item : files.entrySet()) {
             final Path file = item.getKey().remote;
             final Path container = containerService.getContainer(file);
@@ -130,7 +144,7 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
                     case upload:
                         if(status.isExists()) {
                             log.warn(String.format("Delete existing file %s", file));
-                            delete.delete(Collections.singletonList(file), callback, new Delete.DisabledCallback());
+                            existing.add(file);
                         }
                         break;
                 }
@@ -147,6 +161,10 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
                 }
             }
         }
+        if(!existing.isEmpty()) {
+            // Single multiple object delete request per container
+            delete.delete(existing, callback, new Delete.DisabledCallback());
+        }
         try {
             final Set<UUID> jobs = new HashSet<UUID>();
             for(Map.Entry<Path, List<Ds3Object>> container : objects.entrySet()) {
@@ -167,6 +185,7 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
                         throw new NotfoundException(String.format("Unsupported transfer type %s", type));
                 }
                 jobs.add(master.getJobId());
+                SpectraChunkTrackerRegistry.global().create(master);
                 final Map<String, Integer> counters = this.getNumberOfObjects(master);
                 for(Map.Entry<TransferItem, TransferStatus> item : files.entrySet()) {
                     if(container.getKey().equals(containerService.getContainer(item.getKey().remote))) {
@@ -225,26 +244,29 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
             if(log.isDebugEnabled()) {
                 log.debug(String.format("Query status for job %s", job));
             }
-            // Fetch current list from server
+            // Fetch current list from server unless queried recently for another file in the same job
             final Ds3Client client = new SpectraClientBuilder().wrap(session.getClient(), session.getHost());
+            final SpectraChunkTracker tracker = SpectraChunkTrackerRegistry.global().get(UUID.fromString(job));
             // For GET, the client may need to issue multiple GET requests for a single object if it has
             // been broken up into multiple pieces due to its large size
             // For PUT, This will allocate a working window of job chunks, if possible, and return a list of
             // the job chunks that the client can upload. The client should PUT all of the object parts
             // from the list of job chunks returned and repeat this process until all chunks are transferred
-
-            final GetJobChunksReadyForClientProcessingSpectraS3Response response = client.getJobChunksReadyForClientProcessingSpectraS3(
-                new GetJobChunksReadyForClientProcessingSpectraS3Request(UUID.fromString(job)).withPreferredNumberOfChunks(Integer.MAX_VALUE));
-            if(log.isInfoEnabled()) {
-                log.info(String.format("Job status %s for job %s", response.getStatus(), job));
-            }
-            switch(response.getStatus()) {
-                case RETRYLATER: {
-                    final Duration delay = Duration.ofSeconds(response.getRetryAfterSeconds());
-                    throw new RetriableAccessDeniedException(String.format("Job %s not yet loaded into cache", job), delay);
+            final MasterObjectList master = tracker.poll(id -> {
+                final GetJobChunksReadyForClientProcessingSpectraS3Response response = client.getJobChunksReadyForClientProcessingSpectraS3(
+                    new GetJobChunksReadyForClientProcessingSpectraS3Request(id).withPreferredNumberOfChunks(Integer.MAX_VALUE));
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Job status %s for job %s", response.getStatus(), id));
+                }
+                switch(response.getStatus()) {
+                    case RETRYLATER:
+                        throw new SpectraChunkTracker.RetryLater(Duration.ofSeconds(response.getRetryAfterSeconds()));
                 }
+                return response.getMasterObjectListResult();
+            });
+            if(null == master) {
+                throw new RetriableAccessDeniedException(String.format("Job %s not yet loaded into cache", job), tracker.getDelay());
             }
-            final MasterObjectList master = response.getMasterObjectListResult();
             if(log.isInfoEnabled()) {
                 log.info(String.format("Master object list with %d objects for %s", master.getObjects().size(), file));
                 log.info(String.format("Master object list status %s for %s", master.getStatus(), file));
@@ -252,8 +274,8 @@ public class SpectraBulkService implements Bulk<Set<UUID>> {
             final List<TransferStatus> chunks = query(file, status, job, master);
             if(chunks.isEmpty()) {
                 log.info(String.format("Still missing chunks for file %s for job %s", file.getName(), job));
-                throw new RetriableAccessDeniedException(String.format("Missing chunks for job %s", job),
-                    Duration.ofSeconds(PreferencesFactory.get().getInteger("spectra.retry.delay")));
+                // Retry after next query of chunks ready for job
+                throw new RetriableAccessDeniedException(String.format("Missing chunks for job %s", job), tracker.getDelay());
             }
             if(log.isInfoEnabled()) {
                 log.info(String.format("Server returned %d chunks for %s", chunks.size(), file));
@@ -0,0 +1,193 @@
+package ch.cyberduck.core.spectra;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.spectralogic.ds3client.models.MasterObjectList;
+import com.spectralogic.ds3client.models.Objects;
+
+/**
+ * Chunks of a bulk job ready for client processing shared by all transfers of the job. The server is queried at most
+ * once per interval or after the delay requested by the server regardless of the number of files waiting for their
+ * chunks to be staged from tape.
+ */
+public class SpectraChunkTracker {
+    private static final Logger log = Logger.getLogger(SpectraChunkTracker.class);
+
+    public interface Query {
+        /**
+         * @param job Job identifier
+         * @return Chunks ready for client processing
+         * @throws RetryLater Server asks to retry after delay
+         */
+        MasterObjectList query(UUID job) throws IOException, RetryLater;
+    }
+
+    public static final class RetryLater extends Exception {
+        private final Duration delay;
+
+        public RetryLater(final Duration delay) {
+            this.delay = delay;
+        }
+
+        public Duration getDelay() {
+            return delay;
+        }
+    }
+
+    private final UUID job;
+    /**
+     * Minimum interval between queries in nanoseconds
+     */
+    private final long interval;
+    private final LongSupplier clock;
+
+    private MasterObjectList ready;
+    /**
+     * Earliest time of next query
+     */
+    private long next;
+    /**
+     * Query to server in progress
+     */
+    private boolean running;
+
+    private int total;
+    /**
+     * Chunks reported ready so far
+     */
+    private final Set<UUID> seen = new HashSet<>();
+    private long queries;
+
+    public SpectraChunkTracker(final UUID job, final Duration interval) {
+        this(job, interval, System::nanoTime);
+    }
+
+    public SpectraChunkTracker(final UUID job, final Duration interval, final LongSupplier clock) {
+        this.job = job;
+        this.interval = interval.toNanos();
+        this.clock = clock;
+        this.next = clock.getAsLong();
+    }
+
+    /**
+     * @param master Object list returned when creating job
+     */
+    public synchronized SpectraChunkTracker withTotal(final MasterObjectList master) {
+        total = master.getObjects().size();
+        return this;
+    }
+
+    /**
+     * Query server when due. Concurrent callers return the chunks last reported ready while a query is running
+     * without waiting for the response.
+     *
+     * @param query Request to server
+     * @return Chunks last reported ready or null if none reported yet
+     */
+    public MasterObjectList poll(final Query query) throws IOException {
+        final long now;
+        synchronized(this) {
+            now = clock.getAsLong();
+            if(running || now - next < 0) {
+                return ready;
+            }
+            running = true;
+            queries++;
+        }
+        try {
+            final MasterObjectList result = query.query(job);
+            synchronized(this) {
+                ready = result;
+                next = now + interval;
+                for(Objects chunk : result.getObjects()) {
+                    if(chunk.getChunkId() != null) {
+                        seen.add(chunk.getChunkId());
+                    }
+                }
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Job %s with %d of %d chunks ready", job, seen.size(), total));
+                }
+                return ready;
+            }
+        }
+        catch(RetryLater e) {
+            if(log.isInfoEnabled()) {
+                log.info(String.format("Retry query for job %s in %s", job, e.getDelay()));
+            }
+            synchronized(this) {
+                next = now + e.getDelay().toNanos();
+                return ready;
+            }
+        }
+        finally {
+            synchronized(this) {
+                running = false;
+            }
+        }
+    }
+
+    /**
+     * @return Time until server is queried again
+     */
+    public synchronized Duration getDelay() {
+        return Duration.ofNanos(Math.max(TimeUnit.SECONDS.toNanos(1L), next - clock.getAsLong()));
+    }
+
+    public UUID getJob() {
+        return job;
+    }
+
+    /**
+     * @return Number of chunks in job
+     */
+    public synchronized int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Number of chunks reported ready for client processing so far
+     */
+    public synchronized int getReady() {
+        return seen.size();
+    }
+
+    /**
+     * @return Number of requests to server
+     */
+    public synchronized long getQueries() {
+        return queries;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SpectraChunkTracker{");
+        sb.append("job=").append(job);
+        sb.append(", total=").append(total);
+        sb.append(", ready=").append(seen.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package ch.cyberduck.core.spectra;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.preferences.PreferencesFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.spectralogic.ds3client.models.MasterObjectList;
+
+/**
+ * Trackers for active bulk jobs by job identifier shared by all sessions transferring files of the job
+ */
+public final class SpectraChunkTrackerRegistry {
+
+    private static final class Global {
+        private static final SpectraChunkTrackerRegistry registry = new SpectraChunkTrackerRegistry(
+            Duration.ofSeconds(PreferencesFactory.get().getInteger("spectra.chunks.query.interval")));
+    }
+
+    /**
+     * @return Registry for process
+     */
+    public static SpectraChunkTrackerRegistry global() {
+        return Global.registry;
+    }
+
+    private final Map<UUID, SpectraChunkTracker> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Minimum interval between queries for chunks ready
+     */
+    private final Duration interval;
+
+    public SpectraChunkTrackerRegistry(final Duration interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * @param master Object list returned when creating job
+     * @return Tracker for new job
+     */
+    public SpectraChunkTracker create(final MasterObjectList master) {
+        return this.get(master.getJobId()).withTotal(master);
+    }
+
+    /**
+     * @param job Bulk job identifier
+     * @return Tracker for job created when missing such as for job resumed from previous transfer
+     */
+    public SpectraChunkTracker get(final UUID job) {
+        return jobs.computeIfAbsent(job, id -> new SpectraChunkTracker(id, interval));
+    }
+
+    /**
+     * @param job Bulk job identifier
+     * @return Tracker for job or null if not active
+     */
+    public SpectraChunkTracker find(final UUID job) {
+        return jobs.get(job);
+    }
+
+    public void remove(final UUID job) {
+        jobs.remove(job);
+    }
+
+    /**
+     * @return Number of active jobs
+     */
+    public int size() {
+        return jobs.size();
+    }
+}
@@ -0,0 +1,145 @@
+package ch.cyberduck.core.spectra;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.spectralogic.ds3client.models.MasterObjectList;
+import com.spectralogic.ds3client.models.Objects;
+
+import static org.junit.Assert.*;
+
+public class SpectraChunkTrackerTest {
+
+    private static MasterObjectList list(final Objects... chunks) {
+        final MasterObjectList master = new MasterObjectList();
+        master.setObjects(Arrays.asList(chunks));
+        return master;
+    }
+
+    private static Objects chunk() {
+        final Objects chunk = new Objects();
+        chunk.setChunkId(UUID.randomUUID());
+        chunk.setObjects(Collections.emptyList());
+        return chunk;
+    }
+
+    @Test
+    public void testPollShared() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final SpectraChunkTracker tracker = new SpectraChunkTracker(UUID.randomUUID(), Duration.ofSeconds(5L), clock::get)
+            .withTotal(list(chunk(), chunk()));
+        final AtomicInteger requests = new AtomicInteger();
+        final MasterObjectList ready = list(chunk());
+        final SpectraChunkTracker.Query query = job -> {
+            requests.incrementAndGet();
+            return ready;
+        };
+        assertSame(ready, tracker.poll(query));
+        // Reuse result for other files within interval
+        assertSame(ready, tracker.poll(query));
+        assertEquals(1, requests.get());
+        assertEquals(1, tracker.getReady());
+        assertEquals(2, tracker.getTotal());
+        assertEquals(Duration.ofSeconds(5L), tracker.getDelay());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5L));
+        tracker.poll(query);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testRetryLater() throws Exception {
+        final AtomicLong clock = new AtomicLong();
+        final SpectraChunkTracker tracker = new SpectraChunkTracker(UUID.randomUUID(), Duration.ofSeconds(5L), clock::get);
+        final AtomicInteger requests = new AtomicInteger();
+        final SpectraChunkTracker.Query query = job -> {
+            requests.incrementAndGet();
+            throw new SpectraChunkTracker.RetryLater(Duration.ofSeconds(30L));
+        };
+        assertNull(tracker.poll(query));
+        assertEquals(Duration.ofSeconds(30L), tracker.getDelay());
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10L));
+        assertNull(tracker.poll(query));
+        assertEquals(1, requests.get());
+        assertEquals(Duration.ofSeconds(20L), tracker.getDelay());
+    }
+
+    @Test
+    public void testPollWithoutLockDuringQuery() throws Exception {
+        final SpectraChunkTracker tracker = new SpectraChunkTracker(UUID.randomUUID(), Duration.ofSeconds(5L));
+        final AtomicInteger requests = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final MasterObjectList ready = list(chunk());
+        final SpectraChunkTracker.Query query = job -> {
+            requests.incrementAndGet();
+            entered.countDown();
+            try {
+                proceed.await();
+            }
+            catch(InterruptedException e) {
+                throw new IOException(e);
+            }
+            return ready;
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<MasterObjectList> running = executor.submit(() -> tracker.poll(query));
+            entered.await();
+            // Not blocked by query in progress
+            assertNull(tracker.poll(query));
+            assertEquals(1, tracker.getQueries());
+            proceed.countDown();
+            assertSame(ready, running.get());
+            assertSame(ready, tracker.poll(query));
+            assertEquals(1, requests.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRegistry() {
+        final SpectraChunkTrackerRegistry registry = new SpectraChunkTrackerRegistry(Duration.ofSeconds(5L));
+        final MasterObjectList master = list(chunk(), chunk());
+        master.setJobId(UUID.randomUUID());
+        assertNull(registry.find(master.getJobId()));
+        // No tracker created when querying progress
+        assertEquals(0, registry.size());
+        final SpectraChunkTracker tracker = registry.create(master);
+        assertEquals(2, tracker.getTotal());
+        // Shared for all sessions of transfer
+        assertSame(tracker, registry.get(master.getJobId()));
+        assertSame(tracker, registry.find(master.getJobId()));
+        registry.remove(master.getJobId());
+        assertNull(registry.find(master.getJobId()));
+        assertEquals(0, registry.size());
+    }
+}
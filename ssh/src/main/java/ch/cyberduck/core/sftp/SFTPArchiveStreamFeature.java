@@ -0,0 +1,279 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DefaultIOExceptionMappingService;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.InteroperabilityException;
+import ch.cyberduck.core.features.ArchiveStream;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.StreamGobbler;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.io.ThrottledOutputStream;
+import ch.cyberduck.core.local.DefaultLocalDirectoryFeature;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import net.schmizz.sshj.connection.channel.direct.Session;
+
+/**
+ * Transfer small files with a single <code>tar</code> process on the server instead of opening a SFTP handle
+ * for every file. Requires <code>tar</code> in the path of the remote shell. Entries are marked complete as
+ * they are extracted for downloads and when the remote <code>tar</code> exits successfully for uploads.
+ */
+public class SFTPArchiveStreamFeature implements ArchiveStream {
+    private static final Logger log = Logger.getLogger(SFTPArchiveStreamFeature.class);
+
+    private final Preferences preferences = PreferencesFactory.get();
+
+    private final SFTPSession session;
+    private final int threshold;
+    private final long max;
+
+    public SFTPArchiveStreamFeature(final SFTPSession session) {
+        this(session, PreferencesFactory.get().getInteger("sftp.archive.threshold"),
+            PreferencesFactory.get().getLong("sftp.archive.size.max"));
+    }
+
+    public SFTPArchiveStreamFeature(final SFTPSession session, final int threshold, final long max) {
+        this.session = session;
+        this.threshold = threshold;
+        this.max = max;
+    }
+
+    @Override
+    public void download(final Map<TransferItem, TransferStatus> files, final BandwidthThrottle throttle, final StreamListener listener) throws BackgroundException {
+        final Map<String, Map.Entry<TransferItem, TransferStatus>> entries = this.filter(files);
+        if(entries.isEmpty()) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Download %d files in archive stream", entries.size()));
+        }
+        final Charset charset = Charset.forName(session.getHost().getEncoding());
+        final ThreadPool pool = ThreadPoolFactory.get("archive", 1);
+        try {
+            final Session sess = session.getClient().startSession();
+            try {
+                final Session.Command exec = sess.exec("tar -c -f - -C / -T -");
+                final StreamGobbler stderr = new StreamGobbler(exec.getErrorStream());
+                // Write file list concurrently to not block on output of tar
+                final Future<Void> list = pool.execute(() -> {
+                    try (Writer writer = new OutputStreamWriter(exec.getOutputStream(), charset)) {
+                        for(String name : entries.keySet()) {
+                            writer.write(name);
+                            writer.write('\n');
+                        }
+                    }
+                    return null;
+                });
+                final byte[] buffer = new byte[preferences.getInteger("connection.chunksize")];
+                try (TarArchiveInputStream in = new TarArchiveInputStream(
+                    new ThrottledInputStream(exec.getInputStream(), throttle), charset.name())) {
+                    TarArchiveEntry entry;
+                    while((entry = in.getNextTarEntry()) != null) {
+                        final Map.Entry<TransferItem, TransferStatus> item = entries.get(StringUtils.removeStart(entry.getName(), Path.DELIMITER));
+                        if(null == item || !entry.isFile()) {
+                            log.warn(String.format("Skip unexpected archive entry %s", entry.getName()));
+                            continue;
+                        }
+                        final TransferStatus status = item.getValue();
+                        if(status.isCanceled()) {
+                            throw new ConnectionCanceledException();
+                        }
+                        final Local local = item.getKey().local;
+                        final Local folder = local.getParent();
+                        if(!folder.exists()) {
+                            new DefaultLocalDirectoryFeature().mkdir(folder);
+                        }
+                        try (OutputStream out = local.getOutputStream(false)) {
+                            int n;
+                            while((n = in.read(buffer)) != -1) {
+                                out.write(buffer, 0, n);
+                                listener.recv(n);
+                            }
+                        }
+                        status.setComplete();
+                    }
+                }
+                list.get();
+                exec.join();
+                if(exec.getExitStatus() != null && exec.getExitStatus() != 0) {
+                    log.warn(String.format("Archive stream returned exit status %d. %s", exec.getExitStatus(),
+                        IOUtils.toString(stderr, charset)));
+                }
+            }
+            finally {
+                sess.close();
+            }
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map(e);
+        }
+        catch(InterruptedException e) {
+            throw new ConnectionCanceledException(e);
+        }
+        catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw new SFTPExceptionMappingService().map((IOException) e.getCause());
+            }
+            throw new BackgroundException(e.getCause());
+        }
+        finally {
+            pool.shutdown(false);
+        }
+    }
+
+    @Override
+    public void upload(final Map<TransferItem, TransferStatus> files, final BandwidthThrottle throttle, final StreamListener listener) throws BackgroundException {
+        final Map<String, Map.Entry<TransferItem, TransferStatus>> entries = this.filter(files);
+        if(entries.isEmpty()) {
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Upload %d files in archive stream", entries.size()));
+        }
+        final Charset charset = Charset.forName(session.getHost().getEncoding());
+        try {
+            final Session sess = session.getClient().startSession();
+            try {
+                final Session.Command exec = sess.exec("tar -x -f - -C /");
+                final StreamGobbler stdout = new StreamGobbler(exec.getInputStream());
+                final StreamGobbler stderr = new StreamGobbler(exec.getErrorStream());
+                final byte[] buffer = new byte[preferences.getInteger("connection.chunksize")];
+                try (TarArchiveOutputStream out = new TarArchiveOutputStream(
+                    new ThrottledOutputStream(exec.getOutputStream(), throttle), charset.name())) {
+                    out.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+                    out.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+                    for(Map.Entry<String, Map.Entry<TransferItem, TransferStatus>> entry : entries.entrySet()) {
+                        final Local local = entry.getValue().getKey().local;
+                        final TransferStatus status = entry.getValue().getValue();
+                        if(status.isCanceled()) {
+                            throw new ConnectionCanceledException();
+                        }
+                        final TarArchiveEntry header = new TarArchiveEntry(entry.getKey());
+                        header.setSize(status.getLength());
+                        if(local.attributes().getModificationDate() > 0) {
+                            header.setModTime(local.attributes().getModificationDate());
+                        }
+                        out.putArchiveEntry(header);
+                        try (InputStream in = local.getInputStream()) {
+                            long remaining = status.getLength();
+                            while(remaining > 0) {
+                                final int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                                if(n == -1) {
+                                    throw new IOException(String.format("Unexpected end of file %s", local));
+                                }
+                                out.write(buffer, 0, n);
+                                listener.sent(n);
+                                remaining -= n;
+                            }
+                        }
+                        out.closeArchiveEntry();
+                    }
+                    out.finish();
+                }
+                exec.join();
+                IOUtils.closeQuietly(stdout);
+                if(exec.getExitStatus() == null || exec.getExitStatus() != 0) {
+                    throw new InteroperabilityException(StringUtils.trim(IOUtils.toString(stderr, charset)));
+                }
+            }
+            finally {
+                sess.close();
+            }
+        }
+        catch(IOException e) {
+            throw new DefaultIOExceptionMappingService().map(e);
+        }
+        // Directories created by tar
+        final Map<String, TransferStatus> directories = new HashMap<>();
+        for(Map.Entry<TransferItem, TransferStatus> entry : files.entrySet()) {
+            if(entry.getKey().remote.isDirectory()) {
+                directories.put(entry.getKey().remote.getAbsolute(), entry.getValue());
+            }
+        }
+        for(Map.Entry<TransferItem, TransferStatus> entry : entries.values()) {
+            entry.getValue().setComplete();
+            for(Path parent = entry.getKey().remote.getParent(); !parent.isRoot(); parent = parent.getParent()) {
+                final TransferStatus status = directories.get(parent.getAbsolute());
+                if(null == status) {
+                    break;
+                }
+                status.setExists(true);
+            }
+        }
+    }
+
+    /**
+     * @return Files to include in archive by entry name or empty if below threshold
+     */
+    protected Map<String, Map.Entry<TransferItem, TransferStatus>> filter(final Map<TransferItem, TransferStatus> files) {
+        final Map<String, Map.Entry<TransferItem, TransferStatus>> entries = new LinkedHashMap<>();
+        for(Map.Entry<TransferItem, TransferStatus> entry : files.entrySet()) {
+            final Path file = entry.getKey().remote;
+            final TransferStatus status = entry.getValue();
+            if(!file.isFile() || file.isSymbolicLink()) {
+                continue;
+            }
+            if(status.isComplete() || status.isAppend() || status.isSegmented() || status.getLength() > max) {
+                continue;
+            }
+            if(status.getRenameRemote() != null || status.getRenameLocal() != null) {
+                continue;
+            }
+            final String name = StringUtils.removeStart(file.getAbsolute(), Path.DELIMITER);
+            if(StringUtils.isEmpty(name) || StringUtils.startsWith(name, "-") || StringUtils.containsAny(name, '\n', '\r')) {
+                continue;
+            }
+            entries.put(name, entry);
+        }
+        if(entries.size() < threshold) {
+            if(log.isDebugEnabled()) {
+                log.debug(String.format("Skip archive stream for %d files below threshold", entries.size()));
+            }
+            return new LinkedHashMap<>();
+        }
+        return entries;
+    }
+}
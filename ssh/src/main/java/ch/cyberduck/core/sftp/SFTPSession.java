@@ -306,21 +306,26 @@ public class SFTPSession extends Session<SSHClient> {
             throw lastFailure;
         }
         try {
-            sftp = new SFTPEngine(client, String.valueOf(Path.DELIMITER)) {
-                @Override
-                public Promise<Response, SFTPException> request(final Request req) throws IOException {
-                    log(Type.request, String.format("%d %s", req.getRequestID(), req.getType()));
-                    return super.request(req);
-                }
-            }.init();
-            final int timeout = preferences.getInteger("connection.timeout.seconds") * 1000;
-            sftp.setTimeoutMs(timeout);
+            sftp = this.engine();
         }
         catch(IOException e) {
             throw new SFTPExceptionMappingService().map(e);
         }
     }
 
+    private SFTPEngine engine() throws IOException {
+        final SFTPEngine engine = new SFTPEngine(client, String.valueOf(Path.DELIMITER)) {
+            @Override
+            public Promise<Response, SFTPException> request(final Request req) throws IOException {
+                log(Type.request, String.format("%d %s", req.getRequestID(), req.getType()));
+                return super.request(req);
+            }
+        }.init();
+        final int timeout = preferences.getInteger("connection.timeout.seconds") * 1000;
+        engine.setTimeoutMs(timeout);
+        return engine;
+    }
+
     public SFTPEngine sftp() throws LoginCanceledException {
         if(null == sftp) {
             throw new LoginCanceledException();
@@ -328,6 +333,38 @@ public class SFTPSession extends Session<SSHClient> {
         return sftp;
     }
 
+    /**
+     * Open additional SFTP subsystem channel on the connection with its own flow control window
+     *
+     * @return Engine to close after use
+     */
+    public SFTPEngine channel() throws BackgroundException {
+        if(null == sftp) {
+            throw new LoginCanceledException();
+        }
+        try {
+            return this.engine();
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map(e);
+        }
+    }
+
+    @Override
+    public boolean alive() throws BackgroundException {
+        if(!this.isConnected() || null == sftp) {
+            return false;
+        }
+        try {
+            // Round trip with reply from server
+            sftp.canonicalize(".");
+            return true;
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map(e);
+        }
+    }
+
     @Override
     protected void logout() throws BackgroundException {
         try {
@@ -370,6 +407,12 @@ public class SFTPSession extends Session<SSHClient> {
         if(type == Write.class) {
             return (T) new SFTPWriteFeature(this);
         }
+        if(type == Download.class) {
+            return (T) new SFTPStripedDownloadFeature(this, new SFTPReadFeature(this));
+        }
+        if(type == Upload.class) {
+            return (T) new SFTPStripedUploadFeature(this, new SFTPWriteFeature(this));
+        }
         if(type == Directory.class) {
             return (T) new SFTPDirectoryFeature(this);
         }
@@ -406,6 +449,12 @@ public class SFTPSession extends Session<SSHClient> {
         if(type == Quota.class) {
             return (T) new SFTPQuotaFeature(this);
         }
+        if(type == ArchiveStream.class) {
+            if(preferences.getBoolean("sftp.archive.enable")) {
+                return (T) new SFTPArchiveStreamFeature(this);
+            }
+            return null;
+        }
         return super._getFeature(type);
     }
 
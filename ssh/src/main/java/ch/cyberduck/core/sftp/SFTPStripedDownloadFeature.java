@@ -0,0 +1,193 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.PasswordCallback;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.features.Download;
+import ch.cyberduck.core.features.Read;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.IOResumeException;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledInputStream;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultDownloadFeature;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.schmizz.sshj.sftp.OpenMode;
+
+/**
+ * Download large files in ranges read concurrently on multiple SFTP channels and written at their offset in the
+ * local file. Smaller files are downloaded in a single stream.
+ */
+public class SFTPStripedDownloadFeature implements Download {
+    private static final Logger log = Logger.getLogger(SFTPStripedDownloadFeature.class);
+
+    private final SFTPSession session;
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
+    private final boolean enabled;
+    private final long threshold;
+    private final long size;
+    private final int channels;
+
+    private Read reader;
+
+    public SFTPStripedDownloadFeature(final SFTPSession session, final SFTPReadFeature reader) {
+        this(session, reader, PreferencesFactory.get().getBoolean("sftp.stripe.enable"),
+            PreferencesFactory.get().getLong("sftp.stripe.threshold"), PreferencesFactory.get().getLong("sftp.stripe.size"),
+            PreferencesFactory.get().getInteger("sftp.stripe.channels"));
+    }
+
+    /**
+     * @param threshold Minimum length of file to download in ranges
+     * @param size      Range size
+     * @param channels  Number of channels
+     */
+    public SFTPStripedDownloadFeature(final SFTPSession session, final SFTPReadFeature reader,
+                                      final boolean enabled, final long threshold, final long size, final int channels) {
+        this.session = session;
+        this.reader = reader;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.size = size;
+        this.channels = channels;
+    }
+
+    @Override
+    public void download(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                         final TransferStatus status, final ConnectionCallback connectionCallback, final PasswordCallback passwordCallback) throws BackgroundException {
+        // Reader is replaced when downloading from vault
+        if(!enabled || channels < 2 || !(reader instanceof SFTPReadFeature) || status.getLength() < threshold) {
+            new DefaultDownloadFeature(reader).download(file, local, throttle, listener, status, connectionCallback, passwordCallback);
+            return;
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Download %s in ranges of %d bytes on %d channels", file, size, channels));
+        }
+        final int window = ((SFTPReadFeature) reader).getMaxUnconfirmedReads(new TransferStatus().length(size));
+        final int chunksize = preferences.getInteger("connection.chunksize");
+        final SFTPStripes stripes = new SFTPStripes(status.getOffset(), status.getLength(), size);
+        final AtomicLong transferred = new AtomicLong();
+        final Set<OpenOption> options = new HashSet<>();
+        options.add(StandardOpenOption.CREATE);
+        options.add(StandardOpenOption.WRITE);
+        if(!status.isAppend()) {
+            options.add(StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        final Object lock = this.lock(local);
+        try (FileChannel channel = FileChannel.open(Paths.get(local.getAbsolute()), options)) {
+            try {
+                stripes.transfer(session, file, EnumSet.of(OpenMode.READ), channels, status, (handle, offset, length) -> {
+                    final byte[] buffer = new byte[chunksize];
+                    try (InputStream in = new ThrottledInputStream(handle.new ReadAheadRemoteFileInputStream(window, offset), throttle)) {
+                        long position = offset;
+                        for(long remaining = length; remaining > 0; ) {
+                            if(status.isCanceled()) {
+                                throw new ConnectionCanceledException();
+                            }
+                            final int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                            if(-1 == read) {
+                                throw new IOResumeException(String.format("Unexpected end of file at offset %d", position));
+                            }
+                            listener.recv(read);
+                            final ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                            while(bytes.hasRemaining()) {
+                                position += channel.write(bytes, position);
+                            }
+                            remaining -= read;
+                            status.progress(read);
+                            listener.sent(read);
+                            transferred.addAndGet(read);
+                        }
+                    }
+                });
+            }
+            catch(BackgroundException e) {
+                // Discard ranges after first incomplete range to resume from file size
+                final long watermark = stripes.getWatermark();
+                if(log.isInfoEnabled()) {
+                    log.info(String.format("Truncate %s to %d bytes complete", local, watermark));
+                }
+                try {
+                    channel.truncate(watermark);
+                }
+                catch(IOException t) {
+                    log.warn(String.format("Failure truncating %s. %s", local, t.getMessage()));
+                }
+                // Discard transferred bytes as with single stream
+                final long discard = transferred.get();
+                status.progress(-discard);
+                listener.sent(-discard);
+                listener.recv(-discard);
+                throw e;
+            }
+            status.setComplete();
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        finally {
+            // Discard attributes cached before writing through file channel
+            local.refresh();
+            local.release(lock);
+        }
+    }
+
+    private Object lock(final Local local) {
+        try {
+            return local.lock(false);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", local, e.getMessage()));
+            return null;
+        }
+    }
+
+    @Override
+    public boolean offset(final Path file) throws BackgroundException {
+        return reader.offset(file);
+    }
+
+    @Override
+    public Download withReader(final Read reader) {
+        this.reader = reader;
+        return this;
+    }
+}
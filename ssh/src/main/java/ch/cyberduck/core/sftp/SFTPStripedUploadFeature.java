@@ -0,0 +1,191 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Cache;
+import ch.cyberduck.core.ConnectionCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.AccessDeniedException;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.exception.LocalAccessDeniedException;
+import ch.cyberduck.core.features.Upload;
+import ch.cyberduck.core.features.Write;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.IOResumeException;
+import ch.cyberduck.core.io.StatusOutputStream;
+import ch.cyberduck.core.io.StreamListener;
+import ch.cyberduck.core.io.ThrottledOutputStream;
+import ch.cyberduck.core.preferences.Preferences;
+import ch.cyberduck.core.preferences.PreferencesFactory;
+import ch.cyberduck.core.shared.DefaultUploadFeature;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.schmizz.sshj.sftp.FileAttributes;
+import net.schmizz.sshj.sftp.OpenMode;
+
+/**
+ * Upload large files in ranges read at their offset from the local file and written concurrently on multiple SFTP
+ * channels. Smaller files are uploaded in a single stream.
+ */
+public class SFTPStripedUploadFeature implements Upload<Void> {
+    private static final Logger log = Logger.getLogger(SFTPStripedUploadFeature.class);
+
+    private final SFTPSession session;
+
+    private final Preferences preferences
+        = PreferencesFactory.get();
+
+    private final boolean enabled;
+    private final long threshold;
+    private final long size;
+    private final int channels;
+
+    private Write<Void> writer;
+
+    public SFTPStripedUploadFeature(final SFTPSession session, final SFTPWriteFeature writer) {
+        this(session, writer, PreferencesFactory.get().getBoolean("sftp.stripe.enable"),
+            PreferencesFactory.get().getLong("sftp.stripe.threshold"), PreferencesFactory.get().getLong("sftp.stripe.size"),
+            PreferencesFactory.get().getInteger("sftp.stripe.channels"));
+    }
+
+    /**
+     * @param threshold Minimum length of file to upload in ranges
+     * @param size      Range size
+     * @param channels  Number of channels
+     */
+    public SFTPStripedUploadFeature(final SFTPSession session, final SFTPWriteFeature writer,
+                                    final boolean enabled, final long threshold, final long size, final int channels) {
+        this.session = session;
+        this.writer = writer;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.size = size;
+        this.channels = channels;
+    }
+
+    @Override
+    public Void upload(final Path file, final Local local, final BandwidthThrottle throttle, final StreamListener listener,
+                       final TransferStatus status, final ConnectionCallback callback) throws BackgroundException {
+        // Writer is replaced when uploading to vault
+        if(!enabled || channels < 2 || !(writer instanceof SFTPWriteFeature) || status.getLength() < threshold) {
+            return new DefaultUploadFeature<Void>(writer).upload(file, local, throttle, listener, status, callback);
+        }
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Upload %s in ranges of %d bytes on %d channels", file, size, channels));
+        }
+        // Create or truncate file with same flags as for single stream
+        final StatusOutputStream<Void> out = writer.write(file, status, callback);
+        try {
+            out.close();
+        }
+        catch(IOException e) {
+            throw new SFTPExceptionMappingService().map("Upload {0} failed", e, file);
+        }
+        final int window = ((SFTPWriteFeature) writer).getMaxUnconfirmedWrites(new TransferStatus().length(size));
+        final int chunksize = preferences.getInteger("connection.chunksize");
+        final SFTPStripes stripes = new SFTPStripes(status.getOffset(), status.getLength(), size);
+        final AtomicLong transferred = new AtomicLong();
+        final Object lock = this.lock(local);
+        try (FileChannel channel = FileChannel.open(Paths.get(local.getAbsolute()), StandardOpenOption.READ)) {
+            stripes.transfer(session, file, EnumSet.of(OpenMode.WRITE), channels, status, (handle, offset, length) -> {
+                final byte[] buffer = new byte[chunksize];
+                try (OutputStream stream = new ThrottledOutputStream(handle.new RemoteFileOutputStream(offset, window), throttle)) {
+                    long position = offset;
+                    for(long remaining = length; remaining > 0; ) {
+                        if(status.isCanceled()) {
+                            throw new ConnectionCanceledException();
+                        }
+                        final int read = channel.read(ByteBuffer.wrap(buffer, 0, (int) Math.min(buffer.length, remaining)), position);
+                        if(-1 == read) {
+                            throw new IOResumeException(String.format("Unexpected end of file at offset %d", position));
+                        }
+                        listener.recv(read);
+                        stream.write(buffer, 0, read);
+                        position += read;
+                        remaining -= read;
+                        status.progress(read);
+                        listener.sent(read);
+                        transferred.addAndGet(read);
+                    }
+                }
+            });
+        }
+        catch(IOException e) {
+            throw new LocalAccessDeniedException(e.getMessage(), e);
+        }
+        catch(BackgroundException e) {
+            // Discard ranges after first incomplete range to resume from file size
+            this.truncate(file, stripes.getWatermark());
+            // Discard transferred bytes as with single stream
+            final long discard = transferred.get();
+            status.progress(-discard);
+            listener.sent(-discard);
+            listener.recv(-discard);
+            throw e;
+        }
+        finally {
+            local.release(lock);
+        }
+        status.setComplete();
+        return null;
+    }
+
+    private void truncate(final Path file, final long watermark) {
+        if(log.isInfoEnabled()) {
+            log.info(String.format("Truncate %s to %d bytes complete", file, watermark));
+        }
+        try {
+            session.sftp().setAttributes(file.getAbsolute(), new FileAttributes.Builder().withSize(watermark).build());
+        }
+        catch(IOException | BackgroundException e) {
+            log.warn(String.format("Failure truncating %s. %s", file, e.getMessage()));
+        }
+    }
+
+    private Object lock(final Local local) {
+        try {
+            return local.lock(false);
+        }
+        catch(AccessDeniedException e) {
+            log.warn(String.format("Failure obtaining lock for %s. %s", local, e.getMessage()));
+            return null;
+        }
+    }
+
+    @Override
+    public Write.Append append(final Path file, final Long length, final Cache<Path> cache) throws BackgroundException {
+        return writer.append(file, length, cache);
+    }
+
+    @Override
+    public Upload<Void> withWriter(final Write<Void> writer) {
+        this.writer = writer;
+        return this;
+    }
+}
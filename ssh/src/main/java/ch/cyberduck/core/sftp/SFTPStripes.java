@@ -0,0 +1,238 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.exception.BackgroundException;
+import ch.cyberduck.core.exception.ConnectionCanceledException;
+import ch.cyberduck.core.threading.ThreadPool;
+import ch.cyberduck.core.threading.ThreadPoolFactory;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.apache.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import net.schmizz.sshj.sftp.OpenMode;
+import net.schmizz.sshj.sftp.RemoteFile;
+import net.schmizz.sshj.sftp.SFTPEngine;
+
+/**
+ * Ranges of a file transferred concurrently with a separate handle on multiple SFTP channels. Keeps the offset up to
+ * which all ranges are complete to resume after a failure.
+ */
+public class SFTPStripes {
+    private static final Logger log = Logger.getLogger(SFTPStripes.class);
+
+    public interface Stripe {
+        /**
+         * @param handle Open file on channel of current thread
+         * @param offset Offset in file
+         * @param length Number of bytes to transfer
+         */
+        void transfer(RemoteFile handle, long offset, long length) throws IOException, BackgroundException;
+    }
+
+    private final long end;
+    /**
+     * Range size
+     */
+    private final long size;
+
+    /**
+     * Start of next range not yet handed out
+     */
+    private long next;
+    /**
+     * All ranges before are complete
+     */
+    private long watermark;
+    /**
+     * Ranges complete after watermark by start offset
+     */
+    private final Map<Long, Long> completed = new HashMap<>();
+
+    /**
+     * @param offset Start of first range
+     * @param length Number of bytes
+     * @param size   Range size
+     */
+    public SFTPStripes(final long offset, final long length, final long size) {
+        this.end = offset + length;
+        this.size = size;
+        this.next = offset;
+        this.watermark = offset;
+    }
+
+    /**
+     * @return Start of next range or -1 if all ranges are handed out
+     */
+    public synchronized long next() {
+        if(next >= end) {
+            return -1L;
+        }
+        final long offset = next;
+        next = Math.min(end, next + size);
+        return offset;
+    }
+
+    /**
+     * @param offset Start of range
+     * @return Length of range
+     */
+    public long length(final long offset) {
+        return Math.min(size, end - offset);
+    }
+
+    /**
+     * @param offset Start of range transferred
+     */
+    public synchronized void complete(final long offset) {
+        completed.put(offset, offset + this.length(offset));
+        for(Long following = completed.remove(watermark); following != null; following = completed.remove(watermark)) {
+            watermark = following;
+        }
+    }
+
+    /**
+     * Stop handing out ranges
+     */
+    public synchronized void cancel() {
+        next = end;
+    }
+
+    /**
+     * @return Offset up to which all ranges are complete
+     */
+    public synchronized long getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Transfer all ranges with a separate handle on each channel. The first channel is the connection of the session
+     * and additional channels that cannot be opened are skipped.
+     *
+     * @param session  Connection
+     * @param file     Remote file
+     * @param flags    Open mode
+     * @param channels Number of channels
+     * @param status   Transfer status to check for cancel
+     * @param stripe   Transfer range
+     * @throws BackgroundException First failure transferring a range after any other running range is complete
+     */
+    public void transfer(final SFTPSession session, final Path file, final EnumSet<OpenMode> flags, final int channels,
+                         final TransferStatus status, final Stripe stripe) throws BackgroundException {
+        final ThreadPool pool = ThreadPoolFactory.get("stripe", channels);
+        try {
+            final List<Future<Void>> workers = new ArrayList<>(channels);
+            for(int i = 0; i < channels; i++) {
+                final boolean shared = i == 0;
+                workers.add(pool.execute(() -> {
+                    final SFTPEngine engine;
+                    if(shared) {
+                        engine = session.sftp();
+                    }
+                    else {
+                        try {
+                            engine = session.channel();
+                        }
+                        catch(BackgroundException e) {
+                            log.warn(String.format("Failure opening additional channel for %s. %s", file, e.getDetail()));
+                            return null;
+                        }
+                    }
+                    try {
+                        final RemoteFile handle = engine.open(file.getAbsolute(), flags);
+                        try {
+                            for(long offset = this.next(); offset != -1L; offset = this.next()) {
+                                if(status.isCanceled()) {
+                                    throw new ConnectionCanceledException();
+                                }
+                                stripe.transfer(handle, offset, this.length(offset));
+                                this.complete(offset);
+                            }
+                        }
+                        finally {
+                            handle.close();
+                        }
+                    }
+                    catch(IOException e) {
+                        this.cancel();
+                        throw new SFTPExceptionMappingService().map("Transfer {0} failed", e, file);
+                    }
+                    catch(BackgroundException e) {
+                        this.cancel();
+                        throw e;
+                    }
+                    finally {
+                        if(!shared) {
+                            try {
+                                engine.close();
+                            }
+                            catch(IOException e) {
+                                log.warn(String.format("Failure closing channel for %s. %s", file, e.getMessage()));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            BackgroundException failure = null;
+            for(Future<Void> worker : workers) {
+                try {
+                    worker.get();
+                }
+                catch(ExecutionException e) {
+                    if(null == failure) {
+                        if(e.getCause() instanceof BackgroundException) {
+                            failure = (BackgroundException) e.getCause();
+                        }
+                        else {
+                            failure = new BackgroundException(e.getCause());
+                        }
+                    }
+                }
+            }
+            if(null != failure) {
+                throw failure;
+            }
+        }
+        catch(InterruptedException e) {
+            this.cancel();
+            throw new ConnectionCanceledException(e);
+        }
+        finally {
+            pool.shutdown(true);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SFTPStripes{");
+        sb.append("end=").append(end);
+        sb.append(", size=").append(size);
+        sb.append(", watermark=").append(watermark);
+        sb.append('}');
+        return sb.toString();
+    }
+}
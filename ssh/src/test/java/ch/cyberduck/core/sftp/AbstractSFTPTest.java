@@ -81,9 +81,18 @@ public class AbstractSFTPTest {
         final Local directory = LocalFactory.get(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
         directory.mkdir();
         sshServer.setFileSystemFactory(new VirtualFileSystemFactory(Paths.get(directory.getAbsolute())));
+        this.configure(sshServer, directory);
         sshServer.start();
     }
 
+    /**
+     * @param server    Server not yet started
+     * @param directory Root of virtual file system
+     */
+    protected void configure(final SshServer server, final Local directory) {
+        //
+    }
+
 
     @After
     public void stop() throws Exception {
@@ -0,0 +1,62 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.Host;
+import ch.cyberduck.core.NullLocal;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SFTPArchiveStreamFeatureTest {
+
+    @Test
+    public void testFilter() throws Exception {
+        final SFTPArchiveStreamFeature feature = new SFTPArchiveStreamFeature(new SFTPSession(new Host(new SFTPProtocol())), 2, 1024L);
+        final Map<TransferItem, TransferStatus> files = new HashMap<>();
+        final Path directory = new Path("/d", EnumSet.of(Path.Type.directory));
+        files.put(new TransferItem(directory, new NullLocal("d")), new TransferStatus());
+        files.put(new TransferItem(new Path(directory, "a", EnumSet.of(Path.Type.file)), new NullLocal("a")), new TransferStatus().length(1L));
+        files.put(new TransferItem(new Path(directory, "b", EnumSet.of(Path.Type.file)), new NullLocal("b")), new TransferStatus().length(1024L));
+        files.put(new TransferItem(new Path(directory, "large", EnumSet.of(Path.Type.file)), new NullLocal("large")), new TransferStatus().length(1025L));
+        files.put(new TransferItem(new Path(directory, "append", EnumSet.of(Path.Type.file)), new NullLocal("append")), new TransferStatus().append(true));
+        files.put(new TransferItem(new Path(directory, "line\nbreak", EnumSet.of(Path.Type.file)), new NullLocal("c")), new TransferStatus());
+        files.put(new TransferItem(new Path(directory, "link", EnumSet.of(Path.Type.file, Path.Type.symboliclink)), new NullLocal("link")), new TransferStatus());
+        final TransferStatus renamed = new TransferStatus();
+        renamed.rename(new Path(directory, "renamed", EnumSet.of(Path.Type.file)));
+        files.put(new TransferItem(new Path(directory, "r", EnumSet.of(Path.Type.file)), new NullLocal("r")), renamed);
+        final Map<String, Map.Entry<TransferItem, TransferStatus>> entries = feature.filter(files);
+        assertEquals(2, entries.size());
+        assertTrue(entries.containsKey("d/a"));
+        assertTrue(entries.containsKey("d/b"));
+    }
+
+    @Test
+    public void testFilterThreshold() throws Exception {
+        final SFTPArchiveStreamFeature feature = new SFTPArchiveStreamFeature(new SFTPSession(new Host(new SFTPProtocol())), 2, 1024L);
+        final Map<TransferItem, TransferStatus> files = new HashMap<>();
+        files.put(new TransferItem(new Path("/a", EnumSet.of(Path.Type.file)), new NullLocal("a")), new TransferStatus());
+        assertTrue(feature.filter(files).isEmpty());
+    }
+}
@@ -0,0 +1,197 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.transfer.TransferItem;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.sshd.server.Command;
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.SshServer;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class SFTPArchiveStreamFeatureTransferTest extends AbstractSFTPTest {
+
+    @Override
+    protected void configure(final SshServer server, final Local directory) {
+        // Run tar relative to root of virtual file system
+        server.setCommandFactory(command -> new ProcessCommand(
+            Arrays.asList(StringUtils.split(StringUtils.replace(command, "-C /", String.format("-C %s", directory.getAbsolute()))))));
+    }
+
+    @Test
+    public void testUploadDownload() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path directory = new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.directory));
+        final Local source = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        source.mkdir();
+        final Map<Path, byte[]> contents = new LinkedHashMap<>();
+        final Map<TransferItem, TransferStatus> upload = new HashMap<>();
+        upload.put(new TransferItem(directory, source), new TransferStatus());
+        for(int i = 0; i < 5; i++) {
+            final byte[] content = RandomUtils.nextBytes(100 + i);
+            final Path file = new Path(directory, String.format("f-%d", i), EnumSet.of(Path.Type.file));
+            final Local local = new Local(source, file.getName());
+            try (OutputStream out = local.getOutputStream(false)) {
+                IOUtils.write(content, out);
+            }
+            contents.put(file, content);
+            upload.put(new TransferItem(file, local), new TransferStatus().length(content.length));
+        }
+        final SFTPArchiveStreamFeature feature = new SFTPArchiveStreamFeature(session, 2, 1024L);
+        feature.upload(upload, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener());
+        for(Map.Entry<TransferItem, TransferStatus> entry : upload.entrySet()) {
+            if(entry.getKey().remote.isFile()) {
+                assertTrue(entry.getValue().isComplete());
+                assertEquals(contents.get(entry.getKey().remote).length, new SFTPAttributesFinderFeature(session).find(entry.getKey().remote).getSize());
+            }
+            else {
+                assertTrue(entry.getValue().isExists());
+            }
+        }
+        final Local target = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        final Map<TransferItem, TransferStatus> download = new HashMap<>();
+        for(Map.Entry<Path, byte[]> entry : contents.entrySet()) {
+            download.put(new TransferItem(entry.getKey(), new Local(target, entry.getKey().getName())), new TransferStatus().length(entry.getValue().length));
+        }
+        feature.download(download, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener());
+        for(Map.Entry<TransferItem, TransferStatus> entry : download.entrySet()) {
+            assertTrue(entry.getValue().isComplete());
+            try (InputStream in = entry.getKey().local.getInputStream()) {
+                assertArrayEquals(contents.get(entry.getKey().remote), IOUtils.toByteArray(in));
+            }
+        }
+        final List<Path> files = new ArrayList<>(contents.keySet());
+        files.add(directory);
+        new SFTPDeleteFeature(session).delete(files, new DisabledLoginCallback(), new Delete.DisabledCallback());
+        for(Map.Entry<TransferItem, TransferStatus> entry : upload.entrySet()) {
+            if(entry.getKey().remote.isFile()) {
+                entry.getKey().local.delete();
+            }
+        }
+        for(Map.Entry<TransferItem, TransferStatus> entry : download.entrySet()) {
+            entry.getKey().local.delete();
+        }
+        source.delete();
+        target.delete();
+    }
+
+    /**
+     * Run command as local process connecting its streams to the channel
+     */
+    private static final class ProcessCommand implements Command {
+        private final List<String> command;
+
+        private InputStream in;
+        private OutputStream out;
+        private OutputStream err;
+        private ExitCallback callback;
+        private Process process;
+
+        private ProcessCommand(final List<String> command) {
+            this.command = command;
+        }
+
+        @Override
+        public void setInputStream(final InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public void setOutputStream(final OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void setErrorStream(final OutputStream err) {
+            this.err = err;
+        }
+
+        @Override
+        public void setExitCallback(final ExitCallback callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void start(final Environment env) throws IOException {
+            process = new ProcessBuilder(command).start();
+            final Thread stdin = new Thread(() -> {
+                try (OutputStream stream = process.getOutputStream()) {
+                    IOUtils.copy(in, stream);
+                }
+                catch(IOException e) {
+                    // Process exited
+                }
+            });
+            stdin.start();
+            new Thread(() -> {
+                try {
+                    final Thread stderr = new Thread(() -> {
+                        try {
+                            IOUtils.copy(process.getErrorStream(), err);
+                            err.flush();
+                        }
+                        catch(IOException e) {
+                            // Channel closed
+                        }
+                    });
+                    stderr.start();
+                    IOUtils.copy(process.getInputStream(), out);
+                    out.flush();
+                    stderr.join();
+                    callback.onExit(process.waitFor());
+                }
+                catch(IOException | InterruptedException e) {
+                    callback.onExit(1, e.getMessage());
+                }
+            }).start();
+        }
+
+        @Override
+        public void destroy() {
+            if(process != null) {
+                process.destroy();
+            }
+        }
+    }
+}
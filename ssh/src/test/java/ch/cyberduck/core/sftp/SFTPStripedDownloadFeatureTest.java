@@ -0,0 +1,77 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import ch.cyberduck.core.DisabledConnectionCallback;
+import ch.cyberduck.core.DisabledLoginCallback;
+import ch.cyberduck.core.DisabledPasswordCallback;
+import ch.cyberduck.core.Local;
+import ch.cyberduck.core.Path;
+import ch.cyberduck.core.features.Delete;
+import ch.cyberduck.core.io.BandwidthThrottle;
+import ch.cyberduck.core.io.DisabledStreamListener;
+import ch.cyberduck.core.transfer.TransferStatus;
+import ch.cyberduck.test.IntegrationTest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.RandomUtils;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+@Category(IntegrationTest.class)
+public class SFTPStripedDownloadFeatureTest extends AbstractSFTPTest {
+
+    @Test
+    public void testUploadDownload() throws Exception {
+        final Path home = new SFTPHomeDirectoryService(session).find();
+        final Path test = new Path(home, UUID.randomUUID().toString(), EnumSet.of(Path.Type.file));
+        final byte[] content = RandomUtils.nextBytes(1048576 + 1);
+        final Local local = new Local(System.getProperty("java.io.tmpdir"), UUID.randomUUID().toString());
+        try (OutputStream out = local.getOutputStream(false)) {
+            IOUtils.write(content, out);
+        }
+        {
+            final TransferStatus status = new TransferStatus().length(content.length);
+            new SFTPStripedUploadFeature(session, new SFTPWriteFeature(session), true, 0L, 100000L, 3).upload(
+                test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(), status, new DisabledConnectionCallback());
+            assertTrue(status.isComplete());
+            assertEquals(content.length, status.getOffset());
+            assertEquals(content.length, new SFTPAttributesFinderFeature(session).find(test).getSize());
+        }
+        local.delete();
+        {
+            final TransferStatus status = new TransferStatus().length(content.length);
+            new SFTPStripedDownloadFeature(session, new SFTPReadFeature(session), true, 0L, 100000L, 3).download(
+                test, local, new BandwidthThrottle(BandwidthThrottle.UNLIMITED), new DisabledStreamListener(), status,
+                new DisabledConnectionCallback(), new DisabledPasswordCallback());
+            assertTrue(status.isComplete());
+            assertEquals(content.length, local.attributes().getSize());
+            try (InputStream in = local.getInputStream()) {
+                assertArrayEquals(content, IOUtils.toByteArray(in));
+            }
+        }
+        new SFTPDeleteFeature(session).delete(Collections.singletonList(test), new DisabledLoginCallback(), new Delete.DisabledCallback());
+        local.delete();
+    }
+}
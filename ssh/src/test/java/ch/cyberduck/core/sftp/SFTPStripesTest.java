@@ -0,0 +1,58 @@
+package ch.cyberduck.core.sftp;
+
+/*
+ * Copyright (c) 2002-2019 iterate GmbH. All rights reserved.
+ * https://cyberduck.io/
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class SFTPStripesTest {
+
+    @Test
+    public void testNext() {
+        final SFTPStripes stripes = new SFTPStripes(10L, 25L, 10L);
+        assertEquals(10L, stripes.next());
+        assertEquals(10L, stripes.length(10L));
+        assertEquals(20L, stripes.next());
+        assertEquals(30L, stripes.next());
+        assertEquals(5L, stripes.length(30L));
+        assertEquals(-1L, stripes.next());
+    }
+
+    @Test
+    public void testWatermark() {
+        final SFTPStripes stripes = new SFTPStripes(0L, 30L, 10L);
+        stripes.next();
+        stripes.next();
+        stripes.next();
+        stripes.complete(10L);
+        stripes.complete(20L);
+        // First range incomplete
+        assertEquals(0L, stripes.getWatermark());
+        stripes.complete(0L);
+        assertEquals(30L, stripes.getWatermark());
+    }
+
+    @Test
+    public void testCancel() {
+        final SFTPStripes stripes = new SFTPStripes(0L, 30L, 10L);
+        assertEquals(0L, stripes.next());
+        stripes.cancel();
+        assertEquals(-1L, stripes.next());
+        stripes.complete(0L);
+        assertEquals(10L, stripes.getWatermark());
+    }
+}